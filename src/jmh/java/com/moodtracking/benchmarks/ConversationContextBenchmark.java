@@ -0,0 +1,64 @@
+package com.moodtracking.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.models.Conversation;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.ConversationRepository;
+import com.moodtracking.services.ConversationService;
+
+/**
+ * ConversationService.getConversationContext against histories of different lengths.
+ * The stub honours the page size like the database does, so the cost should stay flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversationContextBenchmark {
+
+    @Param({"100", "10000"})
+    public int historySize;
+
+    @Param({"10"})
+    public int messageCount;
+
+    private ConversationService conversationService;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = SyntheticData.user();
+        List<Conversation> history = SyntheticData.conversations(user, historySize, 11L, LocalDateTime.now());
+
+        conversationService = new ConversationService();
+        ReflectionTestUtils.setField(conversationService, "conversationRepository",
+            SyntheticData.repository(ConversationRepository.class, Map.of("findRecentByUser",
+                args -> history.subList(0, Math.min(history.size(), ((Pageable) args[1]).getPageSize())))));
+    }
+
+    @Benchmark
+    public String conversationContext() {
+        return conversationService.getConversationContext(user, messageCount);
+    }
+}
@@ -0,0 +1,166 @@
+package com.moodtracking.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moodtracking.models.Conversation;
+import com.moodtracking.models.User;
+import com.moodtracking.utils.MappedAppendLog;
+
+/**
+ * Conversation messages per second, saved through Hibernate into in-memory H2 migrated
+ * with the application's Flyway scripts:
+ *
+ * perMessage  - one transaction per message, as saveConversation did before the write-behind log
+ * logAppend   - only the append to the memory-mapped log, which is all a request now waits for
+ * logFsync    - the append forced to disk, as with conversations.write-behind.fsync=true
+ * writeBehind - the append, then 500 batched inserts and the checkpoint in one transaction as the flusher does;
+ *               sustained throughput, bounded by whichever side is slower
+ *
+ * In-memory H2 has no commit latency, so perMessage here is far kinder than against MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversationWriteBenchmark {
+
+    private static final int MESSAGES = 500;
+    private static final String URL = "jdbc:h2:mem:conversations;DB_CLOSE_DELAY=-1";
+
+    @Param({"perMessage", "logAppend", "logFsync", "writeBehind"})
+    public String mode;
+
+    private SessionFactory sessionFactory;
+    private Connection connection;
+    private Path directory;
+    private MappedAppendLog log;
+    private String[] messages;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        Flyway flyway = Flyway.configure()
+            .dataSource(URL, "sa", "")
+            .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+            .cleanDisabled(false)
+            .load();
+        flyway.clean();
+        flyway.migrate();
+
+        connection = DriverManager.getConnection(URL, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, username, email, name, password) "
+                + "VALUES (1, 'chatter', 'chatter@example.com', 'Chatter', 'password')");
+            statement.execute("INSERT INTO conversation_log_checkpoints (log_id, last_sequence) VALUES ('benchmark', 0)");
+        }
+
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Conversation.class)
+            .addAnnotatedClass(User.class)
+            .setProperty(AvailableSettings.URL, URL)
+            .setProperty(AvailableSettings.USER, "sa")
+            .setProperty(AvailableSettings.PASS, "")
+            .setProperty(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+            .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+            .buildSessionFactory();
+
+        directory = Files.createTempDirectory("conversation-log");
+        log = MappedAppendLog.open(directory.resolve("conversations-0.log"), 64 * 1024 * 1024);
+
+        // Chat-sized messages, a few of them long
+        messages = new String[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            messages[i] = "Message " + i + " " + "feeling okay today ".repeat(i % 10 == 0 ? 100 : 3);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearConversations() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM conversations");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        sessionFactory.close();
+        connection.close();
+        log.close();
+        Files.deleteIfExists(directory.resolve("conversations-0.log"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void saveMessages() {
+        if ("perMessage".equals(mode)) {
+            for (int i = 0; i < MESSAGES; i++) {
+                try (Session session = sessionFactory.openSession()) {
+                    session.beginTransaction();
+                    session.persist(conversation(session, i));
+                    session.getTransaction().commit();
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < MESSAGES; i++) {
+            byte[] payload = messages[i].getBytes(StandardCharsets.UTF_8);
+            if (log.append(payload) < 0) {
+                log.reset(log.getNextSequence());
+                log.append(payload);
+            }
+            if ("logFsync".equals(mode)) {
+                log.force();
+            }
+        }
+
+        if ("writeBehind".equals(mode)) {
+            try (Session session = sessionFactory.openSession()) {
+                session.beginTransaction();
+                for (int i = 0; i < MESSAGES; i++) {
+                    session.persist(conversation(session, i));
+                }
+                session.createNativeMutationQuery(
+                        "UPDATE conversation_log_checkpoints SET last_sequence = :sequence WHERE log_id = 'benchmark'")
+                    .setParameter("sequence", log.getNextSequence() - 1)
+                    .executeUpdate();
+                session.getTransaction().commit();
+            }
+        }
+    }
+
+    private Conversation conversation(Session session, int i) {
+        return new Conversation(session.getReference(User.class, 1L), messages[i], i % 2 == 0 ? "user" : "bot", "session-1");
+    }
+}
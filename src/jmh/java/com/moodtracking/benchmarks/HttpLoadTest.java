@@ -0,0 +1,155 @@
+package com.moodtracking.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load against a running instance: each of N connections sends its
+ * next request as soon as the previous one answers, for a warmup and then a measured
+ * period. Prints throughput and latency percentiles.
+ *
+ * Compare request execution modes by starting the application twice against the same
+ * database, once as usual and once with --spring.profiles.active=virtual-threads on
+ * Java 21, and running for example:
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.moodtracking.benchmarks.HttpLoadTest \
+ *       -Djmh.args="load.token=... load.connections=5000"
+ *
+ * Settings, as name=value arguments or system properties: load.url (default
+ * http://localhost:8080/api/mood/history/recent, a blocking JDBC read), load.token (a JWT
+ * from /api/auth/login), load.connections (5000), load.warmup-seconds (10) and
+ * load.duration-seconds (30). The client needs at least load.connections open files (ulimit -n).
+ */
+public final class HttpLoadTest {
+
+    private final HttpClient client;
+    private final HttpRequest request;
+    private final LongAdder errors = new LongAdder();
+    private volatile long measureFromNanos;
+    private volatile long measureUntilNanos;
+
+    private HttpLoadTest(HttpRequest request) {
+        this.request = request;
+        // Responses are handled on a small pool; the connections themselves need no threads
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+            .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (arg.startsWith("load.") && separator > 0) {
+                System.setProperty(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        String url = System.getProperty("load.url", "http://localhost:8080/api/mood/history/recent");
+        String token = System.getProperty("load.token");
+        int connections = Integer.getInteger("load.connections", 5000);
+        int warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+        int durationSeconds = Integer.getInteger("load.duration-seconds", 30);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpLoadTest loadTest = new HttpLoadTest(builder.build());
+
+        System.out.printf("%s with %d connections: %ds warmup, %ds measured%n", url, connections, warmupSeconds,
+            durationSeconds);
+        long start = System.nanoTime();
+        loadTest.measureFromNanos = start + warmupSeconds * 1_000_000_000L;
+        loadTest.measureUntilNanos = loadTest.measureFromNanos + durationSeconds * 1_000_000_000L;
+
+        List<Connection> all = new ArrayList<>(connections);
+        CompletableFuture<?>[] done = new CompletableFuture<?>[connections];
+        for (int i = 0; i < connections; i++) {
+            Connection connection = loadTest.new Connection();
+            all.add(connection);
+            done[i] = connection.start();
+        }
+        CompletableFuture.allOf(done).join();
+
+        loadTest.report(all, durationSeconds);
+        System.exit(0);
+    }
+
+    private void report(List<Connection> connections, int durationSeconds) {
+        int count = 0;
+        for (Connection connection : connections) {
+            count += connection.count;
+        }
+        long[] latencies = new long[count];
+        int position = 0;
+        for (Connection connection : connections) {
+            System.arraycopy(connection.latencies, 0, latencies, position, connection.count);
+            position += connection.count;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("requests  %d (%d errors)%n", count, errors.sum());
+        System.out.printf("throughput %.1f req/s%n", count / (double) durationSeconds);
+        if (count > 0) {
+            System.out.printf("latency ms  p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies[count - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * One client connection's request loop and the latencies it measured
+     */
+    private final class Connection {
+        private long[] latencies = new long[256];
+        private int count;
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        CompletableFuture<Void> start() {
+            send();
+            return done;
+        }
+
+        private void send() {
+            long sentAt = System.nanoTime();
+            if (sentAt >= measureUntilNanos) {
+                done.complete(null);
+                return;
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    if (sentAt >= measureFromNanos) {
+                        if (failure != null || response.statusCode() >= 400) {
+                            errors.increment();
+                        } else {
+                            record(System.nanoTime() - sentAt);
+                        }
+                    }
+                    send();
+                });
+        }
+
+        private void record(long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+    }
+}
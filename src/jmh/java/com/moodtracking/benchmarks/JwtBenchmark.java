@@ -0,0 +1,82 @@
+package com.moodtracking.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.utils.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Per-request JWT work: the single-parse claims lookup AuthTokenFilter uses,
+ * and the older validate-then-read-username pair. The contended variant has
+ * request threads share the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    // Same values as application.properties
+    private static final String JWT_SECRET = "mySecretKey12345678901234567890123456789012345678901234567890";
+    private static final int JWT_EXPIRATION_MS = 86400000;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", JWT_EXPIRATION_MS);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCacheSize", 10000);
+        jwtUtil.init();
+
+        User principal = new User("benchuser", "password", Collections.emptyList());
+        token = jwtUtil.generateJwtToken(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public Claims validatedClaims() {
+        return jwtUtil.getValidatedClaims(token).orElseThrow();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Claims validatedClaimsContended() {
+        return jwtUtil.getValidatedClaims(token).orElseThrow();
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtil.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String validateAndGetUserName() {
+        if (!jwtUtil.validateJwtToken(token)) {
+            throw new IllegalStateException("Benchmark token rejected");
+        }
+        return jwtUtil.getUserNameFromJwtToken(token);
+    }
+}
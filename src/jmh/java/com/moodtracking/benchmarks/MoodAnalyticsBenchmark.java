@@ -0,0 +1,140 @@
+package com.moodtracking.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.dto.MoodAnalyticsResponse;
+import com.moodtracking.dto.MoodResponse;
+import com.moodtracking.models.MoodDailyRollup;
+import com.moodtracking.models.MoodRollup;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.MoodDailyRollupRepository;
+import com.moodtracking.repositories.MoodRepository;
+import com.moodtracking.repositories.MoodRollupRepository;
+import com.moodtracking.services.MoodAnalyticsService;
+import com.moodtracking.services.MoodRollupService;
+import com.moodtracking.services.MoodService;
+
+/**
+ * MoodAnalyticsService.generateMoodAnalytics over a year of synthetic moods.
+ * The all-time variant reads a rollup built from the same moods; the windowed
+ * variant analyzes the raw history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MoodAnalyticsBenchmark {
+
+    private static final int SPAN_DAYS = 365;
+
+    @Param({"100", "10000", "1000000"})
+    public int moodCount;
+
+    private MoodAnalyticsService moodAnalyticsService;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = SyntheticData.user();
+        List<MoodResponse> moods = SyntheticData.moods(moodCount, SPAN_DAYS, 42L, LocalDateTime.now());
+
+        moodAnalyticsService = new MoodAnalyticsService();
+        ReflectionTestUtils.setField(moodAnalyticsService, "moodService", new FixedHistoryMoodService(moods));
+        ReflectionTestUtils.setField(moodAnalyticsService, "moodRollupService", buildRollupService(moods));
+    }
+
+    /**
+     * Run the real rebuild against stub repositories, then serve its result from memory
+     */
+    @SuppressWarnings("unchecked")
+    private MoodRollupService buildRollupService(List<MoodResponse> moods) {
+        List<Object[]> timeline = SyntheticData.timeline(moods);
+        List<MoodDailyRollup> savedDays = new ArrayList<>();
+
+        MoodRollupService builder = new MoodRollupService();
+        ReflectionTestUtils.setField(builder, "moodRepository", SyntheticData.repository(MoodRepository.class,
+            Map.of("findMoodTimelineByUser", args -> timeline)));
+        ReflectionTestUtils.setField(builder, "moodRollupRepository", SyntheticData.repository(MoodRollupRepository.class,
+            Map.of("findByUserForUpdate", args -> Optional.empty(), "save", args -> args[0])));
+        ReflectionTestUtils.setField(builder, "moodDailyRollupRepository", SyntheticData.repository(MoodDailyRollupRepository.class,
+            Map.of("deleteAllByUser", args -> null, "saveAll", args -> {
+                savedDays.addAll((List<MoodDailyRollup>) args[0]);
+                return args[0];
+            })));
+
+        MoodRollup rollup = builder.rebuildRollup(user);
+        TreeMap<LocalDate, MoodDailyRollup> days = new TreeMap<>();
+        for (MoodDailyRollup day : savedDays) {
+            days.put(day.getRollupDate(), day);
+        }
+        return new FixedRollupService(rollup, days);
+    }
+
+    @Benchmark
+    public MoodAnalyticsResponse allTime() {
+        return moodAnalyticsService.generateMoodAnalytics(user);
+    }
+
+    @Benchmark
+    public MoodAnalyticsResponse windowed() {
+        return moodAnalyticsService.generateMoodAnalytics(user, SPAN_DAYS);
+    }
+
+    static final class FixedHistoryMoodService extends MoodService {
+
+        private final List<MoodResponse> moods;
+
+        FixedHistoryMoodService(List<MoodResponse> moods) {
+            this.moods = moods;
+        }
+
+        @Override
+        public List<MoodResponse> getMoodHistoryInDateRange(User user, LocalDateTime startDate, LocalDateTime endDate) {
+            return moods;
+        }
+    }
+
+    static final class FixedRollupService extends MoodRollupService {
+
+        private final MoodRollup rollup;
+        private final TreeMap<LocalDate, MoodDailyRollup> days;
+
+        FixedRollupService(MoodRollup rollup, TreeMap<LocalDate, MoodDailyRollup> days) {
+            this.rollup = rollup;
+            this.days = days;
+        }
+
+        @Override
+        public MoodRollup getRollup(User user) {
+            return rollup;
+        }
+
+        @Override
+        public Map<LocalDate, MoodDailyRollup> getDailyRollups(User user, LocalDate startDate, LocalDate endDate) {
+            return new TreeMap<>(days.subMap(startDate, true, endDate, true));
+        }
+    }
+}
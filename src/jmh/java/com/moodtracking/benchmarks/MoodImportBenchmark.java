@@ -0,0 +1,137 @@
+package com.moodtracking.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.Mood.MoodType;
+import com.moodtracking.models.User;
+
+/**
+ * Rows per second when importing moods through Hibernate into in-memory H2, migrated
+ * with the application's Flyway scripts:
+ *
+ * perRequest        - one transaction per mood, as when a client calls /api/mood/add for each
+ * singleTransaction - one transaction, batching off
+ * batched           - one transaction with hibernate.jdbc.batch_size=50, as /api/mood/batch does
+ *
+ * Every mode uses the pooled moods_seq ids, so perRequest slightly flatters the old
+ * IDENTITY mapping it stands in for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoodImportBenchmark {
+
+    private static final int ROWS = 500;
+    private static final String URL = "jdbc:h2:mem:imports;DB_CLOSE_DELAY=-1";
+
+    @Param({"perRequest", "singleTransaction", "batched"})
+    public String mode;
+
+    private SessionFactory sessionFactory;
+    private Connection connection;
+    private MoodType[] moodTypes;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Flyway flyway = Flyway.configure()
+            .dataSource(URL, "sa", "")
+            .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+            .cleanDisabled(false)
+            .load();
+        flyway.clean();
+        flyway.migrate();
+
+        connection = DriverManager.getConnection(URL, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, username, email, name, password) "
+                + "VALUES (1, 'importer', 'importer@example.com', 'Importer', 'password')");
+        }
+
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Mood.class)
+            .addAnnotatedClass(User.class)
+            .setProperty(AvailableSettings.URL, URL)
+            .setProperty(AvailableSettings.USER, "sa")
+            .setProperty(AvailableSettings.PASS, "")
+            .setProperty(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+            .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "batched".equals(mode) ? "50" : "1")
+            .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+            .buildSessionFactory();
+
+        moodTypes = MoodType.values();
+        now = LocalDateTime.now();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearMoods() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM moods");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        sessionFactory.close();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void importMoods() {
+        if ("perRequest".equals(mode)) {
+            for (int i = 0; i < ROWS; i++) {
+                try (Session session = sessionFactory.openSession()) {
+                    session.beginTransaction();
+                    session.persist(mood(session, i));
+                    session.getTransaction().commit();
+                }
+            }
+            return;
+        }
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(mood(session, i));
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    private Mood mood(Session session, int i) {
+        Mood mood = new Mood(moodTypes[i % moodTypes.length], "Imported mood " + i, session.getReference(User.class, 1L));
+        mood.setTimestamp(now.minusMinutes(i));
+        return mood;
+    }
+}
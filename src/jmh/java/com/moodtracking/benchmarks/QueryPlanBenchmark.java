@@ -0,0 +1,284 @@
+package com.moodtracking.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.moodtracking.models.Mood.MoodType;
+import com.moodtracking.models.NotificationReminder.ReminderFrequency;
+
+/**
+ * The repository time-range queries with the schema at the baseline migration (V1)
+ * and with the composite indexes applied (latest). The EXPLAIN output for each query
+ * is printed during setup so the plans can be compared alongside the timings.
+ *
+ * H2 runs in memory. For MySQL pass -p database=mysql and
+ * -Dbenchmark.mysql.url=jdbc:mysql://host/db (plus .user/.password); the database
+ * is wiped with Flyway clean, so it must be a throwaway one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryPlanBenchmark {
+
+    private static final int USERS = 200;
+    private static final int MOODS_PER_USER = 500;
+    private static final int ENTRIES_PER_USER = 200;
+    private static final int CONVERSATIONS_PER_USER = 500;
+    private static final int REMINDERS_PER_USER = 3;
+    private static final int SPAN_DAYS = 365;
+
+    private static final String MOODS_IN_RANGE =
+        "SELECT * FROM moods WHERE user_id = ? AND timestamp BETWEEN ? AND ? ORDER BY timestamp DESC";
+    private static final String MOOD_ENTRIES_IN_RANGE =
+        "SELECT * FROM mood_entries WHERE user_id = ? AND created_at BETWEEN ? AND ? ORDER BY created_at DESC";
+    private static final String RECENT_CONVERSATIONS =
+        "SELECT * FROM conversations WHERE user_id = ? ORDER BY created_at DESC LIMIT 10";
+    private static final String ACTIVE_REMINDERS_IN_WINDOW =
+        "SELECT * FROM notification_reminders WHERE is_active = TRUE AND reminder_time BETWEEN ? AND ?";
+
+    @Param({"h2"})
+    public String database;
+
+    @Param({"baseline", "indexed"})
+    public String schema;
+
+    private Connection connection;
+    private PreparedStatement moodsInRange;
+    private PreparedStatement moodEntriesInRange;
+    private PreparedStatement recentConversations;
+    private PreparedStatement activeRemindersInWindow;
+
+    private LocalDateTime now;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url;
+        String user;
+        String password;
+        if ("mysql".equals(database)) {
+            url = System.getProperty("benchmark.mysql.url");
+            user = System.getProperty("benchmark.mysql.user", "root");
+            password = System.getProperty("benchmark.mysql.password", "");
+            if (url == null) {
+                throw new IllegalStateException("Set -Dbenchmark.mysql.url to a throwaway MySQL database");
+            }
+        } else {
+            url = "jdbc:h2:mem:plans;DB_CLOSE_DELAY=-1";
+            user = "sa";
+            password = "";
+        }
+
+        Flyway baseline = flyway(url, user, password).target("1").load();
+        baseline.clean();
+        baseline.migrate();
+
+        connection = DriverManager.getConnection(url, user, password);
+        now = LocalDateTime.now();
+        seed();
+
+        if ("indexed".equals(schema)) {
+            flyway(url, user, password).load().migrate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("mysql".equals(database) ? "ANALYZE TABLE moods, mood_entries, conversations, notification_reminders"
+                : "ANALYZE");
+        }
+
+        moodsInRange = connection.prepareStatement(MOODS_IN_RANGE);
+        moodEntriesInRange = connection.prepareStatement(MOOD_ENTRIES_IN_RANGE);
+        recentConversations = connection.prepareStatement(RECENT_CONVERSATIONS);
+        activeRemindersInWindow = connection.prepareStatement(ACTIVE_REMINDERS_IN_WINDOW);
+        random = new Random(5L);
+
+        printPlans();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private FluentConfiguration flyway(String url, String user, String password) {
+        return Flyway.configure()
+            .dataSource(url, user, password)
+            .locations("classpath:db/migration/common", "classpath:db/migration/" + database)
+            .cleanDisabled(false);
+    }
+
+    private void seed() throws SQLException {
+        Random data = new Random(42L);
+        MoodType[] moodTypes = MoodType.values();
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement users = connection.prepareStatement(
+                "INSERT INTO users (id, username, email, name, password) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement moods = connection.prepareStatement(
+                "INSERT INTO moods (user_id, mood_type, notes, timestamp) VALUES (?, ?, ?, ?)");
+             PreparedStatement entries = connection.prepareStatement(
+                "INSERT INTO mood_entries (user_id, mood_rating, notes, created_at) VALUES (?, ?, ?, ?)");
+             PreparedStatement conversations = connection.prepareStatement(
+                "INSERT INTO conversations (user_id, message, sender, session_id, created_at) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement reminders = connection.prepareStatement(
+                "INSERT INTO notification_reminders (user_id, reminder_time, frequency, is_active, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?)")) {
+
+            for (long userId = 1; userId <= USERS; userId++) {
+                users.setLong(1, userId);
+                users.setString(2, "user" + userId);
+                users.setString(3, "user" + userId + "@example.com");
+                users.setString(4, "User " + userId);
+                users.setString(5, "password");
+                users.addBatch();
+            }
+            users.executeBatch();
+
+            for (long userId = 1; userId <= USERS; userId++) {
+                for (int i = 0; i < MOODS_PER_USER; i++) {
+                    moods.setLong(1, userId);
+                    moods.setString(2, moodTypes[data.nextInt(moodTypes.length)].name());
+                    moods.setString(3, null);
+                    moods.setTimestamp(4, randomTimestamp(data));
+                    moods.addBatch();
+                }
+                for (int i = 0; i < ENTRIES_PER_USER; i++) {
+                    entries.setLong(1, userId);
+                    entries.setInt(2, 1 + data.nextInt(10));
+                    entries.setString(3, null);
+                    entries.setTimestamp(4, randomTimestamp(data));
+                    entries.addBatch();
+                }
+                for (int i = 0; i < CONVERSATIONS_PER_USER; i++) {
+                    conversations.setLong(1, userId);
+                    conversations.setString(2, "Message " + i);
+                    conversations.setString(3, i % 2 == 0 ? "user" : "bot");
+                    conversations.setString(4, "session-" + userId + "-" + (i / 20));
+                    conversations.setTimestamp(5, randomTimestamp(data));
+                    conversations.addBatch();
+                }
+                for (int i = 0; i < REMINDERS_PER_USER; i++) {
+                    reminders.setLong(1, userId);
+                    reminders.setTime(2, Time.valueOf(LocalTime.of(data.nextInt(24), data.nextInt(60))));
+                    reminders.setString(3, ReminderFrequency.DAILY.name());
+                    reminders.setBoolean(4, data.nextInt(4) != 0);
+                    reminders.setTimestamp(5, Timestamp.valueOf(now));
+                    reminders.addBatch();
+                }
+                moods.executeBatch();
+                entries.executeBatch();
+                conversations.executeBatch();
+                reminders.executeBatch();
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private Timestamp randomTimestamp(Random data) {
+        return Timestamp.valueOf(now.minusSeconds((long) (data.nextDouble() * SPAN_DAYS * 86400L)));
+    }
+
+    private void printPlans() throws SQLException {
+        System.out.println();
+        System.out.println("Query plans (" + database + ", " + schema + ")");
+        explain(MOODS_IN_RANGE, 1L, Timestamp.valueOf(now.minusDays(30)), Timestamp.valueOf(now));
+        explain(MOOD_ENTRIES_IN_RANGE, 1L, Timestamp.valueOf(now.minusDays(30)), Timestamp.valueOf(now));
+        explain(RECENT_CONVERSATIONS, 1L);
+        explain(ACTIVE_REMINDERS_IN_WINDOW, Time.valueOf(LocalTime.of(9, 0)), Time.valueOf(LocalTime.of(9, 5)));
+    }
+
+    private void explain(String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            System.out.println("  " + sql);
+            try (ResultSet plan = statement.executeQuery()) {
+                int columns = plan.getMetaData().getColumnCount();
+                while (plan.next()) {
+                    StringBuilder row = new StringBuilder("    ");
+                    for (int i = 1; i <= columns; i++) {
+                        if (columns > 1) {
+                            row.append(plan.getMetaData().getColumnLabel(i)).append('=');
+                        }
+                        row.append(plan.getString(i)).append(i < columns ? " " : "");
+                    }
+                    System.out.println(row.toString().replace("\n", "\n    "));
+                }
+            }
+        }
+    }
+
+    private long randomUser() {
+        return 1 + random.nextInt(USERS);
+    }
+
+    private void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getObject(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void moodsInRange(Blackhole blackhole) throws SQLException {
+        moodsInRange.setLong(1, randomUser());
+        moodsInRange.setTimestamp(2, Timestamp.valueOf(now.minusDays(30)));
+        moodsInRange.setTimestamp(3, Timestamp.valueOf(now));
+        consume(moodsInRange, blackhole);
+    }
+
+    @Benchmark
+    public void moodEntriesInRange(Blackhole blackhole) throws SQLException {
+        moodEntriesInRange.setLong(1, randomUser());
+        moodEntriesInRange.setTimestamp(2, Timestamp.valueOf(now.minusDays(30)));
+        moodEntriesInRange.setTimestamp(3, Timestamp.valueOf(now));
+        consume(moodEntriesInRange, blackhole);
+    }
+
+    @Benchmark
+    public void recentConversations(Blackhole blackhole) throws SQLException {
+        recentConversations.setLong(1, randomUser());
+        consume(recentConversations, blackhole);
+    }
+
+    @Benchmark
+    public void activeRemindersInWindow(Blackhole blackhole) throws SQLException {
+        LocalTime start = LocalTime.of(random.nextInt(24), random.nextInt(12) * 5);
+        activeRemindersInWindow.setTime(1, Time.valueOf(start));
+        activeRemindersInWindow.setTime(2, Time.valueOf(start.plusMinutes(5)));
+        consume(activeRemindersInWindow, blackhole);
+    }
+}
@@ -0,0 +1,82 @@
+package com.moodtracking.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.dto.MoodResponse;
+import com.moodtracking.dto.SongRecommendation;
+import com.moodtracking.models.User;
+import com.moodtracking.services.MoodService;
+import com.moodtracking.services.MoodVectorStore;
+import com.moodtracking.services.RecommendationCatalog;
+import com.moodtracking.services.RecommendationService;
+
+/**
+ * RecommendationService.getSongRecommendationsForUser and the ranked response path, with
+ * the user's mood vector already loaded as it is after their first request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecommendationBenchmark {
+
+    private RecommendationService recommendationService;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = SyntheticData.user();
+        // getRecentMoods returns the user's latest ten moods
+        List<MoodResponse> recentMoods = SyntheticData.moods(10, 2, 7L, LocalDateTime.now());
+
+        MoodVectorStore moodVectorStore = new MoodVectorStore();
+        ReflectionTestUtils.setField(moodVectorStore, "halfLifeHours", 24.0);
+        ReflectionTestUtils.setField(moodVectorStore, "maxSize", 1000);
+        moodVectorStore.init();
+
+        recommendationService = new RecommendationService();
+        ReflectionTestUtils.setField(recommendationService, "moodService", new RecentMoodService(recentMoods));
+        ReflectionTestUtils.setField(recommendationService, "moodVectorStore", moodVectorStore);
+    }
+
+    @Benchmark
+    public List<SongRecommendation> songRecommendationsForUser() {
+        return recommendationService.getSongRecommendationsForUser(user);
+    }
+
+    @Benchmark
+    public RecommendationCatalog.CachedResponse recommendationResponseForUser() {
+        return recommendationService.getRecommendationResponse(RecommendationCatalog.Kind.ALL, null, user);
+    }
+
+    static final class RecentMoodService extends MoodService {
+
+        private final List<MoodResponse> recentMoods;
+
+        RecentMoodService(List<MoodResponse> recentMoods) {
+            this.recentMoods = recentMoods;
+        }
+
+        @Override
+        public List<MoodResponse> getRecentMoods(User user) {
+            return recentMoods;
+        }
+    }
+}
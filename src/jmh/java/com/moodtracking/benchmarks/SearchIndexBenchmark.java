@@ -0,0 +1,71 @@
+package com.moodtracking.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moodtracking.utils.InvertedIndex;
+
+/**
+ * One page of InvertedIndex.search over a single index of synthetic journal-like
+ * documents, a rare and a common query term each; a user's index is far smaller than
+ * the largest size here
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+        "happy", "tired", "anxious", "calm", "work", "family", "sleep", "walk", "run", "therapy",
+        "coffee", "meeting", "friend", "dinner", "stress", "weekend", "rain", "sunny", "music", "read",
+        "journal", "gym", "doctor", "call", "plan", "goal", "grateful", "lonely", "focus", "break"
+    };
+
+    @Param({"100000", "1000000"})
+    private int documents;
+
+    private InvertedIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7);
+        index = new InvertedIndex();
+        StringBuilder body = new StringBuilder();
+        for (int key = 0; key < documents; key++) {
+            body.setLength(0);
+            for (int word = 0; word < 12; word++) {
+                // Skewed so that early words are common and later ones rare
+                int pick = (int) (WORDS.length * Math.pow(random.nextDouble(), 3));
+                body.append(WORDS[pick]).append(' ');
+            }
+            body.append("entry").append(key);
+            index.put(key, key % 4 == 0 ? WORDS[random.nextInt(WORDS.length)] : null, body.toString());
+        }
+    }
+
+    @Benchmark
+    public InvertedIndex.Hits rareTerm() {
+        return index.search("lonely break", null, 0, 20);
+    }
+
+    @Benchmark
+    public InvertedIndex.Hits commonTerm() {
+        return index.search("happy tired", null, 0, 20);
+    }
+}
@@ -0,0 +1,118 @@
+package com.moodtracking.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import com.moodtracking.dto.MoodResponse;
+import com.moodtracking.models.Conversation;
+import com.moodtracking.models.Mood.MoodType;
+import com.moodtracking.models.User;
+
+/**
+ * Deterministic synthetic data for the benchmarks, plus a tiny proxy-based
+ * repository stub so services can run without a database.
+ */
+public final class SyntheticData {
+
+    private static final MoodType[] MOOD_TYPES = MoodType.values();
+
+    private static final String[] USER_MESSAGES = {
+        "I had a rough day at work today.",
+        "Feeling a bit better after a walk outside.",
+        "Can you suggest something to help me relax?",
+        "I couldn't sleep well last night.",
+        "Today was actually really good!"
+    };
+
+    private static final String[] BOT_MESSAGES = {
+        "I'm sorry to hear that. Do you want to talk about what happened?",
+        "That's great! Fresh air can really help lift your mood.",
+        "Try a few minutes of slow breathing or some calm music.",
+        "Sleep affects mood a lot. Would a wind-down reminder help?",
+        "Wonderful! What made today stand out?"
+    };
+
+    private SyntheticData() {}
+
+    public static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchuser");
+        user.setEmail("benchuser@example.com");
+        return user;
+    }
+
+    /**
+     * Moods spread randomly over the last spanDays days, newest first like MoodService returns them
+     */
+    public static List<MoodResponse> moods(int count, int spanDays, long seed, LocalDateTime now) {
+        Random random = new Random(seed);
+        List<MoodResponse> moods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime timestamp = now.minusSeconds((long) (random.nextDouble() * spanDays * 86400L));
+            moods.add(new MoodResponse((long) i, MOOD_TYPES[random.nextInt(MOOD_TYPES.length)],
+                null, timestamp, "benchuser"));
+        }
+        moods.sort(Comparator.comparing(MoodResponse::getTimestamp).reversed());
+        return moods;
+    }
+
+    /**
+     * The (moodType, timestamp) rows MoodRepository.findMoodTimelineByUser returns, oldest first
+     */
+    public static List<Object[]> timeline(List<MoodResponse> newestFirst) {
+        List<Object[]> rows = new ArrayList<>(newestFirst.size());
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            MoodResponse mood = newestFirst.get(i);
+            rows.add(new Object[]{mood.getMoodType(), mood.getTimestamp()});
+        }
+        return rows;
+    }
+
+    /**
+     * Alternating user/bot messages one minute apart, newest first like findRecentByUser
+     */
+    public static List<Conversation> conversations(User user, int count, long seed, LocalDateTime now) {
+        Random random = new Random(seed);
+        List<Conversation> conversations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean fromUser = i % 2 == 1;
+            String[] messages = fromUser ? USER_MESSAGES : BOT_MESSAGES;
+            Conversation conversation = new Conversation(user, messages[random.nextInt(messages.length)],
+                fromUser ? "user" : "bot", "session-" + (i / 20));
+            conversation.setId((long) (count - i));
+            conversation.setCreatedAt(now.minusMinutes(i));
+            conversations.add(conversation);
+        }
+        return conversations;
+    }
+
+    /**
+     * Stub a Spring Data repository interface; methods without an answer throw
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                default:
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return answer.apply(args);
+            }
+        });
+    }
+}
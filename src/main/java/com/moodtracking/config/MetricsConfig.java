@@ -0,0 +1,45 @@
+package com.moodtracking.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Metrics beyond what Spring Boot records on its own. Boot already times every endpoint
+ * (http.server.requests) and repository method (spring.data.repository.invocations) and
+ * reports the Hikari and Tomcat pools; this adds @Timed service methods and the number
+ * of rows each repository method returns.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+    
+    /**
+     * Adds {@link RepositoryRowMetrics} to every Spring Data repository proxy. Static, and
+     * the registry is looked up lazily, so registering it doesn't initialize other beans early.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryRowMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                        factory.addRepositoryProxyPostProcessor((proxyFactory, information) ->
+                            proxyFactory.addAdvice(new RepositoryRowMetrics(
+                                meterRegistry, information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
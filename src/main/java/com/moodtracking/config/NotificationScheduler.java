@@ -1,54 +1,95 @@
 package com.moodtracking.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import com.moodtracking.services.NotificationService;
+import com.moodtracking.services.RetentionService;
+import com.moodtracking.services.TaskService;
 
 @Component
 public class NotificationScheduler {
     
+    private static final Logger logger = LoggerFactory.getLogger(NotificationScheduler.class);
+    
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private RetentionService retentionService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    // Ticks failed in a row; only touched by the reminder tick, which never overlaps itself
+    private long failedReminderTicks;
+    
     /**
-     * Process reminders every minute
-     * This checks for any reminders that should be sent in the current time window
+     * Load the active reminders into the schedule once the application is up
      */
-    @Scheduled(fixedRate = 60000) // Run every 60 seconds (1 minute)
-    public void processReminders() {
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadReminders() {
         try {
-            notificationService.processReminders();
+            int loaded = notificationService.loadReminderSchedule();
+            logger.info("Loaded {} active reminders into the schedule", loaded);
         } catch (Exception e) {
-            System.err.println("Error processing reminders: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error loading reminders", e);
         }
     }
     
     /**
-     * Alternative: Process reminders using cron expression
-     * This example runs every minute, but you can adjust as needed
-     * 
-     * @Scheduled(cron = "0 * * * * *") // Every minute at second 0
-     * public void processRemindersCron() {
-     *     processReminders();
-     * }
+     * Load the open tasks with due dates into the due schedule once the application is up
      */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDueTasks() {
+        try {
+            int loaded = taskService.loadDueSchedule();
+            logger.info("Loaded {} open tasks with due dates into the due schedule", loaded);
+        } catch (Exception e) {
+            logger.error("Error loading due tasks", e);
+        }
+    }
+    
+    /**
+     * Process reminders every tick
+     * The schedule is in memory, so a tick with nothing due never reaches the database.
+     * A failure is logged with its stack trace once per streak of failing ticks, not on
+     * every tick, and the recovery once the ticks succeed again.
+     */
+    @Scheduled(fixedRateString = "${notifications.scheduler.tick-ms:100}")
+    public void processReminders() {
+        try {
+            notificationService.processReminders();
+            if (failedReminderTicks > 0) {
+                logger.info("Reminder processing recovered after {} failed ticks", failedReminderTicks);
+                failedReminderTicks = 0;
+            }
+        } catch (Exception e) {
+            if (failedReminderTicks++ == 0) {
+                logger.error("Error processing reminders", e);
+            } else {
+                logger.debug("Error processing reminders ({} failed ticks in a row): {}", failedReminderTicks,
+                    e.getMessage());
+            }
+        }
+    }
     
     /**
-     * Cleanup old reminders daily at 2 AM
-     * Remove inactive reminders older than 30 days
+     * Apply the retention policies daily at 2 AM
+     * Removes inactive reminders and conversations past their retention, in throttled chunks
      */
-    @Scheduled(cron = "0 0 2 * * *") // Daily at 2:00 AM
+    @Scheduled(cron = "${retention.cron:0 0 2 * * *}") // Daily at 2:00 AM
     public void cleanupOldReminders() {
         try {
-            // This could be implemented in NotificationService
-            System.out.println("Running daily cleanup of old reminders...");
-            // notificationService.cleanupOldReminders();
+            long deleted = retentionService.purgeExpired();
+            logger.info("Daily cleanup deleted {} expired rows", deleted);
         } catch (Exception e) {
-            System.err.println("Error during reminder cleanup: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error during daily cleanup", e);
         }
     }
     
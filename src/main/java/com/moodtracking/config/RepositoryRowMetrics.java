@@ -0,0 +1,91 @@
+package com.moodtracking.config;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records how many rows each repository method returned, as the
+ * spring.data.repository.rows summary tagged like spring.data.repository.invocations.
+ * Lists and pages count their elements, Optionals and single entities zero or one.
+ * Counts, flags, streams and other lazy results aren't recorded.
+ */
+class RepositoryRowMetrics implements MethodInterceptor {
+    
+    static final String METRIC_NAME = "spring.data.repository.rows";
+    
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final String repository;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    
+    RepositoryRowMetrics(ObjectProvider<MeterRegistry> meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        int rows = rowCount(result, invocation.getMethod().getReturnType());
+        if (rows >= 0) {
+            DistributionSummary summary = summaryFor(invocation.getMethod());
+            if (summary != null) {
+                summary.record(rows);
+            }
+        }
+        return result;
+    }
+    
+    private DistributionSummary summaryFor(Method method) {
+        DistributionSummary summary = summaries.get(method);
+        if (summary == null) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return null;
+            }
+            summary = summaries.computeIfAbsent(method, m -> DistributionSummary.builder(METRIC_NAME)
+                .description("Rows returned by repository methods")
+                .baseUnit("rows")
+                .tag("repository", repository)
+                .tag("method", m.getName())
+                .publishPercentileHistogram()
+                .register(registry));
+        }
+        return summary;
+    }
+    
+    static int rowCount(Object result, Class<?> returnType) {
+        if (returnType == void.class || returnType.isPrimitive() || Number.class.isAssignableFrom(returnType)
+                || Boolean.class == returnType || BaseStream.class.isAssignableFrom(returnType)) {
+            return -1;
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable<?>) {
+            // Could be single-use; counting it would consume it
+            return -1;
+        }
+        return 1;
+    }
+}
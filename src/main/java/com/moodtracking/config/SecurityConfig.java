@@ -59,9 +59,12 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**", "/api/auth/login", "/api/auth/register").permitAll()
                 .requestMatchers("/api/health/**", "/api/health/status").permitAll()
                 .requestMatchers("/error").permitAll()
+                // Load balancer and Prometheus scrapes; keep the actuator off public networks
+                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
                 // Protected endpoints - authentication required
                 .requestMatchers("/api/notes/**").authenticated()
                 .requestMatchers("/api/tasks/**").authenticated()
+                .requestMatchers("/api/search/**").authenticated()
                 .requestMatchers("/user/**").authenticated()
                 .requestMatchers("/mood/**").authenticated()
                 .requestMatchers("/recommend/**").authenticated()
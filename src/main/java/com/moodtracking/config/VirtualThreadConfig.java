@@ -0,0 +1,77 @@
+package com.moodtracking.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Opt-in virtual threads (--spring.profiles.active=virtual-threads, Java 21+) for Tomcat
+ * request handling, the application task executor (async MVC such as streaming
+ * responses, and @Async) and @Scheduled jobs. Requests then block on JDBC without
+ * holding a platform thread, and the connection pool becomes the limit on concurrent
+ * database work; application-virtual-threads.properties sizes it for that.
+ *
+ * The build targets Java 17, so virtual threads are reached reflectively; starting the
+ * profile on an older JVM fails fast instead of silently running on platform threads.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        Executor executor = threadPerTaskExecutor("tomcat-handler-");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(threadPerTaskExecutor("task-"));
+    }
+
+    @Bean
+    public TaskScheduler taskScheduler() {
+        // A couple of workers so the reminder tick isn't held up by other jobs; blocking in them
+        // parks the virtual thread instead of tying up a platform thread
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadFactory(virtualThreadFactory("scheduling-"));
+        return scheduler;
+    }
+
+    /**
+     * A new virtual thread for every task; they are cheap enough that pooling them only adds contention
+     */
+    static Executor threadPerTaskExecutor(String namePrefix) {
+        ThreadFactory threadFactory = virtualThreadFactory(namePrefix);
+        return task -> threadFactory.newThread(task).start();
+    }
+
+    /**
+     * Thread.ofVirtual().name(namePrefix, 0).factory()
+     */
+    static ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (NoSuchMethodException | ClassNotFoundException e) {
+            throw new IllegalStateException("The virtual-threads profile needs Java 21 or later, running on "
+                + System.getProperty("java.version"), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create virtual thread factory", e);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.moodtracking.controllers;
 
+import java.time.LocalDate;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -10,7 +14,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.moodtracking.dto.MoodAnalyticsResponse;
+import com.moodtracking.dto.MoodTrendPoint;
 import com.moodtracking.models.User;
+import com.moodtracking.services.AnalyticsResponseCache;
 import com.moodtracking.services.MoodAnalyticsService;
 
 @RestController
@@ -18,21 +24,20 @@ import com.moodtracking.services.MoodAnalyticsService;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AnalyticsController {
     
+    private static final int DASHBOARD_DAYS = 30;
+    
     @Autowired
     private MoodAnalyticsService moodAnalyticsService;
     
+    @Autowired
+    private AnalyticsResponseCache analyticsResponseCache;
+    
     @GetMapping("/mood")
     public ResponseEntity<?> getMoodAnalytics(@RequestParam(defaultValue = "0") int days,
                                             Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            MoodAnalyticsResponse analytics;
-            
-            if (days > 0) {
-                analytics = moodAnalyticsService.generateMoodAnalytics(user, days);
-            } else {
-                analytics = moodAnalyticsService.generateMoodAnalytics(user);
-            }
+            MoodAnalyticsResponse analytics = analytics(user, days);
             
             return ResponseEntity.ok(analytics);
         } catch (Exception e) {
@@ -45,7 +50,8 @@ public class AnalyticsController {
     public ResponseEntity<?> getMoodSummary(Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            MoodAnalyticsResponse analytics = moodAnalyticsService.generateMoodAnalytics(user, 30);
+            // Same window as the default trends, so a dashboard computes it once
+            MoodAnalyticsResponse analytics = analytics(user, DASHBOARD_DAYS);
             
             // Create a simplified summary response
             MoodSummaryResponse summary = new MoodSummaryResponse(
@@ -67,11 +73,11 @@ public class AnalyticsController {
     }
     
     @GetMapping("/mood/trends")
-    public ResponseEntity<?> getMoodTrends(@RequestParam(defaultValue = "30") int days,
+    public ResponseEntity<?> getMoodTrends(@RequestParam(defaultValue = "" + DASHBOARD_DAYS) int days,
                                          Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            MoodAnalyticsResponse analytics = moodAnalyticsService.generateMoodAnalytics(user, days);
+            MoodAnalyticsResponse analytics = analytics(user, days);
             
             // Create a trends-focused response
             MoodTrendsResponse trends = new MoodTrendsResponse(
@@ -88,6 +94,43 @@ public class AnalyticsController {
         }
     }
     
+    /**
+     * Mood score per day, week or month for charts, aggregated by the database. Defaults to
+     * the last 30 days, 12 weeks or 12 months up to today.
+     */
+    @GetMapping("/mood/series")
+    public ResponseEntity<?> getMoodSeries(@RequestParam(defaultValue = "day") String granularity,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : switch (granularity) {
+                case "week" -> end.minusWeeks(12).plusDays(1);
+                case "month" -> end.minusMonths(12).plusDays(1);
+                default -> end.minusDays(DASHBOARD_DAYS - 1);
+            };
+            
+            List<MoodTrendPoint> series = moodAnalyticsService.getMoodSeries(user, granularity, start, end);
+            return ResponseEntity.ok(series);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Error generating mood series: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Analytics for the last given days, or all time when days is 0 or less, computed once
+     * per user and window until the user's moods change or the cache entry expires
+     */
+    private MoodAnalyticsResponse analytics(User user, int days) {
+        int window = Math.max(days, 0);
+        return analyticsResponseCache.get(user.getId(), window, () -> window > 0
+            ? moodAnalyticsService.generateMoodAnalytics(user, window)
+            : moodAnalyticsService.generateMoodAnalytics(user));
+    }
+    
     // Inner classes for simplified responses
     public static class MoodSummaryResponse {
         private final Integer totalMoods;
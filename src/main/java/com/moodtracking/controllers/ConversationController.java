@@ -57,6 +57,8 @@ public class ConversationController {
                 user, message, sender, sessionId);
 
             return ResponseEntity.ok(savedConversation);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to save conversation: " + e.getMessage()));
@@ -4,6 +4,10 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,15 +19,23 @@ import org.springframework.web.bind.annotation.RestController;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class HealthController {
     
+    @Autowired(required = false)
+    private HealthEndpoint healthEndpoint;
+    
+    /**
+     * The actuator health status (database included), with 503 when it isn't UP
+     */
     @GetMapping("/status")
     public ResponseEntity<?> healthCheck() {
+        Status status = healthEndpoint != null ? healthEndpoint.health().getStatus() : Status.UP;
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", status.getCode());
         response.put("timestamp", LocalDateTime.now());
         response.put("service", "Mood Tracking System");
         response.put("version", "1.0.0");
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.status(Status.UP.equals(status) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+            .body(response);
     }
     
     // Alias for /check (backward compatibility)
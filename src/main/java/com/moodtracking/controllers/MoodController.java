@@ -6,6 +6,7 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -18,7 +19,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.moodtracking.dto.MoodBatchRequest;
+import com.moodtracking.dto.MoodBatchResponse;
+import com.moodtracking.dto.MoodHistoryPage;
 import com.moodtracking.dto.MoodRequest;
 import com.moodtracking.dto.MoodResponse;
 import com.moodtracking.dto.MoodStatsResponse;
@@ -48,6 +53,19 @@ public class MoodController {
         }
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<?> addMoods(@Valid @RequestBody MoodBatchRequest request,
+                                    Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            MoodBatchResponse response = moodService.addMoods(request.getMoods(), user);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Error importing mood entries: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/history")
     public ResponseEntity<?> getMoodHistory(Authentication authentication) {
         try {
@@ -60,6 +78,29 @@ public class MoodController {
         }
     }
     
+    @GetMapping("/history/page")
+    public ResponseEntity<?> getMoodHistoryPage(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "50") int limit,
+                                              Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            MoodHistoryPage page = moodService.getMoodHistoryPage(user, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Error retrieving mood history: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping(value = "/history/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMoodHistory(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        StreamingResponseBody body = out -> moodService.writeMoodHistoryNdjson(user, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+    
     @GetMapping("/history/recent")
     public ResponseEntity<?> getRecentMoods(Authentication authentication) {
         try {
@@ -1,8 +1,8 @@
 package com.moodtracking.controllers;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -11,11 +11,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.moodtracking.dto.MovieRecommendation;
-import com.moodtracking.dto.RecommendationResponse;
-import com.moodtracking.dto.SongRecommendation;
 import com.moodtracking.models.Mood.MoodType;
 import com.moodtracking.models.User;
+import com.moodtracking.services.RecommendationCatalog;
 import com.moodtracking.services.RecommendationService;
 
 @RestController
@@ -30,32 +28,10 @@ public class RecommendationController {
     public ResponseEntity<?> getSongRecommendations(@RequestParam(required = false) MoodType moodType,
                                                   Authentication authentication) {
         try {
+            // Without a mood type, recommendations follow the user's recent mood
             User user = (User) authentication.getPrincipal();
-            List<SongRecommendation> songs;
-            MoodType basedOnMood;
-            String message;
-            
-            if (moodType != null) {
-                // Get recommendations for specific mood type
-                songs = recommendationService.getSongRecommendations(moodType);
-                basedOnMood = moodType;
-                message = "Song recommendations based on " + moodType.getDisplayName().toLowerCase() + " mood";
-            } else {
-                // Get recommendations based on user's recent mood
-                songs = recommendationService.getSongRecommendationsForUser(user);
-                basedOnMood = recommendationService.getMostRecentMoodType(user);
-                
-                if (basedOnMood != null) {
-                    message = "Song recommendations based on your recent " + basedOnMood.getDisplayName().toLowerCase() + " mood";
-                } else {
-                    message = "General song recommendations - track your mood for personalized suggestions!";
-                }
-            }
-            
-            RecommendationResponse response = new RecommendationResponse(basedOnMood, message);
-            response.setSongs(songs);
-            
-            return ResponseEntity.ok(response);
+            return toResponse(recommendationService.getRecommendationResponse(
+                RecommendationCatalog.Kind.SONGS, moodType, user));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body("Error getting song recommendations: " + e.getMessage());
@@ -67,31 +43,8 @@ public class RecommendationController {
                                                    Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            List<MovieRecommendation> movies;
-            MoodType basedOnMood;
-            String message;
-            
-            if (moodType != null) {
-                // Get recommendations for specific mood type
-                movies = recommendationService.getMovieRecommendations(moodType);
-                basedOnMood = moodType;
-                message = "Movie recommendations based on " + moodType.getDisplayName().toLowerCase() + " mood";
-            } else {
-                // Get recommendations based on user's recent mood
-                movies = recommendationService.getMovieRecommendationsForUser(user);
-                basedOnMood = recommendationService.getMostRecentMoodType(user);
-                
-                if (basedOnMood != null) {
-                    message = "Movie recommendations based on your recent " + basedOnMood.getDisplayName().toLowerCase() + " mood";
-                } else {
-                    message = "General movie recommendations - track your mood for personalized suggestions!";
-                }
-            }
-            
-            RecommendationResponse response = new RecommendationResponse(basedOnMood, message);
-            response.setMovies(movies);
-            
-            return ResponseEntity.ok(response);
+            return toResponse(recommendationService.getRecommendationResponse(
+                RecommendationCatalog.Kind.MOVIES, moodType, user));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body("Error getting movie recommendations: " + e.getMessage());
@@ -103,33 +56,8 @@ public class RecommendationController {
                                                  Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            List<SongRecommendation> songs;
-            List<MovieRecommendation> movies;
-            MoodType basedOnMood;
-            String message;
-            
-            if (moodType != null) {
-                // Get recommendations for specific mood type
-                songs = recommendationService.getSongRecommendations(moodType);
-                movies = recommendationService.getMovieRecommendations(moodType);
-                basedOnMood = moodType;
-                message = "Recommendations based on " + moodType.getDisplayName().toLowerCase() + " mood";
-            } else {
-                // Get recommendations based on user's recent mood
-                songs = recommendationService.getSongRecommendationsForUser(user);
-                movies = recommendationService.getMovieRecommendationsForUser(user);
-                basedOnMood = recommendationService.getMostRecentMoodType(user);
-                
-                if (basedOnMood != null) {
-                    message = "Recommendations based on your recent " + basedOnMood.getDisplayName().toLowerCase() + " mood";
-                } else {
-                    message = "General recommendations - track your mood for personalized suggestions!";
-                }
-            }
-            
-            RecommendationResponse response = new RecommendationResponse(basedOnMood, message, songs, movies);
-            
-            return ResponseEntity.ok(response);
+            return toResponse(recommendationService.getRecommendationResponse(
+                RecommendationCatalog.Kind.ALL, moodType, user));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body("Error getting recommendations: " + e.getMessage());
@@ -146,4 +74,16 @@ public class RecommendationController {
                 .body("Error getting available moods: " + e.getMessage());
         }
     }
+    
+    /**
+     * Write the pre-serialized body as is. A matching If-None-Match gets a 304; clients
+     * revalidate every time since the body follows the user's latest mood.
+     */
+    private ResponseEntity<byte[]> toResponse(RecommendationCatalog.CachedResponse cached) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(cached.getETag())
+            .body(cached.getBody());
+    }
 }
\ No newline at end of file
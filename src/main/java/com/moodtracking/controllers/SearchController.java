@@ -0,0 +1,57 @@
+package com.moodtracking.controllers;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.moodtracking.dto.SearchResponse;
+import com.moodtracking.dto.SearchResult;
+import com.moodtracking.models.User;
+import com.moodtracking.services.SearchIndex;
+import com.moodtracking.services.SearchService;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SearchController {
+    
+    @Autowired
+    private SearchService searchService;
+    
+    @Autowired
+    private SearchIndex searchIndex;
+    
+    /**
+     * Search the user's notes, tasks and conversation messages, best matches first.
+     * type narrows it to one of note, task or conversation.
+     */
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(required = false) String type,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size,
+                                    Authentication authentication) {
+        if (!searchIndex.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("Search index is still loading, try again shortly");
+        }
+        try {
+            User user = (User) authentication.getPrincipal();
+            SearchResult.Type documentType = type == null || type.isEmpty()
+                ? null : SearchResult.Type.valueOf(type.toUpperCase(Locale.ROOT));
+            SearchResponse response = searchService.search(user, q, documentType, page, size);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Error searching: " + e.getMessage());
+        }
+    }
+}
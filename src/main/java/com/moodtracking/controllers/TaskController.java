@@ -1,9 +1,13 @@
 package com.moodtracking.controllers;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -18,6 +22,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.moodtracking.dto.DueTaskResponse;
+import com.moodtracking.dto.TaskBulkRequest;
+import com.moodtracking.dto.TaskBulkResponse;
+import com.moodtracking.dto.TaskPage;
 import com.moodtracking.dto.TaskRequest;
 import com.moodtracking.dto.TaskResponse;
 import com.moodtracking.models.User;
@@ -66,6 +74,51 @@ public class TaskController {
         }
     }
     
+    /**
+     * Filtered, sorted and paginated tasks, e.g.
+     * ?completed=false&priority=high&dueTo=2024-03-22T00:00:00&sort=dueDate,asc&page=0&size=50
+     */
+    @GetMapping("/query")
+    public ResponseEntity<?> queryTasks(@RequestParam(required = false) Boolean completed,
+                                        @RequestParam(required = false) String category,
+                                        @RequestParam(required = false) String priority,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+                                        @RequestParam(required = false) String sort,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "50") int size,
+                                        Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            TaskPage tasks = taskService.findTasks(user, completed, category, priority, dueFrom, dueTo,
+                sort, page, size);
+            return ResponseEntity.ok(tasks);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Error retrieving tasks: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Open tasks due within a duration from now such as 24h, 7d or PT90M, overdue ones
+     * included, earliest first
+     */
+    @GetMapping("/due")
+    public ResponseEntity<?> getDueTasks(@RequestParam(defaultValue = "24h") String within,
+                                         Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            Duration duration = DurationStyle.detectAndParse(within);
+            List<DueTaskResponse> tasks = taskService.getDueTasks(user, duration);
+            return ResponseEntity.ok(tasks);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Error retrieving due tasks: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<?> getTaskById(@PathVariable Long id,
                                         Authentication authentication) {
@@ -116,6 +169,19 @@ public class TaskController {
         }
     }
     
+    @PatchMapping("/bulk")
+    public ResponseEntity<?> bulkUpdateTasks(@Valid @RequestBody TaskBulkRequest request,
+                                             Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            TaskBulkResponse response = taskService.bulkUpdate(request, user);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Error updating tasks: " + e.getMessage());
+        }
+    }
+    
     @PatchMapping("/{id}/toggle")
     public ResponseEntity<?> toggleTaskCompletion(@PathVariable Long id,
                                                   Authentication authentication) {
@@ -1,6 +1,12 @@
 package com.moodtracking.controllers;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -9,14 +15,19 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.moodtracking.config.AsyncTimeoutConfig;
 import com.moodtracking.dto.PasswordChangeRequest;
 import com.moodtracking.dto.UserProfileRequest;
 import com.moodtracking.dto.UserProfileResponse;
 import com.moodtracking.models.User;
+import com.moodtracking.services.UserExportService;
 import com.moodtracking.services.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -27,6 +38,12 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserExportService userExportService;
+    
+    @Value("${export.request-timeout:60m}")
+    private Duration exportTimeout;
+    
     @GetMapping("/profile")
     public ResponseEntity<?> getUserProfile(Authentication authentication) {
         try {
@@ -77,4 +94,44 @@ public class UserController {
                 .body("Error deleting user account: " + e.getMessage());
         }
     }
+    
+    /**
+     * Download everything stored about the user, as newline-delimited JSON (the default)
+     * or as a zip with one file per kind of record. Streamed as it is read, under
+     * export.request-timeout (see AsyncTimeoutConfig) rather than
+     * spring.mvc.async.request-timeout: a large export to a slow client can take longer
+     * than other streamed responses, and one cut off by the timeout ends up truncated.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUserData(@RequestParam(defaultValue = "ndjson") String format,
+                                                                Authentication authentication,
+                                                                HttpServletRequest request) {
+        User user = (User) authentication.getPrincipal();
+        String extension;
+        MediaType contentType;
+        StreamingResponseBody body;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            extension = "ndjson";
+            contentType = MediaType.APPLICATION_NDJSON;
+            body = out -> userExportService.writeNdjson(user, out);
+        } else if ("zip".equalsIgnoreCase(format)) {
+            extension = "zip";
+            contentType = MediaType.parseMediaType("application/zip");
+            body = out -> userExportService.writeZip(user, out);
+        } else {
+            throw new IllegalArgumentException("Error exporting user data: format must be ndjson or zip");
+        }
+        request.setAttribute(AsyncTimeoutConfig.TIMEOUT_ATTRIBUTE, exportTimeout);
+        return ResponseEntity.ok()
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, exportDisposition(user, extension))
+            .body(body);
+    }
+    
+    private String exportDisposition(User user, String extension) {
+        return ContentDisposition.attachment()
+            .filename(user.getUsername() + "-export." + extension)
+            .build()
+            .toString();
+    }
 }
\ No newline at end of file
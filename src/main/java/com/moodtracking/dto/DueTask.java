@@ -0,0 +1,58 @@
+package com.moodtracking.dto;
+
+import java.time.LocalDateTime;
+
+import com.moodtracking.models.Task;
+
+/**
+ * Immutable snapshot of an open task with a due date, as held by the in-memory due
+ * schedule. Carries everything needed to list or notify it without reading the database.
+ */
+public class DueTask {
+    private final Long taskId;
+    private final Long userId;
+    private final String username;
+    private final String title;
+    private final String category;
+    private final String priority;
+    private final LocalDateTime dueDate;
+    private final LocalDateTime notifiedAt;
+
+    public DueTask(Long taskId, Long userId, String username, String title, String category, String priority,
+                   LocalDateTime dueDate, LocalDateTime notifiedAt) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.username = username;
+        this.title = title;
+        this.category = category;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.notifiedAt = notifiedAt;
+    }
+
+    public DueTask(Task task) {
+        this(task.getId(), task.getUser().getId(), task.getUser().getUsername(), task.getTitle(), task.getCategory(),
+            task.getPriority(), task.getDueDate(), task.getDueNotifiedAt());
+    }
+
+    public DueTask withNotifiedAt(LocalDateTime notifiedAt) {
+        return new DueTask(taskId, userId, username, title, category, priority, dueDate, notifiedAt);
+    }
+
+    // Getters
+    public Long getTaskId() { return taskId; }
+
+    public Long getUserId() { return userId; }
+
+    public String getUsername() { return username; }
+
+    public String getTitle() { return title; }
+
+    public String getCategory() { return category; }
+
+    public String getPriority() { return priority; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+
+    public LocalDateTime getNotifiedAt() { return notifiedAt; }
+}
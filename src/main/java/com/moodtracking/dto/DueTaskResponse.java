@@ -0,0 +1,43 @@
+package com.moodtracking.dto;
+
+import java.time.LocalDateTime;
+
+public class DueTaskResponse {
+    private Long id;
+    private String title;
+    private String category;
+    private String priority;
+    private LocalDateTime dueDate;
+    private boolean overdue;
+    
+    // Constructors
+    public DueTaskResponse() {}
+    
+    public DueTaskResponse(DueTask task, LocalDateTime now) {
+        this.id = task.getTaskId();
+        this.title = task.getTitle();
+        this.category = task.getCategory();
+        this.priority = task.getPriority();
+        this.dueDate = task.getDueDate();
+        this.overdue = task.getDueDate().isBefore(now);
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+    
+    public LocalDateTime getDueDate() { return dueDate; }
+    public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
+    
+    public boolean isOverdue() { return overdue; }
+    public void setOverdue(boolean overdue) { this.overdue = overdue; }
+}
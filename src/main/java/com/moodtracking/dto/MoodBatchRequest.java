@@ -0,0 +1,25 @@
+package com.moodtracking.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class MoodBatchRequest {
+    
+    // Items are validated one by one so a bad entry is reported without failing the rest
+    @NotNull
+    @Size(min = 1, max = 1000)
+    private List<MoodRequest> moods;
+    
+    // Constructors
+    public MoodBatchRequest() {}
+    
+    public MoodBatchRequest(List<MoodRequest> moods) {
+        this.moods = moods;
+    }
+    
+    // Getters and Setters
+    public List<MoodRequest> getMoods() { return moods; }
+    public void setMoods(List<MoodRequest> moods) { this.moods = moods; }
+}
@@ -0,0 +1,72 @@
+package com.moodtracking.dto;
+
+import java.util.List;
+
+public class MoodBatchResponse {
+    
+    private int created;
+    private int rejected;
+    private List<ItemResult> results;
+    
+    // Constructors
+    public MoodBatchResponse() {}
+    
+    public MoodBatchResponse(int created, int rejected, List<ItemResult> results) {
+        this.created = created;
+        this.rejected = rejected;
+        this.results = results;
+    }
+    
+    // Getters and Setters
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+    
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+    
+    public List<ItemResult> getResults() { return results; }
+    public void setResults(List<ItemResult> results) { this.results = results; }
+    
+    /**
+     * The outcome for one request item, by its position in the batch
+     */
+    public static class ItemResult {
+        
+        public enum Status { CREATED, REJECTED }
+        
+        private int index;
+        private Status status;
+        private MoodResponse mood;
+        private String error;
+        
+        public ItemResult() {}
+        
+        public static ItemResult created(int index, MoodResponse mood) {
+            ItemResult result = new ItemResult();
+            result.index = index;
+            result.status = Status.CREATED;
+            result.mood = mood;
+            return result;
+        }
+        
+        public static ItemResult rejected(int index, String error) {
+            ItemResult result = new ItemResult();
+            result.index = index;
+            result.status = Status.REJECTED;
+            result.error = error;
+            return result;
+        }
+        
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+        
+        public Status getStatus() { return status; }
+        public void setStatus(Status status) { this.status = status; }
+        
+        public MoodResponse getMood() { return mood; }
+        public void setMood(MoodResponse mood) { this.mood = mood; }
+        
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+}
@@ -0,0 +1,33 @@
+package com.moodtracking.dto;
+
+import java.time.LocalDateTime;
+
+public class MoodEntryResponse {
+    private Long id;
+    private Integer moodRating;
+    private String notes;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public MoodEntryResponse() {}
+    
+    public MoodEntryResponse(Long id, Integer moodRating, String notes, LocalDateTime createdAt) {
+        this.id = id;
+        this.moodRating = moodRating;
+        this.notes = notes;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Integer getMoodRating() { return moodRating; }
+    public void setMoodRating(Integer moodRating) { this.moodRating = moodRating; }
+    
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
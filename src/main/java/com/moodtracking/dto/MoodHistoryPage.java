@@ -0,0 +1,29 @@
+package com.moodtracking.dto;
+
+import java.util.List;
+
+public class MoodHistoryPage {
+    
+    private List<MoodResponse> moods;
+    private String nextCursor;
+    private boolean hasMore;
+    
+    // Constructors
+    public MoodHistoryPage() {}
+    
+    public MoodHistoryPage(List<MoodResponse> moods, String nextCursor, boolean hasMore) {
+        this.moods = moods;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    // Getters and Setters
+    public List<MoodResponse> getMoods() { return moods; }
+    public void setMoods(List<MoodResponse> moods) { this.moods = moods; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
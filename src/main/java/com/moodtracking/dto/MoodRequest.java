@@ -1,8 +1,11 @@
 package com.moodtracking.dto;
 
+import java.time.LocalDateTime;
+
 import com.moodtracking.models.Mood.MoodType;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Size;
 
 public class MoodRequest {
@@ -13,6 +16,10 @@ public class MoodRequest {
     @Size(max = 500)
     private String notes;
     
+    // When the mood was recorded on the client; the server time is used if absent
+    @PastOrPresent
+    private LocalDateTime timestamp;
+    
     // Constructors
     public MoodRequest() {}
     
@@ -27,4 +34,7 @@ public class MoodRequest {
     
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
+    
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
 }
\ No newline at end of file
@@ -29,6 +29,19 @@ public class NotificationReminderResponse {
         this.lastSentAt = reminder.getLastSentAt();
     }
     
+    public NotificationReminderResponse(Long id, LocalTime reminderTime, NotificationReminder.ReminderFrequency frequency,
+                                        Boolean isActive, String message, String timezone, LocalDateTime createdAt,
+                                        LocalDateTime lastSentAt) {
+        this.id = id;
+        this.reminderTime = reminderTime;
+        this.frequency = frequency;
+        this.isActive = isActive;
+        this.message = message;
+        this.timezone = timezone;
+        this.createdAt = createdAt;
+        this.lastSentAt = lastSentAt;
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,72 @@
+package com.moodtracking.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import com.moodtracking.models.NotificationReminder;
+
+/**
+ * Immutable snapshot of an active reminder, as held by the in-memory reminder schedule.
+ * Carries everything needed to send it, so firing never has to read the database.
+ */
+public class ScheduledReminder {
+    private final Long reminderId;
+    private final String username;
+    private final String message;
+    private final NotificationReminder.ReminderFrequency frequency;
+    private final LocalTime reminderTime;
+    private final String timezone;
+    private final LocalDateTime lastSentAt;
+    // Set once the schedule has placed the reminder
+    private final Instant fireAt;
+
+    public ScheduledReminder(Long reminderId, String username, String message,
+                             NotificationReminder.ReminderFrequency frequency, LocalTime reminderTime,
+                             String timezone, LocalDateTime lastSentAt) {
+        this(reminderId, username, message, frequency, reminderTime, timezone, lastSentAt, null);
+    }
+
+    private ScheduledReminder(Long reminderId, String username, String message,
+                              NotificationReminder.ReminderFrequency frequency, LocalTime reminderTime,
+                              String timezone, LocalDateTime lastSentAt, Instant fireAt) {
+        this.reminderId = reminderId;
+        this.username = username;
+        this.message = message;
+        this.frequency = frequency;
+        this.reminderTime = reminderTime;
+        this.timezone = timezone;
+        this.lastSentAt = lastSentAt;
+        this.fireAt = fireAt;
+    }
+
+    public ScheduledReminder(NotificationReminder reminder) {
+        this(reminder.getId(), reminder.getUser().getUsername(), reminder.getMessage(), reminder.getFrequency(),
+            reminder.getReminderTime(), reminder.getTimezone(), reminder.getLastSentAt());
+    }
+
+    public ScheduledReminder withLastSentAt(LocalDateTime sentAt) {
+        return new ScheduledReminder(reminderId, username, message, frequency, reminderTime, timezone, sentAt, null);
+    }
+
+    public ScheduledReminder withFireAt(Instant fireAt) {
+        return new ScheduledReminder(reminderId, username, message, frequency, reminderTime, timezone, lastSentAt, fireAt);
+    }
+
+    // Getters
+    public Long getReminderId() { return reminderId; }
+
+    public String getUsername() { return username; }
+
+    public String getMessage() { return message; }
+
+    public NotificationReminder.ReminderFrequency getFrequency() { return frequency; }
+
+    public LocalTime getReminderTime() { return reminderTime; }
+
+    public String getTimezone() { return timezone; }
+
+    public LocalDateTime getLastSentAt() { return lastSentAt; }
+
+    public Instant getFireAt() { return fireAt; }
+}
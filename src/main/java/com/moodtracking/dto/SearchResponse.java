@@ -0,0 +1,39 @@
+package com.moodtracking.dto;
+
+import java.util.List;
+
+public class SearchResponse {
+    
+    private String query;
+    private int page;
+    private int size;
+    private long total;
+    private List<SearchResult> results;
+    
+    // Constructors
+    public SearchResponse() {}
+    
+    public SearchResponse(String query, int page, int size, long total, List<SearchResult> results) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.results = results;
+    }
+    
+    // Getters and Setters
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+    
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    
+    public List<SearchResult> getResults() { return results; }
+    public void setResults(List<SearchResult> results) { this.results = results; }
+}
@@ -0,0 +1,48 @@
+package com.moodtracking.dto;
+
+import java.time.LocalDateTime;
+
+public class SearchResult {
+    
+    public enum Type {
+        NOTE, TASK, CONVERSATION
+    }
+    
+    private Type type;
+    private Long id;
+    private String title;
+    private String snippet;
+    private float score;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public SearchResult() {}
+    
+    public SearchResult(Type type, Long id, String title, String snippet, float score, LocalDateTime createdAt) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.snippet = snippet;
+        this.score = score;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public String getSnippet() { return snippet; }
+    public void setSnippet(String snippet) { this.snippet = snippet; }
+    
+    public float getScore() { return score; }
+    public void setScore(float score) { this.score = score; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,60 @@
+package com.moodtracking.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One operation applied to many of the user's tasks at once. An update sets each field
+ * given and leaves those that are null unchanged; ids of other users' tasks are ignored.
+ */
+public class TaskBulkRequest {
+    
+    @NotNull
+    @Size(min = 1, max = 1000)
+    private List<Long> ids;
+    
+    @NotBlank(message = "Action is required")
+    @Pattern(regexp = "update|delete", message = "Action must be update or delete")
+    private String action;
+    
+    private Boolean completed;
+    
+    private String category;
+    
+    @Pattern(regexp = "low|medium|high", message = "Priority must be low, medium, or high")
+    private String priority;
+    
+    private LocalDateTime dueDate;
+    
+    // Constructors
+    public TaskBulkRequest() {}
+    
+    public TaskBulkRequest(List<Long> ids, String action) {
+        this.ids = ids;
+        this.action = action;
+    }
+    
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+    
+    public Boolean getCompleted() { return completed; }
+    public void setCompleted(Boolean completed) { this.completed = completed; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+    
+    public LocalDateTime getDueDate() { return dueDate; }
+    public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
+}
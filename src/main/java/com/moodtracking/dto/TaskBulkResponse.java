@@ -0,0 +1,27 @@
+package com.moodtracking.dto;
+
+public class TaskBulkResponse {
+    
+    private String action;
+    private int requested;
+    private int affected;
+    
+    // Constructors
+    public TaskBulkResponse() {}
+    
+    public TaskBulkResponse(String action, int requested, int affected) {
+        this.action = action;
+        this.requested = requested;
+        this.affected = affected;
+    }
+    
+    // Getters and Setters
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+    
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+    
+    public int getAffected() { return affected; }
+    public void setAffected(int affected) { this.affected = affected; }
+}
@@ -0,0 +1,39 @@
+package com.moodtracking.dto;
+
+import java.util.List;
+
+public class TaskPage {
+    
+    private List<TaskResponse> tasks;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    
+    // Constructors
+    public TaskPage() {}
+    
+    public TaskPage(List<TaskResponse> tasks, int page, int size, long totalElements, int totalPages) {
+        this.tasks = tasks;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+    
+    // Getters and Setters
+    public List<TaskResponse> getTasks() { return tasks; }
+    public void setTasks(List<TaskResponse> tasks) { this.tasks = tasks; }
+    
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    
+    public long getTotalElements() { return totalElements; }
+    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+    
+    public int getTotalPages() { return totalPages; }
+    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+}
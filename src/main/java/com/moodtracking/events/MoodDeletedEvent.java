@@ -0,0 +1,13 @@
+package com.moodtracking.events;
+
+import com.moodtracking.models.Mood;
+
+/**
+ * A mood was deleted; the event holds its last values
+ */
+public class MoodDeletedEvent extends MoodEvent {
+    
+    public MoodDeletedEvent(Mood mood) {
+        super(mood);
+    }
+}
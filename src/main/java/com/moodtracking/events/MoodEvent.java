@@ -0,0 +1,31 @@
+package com.moodtracking.events;
+
+import java.time.LocalDateTime;
+
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.Mood.MoodType;
+
+/**
+ * A change to a user's moods, published by MoodService inside the writing transaction
+ * and handled once it commits. Carries plain values so it can outlive the persistence
+ * context.
+ */
+public abstract class MoodEvent {
+    
+    private final Long userId;
+    private final Long moodId;
+    private final MoodType moodType;
+    private final LocalDateTime timestamp;
+    
+    protected MoodEvent(Mood mood) {
+        this.userId = mood.getUser().getId();
+        this.moodId = mood.getId();
+        this.moodType = mood.getMoodType();
+        this.timestamp = mood.getTimestamp();
+    }
+    
+    public Long getUserId() { return userId; }
+    public Long getMoodId() { return moodId; }
+    public MoodType getMoodType() { return moodType; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+}
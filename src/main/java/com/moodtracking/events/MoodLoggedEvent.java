@@ -0,0 +1,13 @@
+package com.moodtracking.events;
+
+import com.moodtracking.models.Mood;
+
+/**
+ * A mood was added, on its own or as part of an import
+ */
+public class MoodLoggedEvent extends MoodEvent {
+    
+    public MoodLoggedEvent(Mood mood) {
+        super(mood);
+    }
+}
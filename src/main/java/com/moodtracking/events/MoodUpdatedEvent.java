@@ -0,0 +1,19 @@
+package com.moodtracking.events;
+
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.Mood.MoodType;
+
+/**
+ * A mood's type or notes were changed; the event holds the new values
+ */
+public class MoodUpdatedEvent extends MoodEvent {
+    
+    private final MoodType previousType;
+    
+    public MoodUpdatedEvent(Mood mood, MoodType previousType) {
+        super(mood);
+        this.previousType = previousType;
+    }
+    
+    public MoodType getPreviousType() { return previousType; }
+}
@@ -0,0 +1,48 @@
+package com.moodtracking.events;
+
+import com.moodtracking.dto.SearchResult;
+
+/**
+ * A searchable note, task or conversation message written or deleted, published inside
+ * the writing transaction and applied to the search index once it commits. A null
+ * document id stands for all of the user's documents of the type.
+ */
+public final class SearchDocumentEvent {
+    
+    private final SearchResult.Type type;
+    private final Long userId;
+    private final Long documentId;
+    private final String title;
+    private final String body;
+    private final boolean removed;
+    
+    private SearchDocumentEvent(SearchResult.Type type, Long userId, Long documentId, String title, String body,
+                                boolean removed) {
+        this.type = type;
+        this.userId = userId;
+        this.documentId = documentId;
+        this.title = title;
+        this.body = body;
+        this.removed = removed;
+    }
+    
+    public static SearchDocumentEvent indexed(SearchResult.Type type, Long userId, Long documentId, String title,
+                                              String body) {
+        return new SearchDocumentEvent(type, userId, documentId, title, body, false);
+    }
+    
+    public static SearchDocumentEvent removed(SearchResult.Type type, Long userId, Long documentId) {
+        return new SearchDocumentEvent(type, userId, documentId, null, null, true);
+    }
+    
+    public static SearchDocumentEvent removedAll(SearchResult.Type type, Long userId) {
+        return new SearchDocumentEvent(type, userId, null, null, null, true);
+    }
+    
+    public SearchResult.Type getType() { return type; }
+    public Long getUserId() { return userId; }
+    public Long getDocumentId() { return documentId; }
+    public String getTitle() { return title; }
+    public String getBody() { return body; }
+    public boolean isRemoved() { return removed; }
+}
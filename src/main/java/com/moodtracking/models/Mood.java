@@ -10,18 +10,23 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "moods")
+@Table(name = "moods", indexes = @Index(name = "idx_moods_user_timestamp", columnList = "user_id, timestamp DESC, id DESC"))
 public class Mood {
     
+    // Pooled ids let Hibernate batch inserts; IDENTITY would need a round trip per row.
+    // MySQL has no sequences, so there moods_seq is a one-row table.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "moods_seq")
+    @SequenceGenerator(name = "moods_seq", sequenceName = "moods_seq", allocationSize = 50)
     private Long id;
     
     @NotNull
@@ -41,7 +46,10 @@ public class Mood {
     
     @PrePersist
     protected void onCreate() {
-        timestamp = LocalDateTime.now();
+        // Moods logged offline arrive with the time they were recorded
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
     }
     
     // Constructors
@@ -0,0 +1,64 @@
+package com.moodtracking.models;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Number of moods and sum of their trend scores for one user on one calendar day.
+ */
+@Entity
+@Table(name = "mood_daily_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "rollup_date"}))
+public class MoodDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "mood_count", nullable = false)
+    private Integer moodCount = 0;
+
+    @Column(name = "score_sum", nullable = false)
+    private Long scoreSum = 0L;
+
+    // Constructors
+    public MoodDailyRollup() {}
+
+    public MoodDailyRollup(User user, LocalDate rollupDate) {
+        this.user = user;
+        this.rollupDate = rollupDate;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public Integer getMoodCount() { return moodCount; }
+    public void setMoodCount(Integer moodCount) { this.moodCount = moodCount; }
+
+    public Long getScoreSum() { return scoreSum; }
+    public void setScoreSum(Long scoreSum) { this.scoreSum = scoreSum; }
+}
@@ -0,0 +1,134 @@
+package com.moodtracking.models;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.moodtracking.models.Mood.MoodType;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.MapKeyEnumerated;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+/**
+ * Running per-user summary of everything a user has logged, kept up to date
+ * by MoodService writes so analytics never has to re-scan the moods table.
+ */
+@Entity
+@Table(name = "mood_rollups")
+public class MoodRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, unique = true)
+    private User user;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "mood_rollup_counts", joinColumns = @JoinColumn(name = "rollup_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "mood_type")
+    @Column(name = "mood_count")
+    private Map<MoodType, Long> moodCounts = new EnumMap<>(MoodType.class);
+
+    @Column(name = "total_moods", nullable = false)
+    private Long totalMoods = 0L;
+
+    @Column(name = "days_tracked", nullable = false)
+    private Integer daysTracked = 0;
+
+    @Column(name = "first_mood_at")
+    private LocalDateTime firstMoodAt;
+
+    @Column(name = "last_mood_at")
+    private LocalDateTime lastMoodAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_mood_type")
+    private MoodType lastMoodType;
+
+    @Column(name = "current_positive_streak", nullable = false)
+    private Integer currentPositiveStreak = 0;
+
+    @Column(name = "current_negative_streak", nullable = false)
+    private Integer currentNegativeStreak = 0;
+
+    @Column(name = "longest_positive_streak", nullable = false)
+    private Integer longestPositiveStreak = 0;
+
+    // Set when a change may have shortened the longest positive run; the next read rescans the timeline
+    @Column(name = "sequence_stale", nullable = false)
+    private Boolean sequenceStale = false;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public MoodRollup() {}
+
+    public MoodRollup(User user) {
+        this.user = user;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public Map<MoodType, Long> getMoodCounts() { return moodCounts; }
+    public void setMoodCounts(Map<MoodType, Long> moodCounts) { this.moodCounts = moodCounts; }
+
+    public Long getTotalMoods() { return totalMoods; }
+    public void setTotalMoods(Long totalMoods) { this.totalMoods = totalMoods; }
+
+    public Integer getDaysTracked() { return daysTracked; }
+    public void setDaysTracked(Integer daysTracked) { this.daysTracked = daysTracked; }
+
+    public LocalDateTime getFirstMoodAt() { return firstMoodAt; }
+    public void setFirstMoodAt(LocalDateTime firstMoodAt) { this.firstMoodAt = firstMoodAt; }
+
+    public LocalDateTime getLastMoodAt() { return lastMoodAt; }
+    public void setLastMoodAt(LocalDateTime lastMoodAt) { this.lastMoodAt = lastMoodAt; }
+
+    public MoodType getLastMoodType() { return lastMoodType; }
+    public void setLastMoodType(MoodType lastMoodType) { this.lastMoodType = lastMoodType; }
+
+    public Integer getCurrentPositiveStreak() { return currentPositiveStreak; }
+    public void setCurrentPositiveStreak(Integer currentPositiveStreak) { this.currentPositiveStreak = currentPositiveStreak; }
+
+    public Integer getCurrentNegativeStreak() { return currentNegativeStreak; }
+    public void setCurrentNegativeStreak(Integer currentNegativeStreak) { this.currentNegativeStreak = currentNegativeStreak; }
+
+    public Integer getLongestPositiveStreak() { return longestPositiveStreak; }
+    public void setLongestPositiveStreak(Integer longestPositiveStreak) { this.longestPositiveStreak = longestPositiveStreak; }
+
+    public Boolean getSequenceStale() { return sequenceStale; }
+    public void setSequenceStale(Boolean sequenceStale) { this.sequenceStale = sequenceStale; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
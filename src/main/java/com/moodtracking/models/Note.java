@@ -10,12 +10,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "notes")
+@Table(name = "notes", indexes = @Index(name = "idx_notes_user_created", columnList = "user_id, created_at"))
 public class Note {
     
     @Id
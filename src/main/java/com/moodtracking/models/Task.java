@@ -10,12 +10,16 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_user_created", columnList = "user_id, created_at"),
+    @Index(name = "idx_tasks_user_completed_due", columnList = "user_id, completed, due_date")
+})
 public class Task {
     
     @Id
@@ -40,6 +44,10 @@ public class Task {
     @Column(name = "due_date")
     private LocalDateTime dueDate;
     
+    // When the due notification was sent for the current due date
+    @Column(name = "due_notified_at")
+    private LocalDateTime dueNotifiedAt;
+    
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -86,6 +94,9 @@ public class Task {
     public LocalDateTime getDueDate() { return dueDate; }
     public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
     
+    public LocalDateTime getDueNotifiedAt() { return dueNotifiedAt; }
+    public void setDueNotifiedAt(LocalDateTime dueNotifiedAt) { this.dueNotifiedAt = dueNotifiedAt; }
+    
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
     
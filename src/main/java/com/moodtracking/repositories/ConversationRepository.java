@@ -1,13 +1,18 @@
 package com.moodtracking.repositories;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.moodtracking.dto.ConversationDTO;
 import com.moodtracking.models.Conversation;
 import com.moodtracking.models.User;
 
@@ -25,10 +30,10 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     List<Conversation> findBySessionIdOrderByCreatedAtAsc(String sessionId);
     
     /**
-     * Find recent conversations for a user (last N messages)
+     * Find recent conversations for a user (last N messages, N = page size), newest first
      */
-    @Query("SELECT c FROM Conversation c WHERE c.user = :user ORDER BY c.createdAt DESC")
-    List<Conversation> findRecentByUser(@Param("user") User user);
+    @Query("SELECT c FROM Conversation c WHERE c.user = :user ORDER BY c.createdAt DESC, c.id DESC")
+    List<Conversation> findRecentByUser(@Param("user") User user, Pageable pageable);
     
     /**
      * Find conversations within a time range
@@ -37,12 +42,38 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
         User user, LocalDateTime start, LocalDateTime end);
     
     /**
-     * Delete old conversations (data cleanup)
+     * Delete all of a user's conversations in one statement, without loading them, in
+     * its own transaction when the caller has none
      */
-    void deleteByCreatedAtBefore(LocalDateTime before);
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Conversation c WHERE c.user = :user")
+    int deleteAllByUser(@Param("user") User user);
+    
+    /**
+     * The user's conversations among the given ids, such as a page of search results
+     */
+    List<Conversation> findByUserAndIdIn(User user, Collection<Long> ids);
     
     /**
      * Count conversations for a user
      */
     long countByUser(User user);
+    
+    /**
+     * First page of the data export's messages as DTOs, newest first as the index is stored
+     */
+    @Query("SELECT new com.moodtracking.dto.ConversationDTO(c.id, c.message, c.sender, c.createdAt, c.sessionId) " +
+           "FROM Conversation c WHERE c.user = :user ORDER BY c.createdAt DESC, c.id DESC")
+    List<ConversationDTO> findDtosPage(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * Next page of the data export's messages after the (createdAt, id) keyset of the last one
+     */
+    @Query("SELECT new com.moodtracking.dto.ConversationDTO(c.id, c.message, c.sender, c.createdAt, c.sessionId) " +
+           "FROM Conversation c WHERE c.user = :user " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ConversationDTO> findDtosPageAfter(@Param("user") User user, @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id, Pageable pageable);
 }
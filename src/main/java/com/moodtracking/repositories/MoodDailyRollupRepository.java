@@ -0,0 +1,27 @@
+package com.moodtracking.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.moodtracking.models.MoodDailyRollup;
+import com.moodtracking.models.User;
+
+@Repository
+public interface MoodDailyRollupRepository extends JpaRepository<MoodDailyRollup, Long> {
+
+    Optional<MoodDailyRollup> findByUserAndRollupDate(User user, LocalDate rollupDate);
+
+    List<MoodDailyRollup> findByUserAndRollupDateBetweenOrderByRollupDateAsc(
+        User user, LocalDate startDate, LocalDate endDate);
+
+    @Modifying
+    @Query("DELETE FROM MoodDailyRollup d WHERE d.user = :user")
+    void deleteAllByUser(@Param("user") User user);
+}
@@ -3,11 +3,13 @@ package com.moodtracking.repositories;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.moodtracking.dto.MoodEntryResponse;
 import com.moodtracking.models.MoodEntry;
 import com.moodtracking.models.User;
 
@@ -24,4 +26,21 @@ public interface MoodEntryRepository extends JpaRepository<MoodEntry, Long> {
     
     @Query("SELECT m FROM MoodEntry m WHERE m.user = :user ORDER BY m.createdAt DESC")
     List<MoodEntry> findRecentMoodEntries(@Param("user") User user);
-}
\ No newline at end of file
+    
+    /**
+     * First page of the data export's entries as DTOs, in index order
+     */
+    @Query("SELECT new com.moodtracking.dto.MoodEntryResponse(m.id, m.moodRating, m.notes, m.createdAt) " +
+           "FROM MoodEntry m WHERE m.user = :user ORDER BY m.createdAt ASC, m.id ASC")
+    List<MoodEntryResponse> findResponsesPage(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * Next page of the data export's entries after the (createdAt, id) keyset of the last one
+     */
+    @Query("SELECT new com.moodtracking.dto.MoodEntryResponse(m.id, m.moodRating, m.notes, m.createdAt) " +
+           "FROM MoodEntry m WHERE m.user = :user " +
+           "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    List<MoodEntryResponse> findResponsesPageAfter(@Param("user") User user, @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id, Pageable pageable);
+}
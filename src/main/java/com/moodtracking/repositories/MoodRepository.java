@@ -3,21 +3,32 @@ package com.moodtracking.repositories;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.moodtracking.dto.MoodResponse;
 import com.moodtracking.models.Mood;
 import com.moodtracking.models.User;
 
 @Repository
-public interface MoodRepository extends JpaRepository<Mood, Long> {
+public interface MoodRepository extends JpaRepository<Mood, Long>, MoodSeriesRepository {
     
-    List<Mood> findByUserOrderByTimestampDesc(User user);
+    /**
+     * History as response DTOs, newest first. Selecting the columns directly, username
+     * included, avoids loading each mood's lazy user to map it.
+     */
+    @Query("SELECT new com.moodtracking.dto.MoodResponse(m.id, m.moodType, m.notes, m.timestamp, u.username) " +
+           "FROM Mood m JOIN m.user u WHERE m.user = :user ORDER BY m.timestamp DESC")
+    List<MoodResponse> findResponsesByUser(@Param("user") User user);
     
-    List<Mood> findByUserAndTimestampBetweenOrderByTimestampDesc(
-        User user, LocalDateTime startDate, LocalDateTime endDate);
+    @Query("SELECT new com.moodtracking.dto.MoodResponse(m.id, m.moodType, m.notes, m.timestamp, u.username) " +
+           "FROM Mood m JOIN m.user u WHERE m.user = :user AND m.timestamp BETWEEN :startDate AND :endDate " +
+           "ORDER BY m.timestamp DESC")
+    List<MoodResponse> findResponsesByUserBetween(@Param("user") User user, @Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate);
     
     @Query("SELECT m FROM Mood m WHERE m.user = :user AND m.timestamp >= :startDate ORDER BY m.timestamp DESC")
     List<Mood> findMoodsByUserAndDateAfter(@Param("user") User user, @Param("startDate") LocalDateTime startDate);
@@ -28,5 +39,72 @@ public interface MoodRepository extends JpaRepository<Mood, Long> {
     @Query("SELECT m.moodType, COUNT(m) FROM Mood m WHERE m.user = :user AND m.timestamp >= :startDate GROUP BY m.moodType")
     List<Object[]> getMoodStatsByUser(@Param("user") User user, @Param("startDate") LocalDateTime startDate);
     
-    List<Mood> findTop10ByUserOrderByTimestampDesc(User user);
-}
\ No newline at end of file
+    /**
+     * The newest moods as response DTOs, as many as the page size
+     */
+    @Query("SELECT new com.moodtracking.dto.MoodResponse(m.id, m.moodType, m.notes, m.timestamp, u.username) " +
+           "FROM Mood m JOIN m.user u WHERE m.user = :user ORDER BY m.timestamp DESC")
+    List<MoodResponse> findRecentResponsesByUser(@Param("user") User user, Pageable pageable);
+    
+    @Query("SELECT m.moodType, m.timestamp FROM Mood m WHERE m.user = :user ORDER BY m.timestamp ASC, m.id ASC")
+    List<Object[]> findMoodTimelineByUser(@Param("user") User user);
+    
+    /**
+     * Type, timestamp and id of the user's moods, newest first, as many as the page size
+     */
+    @Query("SELECT m.moodType, m.timestamp, m.id FROM Mood m WHERE m.user = :user ORDER BY m.timestamp DESC, m.id DESC")
+    List<Object[]> findTimelineNewestFirst(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * Type, timestamp and id of the moods before (timestamp, id), walking back from it
+     */
+    @Query("SELECT m.moodType, m.timestamp, m.id FROM Mood m WHERE m.user = :user " +
+           "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<Object[]> findTimelineBefore(@Param("user") User user, @Param("timestamp") LocalDateTime timestamp,
+                                      @Param("id") Long id, Pageable pageable);
+    
+    /**
+     * Type, timestamp and id of the moods after (timestamp, id), walking forward from it
+     */
+    @Query("SELECT m.moodType, m.timestamp, m.id FROM Mood m WHERE m.user = :user " +
+           "AND (m.timestamp > :timestamp OR (m.timestamp = :timestamp AND m.id > :id)) " +
+           "ORDER BY m.timestamp ASC, m.id ASC")
+    List<Object[]> findTimelineAfter(@Param("user") User user, @Param("timestamp") LocalDateTime timestamp,
+                                     @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT MIN(m.timestamp) FROM Mood m WHERE m.user = :user")
+    LocalDateTime findFirstMoodTimestamp(@Param("user") User user);
+    
+    /**
+     * First page of a user's history, newest first with id as the tie-breaker
+     */
+    @Query("SELECT m FROM Mood m WHERE m.user = :user ORDER BY m.timestamp DESC, m.id DESC")
+    List<Mood> findHistoryPage(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * Next page after the (timestamp, id) keyset of the last mood already returned
+     */
+    @Query("SELECT m FROM Mood m WHERE m.user = :user " +
+           "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<Mood> findHistoryPageAfter(@Param("user") User user, @Param("timestamp") LocalDateTime timestamp,
+                                    @Param("id") Long id, Pageable pageable);
+    
+    /**
+     * First page of moods as response DTOs, in index order, for the data export and the NDJSON history
+     */
+    @Query("SELECT new com.moodtracking.dto.MoodResponse(m.id, m.moodType, m.notes, m.timestamp, u.username) " +
+           "FROM Mood m JOIN m.user u WHERE m.user = :user ORDER BY m.timestamp DESC, m.id DESC")
+    List<MoodResponse> findResponsesPage(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * Next page of those moods after the (timestamp, id) keyset of the last one
+     */
+    @Query("SELECT new com.moodtracking.dto.MoodResponse(m.id, m.moodType, m.notes, m.timestamp, u.username) " +
+           "FROM Mood m JOIN m.user u WHERE m.user = :user " +
+           "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<MoodResponse> findResponsesPageAfter(@Param("user") User user, @Param("timestamp") LocalDateTime timestamp,
+                                              @Param("id") Long id, Pageable pageable);
+}
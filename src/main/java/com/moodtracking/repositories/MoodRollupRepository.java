@@ -0,0 +1,27 @@
+package com.moodtracking.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.moodtracking.models.MoodRollup;
+import com.moodtracking.models.User;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface MoodRollupRepository extends JpaRepository<MoodRollup, Long> {
+
+    Optional<MoodRollup> findByUser(User user);
+
+    /**
+     * Load the rollup row locked for update so concurrent writes for the same user serialize
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM MoodRollup r WHERE r.user = :user")
+    Optional<MoodRollup> findByUserForUpdate(@Param("user") User user);
+}
@@ -0,0 +1,24 @@
+package com.moodtracking.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.moodtracking.models.Mood.MoodType;
+import com.moodtracking.models.User;
+
+/**
+ * Trend-chart aggregation done by the database, so a long range returns one row per
+ * bucket instead of every mood.
+ */
+public interface MoodSeriesRepository {
+    
+    /**
+     * Count and summed score of the user's moods in [from, to), grouped by "day", "week"
+     * (starting Monday) or "month". Scores come from the given table and default to
+     * defaultScore. Rows are {LocalDate start of the bucket, Long count, Long score sum},
+     * oldest first, for buckets holding at least one mood.
+     */
+    List<Object[]> findScoreSeries(User user, LocalDateTime from, LocalDateTime to, String granularity,
+                                   Map<MoodType, Integer> scores, int defaultScore);
+}
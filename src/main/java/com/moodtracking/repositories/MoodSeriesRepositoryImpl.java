@@ -0,0 +1,76 @@
+package com.moodtracking.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.moodtracking.models.Mood.MoodType;
+import com.moodtracking.models.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Buckets are computed with HQL date functions, which Hibernate renders for both H2
+ * and MySQL: the calendar date for days, whole weeks since a fixed Monday for
+ * weeks, and year and month for months.
+ */
+class MoodSeriesRepositoryImpl implements MoodSeriesRepository {
+    
+    private static final String DAY = "extract(date from m.timestamp)";
+    // Whole weeks since a Monday; a literal rather than a parameter, so the selected and
+    // grouped expressions are identical to the database
+    private static final LocalDate WEEK_ORIGIN = LocalDate.of(1970, 1, 5);
+    private static final String WEEK = "floor(((extract(date from m.timestamp) - {d '" + WEEK_ORIGIN + "'}) by day) / 7)";
+    private static final String MONTH = "extract(year from m.timestamp), extract(month from m.timestamp)";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Object[]> findScoreSeries(User user, LocalDateTime from, LocalDateTime to, String granularity,
+                                          Map<MoodType, Integer> scores, int defaultScore) {
+        String bucket = switch (granularity) {
+            case "day" -> DAY;
+            case "week" -> WEEK;
+            case "month" -> MONTH;
+            default -> throw new IllegalArgumentException("Unknown granularity: " + granularity);
+        };
+        
+        List<Object[]> rows = entityManager.createQuery(
+            "SELECT " + bucket + ", COUNT(m), SUM(" + scoreCase(scores, defaultScore) + ") FROM Mood m " +
+            "WHERE m.user = :user AND m.timestamp >= :from AND m.timestamp < :to " +
+            "GROUP BY " + bucket + " ORDER BY " + bucket, Object[].class)
+            .setParameter("user", user)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .getResultList();
+        List<Object[]> series = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            int columns = row.length;
+            LocalDate start = switch (granularity) {
+                case "day" -> (LocalDate) row[0];
+                case "week" -> WEEK_ORIGIN.plusWeeks(((Number) row[0]).longValue());
+                default -> LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1);
+            };
+            series.add(new Object[] {
+                start, ((Number) row[columns - 2]).longValue(), ((Number) row[columns - 1]).longValue()
+            });
+        }
+        return series;
+    }
+    
+    /**
+     * CASE m.moodType WHEN ... THEN score ... END, with the enum constants as literals
+     */
+    private static String scoreCase(Map<MoodType, Integer> scores, int defaultScore) {
+        StringBuilder sql = new StringBuilder("CASE m.moodType");
+        for (Map.Entry<MoodType, Integer> score : scores.entrySet()) {
+            sql.append(" WHEN ").append(MoodType.class.getName()).append('.')
+                .append(score.getKey().name()).append(" THEN ").append(score.getValue().intValue());
+        }
+        return sql.append(" ELSE ").append(defaultScore).append(" END").toString();
+    }
+}
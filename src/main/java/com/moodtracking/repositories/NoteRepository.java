@@ -1,11 +1,17 @@
 package com.moodtracking.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.moodtracking.dto.NoteResponse;
 import com.moodtracking.models.Note;
 import com.moodtracking.models.User;
 
@@ -15,4 +21,22 @@ public interface NoteRepository extends JpaRepository<Note, Long> {
     Optional<Note> findByIdAndUser(Long id, User user);
     List<Note> findByUserAndCategoryOrderByCreatedAtDesc(User user, String category);
     void deleteByIdAndUser(Long id, User user);
+    List<Note> findByUserAndIdIn(User user, Collection<Long> ids);
+    
+    /**
+     * First page of the data export's notes as DTOs, in index order
+     */
+    @Query("SELECT new com.moodtracking.dto.NoteResponse(n.id, n.title, n.content, n.category, n.createdAt, n.updatedAt) " +
+           "FROM Note n WHERE n.user = :user ORDER BY n.createdAt ASC, n.id ASC")
+    List<NoteResponse> findResponsesPage(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * Next page of the data export's notes after the (createdAt, id) keyset of the last one
+     */
+    @Query("SELECT new com.moodtracking.dto.NoteResponse(n.id, n.title, n.content, n.category, n.createdAt, n.updatedAt) " +
+           "FROM Note n WHERE n.user = :user " +
+           "AND (n.createdAt > :createdAt OR (n.createdAt = :createdAt AND n.id > :id)) " +
+           "ORDER BY n.createdAt ASC, n.id ASC")
+    List<NoteResponse> findResponsesPageAfter(@Param("user") User user, @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id, Pageable pageable);
 }
@@ -4,11 +4,14 @@ import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.moodtracking.dto.NotificationReminderResponse;
+import com.moodtracking.dto.ScheduledReminder;
 import com.moodtracking.models.NotificationReminder;
 import com.moodtracking.models.User;
 
@@ -55,9 +58,18 @@ public interface NotificationReminderRepository extends JpaRepository<Notificati
     long countActiveRemindersByUser(@Param("user") User user);
     
     /**
-     * Find reminders that need to be processed (considering timezone)
+     * Snapshot every active reminder for the in-memory schedule, without loading entities
      */
-    @Query("SELECT nr FROM NotificationReminder nr WHERE nr.isActive = true AND " +
-           "FUNCTION('TIME', CONVERT_TZ(NOW(), 'UTC', nr.timezone)) BETWEEN :startTime AND :endTime")
-    List<NotificationReminder> findRemindersToProcess(@Param("startTime") LocalTime startTime, @Param("endTime") LocalTime endTime);
-}
\ No newline at end of file
+    @Query("SELECT new com.moodtracking.dto.ScheduledReminder(nr.id, u.username, nr.message, nr.frequency, " +
+           "nr.reminderTime, nr.timezone, nr.lastSentAt) FROM NotificationReminder nr JOIN nr.user u WHERE nr.isActive = true")
+    List<ScheduledReminder> findAllActiveScheduled();
+    
+    /**
+     * A page of the data export's reminders, active or not, as DTOs with ids above afterId
+     */
+    @Query("SELECT new com.moodtracking.dto.NotificationReminderResponse(nr.id, nr.reminderTime, nr.frequency, " +
+           "nr.isActive, nr.message, nr.timezone, nr.createdAt, nr.lastSentAt) " +
+           "FROM NotificationReminder nr WHERE nr.user = :user AND nr.id > :afterId ORDER BY nr.id")
+    List<NotificationReminderResponse> findResponsesPageAfter(@Param("user") User user, @Param("afterId") Long afterId,
+                                                              Pageable pageable);
+}
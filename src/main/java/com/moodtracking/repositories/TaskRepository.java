@@ -1,19 +1,59 @@
 package com.moodtracking.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.moodtracking.dto.DueTask;
+import com.moodtracking.dto.TaskResponse;
 import com.moodtracking.models.Task;
 import com.moodtracking.models.User;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
     List<Task> findByUserOrderByCreatedAtDesc(User user);
     Optional<Task> findByIdAndUser(Long id, User user);
     List<Task> findByUserAndCompletedOrderByCreatedAtDesc(User user, Boolean completed);
     List<Task> findByUserAndCategoryOrderByCreatedAtDesc(User user, String category);
     void deleteByIdAndUser(Long id, User user);
+    List<Task> findByUserAndIdIn(User user, Collection<Long> ids);
+    
+    /**
+     * Snapshot every open task with a due date for the in-memory due schedule, without loading entities
+     */
+    @Query("SELECT new com.moodtracking.dto.DueTask(t.id, u.id, u.username, t.title, t.category, t.priority, " +
+           "t.dueDate, t.dueNotifiedAt) FROM Task t JOIN t.user u WHERE t.completed = false AND t.dueDate IS NOT NULL")
+    List<DueTask> findAllDueScheduled();
+    
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.user = :user AND t.id IN :ids")
+    int deleteAllByUserAndIdIn(@Param("user") User user, @Param("ids") Collection<Long> ids);
+    
+    /**
+     * First page of the data export's tasks as DTOs, in index order
+     */
+    @Query("SELECT new com.moodtracking.dto.TaskResponse(t.id, t.title, t.description, t.category, t.priority, " +
+           "t.completed, t.dueDate, t.createdAt, t.updatedAt) " +
+           "FROM Task t WHERE t.user = :user ORDER BY t.createdAt ASC, t.id ASC")
+    List<TaskResponse> findResponsesPage(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * Next page of the data export's tasks after the (createdAt, id) keyset of the last one
+     */
+    @Query("SELECT new com.moodtracking.dto.TaskResponse(t.id, t.title, t.description, t.category, t.priority, " +
+           "t.completed, t.dueDate, t.createdAt, t.updatedAt) " +
+           "FROM Task t WHERE t.user = :user " +
+           "AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) " +
+           "ORDER BY t.createdAt ASC, t.id ASC")
+    List<TaskResponse> findResponsesPageAfter(@Param("user") User user, @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,96 @@
+package com.moodtracking.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.moodtracking.models.Task;
+import com.moodtracking.models.User;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+
+/**
+ * Criteria for TaskRepository.findAll, combined with Specification.where(...).and(...).
+ * Each filter left null by the caller matches every task.
+ */
+public final class TaskSpecifications {
+    
+    public static final Set<String> SORT_FIELDS = Set.of("createdAt", "updatedAt", "dueDate", "priority", "title");
+    
+    private TaskSpecifications() {}
+    
+    public static Specification<Task> ownedBy(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+    
+    public static Specification<Task> completed(Boolean completed) {
+        return (root, query, cb) -> completed == null ? null : cb.equal(root.get("completed"), completed);
+    }
+    
+    public static Specification<Task> inCategory(String category) {
+        return (root, query, cb) -> category == null ? null : cb.equal(root.get("category"), category);
+    }
+    
+    public static Specification<Task> withPriority(String priority) {
+        return (root, query, cb) -> priority == null ? null : cb.equal(root.get("priority"), priority);
+    }
+    
+    /**
+     * Due at or after from and before to; either bound may be null, and tasks without a
+     * due date only match when both are
+     */
+    public static Specification<Task> dueBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from == null && to == null) {
+                return null;
+            }
+            if (from == null) {
+                return cb.lessThan(root.get("dueDate"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("dueDate"), from);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(root.get("dueDate"), from), cb.lessThan(root.get("dueDate"), to));
+        };
+    }
+    
+    /**
+     * Order by one of SORT_FIELDS, newest id first among equals. Priority orders by rank
+     * rather than name, and tasks without a due date sort after those with one either way.
+     * Applied in the query itself, so pass an unsorted Pageable alongside it.
+     */
+    public static Specification<Task> sortedBy(String field, boolean descending) {
+        if (!SORT_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Cannot sort tasks by " + field + "; use one of " + SORT_FIELDS);
+        }
+        return (root, query, cb) -> {
+            // The page's count query must not be ordered
+            if (Long.class.equals(query.getResultType())) {
+                return null;
+            }
+            Expression<?> key;
+            Order nullsLast = null;
+            if ("priority".equals(field)) {
+                key = cb.selectCase(root.get("priority"))
+                        .when("high", 3)
+                        .when("medium", 2)
+                        .when("low", 1)
+                        .otherwise(0);
+            } else {
+                key = root.get(field);
+                if ("dueDate".equals(field)) {
+                    nullsLast = cb.asc(cb.selectCase().when(cb.isNull(key), 1).otherwise(0));
+                }
+            }
+            Order byKey = descending ? cb.desc(key) : cb.asc(key);
+            if (nullsLast != null) {
+                query.orderBy(nullsLast, byKey, cb.desc(root.get("id")));
+            } else {
+                query.orderBy(byKey, cb.desc(root.get("id")));
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package com.moodtracking.services;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.moodtracking.dto.MoodAnalyticsResponse;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Computed analytics per user and window (days, 0 for all time), so the several
+ * analytics endpoints a dashboard calls share one computation. A user's entries are
+ * evicted once a write to their moods commits (see MoodEventProcessor), never from
+ * inside the writing transaction, where a reader could cache the old state again
+ * before the commit; the TTL covers windows sliding past older moods. Concurrent requests for the same entry wait for a single computation.
+ *
+ * Cached responses are shared between callers and must not be modified.
+ */
+@Component
+public class AnalyticsResponseCache {
+
+    // Windows kept per user; clients normally ask for a handful of fixed ranges
+    private static final int MAX_WINDOWS_PER_USER = 8;
+
+    @Value("${analytics.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${analytics.cache.max-size:10000}")
+    private int maxSize;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Least recently used users first; guarded by this
+    private Map<Long, Map<Integer, CachedResponse>> users;
+
+    @PostConstruct
+    public void init() {
+        int capacity = maxSize;
+        users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Integer, CachedResponse>> eldest) {
+                return size() > capacity;
+            }
+        };
+
+        if (meterRegistry != null) {
+            FunctionCounter.builder("analytics.cache.requests", hits, LongAdder::sum)
+                    .tag("result", "hit")
+                    .description("Analytics requests answered from the cache")
+                    .register(meterRegistry);
+            FunctionCounter.builder("analytics.cache.requests", misses, LongAdder::sum)
+                    .tag("result", "miss")
+                    .description("Analytics requests that computed the response")
+                    .register(meterRegistry);
+            FunctionCounter.builder("analytics.cache.evictions", evictions, LongAdder::sum)
+                    .description("Users whose analytics were evicted after a mood write")
+                    .register(meterRegistry);
+            Gauge.builder("analytics.cache.size", this, AnalyticsResponseCache::size)
+                    .description("Users with cached analytics")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Return the cached analytics for the window, or compute and cache them.
+     * A failed computation isn't cached.
+     */
+    public MoodAnalyticsResponse get(Long userId, int days, Supplier<MoodAnalyticsResponse> loader) {
+        CachedResponse cached;
+        boolean load = false;
+        synchronized (this) {
+            Map<Integer, CachedResponse> windows = users.computeIfAbsent(userId, id -> new HashMap<>());
+            long now = clock.millis();
+            cached = windows.get(days);
+            if (cached == null || now >= cached.expiresAtMs) {
+                if (cached == null && windows.size() >= MAX_WINDOWS_PER_USER) {
+                    windows.values().removeIf(response -> now >= response.expiresAtMs);
+                    if (windows.size() >= MAX_WINDOWS_PER_USER) {
+                        windows.clear();
+                    }
+                }
+                cached = new CachedResponse(new FutureTask<>(loader::get), now + ttlSeconds * 1000L);
+                windows.put(days, cached);
+                load = true;
+            }
+        }
+
+        if (load) {
+            misses.increment();
+            cached.task.run();
+        } else {
+            hits.increment();
+        }
+
+        try {
+            return cached.task.get();
+        } catch (ExecutionException e) {
+            discard(userId, days, cached);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for mood analytics", e);
+        }
+    }
+
+    /**
+     * Drop every window cached for the user. A computation still running when this
+     * is called finishes for its waiting callers but isn't kept.
+     */
+    public synchronized void evict(Long userId) {
+        if (users.remove(userId) != null) {
+            evictions.increment();
+        }
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private synchronized void discard(Long userId, int days, CachedResponse failed) {
+        Map<Integer, CachedResponse> windows = users.get(userId);
+        if (windows != null) {
+            windows.remove(days, failed);
+        }
+    }
+
+    private static final class CachedResponse {
+        private final FutureTask<MoodAnalyticsResponse> task;
+        private final long expiresAtMs;
+
+        CachedResponse(FutureTask<MoodAnalyticsResponse> task, long expiresAtMs) {
+            this.task = task;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
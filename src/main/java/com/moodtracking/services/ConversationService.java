@@ -1,14 +1,18 @@
 package com.moodtracking.services;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.moodtracking.dto.ConversationDTO;
+import com.moodtracking.dto.SearchResult;
+import com.moodtracking.events.SearchDocumentEvent;
 import com.moodtracking.models.Conversation;
 import com.moodtracking.models.User;
 import com.moodtracking.repositories.ConversationRepository;
@@ -16,23 +20,45 @@ import com.moodtracking.repositories.ConversationRepository;
 @Service
 public class ConversationService {
 
+    // Column sizes; messages are checked before they are logged since the insert happens later
+    private static final int MAX_MESSAGE_LENGTH = 4000;
+    private static final int MAX_SESSION_ID_LENGTH = 255;
+
     @Autowired
     private ConversationRepository conversationRepository;
 
+    @Autowired
+    private ConversationWriteBehind conversationWriteBehind;
+
+    @Autowired
+    private RetentionService retentionService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Save a conversation message
+     * Save a conversation message. It is acknowledged once logged and inserted shortly
+     * after, so the returned DTO has no id yet; the reads below wait for pending messages.
      */
-    @Transactional
     public ConversationDTO saveConversation(User user, String message, String sender, String sessionId) {
-        Conversation conversation = new Conversation(user, message, sender, sessionId);
-        Conversation saved = conversationRepository.save(conversation);
-        return convertToDTO(saved);
+        if (message == null || message.length() > MAX_MESSAGE_LENGTH) {
+            throw new IllegalArgumentException("Message must be at most " + MAX_MESSAGE_LENGTH + " characters");
+        }
+        if (!"user".equals(sender) && !"bot".equals(sender)) {
+            throw new IllegalArgumentException("Valid sender is required (user or bot)");
+        }
+        if (sessionId != null && sessionId.length() > MAX_SESSION_ID_LENGTH) {
+            throw new IllegalArgumentException("Session id must be at most " + MAX_SESSION_ID_LENGTH + " characters");
+        }
+        LocalDateTime createdAt = conversationWriteBehind.append(user.getId(), message, sender, sessionId);
+        return new ConversationDTO(null, message, sender, createdAt, sessionId);
     }
 
     /**
      * Get all conversations for a user
      */
     public List<ConversationDTO> getUserConversations(User user) {
+        conversationWriteBehind.flush();
         List<Conversation> conversations = conversationRepository.findByUserOrderByCreatedAtAsc(user);
         return conversations.stream()
                 .map(this::convertToDTO)
@@ -43,9 +69,12 @@ public class ConversationService {
      * Get recent conversations (last N messages)
      */
     public List<ConversationDTO> getRecentConversations(User user, int limit) {
-        List<Conversation> conversations = conversationRepository.findRecentByUser(user);
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        conversationWriteBehind.flush();
+        List<Conversation> conversations = conversationRepository.findRecentByUser(user, PageRequest.of(0, limit));
         return conversations.stream()
-                .limit(limit)
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -54,6 +83,7 @@ public class ConversationService {
      * Get conversations by session ID
      */
     public List<ConversationDTO> getConversationsBySession(String sessionId) {
+        conversationWriteBehind.flush();
         List<Conversation> conversations = conversationRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
         return conversations.stream()
                 .map(this::convertToDTO)
@@ -61,43 +91,49 @@ public class ConversationService {
     }
 
     /**
-     * Get conversation history for context (last 10 messages)
+     * Get conversation history for context (last N messages, oldest first)
      */
     public String getConversationContext(User user, int messageCount) {
-        List<Conversation> recent = conversationRepository.findRecentByUser(user);
+        if (messageCount <= 0) {
+            return "";
+        }
+        conversationWriteBehind.flush();
+        List<Conversation> recent = conversationRepository.findRecentByUser(user, PageRequest.of(0, messageCount));
         
+        // The query returns newest first; walk it backwards so the context reads in order
         StringBuilder context = new StringBuilder();
-        int count = 0;
-        for (int i = recent.size() - 1; i >= 0 && count < messageCount; i--, count++) {
+        for (int i = recent.size() - 1; i >= 0; i--) {
             Conversation conv = recent.get(i);
-            context.insert(0, conv.getSender() + ": " + conv.getMessage() + "\n");
+            context.append(conv.getSender()).append(": ").append(conv.getMessage()).append('\n');
         }
         
         return context.toString();
     }
 
     /**
-     * Delete conversations older than specified days
+     * Delete conversations older than specified days, in chunks
      */
-    @Transactional
-    public void deleteOldConversations(int daysOld) {
+    public long deleteOldConversations(int daysOld) {
+        conversationWriteBehind.flush();
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
-        conversationRepository.deleteByCreatedAtBefore(cutoffDate);
+        return retentionService.purge(RetentionService.CONVERSATIONS, cutoffDate);
     }
 
     /**
-     * Delete all conversations for a user
+     * Delete all conversations for a user. Pending messages are flushed before the
+     * delete's own transaction starts, so the flush never runs inside it.
      */
-    @Transactional
     public void deleteUserConversations(User user) {
-        List<Conversation> conversations = conversationRepository.findByUserOrderByCreatedAtAsc(user);
-        conversationRepository.deleteAll(conversations);
+        conversationWriteBehind.flush();
+        conversationRepository.deleteAllByUser(user);
+        eventPublisher.publishEvent(SearchDocumentEvent.removedAll(SearchResult.Type.CONVERSATION, user.getId()));
     }
 
     /**
      * Get conversation count for a user
      */
     public long getConversationCount(User user) {
+        conversationWriteBehind.flush();
         return conversationRepository.countByUser(user);
     }
 
@@ -0,0 +1,475 @@
+package com.moodtracking.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moodtracking.dto.SearchResult;
+import com.moodtracking.events.SearchDocumentEvent;
+import com.moodtracking.models.Conversation;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.ConversationRepository;
+import com.moodtracking.utils.MappedAppendLog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Write-behind for conversation messages. A message is acknowledged once it is in a
+ * local memory-mapped log; a background thread inserts logged messages in batches, one
+ * transaction each, whenever a batch fills or the flush interval passes. Each batch
+ * also records the last log sequence it inserted, so on startup the log is replayed from
+ * there: messages acknowledged before a crash are inserted, and none of them twice.
+ *
+ * The log is two fixed-size segments used in turn. Appends move to the other segment
+ * once the current one is half full and everything in the other has been inserted, so
+ * a segment is only reused after its messages are safely in the database. When both
+ * are full the appending thread flushes itself, which slows writers down rather than
+ * dropping messages.
+ *
+ * The log is per instance; several instances need their own directories.
+ */
+@Component
+public class ConversationWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationWriteBehind.class);
+
+    private static final String SELECT_CHECKPOINT =
+            "SELECT last_sequence FROM conversation_log_checkpoints WHERE log_id = ?";
+    private static final String INSERT_CHECKPOINT =
+            "INSERT INTO conversation_log_checkpoints (log_id, last_sequence) VALUES (?, ?)";
+    private static final String UPDATE_CHECKPOINT =
+            "UPDATE conversation_log_checkpoints SET last_sequence = ? WHERE log_id = ?";
+
+    @Value("${conversations.write-behind.dir:data/conversation-log}")
+    private String directory;
+
+    @Value("${conversations.write-behind.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${conversations.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${conversations.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${conversations.write-behind.fsync:false}")
+    private boolean fsync;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    private String logId;
+
+    // Guards the segments, pending and insertedSequence
+    private final Object lock = new Object();
+
+    private final MappedAppendLog[] segments = new MappedAppendLog[2];
+
+    private int active;
+
+    // Logged but not yet inserted, in sequence order
+    private final Deque<LoggedMessage> pending = new ArrayDeque<>();
+
+    private long insertedSequence;
+
+    // One flush at a time, whether by the flusher or a caller that needs the messages inserted
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Thread flusher;
+
+    private volatile boolean running;
+
+    private DistributionSummary batchSizes;
+
+    private Counter droppedMessages;
+
+    @PostConstruct
+    public void init() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // A flush called from inside a caller's transaction still commits on its own
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Path path = Paths.get(directory);
+        Files.createDirectories(path);
+        logId = readLogId(path.resolve("log.id"));
+        int capacity = segmentSizeMb * 1024 * 1024;
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = MappedAppendLog.open(path.resolve("conversations-" + i + ".log"), capacity);
+        }
+
+        if (meterRegistry != null) {
+            Gauge.builder("conversations.write_behind.pending", this, ConversationWriteBehind::getPendingCount)
+                    .description("Conversation messages logged but not yet inserted")
+                    .register(meterRegistry);
+            batchSizes = DistributionSummary.builder("conversations.write_behind.batch")
+                    .description("Conversation messages inserted per transaction")
+                    .baseUnit("messages")
+                    .register(meterRegistry);
+            droppedMessages = Counter.builder("conversations.write_behind.dropped")
+                    .description("Logged conversation messages the database rejected")
+                    .register(meterRegistry);
+        }
+
+        replay();
+
+        running = true;
+        flusher = new Thread(this::run, "conversation-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        // The flusher inserts what is still pending before it stops
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        synchronized (lock) {
+            for (MappedAppendLog segment : segments) {
+                segment.close();
+            }
+        }
+    }
+
+    /**
+     * Log a message for insertion and return the time it was received, which becomes its createdAt
+     */
+    public LocalDateTime append(Long userId, String message, String sender, String sessionId) {
+        LoggedMessage logged = new LoggedMessage(userId, message, sender, sessionId, LocalDateTime.now());
+        byte[] payload = logged.encode();
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            synchronized (lock) {
+                if (appendLocked(logged, payload)) {
+                    return logged.createdAt;
+                }
+            }
+            // Both segments hold messages that aren't inserted yet
+            flush();
+        }
+        throw new IllegalStateException("Conversation log is full; messages are not reaching the database");
+    }
+
+    /**
+     * Insert every message logged before this call. Readers call this first so they see
+     * their own writes; it returns at once when nothing is pending. Inserts commit on
+     * their own, so call it before opening a transaction: inside one it would hold a
+     * second pooled connection while the caller's is held.
+     */
+    public void flush() {
+        long upTo;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            upTo = pending.peekLast().sequence;
+        }
+
+        flushLock.lock();
+        try {
+            while (true) {
+                List<LoggedMessage> batch = new ArrayList<>(batchSize);
+                synchronized (lock) {
+                    // Only the flush holding flushLock removes from pending, so its head is stable
+                    Iterator<LoggedMessage> iterator = pending.iterator();
+                    while (iterator.hasNext() && batch.size() < batchSize) {
+                        LoggedMessage next = iterator.next();
+                        if (next.sequence > upTo) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+
+                insert(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private boolean appendLocked(LoggedMessage logged, byte[] payload) {
+        MappedAppendLog current = segments[active];
+        MappedAppendLog other = segments[1 - active];
+        boolean otherInserted = other.getNextSequence() - 1 <= insertedSequence;
+        if (otherInserted && current.size() > current.capacity() / 2) {
+            other.reset(current.getNextSequence());
+            active = 1 - active;
+            current = other;
+        }
+
+        long sequence = current.append(payload);
+        if (sequence < 0) {
+            return false;
+        }
+        if (fsync) {
+            current.force();
+        }
+        logged.sequence = sequence;
+        pending.addLast(logged);
+        if (pending.size() >= batchSize) {
+            lock.notifyAll();
+        }
+        return true;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                synchronized (lock) {
+                    if (running && pending.size() < batchSize) {
+                        lock.wait(flushIntervalMs);
+                    }
+                }
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Left pending and retried on the next interval, such as while the database is down
+                logger.error("Failed to insert {} logged conversation messages: {}", getPendingCount(), e.getMessage(), e);
+                sleepQuietly();
+            }
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("{} conversation messages left in the log at shutdown will be replayed on the next start: {}",
+                    getPendingCount(), e.getMessage());
+        }
+    }
+
+    /**
+     * Insert the batch and advance the checkpoint in one transaction. A batch the database
+     * rejects, such as one holding a message from a user deleted since, is retried a
+     * message at a time and the rejected ones are dropped so they can't block the log.
+     */
+    private void insert(List<LoggedMessage> batch) {
+        try {
+            insertInTransaction(batch, batch.get(batch.size() - 1).sequence);
+        } catch (DataIntegrityViolationException e) {
+            for (LoggedMessage logged : batch) {
+                try {
+                    insertInTransaction(List.of(logged), logged.sequence);
+                } catch (DataIntegrityViolationException rejected) {
+                    logger.error("Dropping logged conversation message {} for user {}: {}", logged.sequence,
+                            logged.userId, rejected.getMessage());
+                    if (droppedMessages != null) {
+                        droppedMessages.increment();
+                    }
+                    insertInTransaction(List.of(), logged.sequence);
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert the messages and advance the checkpoint in one transaction, then take
+     * everything up to the checkpoint out of pending. Trimming after each commit rather
+     * than each batch matters for the one-at-a-time retry: when it fails partway, such
+     * as the database going away, what already committed isn't inserted again.
+     */
+    private void insertInTransaction(List<LoggedMessage> messages, long checkpoint) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Conversation> conversations = new ArrayList<>(messages.size());
+            for (LoggedMessage logged : messages) {
+                Conversation conversation = new Conversation(entityManager.getReference(User.class, logged.userId),
+                        logged.message, logged.sender, logged.sessionId);
+                conversation.setCreatedAt(logged.createdAt);
+                conversations.add(conversation);
+            }
+            conversationRepository.saveAll(conversations);
+            conversationRepository.flush();
+            jdbcTemplate.update(UPDATE_CHECKPOINT, checkpoint, logId);
+            for (int i = 0; i < conversations.size(); i++) {
+                eventPublisher.publishEvent(SearchDocumentEvent.indexed(SearchResult.Type.CONVERSATION,
+                        messages.get(i).userId, conversations.get(i).getId(), null, messages.get(i).message));
+            }
+        });
+
+        synchronized (lock) {
+            while (!pending.isEmpty() && pending.peekFirst().sequence <= checkpoint) {
+                pending.pollFirst();
+            }
+            insertedSequence = checkpoint;
+        }
+        if (batchSizes != null && !messages.isEmpty()) {
+            batchSizes.record(messages.size());
+        }
+    }
+
+    /**
+     * Queue whatever the log holds beyond the checkpoint and try to insert it before the
+     * application takes requests; if the database refuses, the flusher keeps trying
+     */
+    private void replay() {
+        List<Long> checkpoint = jdbcTemplate.queryForList(SELECT_CHECKPOINT, Long.class, logId);
+        if (checkpoint.isEmpty()) {
+            jdbcTemplate.update(INSERT_CHECKPOINT, logId, 0L);
+            insertedSequence = 0;
+        } else {
+            insertedSequence = checkpoint.get(0);
+        }
+
+        synchronized (lock) {
+            List<MappedAppendLog.Record> records = new ArrayList<>();
+            for (MappedAppendLog segment : segments) {
+                records.addAll(segment.records());
+            }
+            records.sort(Comparator.comparingLong(MappedAppendLog.Record::getSequence));
+            for (MappedAppendLog.Record record : records) {
+                if (record.getSequence() > insertedSequence) {
+                    LoggedMessage logged = LoggedMessage.decode(record.getPayload());
+                    logged.sequence = record.getSequence();
+                    pending.addLast(logged);
+                }
+            }
+
+            active = segments[1].getNextSequence() > segments[0].getNextSequence() ? 1 : 0;
+            if (segments[active].getNextSequence() <= insertedSequence) {
+                // Everything logged is inserted and the log is behind the checkpoint, as after
+                // its files were deleted; new sequences must come after the checkpoint
+                segments[active].reset(insertedSequence + 1);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            logger.info("Replaying {} logged conversation messages", pending.size());
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                logger.error("Failed to replay logged conversation messages: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private static String readLogId(Path file) throws IOException {
+        if (Files.exists(file)) {
+            return Files.readString(file, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(file, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class LoggedMessage {
+        private final Long userId;
+        private final String message;
+        private final String sender;
+        private final String sessionId;
+        private final LocalDateTime createdAt;
+        private long sequence;
+
+        LoggedMessage(Long userId, String message, String sender, String sessionId, LocalDateTime createdAt) {
+            this.userId = userId;
+            this.message = message;
+            this.sender = sender;
+            this.sessionId = sessionId;
+            this.createdAt = createdAt;
+        }
+
+        byte[] encode() {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + message.length());
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeLong(userId);
+                out.writeUTF(createdAt.toString());
+                out.writeUTF(sender);
+                out.writeBoolean(sessionId != null);
+                if (sessionId != null) {
+                    out.writeUTF(sessionId);
+                }
+                out.writeUTF(message);
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        static LoggedMessage decode(byte[] payload) {
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+                long userId = in.readLong();
+                LocalDateTime createdAt = LocalDateTime.parse(in.readUTF());
+                String sender = in.readUTF();
+                String sessionId = in.readBoolean() ? in.readUTF() : null;
+                String message = in.readUTF();
+                return new LoggedMessage(userId, message, sender, sessionId, createdAt);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.moodtracking.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.moodtracking.dto.DueTask;
+import com.moodtracking.dto.ScheduledReminder;
+
+/**
+ * Keeps every bucket it is handed instead of delivering it. For tests and local runs
+ * (notifications.sender=memory).
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.sender", havingValue = "memory")
+public class InMemoryReminderSender implements ReminderSender {
+
+    private final List<List<ScheduledReminder>> batches = new CopyOnWriteArrayList<>();
+    private final List<List<DueTask>> dueTaskBatches = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(List<ScheduledReminder> reminders) {
+        batches.add(List.copyOf(reminders));
+    }
+
+    @Override
+    public void sendDueTasks(List<DueTask> tasks) {
+        dueTaskBatches.add(List.copyOf(tasks));
+    }
+
+    public List<List<ScheduledReminder>> getBatches() {
+        return new ArrayList<>(batches);
+    }
+
+    public List<ScheduledReminder> getSent() {
+        List<ScheduledReminder> sent = new ArrayList<>();
+        batches.forEach(sent::addAll);
+        return sent;
+    }
+
+    public List<DueTask> getSentDueTasks() {
+        List<DueTask> sent = new ArrayList<>();
+        dueTaskBatches.forEach(sent::addAll);
+        return sent;
+    }
+
+    public void clear() {
+        batches.clear();
+        dueTaskBatches.clear();
+    }
+}
@@ -0,0 +1,41 @@
+package com.moodtracking.services;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.moodtracking.dto.DueTask;
+import com.moodtracking.dto.ScheduledReminder;
+
+/**
+ * Default sender: logs each reminder.
+ * Here you would integrate with:
+ * - Email service (SendGrid, SES, etc.)
+ * - Push notification service (Firebase, APNs, etc.)
+ * - SMS service (Twilio, etc.)
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingReminderSender implements ReminderSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingReminderSender.class);
+
+    @Override
+    public void send(List<ScheduledReminder> reminders) {
+        for (ScheduledReminder reminder : reminders) {
+            logger.info("Sending {} reminder to user {} ({} {}): {}", reminder.getFrequency().getDisplayName(),
+                reminder.getUsername(), reminder.getReminderTime(), reminder.getTimezone(), reminder.getMessage());
+        }
+    }
+
+    @Override
+    public void sendDueTasks(List<DueTask> tasks) {
+        for (DueTask task : tasks) {
+            logger.info("Sending due task reminder to user {}: '{}' ({} priority) is due at {}", task.getUsername(),
+                task.getTitle(), task.getPriority(), task.getDueDate());
+        }
+    }
+}
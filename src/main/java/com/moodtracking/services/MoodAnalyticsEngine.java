@@ -0,0 +1,295 @@
+package com.moodtracking.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.moodtracking.dto.MoodAnalyticsResponse;
+import com.moodtracking.dto.MoodTrendPoint;
+import com.moodtracking.models.Mood.MoodType;
+
+/**
+ * Computes a full {@link MoodAnalyticsResponse} in a single pass over a {@link MoodTimeline}.
+ * Distribution, day/week trend buckets, days tracked and streaks are all accumulated
+ * into primitive arrays during the same loop; nothing is boxed per mood.
+ */
+final class MoodAnalyticsEngine {
+
+    private static final MoodType[] MOOD_TYPES = MoodType.values();
+    private static final int[] SCORES = new int[MOOD_TYPES.length];
+    private static final boolean[] POSITIVE = new boolean[MOOD_TYPES.length];
+
+    private static final long SECONDS_PER_DAY = 86400L;
+    private static final int WEEKLY_PERIODS = 7;
+    private static final int MONTHLY_PERIODS = 4;
+
+    static {
+        for (MoodType moodType : MOOD_TYPES) {
+            SCORES[moodType.ordinal()] = MoodAnalyticsService.moodScore(moodType);
+            POSITIVE[moodType.ordinal()] = MoodAnalyticsService.isPositiveMood(moodType);
+        }
+    }
+
+    private MoodAnalyticsEngine() {}
+
+    /**
+     * Analyze a non-empty, newest-first timeline as of the given time
+     */
+    static MoodAnalyticsResponse analyze(MoodTimeline timeline, LocalDateTime now) {
+        int size = timeline.size;
+        int[] moodOrdinals = timeline.moodOrdinals;
+        long[] epochSeconds = timeline.epochSeconds;
+        int[] nanos = timeline.nanos;
+
+        long today = now.toLocalDate().toEpochDay();
+        LocalDateTime weekCutoff = now.minusDays(7);
+        LocalDateTime monthCutoff = now.minusDays(30);
+        long weekCutoffSeconds = weekCutoff.toEpochSecond(ZoneOffset.UTC);
+        long monthCutoffSeconds = monthCutoff.toEpochSecond(ZoneOffset.UTC);
+
+        // Distribution, remembering first-seen order for building the counts map
+        long[] counts = new long[MOOD_TYPES.length];
+        int[] firstSeenOrder = new int[MOOD_TYPES.length];
+        int distinctMoods = 0;
+
+        // Trend buckets: index = days (or weeks) back from today
+        int[] dayCounts = new int[WEEKLY_PERIODS];
+        long[] dayScores = new long[WEEKLY_PERIODS];
+        int[] weekCounts = new int[MONTHLY_PERIODS];
+        long[] weekScores = new long[MONTHLY_PERIODS];
+        boolean anyInWeek = false;
+        boolean anyInMonth = false;
+
+        int daysTracked = 0;
+        long previousDay = Long.MIN_VALUE;
+
+        int currentPositiveStreak = 0;
+        int currentNegativeStreak = 0;
+        int longestPositiveStreak = 0;
+        int tempPositiveStreak = 0;
+        boolean inCurrentRun = true;
+
+        for (int i = 0; i < size; i++) {
+            int ordinal = moodOrdinals[i];
+            long seconds = epochSeconds[i];
+            long day = Math.floorDiv(seconds, SECONDS_PER_DAY);
+
+            if (counts[ordinal]++ == 0) {
+                firstSeenOrder[distinctMoods++] = ordinal;
+            }
+
+            // Newest-first input keeps each day's moods contiguous
+            if (day != previousDay) {
+                daysTracked++;
+                previousDay = day;
+            }
+
+            if (!anyInWeek && (seconds > weekCutoffSeconds
+                    || (seconds == weekCutoffSeconds && nanos[i] > weekCutoff.getNano()))) {
+                anyInWeek = true;
+            }
+            if (!anyInMonth && (seconds > monthCutoffSeconds
+                    || (seconds == monthCutoffSeconds && nanos[i] > monthCutoff.getNano()))) {
+                anyInMonth = true;
+            }
+
+            long age = today - day;
+            if (age >= 0 && age < (long) MONTHLY_PERIODS * 7) {
+                int score = SCORES[ordinal];
+                if (age < WEEKLY_PERIODS) {
+                    dayCounts[(int) age]++;
+                    dayScores[(int) age] += score;
+                }
+                weekCounts[(int) (age / 7)]++;
+                weekScores[(int) (age / 7)] += score;
+            }
+
+            boolean isPositive = POSITIVE[ordinal];
+            if (isPositive) {
+                tempPositiveStreak++;
+                if (tempPositiveStreak > longestPositiveStreak) {
+                    longestPositiveStreak = tempPositiveStreak;
+                }
+            } else {
+                tempPositiveStreak = 0;
+            }
+
+            if (inCurrentRun) {
+                if (isPositive && currentNegativeStreak == 0) {
+                    currentPositiveStreak++;
+                } else if (!isPositive && currentPositiveStreak == 0) {
+                    currentNegativeStreak++;
+                } else {
+                    inCurrentRun = false;
+                }
+            }
+        }
+
+        MoodAnalyticsResponse analytics = new MoodAnalyticsResponse();
+
+        // Basic statistics
+        analytics.setTotalMoodsTracked(size);
+        analytics.setDaysTracked(daysTracked);
+
+        // Current mood
+        analytics.setCurrentMood(MOOD_TYPES[moodOrdinals[0]]);
+        analytics.setCurrentMoodTimestamp(timeline.timestampAt(0));
+
+        // Mood distribution and frequency
+        // computeIfAbsent (not put) so colliding keys chain in the same order groupingBy leaves them
+        Map<MoodType, Long> moodCounts = new HashMap<>();
+        for (int i = 0; i < distinctMoods; i++) {
+            long count = counts[firstSeenOrder[i]];
+            moodCounts.computeIfAbsent(MOOD_TYPES[firstSeenOrder[i]], moodType -> count);
+        }
+        setMoodDistribution(analytics, moodCounts, size);
+
+        // Trends analysis
+        LocalDate endDate = now.toLocalDate();
+        if (anyInWeek) {
+            List<MoodTrendPoint> weeklyTrend = toTrendPoints(endDate, dayCounts, dayScores, "day", 1);
+            analytics.setWeeklyTrendData(weeklyTrend);
+            analytics.setWeeklyTrend(calculateTrendDirection(weeklyTrend));
+        }
+        if (anyInMonth) {
+            List<MoodTrendPoint> monthlyTrend = toTrendPoints(endDate, weekCounts, weekScores, "week", 7);
+            analytics.setMonthlyTrendData(monthlyTrend);
+            analytics.setMonthlyTrend(calculateTrendDirection(monthlyTrend));
+        }
+
+        // Streak calculations
+        analytics.setCurrentPositiveStreak(currentPositiveStreak);
+        analytics.setLongestPositiveStreak(longestPositiveStreak);
+        analytics.setCurrentNegativeStreak(currentNegativeStreak);
+
+        // Generate insights and recommendations
+        generateInsights(analytics);
+
+        return analytics;
+    }
+
+    /**
+     * Turn bucket accumulators (index = periods back from endDate) into oldest-first trend points
+     */
+    private static List<MoodTrendPoint> toTrendPoints(LocalDate endDate, int[] bucketCounts, long[] bucketScores,
+                                                      String period, int daysPerPeriod) {
+        List<MoodTrendPoint> trendPoints = new ArrayList<>(bucketCounts.length);
+        for (int i = bucketCounts.length - 1; i >= 0; i--) {
+            if (bucketCounts[i] > 0) {
+                trendPoints.add(new MoodTrendPoint(endDate.minusDays((long) i * daysPerPeriod),
+                    (double) bucketScores[i] / bucketCounts[i], period, bucketCounts[i]));
+            }
+        }
+        return trendPoints;
+    }
+
+    static void setMoodDistribution(MoodAnalyticsResponse analytics, Map<MoodType, Long> moodCounts, int totalMoods) {
+        analytics.setMoodCounts(moodCounts);
+
+        // Calculate percentages
+        Map<MoodType, Double> moodPercentages = moodCounts.entrySet().stream()
+            .collect(Collectors.toMap(
+                Map.Entry::getKey,
+                entry -> (entry.getValue() * 100.0) / totalMoods
+            ));
+        analytics.setMoodPercentages(moodPercentages);
+
+        // Find most frequent mood
+        Optional<Map.Entry<MoodType, Long>> mostFrequent = moodCounts.entrySet().stream()
+            .max(Map.Entry.comparingByValue());
+
+        if (mostFrequent.isPresent()) {
+            analytics.setMostFrequentMood(mostFrequent.get().getKey());
+            analytics.setMostFrequentMoodCount(mostFrequent.get().getValue());
+            analytics.setMostFrequentMoodPercentage(moodPercentages.get(mostFrequent.get().getKey()));
+        }
+    }
+
+    static String calculateTrendDirection(List<MoodTrendPoint> trendPoints) {
+        if (trendPoints.size() < 2) {
+            return "stable";
+        }
+
+        double firstHalfAvg = trendPoints.subList(0, trendPoints.size() / 2).stream()
+            .mapToDouble(MoodTrendPoint::getAverageMoodScore)
+            .average()
+            .orElse(5.0);
+
+        double secondHalfAvg = trendPoints.subList(trendPoints.size() / 2, trendPoints.size()).stream()
+            .mapToDouble(MoodTrendPoint::getAverageMoodScore)
+            .average()
+            .orElse(5.0);
+
+        double difference = secondHalfAvg - firstHalfAvg;
+
+        if (difference > 0.5) {
+            return "improving";
+        } else if (difference < -0.5) {
+            return "declining";
+        } else {
+            return "stable";
+        }
+    }
+
+    static void generateInsights(MoodAnalyticsResponse analytics) {
+        List<String> insights = new ArrayList<>();
+        List<String> recommendations = new ArrayList<>();
+
+        // Most frequent mood insight
+        if (analytics.getMostFrequentMood() != null) {
+            insights.add(String.format("Your most frequent mood is %s (%.1f%% of the time)",
+                analytics.getMostFrequentMood().getDisplayName(),
+                analytics.getMostFrequentMoodPercentage()));
+        }
+
+        // Trend insights
+        if ("improving".equals(analytics.getWeeklyTrend())) {
+            insights.add("Your mood has been improving over the past week! 📈");
+            recommendations.add("Keep up the great work! Continue the activities that are helping your mood.");
+        } else if ("declining".equals(analytics.getWeeklyTrend())) {
+            insights.add("Your mood has been declining this week. 📉");
+            recommendations.add("Consider talking to someone or trying stress-reduction activities.");
+        } else {
+            insights.add("Your mood has been stable this week.");
+            recommendations.add("Consistency is good! Try some new activities to boost your mood.");
+        }
+
+        // Streak insights
+        if (analytics.getCurrentPositiveStreak() > 0) {
+            insights.add(String.format("You're on a %d-day positive mood streak! 🌟",
+                analytics.getCurrentPositiveStreak()));
+            recommendations.add("Amazing! Try to maintain this positive momentum.");
+        } else if (analytics.getCurrentNegativeStreak() > 2) {
+            insights.add(String.format("You've had %d consecutive days of challenging moods.",
+                analytics.getCurrentNegativeStreak()));
+            recommendations.add("Consider reaching out for support or trying mood-boosting activities.");
+        }
+
+        // Activity level insights
+        double dailyAverage = (double) analytics.getTotalMoodsTracked() / analytics.getDaysTracked();
+        if (dailyAverage > 2) {
+            insights.add("You're very active in tracking your moods multiple times per day!");
+        } else if (dailyAverage < 0.5) {
+            insights.add("You track your mood occasionally.");
+            recommendations.add("Try tracking your mood daily for better insights and patterns.");
+        }
+
+        // Mood diversity insight
+        int uniqueMoods = analytics.getMoodCounts().size();
+        if (uniqueMoods <= 3) {
+            insights.add("You tend to experience a narrow range of moods.");
+            recommendations.add("Explore activities that might introduce more variety in your emotional experiences.");
+        } else if (uniqueMoods >= 7) {
+            insights.add("You experience a wide range of emotions, which is completely normal!");
+        }
+
+        analytics.setInsights(insights);
+        analytics.setRecommendations(recommendations);
+    }
+}
@@ -5,11 +5,10 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -18,7 +17,12 @@ import com.moodtracking.dto.MoodAnalyticsResponse;
 import com.moodtracking.dto.MoodResponse;
 import com.moodtracking.dto.MoodTrendPoint;
 import com.moodtracking.models.Mood.MoodType;
+import com.moodtracking.models.MoodDailyRollup;
+import com.moodtracking.models.MoodRollup;
 import com.moodtracking.models.User;
+import com.moodtracking.repositories.MoodRepository;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
 public class MoodAnalyticsService {
@@ -26,6 +30,12 @@ public class MoodAnalyticsService {
     @Autowired
     private MoodService moodService;
     
+    @Autowired
+    private MoodRollupService moodRollupService;
+    
+    @Autowired
+    private MoodRepository moodRepository;
+    
     // Mood scoring system (for trend analysis)
     private static final Map<MoodType, Integer> MOOD_SCORES = Map.of(
         MoodType.HAPPY, 9,
@@ -46,68 +56,94 @@ public class MoodAnalyticsService {
         MoodType.RELAXED, MoodType.ENERGETIC
     );
     
+    private static final int DEFAULT_MOOD_SCORE = 5;
+    
+    private static final Set<String> SERIES_GRANULARITIES = Set.of("day", "week", "month");
+    
+    static int moodScore(MoodType moodType) {
+        return MOOD_SCORES.getOrDefault(moodType, DEFAULT_MOOD_SCORE);
+    }
+    
+    static boolean isPositiveMood(MoodType moodType) {
+        return POSITIVE_MOODS.contains(moodType);
+    }
+    
+    @Timed(value = "mood.analytics.generate", extraTags = {"range", "all"}, histogram = true)
     public MoodAnalyticsResponse generateMoodAnalytics(User user) {
-        MoodAnalyticsResponse analytics = new MoodAnalyticsResponse();
-        
-        // Get all mood history
-        List<MoodResponse> allMoods = moodService.getMoodHistory(user);
+        // All-time analytics come from the incrementally maintained rollup, never the raw history
+        MoodRollup rollup = moodRollupService.getRollup(user);
         
-        if (allMoods.isEmpty()) {
+        if (rollup.getTotalMoods() == 0) {
             return generateEmptyAnalytics();
         }
         
+        MoodAnalyticsResponse analytics = new MoodAnalyticsResponse();
+        int totalMoods = rollup.getTotalMoods().intValue();
+        
         // Basic statistics
-        analytics.setTotalMoodsTracked(allMoods.size());
-        analytics.setDaysTracked(calculateDaysTracked(allMoods));
+        analytics.setTotalMoodsTracked(totalMoods);
+        analytics.setDaysTracked(rollup.getDaysTracked());
         
         // Current mood
-        setCurrentMoodInfo(analytics, allMoods);
+        analytics.setCurrentMood(rollup.getLastMoodType());
+        analytics.setCurrentMoodTimestamp(rollup.getLastMoodAt());
         
         // Mood distribution and frequency
-        setMoodDistribution(analytics, allMoods);
+        MoodAnalyticsEngine.setMoodDistribution(analytics, new HashMap<>(rollup.getMoodCounts()), totalMoods);
         
-        // Trends analysis
-        setTrendAnalysis(analytics, allMoods);
+        // Trends analysis over the last 28 days of daily rollups
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, MoodDailyRollup> days = moodRollupService.getDailyRollups(user, today.minusDays(27), today);
+        setTrendAnalysis(analytics, days, rollup.getLastMoodAt());
         
         // Streak calculations
-        setStreakAnalysis(analytics, allMoods);
+        analytics.setCurrentPositiveStreak(rollup.getCurrentPositiveStreak());
+        analytics.setLongestPositiveStreak(rollup.getLongestPositiveStreak());
+        analytics.setCurrentNegativeStreak(rollup.getCurrentNegativeStreak());
         
         // Generate insights and recommendations
-        generateInsights(analytics, allMoods);
+        MoodAnalyticsEngine.generateInsights(analytics);
         
         return analytics;
     }
     
+    @Timed(value = "mood.analytics.generate", extraTags = {"range", "days"}, histogram = true)
     public MoodAnalyticsResponse generateMoodAnalytics(User user, int days) {
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
-        List<MoodResponse> moods = moodService.getMoodHistoryInDateRange(user, startDate, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startDate = now.minusDays(days);
+        List<MoodResponse> moods = moodService.getMoodHistoryInDateRange(user, startDate, now);
         
         if (moods.isEmpty()) {
             return generateEmptyAnalytics();
         }
         
-        MoodAnalyticsResponse analytics = new MoodAnalyticsResponse();
-        
-        // Basic statistics
-        analytics.setTotalMoodsTracked(moods.size());
-        analytics.setDaysTracked(calculateDaysTracked(moods));
-        
-        // Current mood
-        setCurrentMoodInfo(analytics, moods);
-        
-        // Mood distribution and frequency
-        setMoodDistribution(analytics, moods);
-        
-        // Trends analysis
-        setTrendAnalysis(analytics, moods);
-        
-        // Streak calculations
-        setStreakAnalysis(analytics, moods);
-        
-        // Generate insights and recommendations
-        generateInsights(analytics, moods);
+        // One pass over a columnar view fills distribution, trends, streaks and insights together
+        return MoodAnalyticsEngine.analyze(MoodTimeline.fromResponses(moods), now);
+    }
+    
+    /**
+     * Average mood score and count per day, week (Monday to Sunday) or month from one date
+     * to another, both inclusive, aggregated by the database. Each point is dated by the
+     * first day of its bucket; buckets without moods are left out.
+     */
+    @Timed(value = "mood.analytics.series", histogram = true)
+    public List<MoodTrendPoint> getMoodSeries(User user, String granularity, LocalDate from, LocalDate to) {
+        if (!SERIES_GRANULARITIES.contains(granularity)) {
+            throw new IllegalArgumentException("Granularity must be one of day, week or month");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The from date must not be after the to date");
+        }
         
-        return analytics;
+        List<Object[]> rows = moodRepository.findScoreSeries(user, from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+            granularity, MOOD_SCORES, DEFAULT_MOOD_SCORE);
+        List<MoodTrendPoint> series = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long moodCount = (Long) row[1];
+            long scoreSum = (Long) row[2];
+            series.add(new MoodTrendPoint((LocalDate) row[0], (double) scoreSum / moodCount, granularity, (int) moodCount));
+        }
+        return series;
     }
     
     private MoodAnalyticsResponse generateEmptyAnalytics() {
@@ -127,225 +163,46 @@ public class MoodAnalyticsService {
         return analytics;
     }
     
-    private void setCurrentMoodInfo(MoodAnalyticsResponse analytics, List<MoodResponse> moods) {
-        if (!moods.isEmpty()) {
-            MoodResponse latestMood = moods.get(0);
-            analytics.setCurrentMood(latestMood.getMoodType());
-            analytics.setCurrentMoodTimestamp(latestMood.getTimestamp());
-        }
-    }
-    
-    private void setMoodDistribution(MoodAnalyticsResponse analytics, List<MoodResponse> moods) {
-        Map<MoodType, Long> moodCounts = moods.stream()
-            .collect(Collectors.groupingBy(
-                MoodResponse::getMoodType,
-                Collectors.counting()
-            ));
-        
-        analytics.setMoodCounts(moodCounts);
-        
-        // Calculate percentages
-        int totalMoods = moods.size();
-        Map<MoodType, Double> moodPercentages = moodCounts.entrySet().stream()
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                entry -> (entry.getValue() * 100.0) / totalMoods
-            ));
-        analytics.setMoodPercentages(moodPercentages);
-        
-        // Find most frequent mood
-        Optional<Map.Entry<MoodType, Long>> mostFrequent = moodCounts.entrySet().stream()
-            .max(Map.Entry.comparingByValue());
-        
-        if (mostFrequent.isPresent()) {
-            analytics.setMostFrequentMood(mostFrequent.get().getKey());
-            analytics.setMostFrequentMoodCount(mostFrequent.get().getValue());
-            analytics.setMostFrequentMoodPercentage(moodPercentages.get(mostFrequent.get().getKey()));
-        }
-    }
-    
-    private void setTrendAnalysis(MoodAnalyticsResponse analytics, List<MoodResponse> moods) {
-        // Weekly trend analysis
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusDays(7);
-        List<MoodResponse> weeklyMoods = moods.stream()
-            .filter(mood -> mood.getTimestamp().isAfter(oneWeekAgo))
-            .collect(Collectors.toList());
-        
-        if (!weeklyMoods.isEmpty()) {
-            List<MoodTrendPoint> weeklyTrend = calculateTrendPoints(weeklyMoods, "day", 7);
+    private void setTrendAnalysis(MoodAnalyticsResponse analytics, Map<LocalDate, MoodDailyRollup> days,
+                                  LocalDateTime lastMoodAt) {
+        // Same windows as the list-based variant; a window is only reported if it holds any mood
+        if (lastMoodAt.isAfter(LocalDateTime.now().minusDays(7))) {
+            List<MoodTrendPoint> weeklyTrend = calculateTrendPoints(days, "day", 7);
             analytics.setWeeklyTrendData(weeklyTrend);
-            analytics.setWeeklyTrend(calculateTrendDirection(weeklyTrend));
+            analytics.setWeeklyTrend(MoodAnalyticsEngine.calculateTrendDirection(weeklyTrend));
         }
         
-        // Monthly trend analysis
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusDays(30);
-        List<MoodResponse> monthlyMoods = moods.stream()
-            .filter(mood -> mood.getTimestamp().isAfter(oneMonthAgo))
-            .collect(Collectors.toList());
-        
-        if (!monthlyMoods.isEmpty()) {
-            List<MoodTrendPoint> monthlyTrend = calculateTrendPoints(monthlyMoods, "week", 4);
+        if (lastMoodAt.isAfter(LocalDateTime.now().minusDays(30))) {
+            List<MoodTrendPoint> monthlyTrend = calculateTrendPoints(days, "week", 4);
             analytics.setMonthlyTrendData(monthlyTrend);
-            analytics.setMonthlyTrend(calculateTrendDirection(monthlyTrend));
+            analytics.setMonthlyTrend(MoodAnalyticsEngine.calculateTrendDirection(monthlyTrend));
         }
     }
     
-    private List<MoodTrendPoint> calculateTrendPoints(List<MoodResponse> moods, String period, int periods) {
+    private List<MoodTrendPoint> calculateTrendPoints(Map<LocalDate, MoodDailyRollup> days, String period, int periods) {
         List<MoodTrendPoint> trendPoints = new ArrayList<>();
         LocalDate endDate = LocalDate.now();
+        int daysPerPeriod = "day".equals(period) ? 1 : 7;
         
         for (int i = 0; i < periods; i++) {
-            LocalDate startDate;
-            LocalDate currentEndDate;
+            LocalDate currentEndDate = endDate.minusDays((long) i * daysPerPeriod);
+            long moodCount = 0;
+            long scoreSum = 0;
             
-            if ("day".equals(period)) {
-                startDate = endDate.minusDays(i + 1);
-                currentEndDate = endDate.minusDays(i);
-            } else { // week
-                startDate = endDate.minusDays((i + 1) * 7);
-                currentEndDate = endDate.minusDays(i * 7);
+            for (int d = 0; d < daysPerPeriod; d++) {
+                MoodDailyRollup day = days.get(currentEndDate.minusDays(d));
+                if (day != null) {
+                    moodCount += day.getMoodCount();
+                    scoreSum += day.getScoreSum();
+                }
             }
             
-            List<MoodResponse> periodMoods = moods.stream()
-                .filter(mood -> {
-                    LocalDate moodDate = mood.getTimestamp().toLocalDate();
-                    return moodDate.isAfter(startDate) && moodDate.isBefore(currentEndDate.plusDays(1));
-                })
-                .collect(Collectors.toList());
-            
-            if (!periodMoods.isEmpty()) {
-                double averageScore = periodMoods.stream()
-                    .mapToInt(mood -> MOOD_SCORES.getOrDefault(mood.getMoodType(), 5))
-                    .average()
-                    .orElse(5.0);
-                
-                trendPoints.add(new MoodTrendPoint(currentEndDate, averageScore, period, periodMoods.size()));
+            if (moodCount > 0) {
+                trendPoints.add(new MoodTrendPoint(currentEndDate, (double) scoreSum / moodCount, period, (int) moodCount));
             }
         }
         
         Collections.reverse(trendPoints);
         return trendPoints;
     }
-    
-    private String calculateTrendDirection(List<MoodTrendPoint> trendPoints) {
-        if (trendPoints.size() < 2) {
-            return "stable";
-        }
-        
-        double firstHalfAvg = trendPoints.subList(0, trendPoints.size() / 2).stream()
-            .mapToDouble(MoodTrendPoint::getAverageMoodScore)
-            .average()
-            .orElse(5.0);
-        
-        double secondHalfAvg = trendPoints.subList(trendPoints.size() / 2, trendPoints.size()).stream()
-            .mapToDouble(MoodTrendPoint::getAverageMoodScore)
-            .average()
-            .orElse(5.0);
-        
-        double difference = secondHalfAvg - firstHalfAvg;
-        
-        if (difference > 0.5) {
-            return "improving";
-        } else if (difference < -0.5) {
-            return "declining";
-        } else {
-            return "stable";
-        }
-    }
-    
-    private void setStreakAnalysis(MoodAnalyticsResponse analytics, List<MoodResponse> moods) {
-        // Calculate positive and negative streaks
-        int currentPositiveStreak = 0;
-        int currentNegativeStreak = 0;
-        int longestPositiveStreak = 0;
-        int tempPositiveStreak = 0;
-        
-        for (MoodResponse mood : moods) {
-            boolean isPositive = POSITIVE_MOODS.contains(mood.getMoodType());
-            
-            if (isPositive) {
-                tempPositiveStreak++;
-                if (currentNegativeStreak == 0) {
-                    currentPositiveStreak++;
-                }
-                currentNegativeStreak = 0;
-            } else {
-                longestPositiveStreak = Math.max(longestPositiveStreak, tempPositiveStreak);
-                tempPositiveStreak = 0;
-                if (currentPositiveStreak == 0) {
-                    currentNegativeStreak++;
-                }
-                currentPositiveStreak = 0;
-            }
-        }
-        
-        longestPositiveStreak = Math.max(longestPositiveStreak, tempPositiveStreak);
-        
-        analytics.setCurrentPositiveStreak(currentPositiveStreak);
-        analytics.setLongestPositiveStreak(longestPositiveStreak);
-        analytics.setCurrentNegativeStreak(currentNegativeStreak);
-    }
-    
-    private void generateInsights(MoodAnalyticsResponse analytics, List<MoodResponse> moods) {
-        List<String> insights = new ArrayList<>();
-        List<String> recommendations = new ArrayList<>();
-        
-        // Most frequent mood insight
-        if (analytics.getMostFrequentMood() != null) {
-            insights.add(String.format("Your most frequent mood is %s (%.1f%% of the time)",
-                analytics.getMostFrequentMood().getDisplayName(),
-                analytics.getMostFrequentMoodPercentage()));
-        }
-        
-        // Trend insights
-        if ("improving".equals(analytics.getWeeklyTrend())) {
-            insights.add("Your mood has been improving over the past week! 📈");
-            recommendations.add("Keep up the great work! Continue the activities that are helping your mood.");
-        } else if ("declining".equals(analytics.getWeeklyTrend())) {
-            insights.add("Your mood has been declining this week. 📉");
-            recommendations.add("Consider talking to someone or trying stress-reduction activities.");
-        } else {
-            insights.add("Your mood has been stable this week.");
-            recommendations.add("Consistency is good! Try some new activities to boost your mood.");
-        }
-        
-        // Streak insights
-        if (analytics.getCurrentPositiveStreak() > 0) {
-            insights.add(String.format("You're on a %d-day positive mood streak! 🌟",
-                analytics.getCurrentPositiveStreak()));
-            recommendations.add("Amazing! Try to maintain this positive momentum.");
-        } else if (analytics.getCurrentNegativeStreak() > 2) {
-            insights.add(String.format("You've had %d consecutive days of challenging moods.",
-                analytics.getCurrentNegativeStreak()));
-            recommendations.add("Consider reaching out for support or trying mood-boosting activities.");
-        }
-        
-        // Activity level insights
-        double dailyAverage = (double) analytics.getTotalMoodsTracked() / analytics.getDaysTracked();
-        if (dailyAverage > 2) {
-            insights.add("You're very active in tracking your moods multiple times per day!");
-        } else if (dailyAverage < 0.5) {
-            insights.add("You track your mood occasionally.");
-            recommendations.add("Try tracking your mood daily for better insights and patterns.");
-        }
-        
-        // Mood diversity insight
-        int uniqueMoods = analytics.getMoodCounts().size();
-        if (uniqueMoods <= 3) {
-            insights.add("You tend to experience a narrow range of moods.");
-            recommendations.add("Explore activities that might introduce more variety in your emotional experiences.");
-        } else if (uniqueMoods >= 7) {
-            insights.add("You experience a wide range of emotions, which is completely normal!");
-        }
-        
-        analytics.setInsights(insights);
-        analytics.setRecommendations(recommendations);
-    }
-    
-    private int calculateDaysTracked(List<MoodResponse> moods) {
-        return (int) moods.stream()
-            .map(mood -> mood.getTimestamp().toLocalDate())
-            .distinct()
-            .count();
-    }
 }
\ No newline at end of file
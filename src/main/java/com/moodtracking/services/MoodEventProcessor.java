@@ -0,0 +1,145 @@
+package com.moodtracking.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.moodtracking.events.MoodEvent;
+import com.moodtracking.events.MoodLoggedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Maintains state derived from moods once the write that changed them has committed.
+ * The user's cached analytics are evicted straight away on the committing thread, so
+ * their next read sees the change; everything else is queued and applied in batches
+ * by a single worker, in commit order, off the request thread. When the queue is full
+ * the committing thread applies its event itself, which slows writers down instead of
+ * losing updates.
+ */
+@Component
+public class MoodEventProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoodEventProcessor.class);
+
+    @Value("${moods.events.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${moods.events.batch-size:256}")
+    private int batchSize;
+
+    @Autowired
+    private AnalyticsResponseCache analyticsResponseCache;
+
+    @Autowired
+    private MoodVectorStore moodVectorStore;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<MoodEvent> queue;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    private Counter inlineEvents;
+
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        if (meterRegistry != null) {
+            Gauge.builder("moods.events.queued", queue, BlockingQueue::size)
+                    .description("Mood events waiting for the worker")
+                    .register(meterRegistry);
+            inlineEvents = Counter.builder("moods.events.inline")
+                    .description("Mood events applied by the committing thread because the queue was full")
+                    .register(meterRegistry);
+            batchSizes = DistributionSummary.builder("moods.events.batch")
+                    .description("Mood events applied per worker batch")
+                    .baseUnit("events")
+                    .register(meterRegistry);
+        }
+
+        running = true;
+        worker = new Thread(this::run, "mood-events");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // The worker drains what is already queued before it stops
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Runs after the publishing transaction commits, and never for one that rolls back.
+     * Events published outside a transaction are handled immediately.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoodEvent(MoodEvent event) {
+        analyticsResponseCache.evict(event.getUserId());
+        if (!queue.offer(event)) {
+            if (inlineEvents != null) {
+                inlineEvents.increment();
+            }
+            apply(Collections.singletonList(event));
+        }
+    }
+
+    private void run() {
+        List<MoodEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                MoodEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                apply(batch);
+                if (batchSizes != null) {
+                    batchSizes.record(batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Failed to apply {} mood events: {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(List<MoodEvent> events) {
+        for (MoodEvent event : events) {
+            if (event instanceof MoodLoggedEvent) {
+                moodVectorStore.record(event.getUserId(), event.getMoodId(), event.getMoodType(), event.getTimestamp());
+            } else {
+                // Edits and deletes can't be undone incrementally
+                moodVectorStore.evict(event.getUserId());
+            }
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.moodtracking.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.Mood.MoodType;
+import com.moodtracking.models.MoodDailyRollup;
+import com.moodtracking.models.MoodRollup;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.MoodDailyRollupRepository;
+import com.moodtracking.repositories.MoodRepository;
+import com.moodtracking.repositories.MoodRollupRepository;
+
+/**
+ * Maintains the per-user {@link MoodRollup} and {@link MoodDailyRollup} rows.
+ * MoodService calls the record* methods inside its own write transaction;
+ * users without a rollup yet are backfilled from their history on first touch.
+ */
+@Service
+public class MoodRollupService {
+
+    // Moods read per query while measuring a run of same-polarity moods
+    private static final int RUN_PAGE_SIZE = 64;
+
+    private static final String INSERT_EMPTY_ROLLUP =
+        "INSERT INTO mood_rollups (user_id, total_moods, days_tracked, current_positive_streak, " +
+        "current_negative_streak, longest_positive_streak, sequence_stale, updated_at) " +
+        "VALUES (?, 0, 0, 0, 0, 0, ?, ?)";
+
+    @Autowired
+    private MoodRollupRepository moodRollupRepository;
+
+    @Autowired
+    private MoodDailyRollupRepository moodDailyRollupRepository;
+
+    @Autowired
+    private MoodRepository moodRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Get the user's rollup, building it or refreshing its streak state if needed
+     */
+    @Transactional
+    public MoodRollup getRollup(User user) {
+        Optional<MoodRollup> existing = moodRollupRepository.findByUser(user);
+        if (existing.isEmpty()) {
+            return rebuildRollup(user);
+        }
+
+        MoodRollup rollup = existing.get();
+        if (Boolean.TRUE.equals(rollup.getSequenceStale())) {
+            rollup = moodRollupRepository.findByUserForUpdate(user).orElse(rollup);
+            if (Boolean.TRUE.equals(rollup.getSequenceStale())) {
+                refreshSequenceState(rollup);
+                rollup = moodRollupRepository.save(rollup);
+            }
+        }
+        return rollup;
+    }
+
+    /**
+     * Get the user's daily rollups between two dates (inclusive), keyed by date
+     */
+    public Map<LocalDate, MoodDailyRollup> getDailyRollups(User user, LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, MoodDailyRollup> days = new TreeMap<>();
+        for (MoodDailyRollup day : moodDailyRollupRepository
+                .findByUserAndRollupDateBetweenOrderByRollupDateAsc(user, startDate, endDate)) {
+            days.put(day.getRollupDate(), day);
+        }
+        return days;
+    }
+
+    /**
+     * Fold a newly saved mood into its owner's rollup
+     */
+    @Transactional
+    public void recordMoodAdded(Mood mood) {
+        User user = mood.getUser();
+        Optional<MoodRollup> existing = moodRollupRepository.findByUserForUpdate(user);
+        if (existing.isEmpty()) {
+            // The backfill reads the moods table, which already contains this mood
+            rebuildRollup(user);
+            return;
+        }
+
+        MoodRollup rollup = existing.get();
+        MoodType moodType = mood.getMoodType();
+        LocalDateTime timestamp = mood.getTimestamp();
+
+        rollup.getMoodCounts().merge(moodType, 1L, Long::sum);
+        rollup.setTotalMoods(rollup.getTotalMoods() + 1);
+        adjustDay(rollup, user, timestamp.toLocalDate(), 1, MoodAnalyticsService.moodScore(moodType));
+
+        if (rollup.getFirstMoodAt() == null || timestamp.isBefore(rollup.getFirstMoodAt())) {
+            rollup.setFirstMoodAt(timestamp);
+        }
+
+        if (rollup.getLastMoodAt() == null || !timestamp.isBefore(rollup.getLastMoodAt())) {
+            rollup.setLastMoodAt(timestamp);
+            rollup.setLastMoodType(moodType);
+            if (!Boolean.TRUE.equals(rollup.getSequenceStale())) {
+                advanceStreaks(rollup, moodType);
+            }
+        } else {
+            // Inserted behind the newest mood, into the middle of the sequence
+            applySequenceChange(rollup, mood, null, MoodAnalyticsService.isPositiveMood(moodType));
+        }
+
+        moodRollupRepository.save(rollup);
+    }
+
+    /**
+     * Apply a mood type change to the owner's rollup
+     */
+    @Transactional
+    public void recordMoodUpdated(Mood mood, MoodType previousType) {
+        MoodType moodType = mood.getMoodType();
+        if (moodType == previousType) {
+            return;
+        }
+
+        User user = mood.getUser();
+        Optional<MoodRollup> existing = moodRollupRepository.findByUserForUpdate(user);
+        if (existing.isEmpty()) {
+            rebuildRollup(user);
+            return;
+        }
+
+        MoodRollup rollup = existing.get();
+        decrementCount(rollup, previousType);
+        rollup.getMoodCounts().merge(moodType, 1L, Long::sum);
+        adjustDay(rollup, user, mood.getTimestamp().toLocalDate(), 0,
+            MoodAnalyticsService.moodScore(moodType) - MoodAnalyticsService.moodScore(previousType));
+
+        if (mood.getTimestamp().equals(rollup.getLastMoodAt())) {
+            rollup.setLastMoodType(moodType);
+        }
+        if (MoodAnalyticsService.isPositiveMood(moodType) != MoodAnalyticsService.isPositiveMood(previousType)) {
+            applySequenceChange(rollup, mood, MoodAnalyticsService.isPositiveMood(previousType),
+                MoodAnalyticsService.isPositiveMood(moodType));
+        }
+
+        moodRollupRepository.save(rollup);
+    }
+
+    /**
+     * Remove a deleted mood from the owner's rollup
+     */
+    @Transactional
+    public void recordMoodDeleted(Mood mood) {
+        User user = mood.getUser();
+        Optional<MoodRollup> existing = moodRollupRepository.findByUserForUpdate(user);
+        if (existing.isEmpty()) {
+            rebuildRollup(user);
+            return;
+        }
+
+        MoodRollup rollup = existing.get();
+        decrementCount(rollup, mood.getMoodType());
+        rollup.setTotalMoods(Math.max(0L, rollup.getTotalMoods() - 1));
+        adjustDay(rollup, user, mood.getTimestamp().toLocalDate(), -1,
+            -MoodAnalyticsService.moodScore(mood.getMoodType()));
+
+        if (rollup.getTotalMoods() == 0) {
+            resetSequenceState(rollup);
+        } else {
+            if (mood.getTimestamp().equals(rollup.getFirstMoodAt())) {
+                rollup.setFirstMoodAt(moodRepository.findFirstMoodTimestamp(user));
+            }
+            applySequenceChange(rollup, mood, MoodAnalyticsService.isPositiveMood(mood.getMoodType()), null);
+        }
+
+        moodRollupRepository.save(rollup);
+    }
+
+    /**
+     * Recompute a user's rollup from scratch out of the moods table
+     */
+    @Transactional
+    public MoodRollup rebuildRollup(User user) {
+        MoodRollup rollup = lockOrCreateRollup(user);
+        moodDailyRollupRepository.deleteAllByUser(user);
+
+        Map<MoodType, Long> counts = new EnumMap<>(MoodType.class);
+        Map<LocalDate, MoodDailyRollup> days = new TreeMap<>();
+        resetSequenceState(rollup);
+
+        List<Object[]> timeline = moodRepository.findMoodTimelineByUser(user);
+        for (Object[] row : timeline) {
+            MoodType moodType = (MoodType) row[0];
+            LocalDateTime timestamp = (LocalDateTime) row[1];
+
+            counts.merge(moodType, 1L, Long::sum);
+            MoodDailyRollup day = days.computeIfAbsent(timestamp.toLocalDate(),
+                date -> new MoodDailyRollup(user, date));
+            day.setMoodCount(day.getMoodCount() + 1);
+            day.setScoreSum(day.getScoreSum() + MoodAnalyticsService.moodScore(moodType));
+
+            applyToSequence(rollup, moodType, timestamp);
+        }
+
+        rollup.getMoodCounts().clear();
+        rollup.getMoodCounts().putAll(counts);
+        rollup.setTotalMoods((long) timeline.size());
+        rollup.setDaysTracked(days.size());
+        moodDailyRollupRepository.saveAll(new ArrayList<>(days.values()));
+        return moodRollupRepository.save(rollup);
+    }
+
+    /**
+     * Lock the user's rollup row, inserting an empty one first if there is none yet. The
+     * insert goes through JDBC on the transaction's connection, so when a concurrent first
+     * write wins the race only that statement fails, not this transaction, and the row the
+     * other transaction committed is locked instead.
+     */
+    private MoodRollup lockOrCreateRollup(User user) {
+        Optional<MoodRollup> existing = moodRollupRepository.findByUserForUpdate(user);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            jdbcTemplate.update(INSERT_EMPTY_ROLLUP, user.getId(), false, LocalDateTime.now());
+        } catch (DuplicateKeyException e) {
+            // Created by a concurrent first write; the insert only fails once that commits
+        }
+        return moodRollupRepository.findByUserForUpdate(user)
+            .orElseThrow(() -> new IllegalStateException("No mood rollup for user " + user.getId()));
+    }
+
+    /**
+     * Update the streak fields for one mood that appeared, disappeared or changed polarity
+     * without rescanning the timeline: only the positive runs either side of the mood and
+     * the head run are read. A positive run that got shorter may have been the longest one,
+     * and the next longest isn't known, so only that case leaves a full rescan to the next read.
+     */
+    private void applySequenceChange(MoodRollup rollup, Mood mood, Boolean wasPositive, Boolean isPositive) {
+        if (Boolean.TRUE.equals(rollup.getSequenceStale())) {
+            return;
+        }
+
+        User user = rollup.getUser();
+        int before = runLength(user, mood.getTimestamp(), mood.getId(), true, true);
+        int after = runLength(user, mood.getTimestamp(), mood.getId(), true, false);
+
+        if (Boolean.TRUE.equals(isPositive) || Boolean.FALSE.equals(wasPositive)) {
+            // The runs either side join up, through the mood if it's now positive
+            int joined = before + after + (Boolean.TRUE.equals(isPositive) ? 1 : 0);
+            rollup.setLongestPositiveStreak(Math.max(rollup.getLongestPositiveStreak(), joined));
+        } else {
+            boolean shortened = Boolean.TRUE.equals(wasPositive) || (before > 0 && after > 0);
+            int previous = before + after + (Boolean.TRUE.equals(wasPositive) ? 1 : 0);
+            if (shortened && previous >= rollup.getLongestPositiveStreak()) {
+                rollup.setSequenceStale(true);
+                return;
+            }
+        }
+
+        refreshHead(rollup);
+    }
+
+    /**
+     * Re-read the newest run of same-polarity moods into the last-mood and current streak fields
+     */
+    private void refreshHead(MoodRollup rollup) {
+        User user = rollup.getUser();
+        List<Object[]> newest = moodRepository.findTimelineNewestFirst(user, PageRequest.of(0, 1));
+        if (newest.isEmpty()) {
+            resetSequenceState(rollup);
+            return;
+        }
+
+        MoodType moodType = (MoodType) newest.get(0)[0];
+        LocalDateTime timestamp = (LocalDateTime) newest.get(0)[1];
+        boolean positive = MoodAnalyticsService.isPositiveMood(moodType);
+        int streak = 1 + runLength(user, timestamp, (Long) newest.get(0)[2], positive, true);
+
+        rollup.setLastMoodAt(timestamp);
+        rollup.setLastMoodType(moodType);
+        rollup.setCurrentPositiveStreak(positive ? streak : 0);
+        rollup.setCurrentNegativeStreak(positive ? 0 : streak);
+        rollup.setLongestPositiveStreak(Math.max(rollup.getLongestPositiveStreak(), rollup.getCurrentPositiveStreak()));
+    }
+
+    /**
+     * Count the consecutive moods of one polarity next to (timestamp, id), walking back or
+     * forward from it a page at a time until the polarity changes
+     */
+    private int runLength(User user, LocalDateTime timestamp, Long id, boolean positive, boolean backwards) {
+        int length = 0;
+        while (true) {
+            PageRequest page = PageRequest.of(0, RUN_PAGE_SIZE);
+            List<Object[]> rows = backwards
+                ? moodRepository.findTimelineBefore(user, timestamp, id, page)
+                : moodRepository.findTimelineAfter(user, timestamp, id, page);
+            for (Object[] row : rows) {
+                if (MoodAnalyticsService.isPositiveMood((MoodType) row[0]) != positive) {
+                    return length;
+                }
+                length++;
+            }
+            if (rows.size() < RUN_PAGE_SIZE) {
+                return length;
+            }
+            Object[] last = rows.get(rows.size() - 1);
+            timestamp = (LocalDateTime) last[1];
+            id = (Long) last[2];
+        }
+    }
+
+    private void refreshSequenceState(MoodRollup rollup) {
+        resetSequenceState(rollup);
+        for (Object[] row : moodRepository.findMoodTimelineByUser(rollup.getUser())) {
+            applyToSequence(rollup, (MoodType) row[0], (LocalDateTime) row[1]);
+        }
+    }
+
+    private void resetSequenceState(MoodRollup rollup) {
+        rollup.setFirstMoodAt(null);
+        rollup.setLastMoodAt(null);
+        rollup.setLastMoodType(null);
+        rollup.setCurrentPositiveStreak(0);
+        rollup.setCurrentNegativeStreak(0);
+        rollup.setLongestPositiveStreak(0);
+        rollup.setSequenceStale(false);
+    }
+
+    /**
+     * Append one mood (in timestamp order) to the first/last and streak fields
+     */
+    private void applyToSequence(MoodRollup rollup, MoodType moodType, LocalDateTime timestamp) {
+        if (rollup.getFirstMoodAt() == null) {
+            rollup.setFirstMoodAt(timestamp);
+        }
+        rollup.setLastMoodAt(timestamp);
+        rollup.setLastMoodType(moodType);
+        advanceStreaks(rollup, moodType);
+    }
+
+    private void advanceStreaks(MoodRollup rollup, MoodType newestMood) {
+        if (MoodAnalyticsService.isPositiveMood(newestMood)) {
+            rollup.setCurrentPositiveStreak(rollup.getCurrentPositiveStreak() + 1);
+            rollup.setCurrentNegativeStreak(0);
+            rollup.setLongestPositiveStreak(
+                Math.max(rollup.getLongestPositiveStreak(), rollup.getCurrentPositiveStreak()));
+        } else {
+            rollup.setCurrentNegativeStreak(rollup.getCurrentNegativeStreak() + 1);
+            rollup.setCurrentPositiveStreak(0);
+        }
+    }
+
+    private void decrementCount(MoodRollup rollup, MoodType moodType) {
+        Long count = rollup.getMoodCounts().get(moodType);
+        if (count == null || count <= 1) {
+            rollup.getMoodCounts().remove(moodType);
+        } else {
+            rollup.getMoodCounts().put(moodType, count - 1);
+        }
+    }
+
+    private void adjustDay(MoodRollup rollup, User user, LocalDate date, int countDelta, int scoreDelta) {
+        MoodDailyRollup day = moodDailyRollupRepository.findByUserAndRollupDate(user, date)
+            .orElseGet(() -> new MoodDailyRollup(user, date));
+        boolean wasTracked = day.getMoodCount() > 0;
+
+        day.setMoodCount(Math.max(0, day.getMoodCount() + countDelta));
+        day.setScoreSum(day.getScoreSum() + scoreDelta);
+
+        if (day.getMoodCount() == 0) {
+            if (day.getId() != null) {
+                moodDailyRollupRepository.delete(day);
+            }
+            if (wasTracked) {
+                rollup.setDaysTracked(Math.max(0, rollup.getDaysTracked() - 1));
+            }
+            return;
+        }
+
+        if (!wasTracked) {
+            rollup.setDaysTracked(rollup.getDaysTracked() + 1);
+        }
+        moodDailyRollupRepository.save(day);
+    }
+}
@@ -1,32 +1,83 @@
 package com.moodtracking.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.moodtracking.dto.MoodBatchResponse;
+import com.moodtracking.dto.MoodHistoryPage;
 import com.moodtracking.dto.MoodRequest;
 import com.moodtracking.dto.MoodResponse;
 import com.moodtracking.dto.MoodStatsResponse;
+import com.moodtracking.events.MoodDeletedEvent;
+import com.moodtracking.events.MoodLoggedEvent;
+import com.moodtracking.events.MoodUpdatedEvent;
 import com.moodtracking.models.Mood;
 import com.moodtracking.models.Mood.MoodType;
 import com.moodtracking.models.User;
 import com.moodtracking.repositories.MoodRepository;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
 @Service
 public class MoodService {
     
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+    
+    private static final int RECENT_MOODS = 10;
+    
+    // Moods flushed and detached together during an import; a multiple of hibernate.jdbc.batch_size
+    private static final int IMPORT_FLUSH_SIZE = 500;
+    
     @Autowired
     private MoodRepository moodRepository;
     
+    @Autowired
+    private MoodRollupService moodRollupService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Transactional
     public MoodResponse addMood(MoodRequest request, User user) {
         Mood mood = new Mood(request.getMoodType(), request.getNotes(), user);
+        mood.setTimestamp(request.getTimestamp());
         Mood savedMood = moodRepository.save(mood);
+        moodRollupService.recordMoodAdded(savedMood);
+        eventPublisher.publishEvent(new MoodLoggedEvent(savedMood));
         
         return new MoodResponse(
             savedMood.getId(),
@@ -37,43 +88,115 @@ public class MoodService {
         );
     }
     
+    /**
+     * Save many moods in one transaction, such as history logged offline. Each item is
+     * validated on its own and invalid ones are reported rather than failing the batch;
+     * the valid ones go out as batched inserts. Results are in request order.
+     */
+    @Timed(value = "mood.import", histogram = true)
+    @Transactional
+    public MoodBatchResponse addMoods(List<MoodRequest> requests, User user) {
+        MoodBatchResponse.ItemResult[] results = new MoodBatchResponse.ItemResult[requests.size()];
+        List<Mood> moods = new ArrayList<>(requests.size());
+        List<Integer> indexes = new ArrayList<>(requests.size());
+        
+        for (int i = 0; i < requests.size(); i++) {
+            MoodRequest request = requests.get(i);
+            String error = validationError(request);
+            if (error != null) {
+                results[i] = MoodBatchResponse.ItemResult.rejected(i, error);
+                continue;
+            }
+            Mood mood = new Mood(request.getMoodType(), request.getNotes(), user);
+            mood.setTimestamp(request.getTimestamp());
+            moods.add(mood);
+            indexes.add(i);
+        }
+        
+        for (int start = 0; start < moods.size(); start += IMPORT_FLUSH_SIZE) {
+            List<Mood> chunk = moods.subList(start, Math.min(start + IMPORT_FLUSH_SIZE, moods.size()));
+            moodRepository.saveAll(chunk);
+            entityManager.flush();
+            // Keep the persistence context from growing with the import
+            entityManager.clear();
+        }
+        
+        for (int i = 0; i < moods.size(); i++) {
+            int index = indexes.get(i);
+            results[index] = MoodBatchResponse.ItemResult.created(index, toResponse(moods.get(i), user.getUsername()));
+            eventPublisher.publishEvent(new MoodLoggedEvent(moods.get(i)));
+        }
+        
+        if (!moods.isEmpty()) {
+            // Imported moods are usually backdated, so rebuild once rather than fold in each
+            moodRollupService.rebuildRollup(user);
+        }
+        
+        return new MoodBatchResponse(moods.size(), requests.size() - moods.size(), Arrays.asList(results));
+    }
+    
     public List<MoodResponse> getMoodHistory(User user) {
-        List<Mood> moods = moodRepository.findByUserOrderByTimestampDesc(user);
-        return moods.stream()
-                .map(mood -> new MoodResponse(
-                    mood.getId(),
-                    mood.getMoodType(),
-                    mood.getNotes(),
-                    mood.getTimestamp(),
-                    mood.getUser().getUsername()
-                ))
+        return moodRepository.findResponsesByUser(user);
+    }
+    
+    /**
+     * One page of history, newest first. The cursor is the opaque nextCursor of the
+     * previous page; paging seeks on (timestamp, id) so deep pages cost the same as the first.
+     */
+    public MoodHistoryPage getMoodHistoryPage(User user, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        // One extra row tells us whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        
+        List<Mood> moods;
+        if (cursor == null || cursor.isEmpty()) {
+            moods = moodRepository.findHistoryPage(user, pageable);
+        } else {
+            Mood after = decodeHistoryCursor(cursor);
+            moods = moodRepository.findHistoryPageAfter(user, after.getTimestamp(), after.getId(), pageable);
+        }
+        
+        boolean hasMore = moods.size() > pageSize;
+        List<Mood> page = hasMore ? moods.subList(0, pageSize) : moods;
+        List<MoodResponse> responses = page.stream()
+                .map(mood -> toResponse(mood, user.getUsername()))
                 .collect(Collectors.toList());
+        String nextCursor = hasMore ? encodeHistoryCursor(page.get(page.size() - 1)) : null;
+        
+        return new MoodHistoryPage(responses, nextCursor, hasMore);
+    }
+    
+    /**
+     * Write the whole history as newline-delimited JSON, newest first, in keyset pages of
+     * MAX_HISTORY_PAGE_SIZE. Deliberately not transactional: each page is its own short
+     * query, so a slow client holds no connection between pages and memory use doesn't
+     * grow with history size. A mood written while the download runs may be missed.
+     */
+    public void writeMoodHistoryNdjson(User user, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(MoodResponse.class);
+        Pageable pageable = PageRequest.of(0, MAX_HISTORY_PAGE_SIZE);
+        
+        List<MoodResponse> page = moodRepository.findResponsesPage(user, pageable);
+        while (true) {
+            for (MoodResponse mood : page) {
+                out.write(writer.writeValueAsBytes(mood));
+                out.write('\n');
+            }
+            if (page.size() < MAX_HISTORY_PAGE_SIZE) {
+                break;
+            }
+            MoodResponse last = page.get(page.size() - 1);
+            page = moodRepository.findResponsesPageAfter(user, last.getTimestamp(), last.getId(), pageable);
+        }
+        out.flush();
     }
     
     public List<MoodResponse> getMoodHistoryInDateRange(User user, LocalDateTime startDate, LocalDateTime endDate) {
-        List<Mood> moods = moodRepository.findByUserAndTimestampBetweenOrderByTimestampDesc(user, startDate, endDate);
-        return moods.stream()
-                .map(mood -> new MoodResponse(
-                    mood.getId(),
-                    mood.getMoodType(),
-                    mood.getNotes(),
-                    mood.getTimestamp(),
-                    mood.getUser().getUsername()
-                ))
-                .collect(Collectors.toList());
+        return moodRepository.findResponsesByUserBetween(user, startDate, endDate);
     }
     
     public List<MoodResponse> getRecentMoods(User user) {
-        List<Mood> moods = moodRepository.findTop10ByUserOrderByTimestampDesc(user);
-        return moods.stream()
-                .map(mood -> new MoodResponse(
-                    mood.getId(),
-                    mood.getMoodType(),
-                    mood.getNotes(),
-                    mood.getTimestamp(),
-                    mood.getUser().getUsername()
-                ))
-                .collect(Collectors.toList());
+        return moodRepository.findRecentResponsesByUser(user, PageRequest.of(0, RECENT_MOODS));
     }
     
     public MoodStatsResponse getMoodStats(User user, int days) {
@@ -105,42 +228,80 @@ public class MoodService {
         Optional<Mood> mood = moodRepository.findById(id);
         if (mood.isPresent() && mood.get().getUser().getId().equals(user.getId())) {
             Mood m = mood.get();
-            return Optional.of(new MoodResponse(
-                m.getId(),
-                m.getMoodType(),
-                m.getNotes(),
-                m.getTimestamp(),
-                m.getUser().getUsername()
-            ));
+            // The owner is the caller, so their username needn't be loaded from the mood's user
+            return Optional.of(toResponse(m, user.getUsername()));
         }
         return Optional.empty();
     }
     
+    @Transactional
     public boolean deleteMood(Long id, User user) {
         Optional<Mood> mood = moodRepository.findById(id);
         if (mood.isPresent() && mood.get().getUser().getId().equals(user.getId())) {
             moodRepository.delete(mood.get());
+            moodRollupService.recordMoodDeleted(mood.get());
+            eventPublisher.publishEvent(new MoodDeletedEvent(mood.get()));
             return true;
         }
         return false;
     }
     
+    @Transactional
     public Optional<MoodResponse> updateMood(Long id, MoodRequest request, User user) {
         Optional<Mood> moodOpt = moodRepository.findById(id);
         if (moodOpt.isPresent() && moodOpt.get().getUser().getId().equals(user.getId())) {
             Mood mood = moodOpt.get();
+            MoodType previousType = mood.getMoodType();
             mood.setMoodType(request.getMoodType());
             mood.setNotes(request.getNotes());
             
             Mood updatedMood = moodRepository.save(mood);
-            return Optional.of(new MoodResponse(
-                updatedMood.getId(),
-                updatedMood.getMoodType(),
-                updatedMood.getNotes(),
-                updatedMood.getTimestamp(),
-                updatedMood.getUser().getUsername()
-            ));
+            moodRollupService.recordMoodUpdated(updatedMood, previousType);
+            eventPublisher.publishEvent(new MoodUpdatedEvent(updatedMood, previousType));
+            return Optional.of(toResponse(updatedMood, user.getUsername()));
         }
         return Optional.empty();
     }
+    
+    private MoodResponse toResponse(Mood mood, String username) {
+        return new MoodResponse(
+            mood.getId(),
+            mood.getMoodType(),
+            mood.getNotes(),
+            mood.getTimestamp(),
+            username
+        );
+    }
+    
+    private String validationError(MoodRequest request) {
+        if (request == null) {
+            return "Mood entry is required";
+        }
+        Set<ConstraintViolation<MoodRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    private String encodeHistoryCursor(Mood mood) {
+        String keyset = mood.getTimestamp() + "|" + mood.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keyset.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private Mood decodeHistoryCursor(String cursor) {
+        try {
+            String keyset = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = keyset.indexOf('|');
+            Mood after = new Mood();
+            after.setTimestamp(LocalDateTime.parse(keyset.substring(0, separator)));
+            after.setId(Long.parseLong(keyset.substring(separator + 1)));
+            return after;
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid history cursor");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.moodtracking.services;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import com.moodtracking.dto.MoodResponse;
+
+/**
+ * Columnar, newest-first view of a user's moods for {@link MoodAnalyticsEngine}.
+ * Timestamps are stored as wall-clock epoch seconds (LocalDateTime read as UTC),
+ * so {@code Math.floorDiv(epochSeconds, 86400)} is the mood's LocalDate epoch day.
+ */
+final class MoodTimeline {
+
+    final int size;
+    final int[] moodOrdinals;
+    final long[] epochSeconds;
+    final int[] nanos;
+
+    MoodTimeline(int[] moodOrdinals, long[] epochSeconds, int[] nanos) {
+        this.size = moodOrdinals.length;
+        this.moodOrdinals = moodOrdinals;
+        this.epochSeconds = epochSeconds;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Build the view from a newest-first list such as MoodService.getMoodHistoryInDateRange returns
+     */
+    static MoodTimeline fromResponses(List<MoodResponse> moods) {
+        int size = moods.size();
+        int[] moodOrdinals = new int[size];
+        long[] epochSeconds = new long[size];
+        int[] nanos = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            MoodResponse mood = moods.get(i);
+            LocalDateTime timestamp = mood.getTimestamp();
+            moodOrdinals[i] = mood.getMoodType().ordinal();
+            epochSeconds[i] = timestamp.toEpochSecond(ZoneOffset.UTC);
+            nanos[i] = timestamp.getNano();
+        }
+        return new MoodTimeline(moodOrdinals, epochSeconds, nanos);
+    }
+
+    LocalDateTime timestampAt(int index) {
+        return LocalDateTime.ofEpochSecond(epochSeconds[index], nanos[index], ZoneOffset.UTC);
+    }
+
+    /**
+     * Whether the mood at index is strictly after the given instant
+     */
+    boolean isAfter(int index, LocalDateTime instant) {
+        long seconds = instant.toEpochSecond(ZoneOffset.UTC);
+        return epochSeconds[index] > seconds
+            || (epochSeconds[index] == seconds && nanos[index] > instant.getNano());
+    }
+}
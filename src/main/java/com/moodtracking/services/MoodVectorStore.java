@@ -0,0 +1,166 @@
+package com.moodtracking.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.moodtracking.dto.MoodResponse;
+import com.moodtracking.models.Mood.MoodType;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-user mood weights, indexed by MoodType ordinal, where each logged mood adds one
+ * and halves in weight every half-life. A user's vector is built from their recent
+ * moods on first use and then kept up to date from mood events, so ranking
+ * recommendations doesn't have to read mood history.
+ */
+@Component
+public class MoodVectorStore {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    @Value("${recommendations.mood-vector.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${recommendations.mood-vector.max-size:100000}")
+    private int maxSize;
+
+    private Map<Long, MoodVector> vectors;
+
+    // Users whose vector is being loaded; a change arriving meanwhile removes the token
+    // so the load, which may have read the history before the change, isn't kept
+    private final Map<Long, Object> loading = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int capacity = maxSize;
+        vectors = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MoodVector> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * The user's current weights, loading the vector from their recent moods (newest
+     * first) if it isn't held yet. Callers get their own copy.
+     */
+    public double[] getWeights(Long userId, Supplier<List<MoodResponse>> loader) {
+        MoodVector vector = vectors.get(userId);
+        if (vector == null) {
+            Object token = new Object();
+            loading.put(userId, token);
+            List<MoodResponse> recentMoods = loader.get();
+            vector = new MoodVector(recentMoods);
+            for (int i = recentMoods.size() - 1; i >= 0; i--) {
+                MoodResponse mood = recentMoods.get(i);
+                vector.add(mood.getMoodType(), mood.getTimestamp());
+            }
+            synchronized (vectors) {
+                if (loading.remove(userId, token)) {
+                    vectors.put(userId, vector);
+                }
+            }
+        }
+        return vector.snapshot();
+    }
+
+    /**
+     * Fold a newly logged mood into the user's vector, unless the vector was loaded with
+     * it already. Users whose vector isn't held are skipped; theirs is built with the mood
+     * included when next asked for.
+     */
+    public void record(Long userId, Long moodId, MoodType moodType, LocalDateTime timestamp) {
+        MoodVector vector;
+        synchronized (vectors) {
+            loading.remove(userId);
+            vector = vectors.get(userId);
+        }
+        if (vector != null && !vector.wasLoadedWith(moodId)) {
+            vector.add(moodType, timestamp);
+        }
+    }
+
+    /**
+     * Drop the user's vector after an edit or delete, which can't be undone incrementally
+     */
+    public void evict(Long userId) {
+        synchronized (vectors) {
+            loading.remove(userId);
+            vectors.remove(userId);
+        }
+    }
+
+    public int size() {
+        return vectors.size();
+    }
+
+    private double decay(LocalDateTime from, LocalDateTime to) {
+        double hours = Duration.between(from, to).toMillis() / MILLIS_PER_HOUR;
+        return Math.pow(2, -hours / halfLifeHours);
+    }
+
+    /**
+     * Weights as of the newest mood folded in. Decaying all of them to the present would
+     * scale them equally, so the ranking doesn't depend on when it is read.
+     */
+    private final class MoodVector {
+        private final double[] weights = new double[MoodType.values().length];
+        private final long[] loadedIds;
+        private LocalDateTime asOf;
+
+        MoodVector(List<MoodResponse> loadedMoods) {
+            loadedIds = new long[loadedMoods.size()];
+            for (int i = 0; i < loadedIds.length; i++) {
+                Long id = loadedMoods.get(i).getId();
+                loadedIds[i] = id != null ? id : -1;
+            }
+        }
+
+        boolean wasLoadedWith(Long moodId) {
+            if (moodId != null) {
+                for (long loadedId : loadedIds) {
+                    if (loadedId == moodId) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        synchronized void add(MoodType moodType, LocalDateTime timestamp) {
+            if (moodType == null) {
+                return;
+            }
+            if (timestamp == null || asOf == null || !timestamp.isBefore(asOf)) {
+                if (asOf != null && timestamp != null) {
+                    double factor = decay(asOf, timestamp);
+                    for (int i = 0; i < weights.length; i++) {
+                        weights[i] *= factor;
+                    }
+                }
+                if (timestamp != null) {
+                    asOf = timestamp;
+                }
+                weights[moodType.ordinal()] += 1;
+            } else {
+                // Backdated: counts for what it would have decayed to by now
+                weights[moodType.ordinal()] += decay(timestamp, asOf);
+            }
+        }
+
+        synchronized double[] snapshot() {
+            return weights.clone();
+        }
+    }
+}
@@ -5,11 +5,14 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.moodtracking.dto.NoteRequest;
 import com.moodtracking.dto.NoteResponse;
+import com.moodtracking.dto.SearchResult;
+import com.moodtracking.events.SearchDocumentEvent;
 import com.moodtracking.models.Note;
 import com.moodtracking.models.User;
 import com.moodtracking.repositories.NoteRepository;
@@ -20,6 +23,9 @@ public class NoteService {
     @Autowired
     private NoteRepository noteRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Transactional
     public NoteResponse createNote(NoteRequest request, User user) {
         Note note = new Note(
@@ -30,6 +36,7 @@ public class NoteService {
         );
         
         Note savedNote = noteRepository.save(note);
+        publishIndexed(savedNote);
         return convertToResponse(savedNote);
     }
     
@@ -63,6 +70,7 @@ public class NoteService {
             note.setCategory(request.getCategory());
             
             Note updatedNote = noteRepository.save(note);
+            publishIndexed(updatedNote);
             return Optional.of(convertToResponse(updatedNote));
         }
         
@@ -75,12 +83,18 @@ public class NoteService {
         
         if (noteOptional.isPresent()) {
             noteRepository.delete(noteOptional.get());
+            eventPublisher.publishEvent(SearchDocumentEvent.removed(SearchResult.Type.NOTE, user.getId(), id));
             return true;
         }
         
         return false;
     }
     
+    private void publishIndexed(Note note) {
+        eventPublisher.publishEvent(SearchDocumentEvent.indexed(SearchResult.Type.NOTE, note.getUser().getId(),
+            note.getId(), note.getTitle(), note.getContent()));
+    }
+    
     private NoteResponse convertToResponse(Note note) {
         return new NoteResponse(
             note.getId(),
@@ -1,24 +1,24 @@
 package com.moodtracking.services;
 
-import java.time.DayOfWeek;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.moodtracking.dto.DueTask;
 import com.moodtracking.dto.NotificationReminderResponse;
 import com.moodtracking.dto.ScheduleReminderRequest;
+import com.moodtracking.dto.ScheduledReminder;
 import com.moodtracking.models.NotificationReminder;
 import com.moodtracking.models.User;
 import com.moodtracking.repositories.NotificationReminderRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
 @Transactional
 public class NotificationService {
@@ -26,6 +26,15 @@ public class NotificationService {
     @Autowired
     private NotificationReminderRepository notificationReminderRepository;
     
+    @Autowired
+    private ReminderSchedule reminderSchedule;
+    
+    @Autowired
+    private ReminderDispatcher reminderDispatcher;
+    
+    @Autowired
+    private TaskDueSchedule taskDueSchedule;
+    
     /**
      * Schedule a new reminder for a user
      */
@@ -42,6 +51,7 @@ public class NotificationService {
             reminder.setTimezone(request.getTimezone() != null ? request.getTimezone() : "UTC");
             
             NotificationReminder saved = notificationReminderRepository.save(reminder);
+            syncSchedule(saved);
             return new NotificationReminderResponse(saved);
         } else {
             // Create new reminder
@@ -54,6 +64,7 @@ public class NotificationService {
             );
             
             NotificationReminder saved = notificationReminderRepository.save(newReminder);
+            syncSchedule(saved);
             return new NotificationReminderResponse(saved);
         }
     }
@@ -94,6 +105,7 @@ public class NotificationService {
             
             reminder.setIsActive(isActive);
             NotificationReminder saved = notificationReminderRepository.save(reminder);
+            syncSchedule(saved);
             return new NotificationReminderResponse(saved);
         } else {
             throw new RuntimeException("Reminder not found");
@@ -115,89 +127,54 @@ public class NotificationService {
             }
             
             notificationReminderRepository.delete(reminder);
+            AfterCommit.run(() -> reminderSchedule.remove(reminderId));
         } else {
             throw new RuntimeException("Reminder not found");
         }
     }
     
     /**
-     * Process reminders that should be sent now
-     * This method is called by the scheduler
+     * Load every active reminder into the in-memory schedule
+     * Called once at startup; afterwards the schedule is kept in step by the methods above
      */
-    public void processReminders() {
-        LocalTime currentTime = LocalTime.now();
-        LocalTime startTime = currentTime.minusMinutes(1);
-        LocalTime endTime = currentTime.plusMinutes(1);
-        
-        List<NotificationReminder> remindersToSend = notificationReminderRepository
-            .findActiveRemindersByTimeRange(startTime, endTime);
-        
-        for (NotificationReminder reminder : remindersToSend) {
-            if (shouldSendReminder(reminder)) {
-                sendReminder(reminder);
-                updateLastSentTime(reminder);
-            }
-        }
+    @Transactional(readOnly = true)
+    public int loadReminderSchedule() {
+        List<ScheduledReminder> reminders = notificationReminderRepository.findAllActiveScheduled();
+        reminderSchedule.replaceAll(reminders);
+        return reminders.size();
     }
     
     /**
-     * Check if a reminder should be sent based on frequency and last sent time
+     * Send the reminders and due task notifications that have fallen due and record when
+     * they were sent
+     * This method is called by the scheduler on every tick, so it runs outside a transaction
+     * and only touches the database when something is due
      */
-    private boolean shouldSendReminder(NotificationReminder reminder) {
-        if (reminder.getLastSentAt() == null) {
-            return true; // First time sending
+    @Timed(value = "notifications.reminders.process", histogram = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void processReminders() {
+        List<ScheduledReminder> dueReminders = reminderSchedule.pollDue();
+        if (!dueReminders.isEmpty()) {
+            reminderDispatcher.dispatch(dueReminders);
         }
-        
-        LocalDateTime lastSent = reminder.getLastSentAt();
-        LocalDateTime now = LocalDateTime.now();
-        DayOfWeek currentDay = now.getDayOfWeek();
-        
-        switch (reminder.getFrequency()) {
-            case DAILY:
-                return lastSent.toLocalDate().isBefore(now.toLocalDate());
-            
-            case WEEKLY:
-                return lastSent.isBefore(now.minusWeeks(1));
-            
-            case WEEKDAYS:
-                return lastSent.toLocalDate().isBefore(now.toLocalDate()) && 
-                       currentDay != DayOfWeek.SATURDAY && currentDay != DayOfWeek.SUNDAY;
-            
-            case WEEKENDS:
-                return lastSent.toLocalDate().isBefore(now.toLocalDate()) && 
-                       (currentDay == DayOfWeek.SATURDAY || currentDay == DayOfWeek.SUNDAY);
-            
-            case CUSTOM:
-                return lastSent.toLocalDate().isBefore(now.toLocalDate());
-            
-            default:
-                return false;
+        List<DueTask> dueTasks = taskDueSchedule.pollDue();
+        if (!dueTasks.isEmpty()) {
+            reminderDispatcher.dispatchDueTasks(dueTasks);
         }
     }
     
     /**
-     * Send the reminder notification
-     * In a real implementation, this would send an email, push notification, etc.
+     * Put the reminder's next occurrence in the schedule, or take it out if inactive,
+     * once the change is committed
      */
-    private void sendReminder(NotificationReminder reminder) {
-        // Log the reminder (in real implementation, send email/push notification)
-        System.out.println("Sending reminder to user: " + reminder.getUser().getUsername());
-        System.out.println("Message: " + reminder.getMessage());
-        System.out.println("Time: " + reminder.getReminderTime());
-        System.out.println("Frequency: " + reminder.getFrequency().getDisplayName());
-        
-        // Here you would integrate with:
-        // - Email service (SendGrid, SES, etc.)
-        // - Push notification service (Firebase, APNs, etc.)
-        // - SMS service (Twilio, etc.)
-    }
-    
-    /**
-     * Update the last sent time for a reminder
-     */
-    private void updateLastSentTime(NotificationReminder reminder) {
-        reminder.setLastSentAt(LocalDateTime.now());
-        notificationReminderRepository.save(reminder);
+    private void syncSchedule(NotificationReminder reminder) {
+        Long reminderId = reminder.getId();
+        if (Boolean.TRUE.equals(reminder.getIsActive())) {
+            ScheduledReminder scheduled = new ScheduledReminder(reminder);
+            AfterCommit.run(() -> reminderSchedule.schedule(scheduled));
+        } else {
+            AfterCommit.run(() -> reminderSchedule.remove(reminderId));
+        }
     }
     
     /**
@@ -206,29 +183,4 @@ public class NotificationService {
     private String getDefaultMessage() {
         return "Time for your daily mood check-in! How are you feeling today?";
     }
-    
-    /**
-     * Get reminders that need to be processed considering timezone
-     */
-    public List<NotificationReminder> getRemindersToProcess(LocalTime currentTime) {
-        LocalTime startTime = currentTime.minusMinutes(1);
-        LocalTime endTime = currentTime.plusMinutes(1);
-        
-        return notificationReminderRepository.findActiveRemindersByTimeRange(startTime, endTime);
-    }
-    
-    /**
-     * Convert time to user's timezone
-     */
-    private LocalTime convertToUserTimezone(LocalTime utcTime, String userTimezone) {
-        try {
-            ZonedDateTime utcDateTime = ZonedDateTime.now(ZoneId.of("UTC"))
-                .with(utcTime);
-            ZonedDateTime userDateTime = utcDateTime.withZoneSameInstant(ZoneId.of(userTimezone));
-            return userDateTime.toLocalTime();
-        } catch (Exception e) {
-            // If timezone conversion fails, return UTC time
-            return utcTime;
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,392 @@
+package com.moodtracking.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moodtracking.dto.MovieRecommendation;
+import com.moodtracking.dto.RecommendationResponse;
+import com.moodtracking.dto.SongRecommendation;
+import com.moodtracking.models.Mood.MoodType;
+
+/**
+ * Immutable song and movie recommendations indexed by mood, built once at startup.
+ * Every response the /recommend endpoints can return for a requested mood is also
+ * serialized up front, with its ETag, so serving one is a lookup rather than a Jackson
+ * write. Responses ranked for a user's mood weights are stitched together from
+ * pre-serialized items.
+ *
+ * The recommendation objects are shared between callers and must not be modified.
+ */
+public final class RecommendationCatalog {
+
+    public enum Kind { SONGS, MOVIES, ALL }
+
+    // Items per ranked list, the same as each mood's list in the catalog
+    static final int RECOMMENDATION_COUNT = 5;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<MoodType, List<SongRecommendation>> songs;
+    private final Map<MoodType, List<MovieRecommendation>> movies;
+    private final List<SongRecommendation> defaultSongs;
+    private final List<MovieRecommendation> defaultMovies;
+
+    private final RankedItems<SongRecommendation> rankedSongs;
+    private final RankedItems<MovieRecommendation> rankedMovies;
+
+    // Per kind: the response for a requested mood, the general one, and the frame a ranked
+    // response is written into for each dominant mood
+    private final Map<Kind, Map<MoodType, CachedResponse>> requested = new EnumMap<>(Kind.class);
+    private final Map<Kind, CachedResponse> general = new EnumMap<>(Kind.class);
+    private final Map<Kind, Map<MoodType, Frame>> frames = new EnumMap<>(Kind.class);
+
+    // Changes whenever the catalog content does, so ranked ETags never outlive it
+    private final long version;
+
+    public RecommendationCatalog(Map<MoodType, List<SongRecommendation>> songs,
+                                 Map<MoodType, List<MovieRecommendation>> movies,
+                                 List<SongRecommendation> defaultSongs,
+                                 List<MovieRecommendation> defaultMovies,
+                                 ObjectMapper objectMapper) {
+        this.songs = index(songs);
+        this.movies = index(movies);
+        this.defaultSongs = List.copyOf(defaultSongs);
+        this.defaultMovies = List.copyOf(defaultMovies);
+        this.rankedSongs = new RankedItems<>(this.songs, song -> song.getTitle() + "|" + song.getArtist(), objectMapper);
+        this.rankedMovies = new RankedItems<>(this.movies, movie -> movie.getTitle() + "|" + movie.getDirector(), objectMapper);
+
+        long hash = 0xcbf29ce484222325L;
+        for (Kind kind : Kind.values()) {
+            Map<MoodType, CachedResponse> forRequested = new EnumMap<>(MoodType.class);
+            Map<MoodType, Frame> forRanked = new EnumMap<>(MoodType.class);
+            for (MoodType moodType : MoodType.values()) {
+                CachedResponse response = serialize(objectMapper,
+                    build(kind, moodType, getSongs(moodType), getMovies(moodType), false));
+                forRequested.put(moodType, response);
+                forRanked.put(moodType, new Frame(kind, toJson(objectMapper,
+                    build(kind, moodType, Collections.emptyList(), Collections.emptyList(), true))));
+                hash = mix(hash, response.getETag().hashCode());
+            }
+            requested.put(kind, forRequested);
+            frames.put(kind, forRanked);
+            general.put(kind, serialize(objectMapper, build(kind, null, this.defaultSongs, this.defaultMovies, true)));
+        }
+        this.version = mix(mix(hash, rankedSongs.contentHash), rankedMovies.contentHash);
+    }
+
+    public List<SongRecommendation> getSongs(MoodType moodType) {
+        List<SongRecommendation> result = moodType != null ? songs.get(moodType) : null;
+        return result != null ? result : Collections.emptyList();
+    }
+
+    public List<MovieRecommendation> getMovies(MoodType moodType) {
+        List<MovieRecommendation> result = moodType != null ? movies.get(moodType) : null;
+        return result != null ? result : Collections.emptyList();
+    }
+
+    public List<SongRecommendation> getDefaultSongs() {
+        return defaultSongs;
+    }
+
+    public List<MovieRecommendation> getDefaultMovies() {
+        return defaultMovies;
+    }
+
+    /**
+     * The serialized response for a mood the caller asked for
+     */
+    public CachedResponse getRequestedResponse(Kind kind, MoodType moodType) {
+        return requested.get(kind).get(moodType);
+    }
+
+    /**
+     * The serialized response for users with no mood history
+     */
+    public CachedResponse getGeneralResponse(Kind kind) {
+        return general.get(kind);
+    }
+
+    /**
+     * Songs ranked by the mood weights (indexed by MoodType ordinal), or the defaults
+     * when no weight is positive
+     */
+    public List<SongRecommendation> rankSongs(double[] weights) {
+        return dominantMood(weights) != null ? rankedSongs.items(rankedSongs.top(weights)) : defaultSongs;
+    }
+
+    public List<MovieRecommendation> rankMovies(double[] weights) {
+        return dominantMood(weights) != null ? rankedMovies.items(rankedMovies.top(weights)) : defaultMovies;
+    }
+
+    /**
+     * The response ranked by the mood weights and based on the dominant mood, written
+     * straight from the pre-serialized items. Falls back to the general response when no
+     * weight is positive.
+     */
+    public CachedResponse getRankedResponse(Kind kind, double[] weights) {
+        MoodType dominant = dominantMood(weights);
+        if (dominant == null) {
+            return general.get(kind);
+        }
+        int[] songIndexes = kind != Kind.MOVIES ? rankedSongs.top(weights) : null;
+        int[] movieIndexes = kind != Kind.SONGS ? rankedMovies.top(weights) : null;
+
+        Frame frame = frames.get(kind).get(dominant);
+        byte[] body = new byte[frame.head.length + frame.middle.length + frame.tail.length
+            + rankedSongs.length(songIndexes) + rankedMovies.length(movieIndexes)];
+        int position = copy(frame.head, body, 0);
+        position = rankedSongs.write(songIndexes, body, position);
+        position = copy(frame.middle, body, position);
+        position = rankedMovies.write(movieIndexes, body, position);
+        copy(frame.tail, body, position);
+
+        // The body is determined by these, so hashing them is as good as hashing the bytes
+        long hash = mix(mix(version, kind.ordinal()), dominant.ordinal());
+        hash = mixAll(mixAll(hash, songIndexes), movieIndexes);
+        return new CachedResponse(body, "\"r" + Long.toHexString(hash) + "\"");
+    }
+
+    /**
+     * The mood with the highest weight, or null when no weight is positive
+     */
+    public static MoodType dominantMood(double[] weights) {
+        if (weights == null) {
+            return null;
+        }
+        int best = -1;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > 0 && (best < 0 || weights[i] > weights[best])) {
+                best = i;
+            }
+        }
+        return best >= 0 ? MoodType.values()[best] : null;
+    }
+
+    private RecommendationResponse build(Kind kind, MoodType moodType, List<SongRecommendation> songList,
+                                         List<MovieRecommendation> movieList, boolean fromRecentMood) {
+        RecommendationResponse response = new RecommendationResponse(moodType, message(kind, moodType, fromRecentMood));
+        if (kind != Kind.MOVIES) {
+            response.setSongs(songList);
+        }
+        if (kind != Kind.SONGS) {
+            response.setMovies(movieList);
+        }
+        return response;
+    }
+
+    private static String message(Kind kind, MoodType moodType, boolean fromRecentMood) {
+        if (moodType == null) {
+            String general = kind == Kind.SONGS ? "General song recommendations"
+                : kind == Kind.MOVIES ? "General movie recommendations" : "General recommendations";
+            return general + " - track your mood for personalized suggestions!";
+        }
+        String subject = kind == Kind.SONGS ? "Song recommendations"
+            : kind == Kind.MOVIES ? "Movie recommendations" : "Recommendations";
+        String mood = moodType.getDisplayName().toLowerCase();
+        return fromRecentMood
+            ? subject + " based on your recent " + mood + " mood"
+            : subject + " based on " + mood + " mood";
+    }
+
+    private static <T> Map<MoodType, List<T>> index(Map<MoodType, List<T>> byMood) {
+        Map<MoodType, List<T>> indexed = new EnumMap<>(MoodType.class);
+        byMood.forEach((moodType, items) -> indexed.put(moodType, List.copyOf(items)));
+        return Collections.unmodifiableMap(indexed);
+    }
+
+    private static CachedResponse serialize(ObjectMapper objectMapper, Object value) {
+        return new CachedResponse(toJson(objectMapper, value));
+    }
+
+    private static byte[] toJson(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize recommendation catalog", e);
+        }
+    }
+
+    private static int copy(byte[] source, byte[] target, int position) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    private static long mixAll(long hash, int[] values) {
+        if (values == null) {
+            return mix(hash, -1);
+        }
+        for (int value : values) {
+            hash = mix(hash, value);
+        }
+        return mix(hash, values.length);
+    }
+
+    /**
+     * A response body in JSON and its strong ETag. The bytes are shared and must not be modified.
+     */
+    public static final class CachedResponse {
+        private final byte[] body;
+        private final String eTag;
+
+        CachedResponse(byte[] body) {
+            // Same format as ShallowEtagHeaderFilter
+            this(body, "\"0" + DigestUtils.md5DigestAsHex(body) + "\"");
+        }
+
+        CachedResponse(byte[] body, String eTag) {
+            this.body = body;
+            this.eTag = eTag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+
+    /**
+     * A serialized response with empty lists, cut around them so ranked items can be
+     * written in between: head, songs, middle, movies, tail. Lists the kind leaves out
+     * stay null in the frame and get nothing written.
+     */
+    private static final class Frame {
+        private final byte[] head;
+        private final byte[] middle;
+        private final byte[] tail;
+
+        Frame(Kind kind, byte[] emptyResponse) {
+            String json = new String(emptyResponse, StandardCharsets.UTF_8);
+            int first = json.indexOf("[]") + 1;
+            int second = kind == Kind.ALL ? json.indexOf("[]", first) + 1 : first;
+            head = json.substring(0, first).getBytes(StandardCharsets.UTF_8);
+            middle = json.substring(first, second).getBytes(StandardCharsets.UTF_8);
+            tail = json.substring(second).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * The distinct items of one kind with their pre-serialized JSON and, for every mood
+     * that lists them, an affinity that falls with their position in that mood's list.
+     * An item scores the sum of the user's mood weights times its affinities.
+     */
+    private static final class RankedItems<T> {
+        private final List<T> items;
+        private final byte[][] json;
+        private final int[][] moods;
+        private final double[][] affinities;
+        private final int contentHash;
+
+        RankedItems(Map<MoodType, List<T>> byMood, Function<T, String> key, ObjectMapper objectMapper) {
+            // The same title can be listed under several moods; it is one item with several affinities
+            Map<String, Integer> indexes = new LinkedHashMap<>();
+            List<T> distinct = new ArrayList<>();
+            List<List<int[]>> listings = new ArrayList<>();
+            byMood.forEach((moodType, list) -> {
+                for (int position = 0; position < list.size(); position++) {
+                    T item = list.get(position);
+                    int index = indexes.computeIfAbsent(key.apply(item), k -> {
+                        distinct.add(item);
+                        listings.add(new ArrayList<>());
+                        return distinct.size() - 1;
+                    });
+                    listings.get(index).add(new int[] { moodType.ordinal(), position });
+                }
+            });
+
+            items = List.copyOf(distinct);
+            json = new byte[items.size()][];
+            moods = new int[items.size()][];
+            affinities = new double[items.size()][];
+            int hash = 1;
+            for (int i = 0; i < items.size(); i++) {
+                json[i] = toJson(objectMapper, items.get(i));
+                hash = 31 * hash + Arrays.hashCode(json[i]);
+                List<int[]> listed = listings.get(i);
+                moods[i] = new int[listed.size()];
+                affinities[i] = new double[listed.size()];
+                for (int j = 0; j < listed.size(); j++) {
+                    moods[i][j] = listed.get(j)[0];
+                    affinities[i][j] = 1.0 / (1 + listed.get(j)[1]);
+                }
+            }
+            contentHash = hash;
+        }
+
+        /**
+         * Indexes of the highest-scoring items, best first; ties keep catalog order
+         */
+        int[] top(double[] weights) {
+            int[] best = new int[RECOMMENDATION_COUNT];
+            double[] bestScores = new double[RECOMMENDATION_COUNT];
+            int filled = 0;
+            for (int i = 0; i < moods.length; i++) {
+                double score = 0;
+                for (int j = 0; j < moods[i].length; j++) {
+                    score += weights[moods[i][j]] * affinities[i][j];
+                }
+                if (score <= 0 || (filled == RECOMMENDATION_COUNT && score <= bestScores[filled - 1])) {
+                    continue;
+                }
+                int slot = filled < RECOMMENDATION_COUNT ? filled++ : filled - 1;
+                while (slot > 0 && bestScores[slot - 1] < score) {
+                    best[slot] = best[slot - 1];
+                    bestScores[slot] = bestScores[slot - 1];
+                    slot--;
+                }
+                best[slot] = i;
+                bestScores[slot] = score;
+            }
+            return filled == RECOMMENDATION_COUNT ? best : Arrays.copyOf(best, filled);
+        }
+
+        List<T> items(int[] indexes) {
+            List<T> result = new ArrayList<>(indexes.length);
+            for (int index : indexes) {
+                result.add(items.get(index));
+            }
+            return result;
+        }
+
+        int length(int[] indexes) {
+            if (indexes == null) {
+                return 0;
+            }
+            int length = Math.max(0, indexes.length - 1);
+            for (int index : indexes) {
+                length += json[index].length;
+            }
+            return length;
+        }
+
+        int write(int[] indexes, byte[] target, int position) {
+            if (indexes == null) {
+                return position;
+            }
+            for (int i = 0; i < indexes.length; i++) {
+                if (i > 0) {
+                    target[position++] = ',';
+                }
+                position = copy(json[indexes[i]], target, position);
+            }
+            return position;
+        }
+    }
+}
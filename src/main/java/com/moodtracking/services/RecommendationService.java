@@ -1,71 +1,92 @@
 package com.moodtracking.services;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import com.moodtracking.dto.MovieRecommendation;
 import com.moodtracking.dto.SongRecommendation;
 import com.moodtracking.models.Mood.MoodType;
 import com.moodtracking.models.User;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
 public class RecommendationService {
     
     @Autowired
     private MoodService moodService;
     
-    private final Map<MoodType, List<SongRecommendation>> moodToSongs;
-    private final Map<MoodType, List<MovieRecommendation>> moodToMovies;
+    @Autowired
+    private MoodVectorStore moodVectorStore;
+    
+    private final RecommendationCatalog catalog;
     
     public RecommendationService() {
-        this.moodToSongs = initializeSongRecommendations();
-        this.moodToMovies = initializeMovieRecommendations();
+        // The DTOs hold only strings, numbers and enums, so a plain mapper writes the
+        // same JSON as the application's
+        this.catalog = new RecommendationCatalog(
+            initializeSongRecommendations(),
+            initializeMovieRecommendations(),
+            getDefaultSongRecommendations(),
+            getDefaultMovieRecommendations(),
+            new ObjectMapper());
     }
     
     public List<SongRecommendation> getSongRecommendations(MoodType moodType) {
-        return moodToSongs.getOrDefault(moodType, new ArrayList<>());
+        return catalog.getSongs(moodType);
     }
     
     public List<MovieRecommendation> getMovieRecommendations(MoodType moodType) {
-        return moodToMovies.getOrDefault(moodType, new ArrayList<>());
+        return catalog.getMovies(moodType);
     }
     
-    public List<SongRecommendation> getSongRecommendationsForUser(User user) {
-        MoodType recentMood = getMostRecentMoodType(user);
-        if (recentMood != null) {
-            return getSongRecommendations(recentMood);
+    /**
+     * The serialized response for the requested mood or, when none was requested, the
+     * catalog ranked against the user's recent mood trajectory. Songs and movies for
+     * /recommend/all come from the same lookup and ranking pass.
+     */
+    @Timed(value = "recommendations.response", histogram = true)
+    public RecommendationCatalog.CachedResponse getRecommendationResponse(RecommendationCatalog.Kind kind,
+                                                                         MoodType moodType, User user) {
+        if (moodType != null) {
+            return catalog.getRequestedResponse(kind, moodType);
         }
-        return getDefaultSongRecommendations();
+        return catalog.getRankedResponse(kind, getMoodWeights(user));
+    }
+    
+    public List<SongRecommendation> getSongRecommendationsForUser(User user) {
+        return catalog.rankSongs(getMoodWeights(user));
     }
     
     public List<MovieRecommendation> getMovieRecommendationsForUser(User user) {
-        MoodType recentMood = getMostRecentMoodType(user);
-        if (recentMood != null) {
-            return getMovieRecommendations(recentMood);
-        }
-        return getDefaultMovieRecommendations();
+        return catalog.rankMovies(getMoodWeights(user));
+    }
+    
+    /**
+     * The mood weighing most in the user's recent history, recent moods counting for more
+     */
+    public MoodType getDominantMoodType(User user) {
+        return RecommendationCatalog.dominantMood(getMoodWeights(user));
     }
     
-    public MoodType getMostRecentMoodType(User user) {
+    private double[] getMoodWeights(User user) {
         try {
-            var recentMoods = moodService.getRecentMoods(user);
-            if (!recentMoods.isEmpty()) {
-                return recentMoods.get(0).getMoodType();
-            }
+            return moodVectorStore.getWeights(user.getId(), () -> moodService.getRecentMoods(user));
         } catch (Exception e) {
             // Handle error gracefully
+            return null;
         }
-        return null;
     }
     
     private Map<MoodType, List<SongRecommendation>> initializeSongRecommendations() {
-        Map<MoodType, List<SongRecommendation>> songs = new HashMap<>();
+        Map<MoodType, List<SongRecommendation>> songs = new EnumMap<>(MoodType.class);
         
         // HAPPY songs
         songs.put(MoodType.HAPPY, Arrays.asList(
@@ -161,7 +182,7 @@ public class RecommendationService {
     }
     
     private Map<MoodType, List<MovieRecommendation>> initializeMovieRecommendations() {
-        Map<MoodType, List<MovieRecommendation>> movies = new HashMap<>();
+        Map<MoodType, List<MovieRecommendation>> movies = new EnumMap<>(MoodType.class);
         
         // HAPPY movies
         movies.put(MoodType.HAPPY, Arrays.asList(
@@ -0,0 +1,258 @@
+package com.moodtracking.services;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.moodtracking.dto.DueTask;
+import com.moodtracking.dto.ScheduledReminder;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sends the reminders that fall due on a scheduler tick. They are bucketed by UTC fire
+ * instant and timezone, each bucket goes to the ReminderSender on a bounded worker pool,
+ * and lastSentAt is written for everything that went out in JDBC batches. Sends still
+ * running after the send timeout are cancelled and count as failed, so a hung sender
+ * can't hold up the scheduler thread.
+ */
+@Component
+public class ReminderDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+    private static final String UPDATE_LAST_SENT_AT = "UPDATE notification_reminders SET last_sent_at = ? WHERE id = ?";
+
+    private static final String UPDATE_DUE_NOTIFIED_AT = "UPDATE tasks SET due_notified_at = ? WHERE id = ?";
+
+    @Value("${notifications.dispatch.threads:4}")
+    private int threads;
+
+    @Value("${notifications.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${notifications.dispatch.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notifications.dispatch.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Autowired
+    private ReminderSender reminderSender;
+
+    @Autowired
+    private ReminderSchedule reminderSchedule;
+
+    @Autowired
+    private TaskDueSchedule taskDueSchedule;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    private ThreadPoolExecutor executor;
+
+    private Timer lateness;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // When the queue is full the scheduler thread sends the bucket itself, which holds back the next tick
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "reminder-dispatch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+        if (meterRegistry != null) {
+            // executor.active, executor.queued and executor.queue.remaining show pool saturation
+            new ExecutorServiceMetrics(executor, "reminder.dispatch", Tags.empty()).bindTo(meterRegistry);
+            lateness = Timer.builder("notifications.reminders.lateness")
+                    .description("Time from a reminder's fire instant until it was sent")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Send the reminders and return how many went out. Every reminder is handed back to
+     * the schedule afterwards, including failed ones, which wait for their next
+     * occurrence rather than resending the whole bucket on every tick.
+     */
+    @Timed(value = "notifications.reminders.dispatch", histogram = true)
+    public int dispatch(List<ScheduledReminder> due) {
+        List<List<ScheduledReminder>> batches = new ArrayList<>();
+        for (Map<ZoneId, List<ScheduledReminder>> zones : bucket(due).values()) {
+            for (List<ScheduledReminder> bucket : zones.values()) {
+                for (int from = 0; from < bucket.size(); from += batchSize) {
+                    batches.add(bucket.subList(from, Math.min(bucket.size(), from + batchSize)));
+                }
+            }
+        }
+
+        List<Future<?>> sends = new ArrayList<>(batches.size());
+        for (List<ScheduledReminder> batch : batches) {
+            sends.add(executor.submit(() -> {
+                reminderSender.send(batch);
+                return null;
+            }));
+        }
+
+        List<ScheduledReminder> sent = awaitSent(batches, sends, batch -> batch.size() + " reminders due at "
+            + batch.get(0).getFireAt() + " in " + batch.get(0).getTimezone());
+
+        LocalDateTime sentAt = LocalDateTime.now(clock);
+        recordLateness(sent, clock.instant());
+        recordSent(sent, sentAt);
+        due.forEach(reminder -> reminderSchedule.markSent(reminder, sentAt));
+        return sent.size();
+    }
+
+    /**
+     * Send due task notifications in batches on the same pool and return how many went
+     * out. Sent tasks are recorded so they aren't notified again for the same due date;
+     * a batch that fails is logged and dropped.
+     */
+    @Timed(value = "notifications.tasks.dispatch", histogram = true)
+    public int dispatchDueTasks(List<DueTask> due) {
+        List<List<DueTask>> batches = new ArrayList<>();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            batches.add(due.subList(from, Math.min(due.size(), from + batchSize)));
+        }
+
+        List<Future<?>> sends = new ArrayList<>(batches.size());
+        for (List<DueTask> batch : batches) {
+            sends.add(executor.submit(() -> {
+                reminderSender.sendDueTasks(batch);
+                return null;
+            }));
+        }
+
+        List<DueTask> sent = awaitSent(batches, sends, batch -> batch.size() + " due task reminders");
+
+        LocalDateTime sentAt = LocalDateTime.now(clock);
+        if (!sent.isEmpty()) {
+            Timestamp timestamp = Timestamp.valueOf(sentAt);
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_DUE_NOTIFIED_AT, sent, batchSize, (statement, task) -> {
+                    statement.setTimestamp(1, timestamp);
+                    statement.setLong(2, task.getTaskId());
+                });
+            } catch (DataAccessException e) {
+                // Only a restart within the grace period could notify these again
+                logger.error("Failed to record {} sent due task reminders: {}", sent.size(), e.getMessage());
+            }
+        }
+        sent.forEach(task -> taskDueSchedule.markNotified(task, sentAt));
+        return sent.size();
+    }
+
+    /**
+     * Wait for the batches' sends and return everything in the ones that completed. All
+     * sends share one deadline, the send timeout from now, so a tick waits at most that
+     * long; a send still running or queued then is cancelled and its batch counts as failed.
+     */
+    private <T> List<T> awaitSent(List<List<T>> batches, List<Future<?>> sends, Function<List<T>, String> describe) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<T> sent = new ArrayList<>();
+        for (int i = 0; i < batches.size(); i++) {
+            List<T> batch = batches.get(i);
+            Future<?> send = sends.get(i);
+            try {
+                send.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sent.addAll(batch);
+            } catch (ExecutionException e) {
+                logger.error("Failed to send {}: {}", describe.apply(batch), e.getCause().getMessage());
+            } catch (TimeoutException e) {
+                send.cancel(true);
+                logger.error("Gave up sending {} after {} ms", describe.apply(batch), sendTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                send.cancel(true);
+                logger.error("Interrupted while sending {}", describe.apply(batch));
+            }
+        }
+        return sent;
+    }
+
+    private Map<Instant, Map<ZoneId, List<ScheduledReminder>>> bucket(List<ScheduledReminder> due) {
+        // Earliest fire instant first, so late reminders go out before on-time ones
+        Map<Instant, Map<ZoneId, List<ScheduledReminder>>> buckets = new TreeMap<>();
+        for (ScheduledReminder reminder : due) {
+            buckets.computeIfAbsent(reminder.getFireAt(), fireAt -> new LinkedHashMap<>())
+                .computeIfAbsent(ReminderSchedule.zoneOf(reminder.getTimezone()), zone -> new ArrayList<>())
+                .add(reminder);
+        }
+        return buckets;
+    }
+
+    private void recordLateness(List<ScheduledReminder> sent, Instant now) {
+        if (lateness == null) {
+            return;
+        }
+        for (ScheduledReminder reminder : sent) {
+            if (reminder.getFireAt() != null) {
+                lateness.record(Duration.between(reminder.getFireAt(), now));
+            }
+        }
+    }
+
+    private void recordSent(List<ScheduledReminder> sent, LocalDateTime sentAt) {
+        if (sent.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(sentAt);
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_SENT_AT, sent, batchSize, (statement, reminder) -> {
+                statement.setTimestamp(1, timestamp);
+                statement.setLong(2, reminder.getReminderId());
+            });
+        } catch (DataAccessException e) {
+            // The schedule still moves on in memory; only a restart could resend these today
+            logger.error("Failed to record {} sent reminders: {}", sent.size(), e.getMessage());
+        }
+    }
+}
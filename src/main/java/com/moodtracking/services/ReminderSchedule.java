@@ -0,0 +1,184 @@
+package com.moodtracking.services;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.moodtracking.dto.ScheduledReminder;
+import com.moodtracking.models.NotificationReminder.ReminderFrequency;
+import com.moodtracking.utils.HierarchicalTimingWheel;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Every active reminder, held in a timing wheel at its next fire instant in the
+ * reminder's own timezone. Loaded once at startup and kept in step by
+ * NotificationService, so finding due reminders never touches the database.
+ */
+@Component
+public class ReminderSchedule {
+
+    // A reminder up to a minute late still fires, like the old one-minute polling window
+    static final long GRACE_MS = 60_000L;
+
+    @Value("${notifications.scheduler.tick-ms:100}")
+    private long tickMs;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    // lastSentAt is stored in server local time
+    private Clock clock = Clock.systemDefaultZone();
+
+    private HierarchicalTimingWheel<Long, ScheduledReminder> wheel;
+
+    // Fired but not yet marked sent; a change in the meantime drops the id so the stale
+    // snapshot isn't put back
+    private final Set<Long> inFlight = new HashSet<>();
+
+    private volatile long lastPollMs;
+
+    @PostConstruct
+    public void init() {
+        wheel = new HierarchicalTimingWheel<>(tickMs, clock.millis());
+        lastPollMs = clock.millis();
+
+        if (meterRegistry != null) {
+            Gauge.builder("notifications.reminders.scheduled", this, ReminderSchedule::size)
+                    .description("Active reminders in the schedule")
+                    .register(meterRegistry);
+            Gauge.builder("notifications.scheduler.lag", this, schedule -> schedule.getLagMs() / 1000.0)
+                    .description("How far the scheduler is behind its tick; reminders fire at least this late")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    public synchronized void replaceAll(Collection<ScheduledReminder> reminders) {
+        wheel = new HierarchicalTimingWheel<>(tickMs, clock.millis());
+        inFlight.clear();
+        reminders.forEach(this::add);
+    }
+
+    public synchronized void schedule(ScheduledReminder reminder) {
+        inFlight.remove(reminder.getReminderId());
+        add(reminder);
+    }
+
+    public synchronized void remove(Long reminderId) {
+        inFlight.remove(reminderId);
+        wheel.cancel(reminderId);
+    }
+
+    /**
+     * Reminders whose fire instant has passed. Each must be handed back through
+     * markSent to be scheduled for its next occurrence.
+     */
+    public synchronized List<ScheduledReminder> pollDue() {
+        lastPollMs = clock.millis();
+        List<ScheduledReminder> due = wheel.advance(lastPollMs);
+        due.forEach(reminder -> inFlight.add(reminder.getReminderId()));
+        return due;
+    }
+
+    public synchronized void markSent(ScheduledReminder reminder, LocalDateTime sentAt) {
+        if (inFlight.remove(reminder.getReminderId())) {
+            add(reminder.withLastSentAt(sentAt));
+        }
+    }
+
+    public synchronized Optional<Instant> getNextFireAt(Long reminderId) {
+        OptionalLong deadline = wheel.deadlineOf(reminderId);
+        return deadline.isPresent() ? Optional.of(Instant.ofEpochMilli(deadline.getAsLong())) : Optional.empty();
+    }
+
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    /**
+     * Time past the expected next poll, zero while the scheduler keeps up
+     */
+    public long getLagMs() {
+        return Math.max(0L, clock.millis() - lastPollMs - tickMs);
+    }
+
+    private void add(ScheduledReminder reminder) {
+        Instant fireAt = nextFireAt(reminder, clock.instant(), clock.getZone());
+        wheel.schedule(reminder.getReminderId(), reminder.withFireAt(fireAt), fireAt.toEpochMilli());
+    }
+
+    /**
+     * The first instant at or after now (less the grace period) when the reminder's local
+     * time falls on a day its frequency allows, and that isn't the day it was last sent.
+     * Weekly reminders wait seven days after the last send.
+     */
+    static Instant nextFireAt(ScheduledReminder reminder, Instant now, ZoneId serverZone) {
+        ZoneId zone = zoneOf(reminder.getTimezone());
+        Instant earliest = now.minusMillis(GRACE_MS);
+        LocalDate date = earliest.atZone(zone).toLocalDate();
+
+        if (reminder.getLastSentAt() != null) {
+            LocalDate lastSent = reminder.getLastSentAt().atZone(serverZone).withZoneSameInstant(zone).toLocalDate();
+            LocalDate next = lastSent.plusDays(reminder.getFrequency() == ReminderFrequency.WEEKLY ? 7 : 1);
+            if (next.isAfter(date)) {
+                date = next;
+            }
+        }
+
+        // Every frequency allows at least one day in any eight
+        for (int i = 0; i <= 8; i++, date = date.plusDays(1)) {
+            if (!runsOn(reminder.getFrequency(), date.getDayOfWeek())) {
+                continue;
+            }
+            // Local times skipped by a DST gap move forward; ambiguous ones take the earlier offset
+            Instant fireAt = ZonedDateTime.of(date, reminder.getReminderTime(), zone).toInstant();
+            if (!fireAt.isBefore(earliest)) {
+                return fireAt;
+            }
+        }
+        throw new IllegalStateException("No fire time found for reminder " + reminder.getReminderId());
+    }
+
+    private static boolean runsOn(ReminderFrequency frequency, DayOfWeek day) {
+        boolean weekend = day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+        switch (frequency) {
+            case WEEKDAYS:
+                return !weekend;
+            case WEEKENDS:
+                return weekend;
+            default:
+                return true;
+        }
+    }
+
+    static ZoneId zoneOf(String timezone) {
+        if (timezone == null || timezone.isEmpty()) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            // Unknown zones fall back to UTC rather than never firing
+            return ZoneOffset.UTC;
+        }
+    }
+}
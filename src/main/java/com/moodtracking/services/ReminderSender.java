@@ -0,0 +1,21 @@
+package com.moodtracking.services;
+
+import java.util.List;
+
+import com.moodtracking.dto.DueTask;
+import com.moodtracking.dto.ScheduledReminder;
+
+/**
+ * Delivers reminders to users (email, push, SMS, ...). Each call carries one bucket:
+ * reminders due at the same instant in the same timezone, so providers with a bulk
+ * API can send them in one request. Throwing fails the whole bucket.
+ */
+public interface ReminderSender {
+
+    void send(List<ScheduledReminder> reminders) throws Exception;
+
+    /**
+     * Tell users that tasks are coming due, in batches of up to notifications.dispatch.batch-size
+     */
+    void sendDueTasks(List<DueTask> tasks) throws Exception;
+}
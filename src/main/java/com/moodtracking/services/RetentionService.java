@@ -0,0 +1,232 @@
+package com.moodtracking.services;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import com.moodtracking.dto.SearchResult;
+import com.moodtracking.events.SearchDocumentEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Deletes rows that have outlived their table's retention policy. Rows go in chunks of
+ * at most chunk-size, each deleted by one short autocommitted statement bounded by an
+ * id range, with a pause between chunks; a purge of millions of rows never locks more
+ * than one chunk at a time or loads any of them into memory. Purged rows the search
+ * index holds are removed from it chunk by chunk.
+ */
+@Service
+public class RetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetentionService.class);
+
+    public static final String CONVERSATIONS = "conversations";
+    public static final String NOTIFICATION_REMINDERS = "notification_reminders";
+
+    @Value("${retention.conversations.days:365}")
+    private int conversationDays;
+
+    @Value("${retention.notification-reminders.days:30}")
+    private int notificationReminderDays;
+
+    @Value("${retention.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${retention.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    private List<RetentionPolicy> policies;
+
+    @PostConstruct
+    public void init() {
+        List<RetentionPolicy> configured = new ArrayList<>();
+        configured.add(new RetentionPolicy(CONVERSATIONS, "created_at < ?", conversationDays,
+                SearchResult.Type.CONVERSATION));
+        // Reminders the user turned off; active ones are kept however old
+        configured.add(new RetentionPolicy(NOTIFICATION_REMINDERS,
+                "is_active = false AND COALESCE(updated_at, created_at) < ?", notificationReminderDays, null));
+        policies = Collections.unmodifiableList(configured);
+    }
+
+    public List<RetentionPolicy> getPolicies() {
+        return policies;
+    }
+
+    /**
+     * Apply every enabled policy and return the rows deleted
+     */
+    public long purgeExpired() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        long deleted = 0;
+        for (RetentionPolicy policy : policies) {
+            if (policy.isEnabled()) {
+                deleted += purge(policy, now.minusDays(policy.getRetentionDays()));
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete the table's expired rows older than cutoff, whatever its configured retention
+     */
+    public long purge(String table, LocalDateTime cutoff) {
+        for (RetentionPolicy policy : policies) {
+            if (policy.getTable().equals(table)) {
+                return purge(policy, cutoff);
+            }
+        }
+        throw new IllegalArgumentException("No retention policy for " + table);
+    }
+
+    private long purge(RetentionPolicy policy, LocalDateTime cutoff) {
+        SearchResult.Type searchType = policy.getSearchType();
+        // Owners too when the rows are indexed, to tell the search index what went
+        String selectChunk = "SELECT id" + (searchType != null ? ", user_id" : "") + " FROM " + policy.getTable()
+                + " WHERE id > ? AND (" + policy.getCondition() + ") ORDER BY id LIMIT ?";
+        RowMapper<long[]> chunkRow = searchType != null
+                ? (rs, rowNum) -> new long[] { rs.getLong(1), rs.getLong(2) }
+                : (rs, rowNum) -> new long[] { rs.getLong(1) };
+        String deleteChunk = "DELETE FROM " + policy.getTable() + " WHERE id BETWEEN ? AND ? AND ("
+                + policy.getCondition() + ")";
+        Counter rows = null;
+        Counter chunks = null;
+        Timer.Sample sample = null;
+        if (meterRegistry != null) {
+            rows = Counter.builder("retention.rows.deleted")
+                    .tag("table", policy.getTable())
+                    .description("Rows deleted by retention policies")
+                    .register(meterRegistry);
+            chunks = Counter.builder("retention.chunks")
+                    .tag("table", policy.getTable())
+                    .description("Chunked delete statements run by retention policies")
+                    .register(meterRegistry);
+            sample = Timer.start(meterRegistry);
+        }
+
+        long deleted = 0;
+        long afterId = 0;
+        while (true) {
+            // Walks the primary key, so each chunk's delete is a bounded range
+            List<long[]> ids = jdbcTemplate.query(selectChunk, chunkRow, afterId, cutoff, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long first = ids.get(0)[0];
+            long last = ids.get(ids.size() - 1)[0];
+            int count = jdbcTemplate.update(deleteChunk, first, last, cutoff);
+            if (searchType != null) {
+                // No transaction here, so the index drops them straight away
+                for (long[] row : ids) {
+                    eventPublisher.publishEvent(SearchDocumentEvent.removed(searchType, row[1], row[0]));
+                }
+            }
+            deleted += count;
+            afterId = last;
+            if (rows != null) {
+                rows.increment(count);
+                chunks.increment();
+            }
+            logger.debug("Retention deleted {} rows from {} up to id {}", count, policy.getTable(), last);
+
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+
+        if (sample != null) {
+            sample.stop(Timer.builder("retention.purge")
+                    .tag("table", policy.getTable())
+                    .description("Time to apply a retention policy")
+                    .register(meterRegistry));
+        }
+        if (deleted > 0) {
+            logger.info("Retention deleted {} rows from {} older than {}", deleted, policy.getTable(), cutoff);
+        }
+        return deleted;
+    }
+
+    /**
+     * Give other writers the table between chunks; false if interrupted, such as at shutdown
+     */
+    private boolean pause() {
+        if (chunkPauseMs <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(chunkPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Rows of a table matching condition, with one parameter for the cutoff time, are
+     * deleted retentionDays after it; zero or less keeps them forever. searchType is the
+     * search index's type for the rows, or null if they aren't indexed
+     */
+    public static final class RetentionPolicy {
+        private final String table;
+        private final String condition;
+        private final int retentionDays;
+        private final SearchResult.Type searchType;
+
+        RetentionPolicy(String table, String condition, int retentionDays, SearchResult.Type searchType) {
+            this.table = table;
+            this.condition = condition;
+            this.retentionDays = retentionDays;
+            this.searchType = searchType;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public String getCondition() {
+            return condition;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public SearchResult.Type getSearchType() {
+            return searchType;
+        }
+
+        public boolean isEnabled() {
+            return retentionDays > 0;
+        }
+    }
+}
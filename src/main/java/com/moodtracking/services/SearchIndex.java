@@ -0,0 +1,200 @@
+package com.moodtracking.services;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.moodtracking.dto.SearchResult;
+import com.moodtracking.events.SearchDocumentEvent;
+import com.moodtracking.utils.InvertedIndex;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Full-text index over notes, tasks and conversation messages, one InvertedIndex per
+ * user so a search only reads postings of the user's own documents. It is built from the
+ * database when the application starts, in the background, and kept current by the
+ * SearchDocumentEvents the services publish as they write, retention purges included.
+ * Should a delete still slip past it, a search that finds the document gone removes it.
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    // Document type in the top byte of an index key, the entity id below it
+    private static final int TYPE_SHIFT = 56;
+    private static final long ID_MASK = (1L << TYPE_SHIFT) - 1;
+
+    // Rows fetched per round trip while building; MySQL streams them with useCursorFetch
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, InvertedIndex> users = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    // Documents and users written while the index is being built, which the build must not overwrite
+    private final Set<Long> changedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final Set<Long> clearedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        if (meterRegistry != null) {
+            Gauge.builder("search.index.documents", this, SearchIndex::size)
+                    .description("Notes, tasks and conversation messages in the search index")
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        Thread loader = new Thread(this::load, "search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Runs after the publishing transaction commits, and never for one that rolls back
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSearchDocumentEvent(SearchDocumentEvent event) {
+        InvertedIndex index = index(event.getUserId());
+        synchronized (index) {
+            if (event.getDocumentId() == null) {
+                if (!loaded) {
+                    clearedWhileLoading.add(key(event.getType(), event.getUserId()));
+                }
+                long type = event.getType().ordinal();
+                index.removeIf(key -> key >>> TYPE_SHIFT == type);
+                return;
+            }
+            long key = key(event.getType(), event.getDocumentId());
+            if (!loaded) {
+                changedWhileLoading.add(key);
+            }
+            if (event.isRemoved()) {
+                index.remove(key);
+            } else {
+                index.put(key, event.getTitle(), event.getBody());
+            }
+        }
+    }
+
+    /**
+     * The user's best matches for the query, optionally of one type only
+     */
+    public InvertedIndex.Hits search(Long userId, String query, SearchResult.Type type, int offset, int limit) {
+        InvertedIndex index = users.get(userId);
+        if (index == null) {
+            return InvertedIndex.Hits.none();
+        }
+        LongPredicate filter = null;
+        if (type != null) {
+            long wanted = type.ordinal();
+            filter = key -> key >>> TYPE_SHIFT == wanted;
+        }
+        synchronized (index) {
+            return index.search(query, filter, offset, limit);
+        }
+    }
+
+    /**
+     * Drop a document the index returned but the database no longer has
+     */
+    public void remove(Long userId, SearchResult.Type type, Long id) {
+        InvertedIndex index = users.get(userId);
+        if (index != null) {
+            synchronized (index) {
+                index.remove(key(type, id));
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (InvertedIndex index : users.values()) {
+            synchronized (index) {
+                size += index.size();
+            }
+        }
+        return size;
+    }
+
+    public static SearchResult.Type typeOf(long key) {
+        return SearchResult.Type.values()[(int) (key >>> TYPE_SHIFT)];
+    }
+
+    public static Long idOf(long key) {
+        return key & ID_MASK;
+    }
+
+    static long key(SearchResult.Type type, long id) {
+        return ((long) type.ordinal() << TYPE_SHIFT) | id;
+    }
+
+    private InvertedIndex index(Long userId) {
+        return users.computeIfAbsent(userId, id -> new InvertedIndex());
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        try {
+            JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streaming.setFetchSize(LOAD_FETCH_SIZE);
+            streaming.query("SELECT id, user_id, title, content FROM notes", rs -> {
+                add(SearchResult.Type.NOTE, rs.getLong("user_id"), rs.getLong("id"), rs.getString("title"),
+                        rs.getString("content"));
+            });
+            streaming.query("SELECT id, user_id, title, description FROM tasks", rs -> {
+                add(SearchResult.Type.TASK, rs.getLong("user_id"), rs.getLong("id"), rs.getString("title"),
+                        rs.getString("description"));
+            });
+            streaming.query("SELECT id, user_id, message FROM conversations", rs -> {
+                add(SearchResult.Type.CONVERSATION, rs.getLong("user_id"), rs.getLong("id"), null,
+                        rs.getString("message"));
+            });
+            logger.info("Search index built with {} documents in {} ms", size(),
+                    System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            logger.error("Failed to build the search index; searches only see documents written since startup: {}",
+                    e.getMessage(), e);
+        } finally {
+            loaded = true;
+            changedWhileLoading.clear();
+            clearedWhileLoading.clear();
+        }
+    }
+
+    private void add(SearchResult.Type type, long userId, long id, String title, String body) {
+        InvertedIndex index = index(userId);
+        long key = key(type, id);
+        synchronized (index) {
+            // A write since the row was read has already put the current version in the index
+            if (!changedWhileLoading.contains(key) && !clearedWhileLoading.contains(key(type, userId))) {
+                index.put(key, title, body);
+            }
+        }
+    }
+}
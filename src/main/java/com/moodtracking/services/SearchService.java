@@ -0,0 +1,138 @@
+package com.moodtracking.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.moodtracking.dto.SearchResponse;
+import com.moodtracking.dto.SearchResult;
+import com.moodtracking.models.Conversation;
+import com.moodtracking.models.Note;
+import com.moodtracking.models.Task;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.ConversationRepository;
+import com.moodtracking.repositories.NoteRepository;
+import com.moodtracking.repositories.TaskRepository;
+import com.moodtracking.utils.InvertedIndex;
+
+import io.micrometer.core.annotation.Timed;
+
+@Service
+public class SearchService {
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private static final int SNIPPET_LENGTH = 160;
+    
+    // Characters of context kept before the first matching word
+    private static final int SNIPPET_LEAD = 40;
+    
+    @Autowired
+    private SearchIndex searchIndex;
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private ConversationRepository conversationRepository;
+    
+    /**
+     * One page of the user's notes, tasks and conversation messages matching any word of
+     * the query, best first. Ranking happens in the index; only the page's documents are
+     * read from the database, at most one query per type.
+     */
+    @Timed(value = "search.query", histogram = true)
+    public SearchResponse search(User user, String query, SearchResult.Type type, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        long offset = (long) pageNumber * pageSize;
+        if (offset > Integer.MAX_VALUE - pageSize) {
+            throw new IllegalArgumentException("Page out of range");
+        }
+        
+        InvertedIndex.Hits hits = searchIndex.search(user.getId(), query, type, (int) offset, pageSize);
+        long[] keys = hits.getKeys();
+        
+        Map<SearchResult.Type, List<Long>> idsByType = new EnumMap<>(SearchResult.Type.class);
+        for (long key : keys) {
+            idsByType.computeIfAbsent(SearchIndex.typeOf(key), t -> new ArrayList<>()).add(SearchIndex.idOf(key));
+        }
+        List<String> terms = InvertedIndex.tokenize(query);
+        Map<Long, SearchResult> found = new HashMap<>();
+        if (idsByType.containsKey(SearchResult.Type.NOTE)) {
+            for (Note note : noteRepository.findByUserAndIdIn(user, idsByType.get(SearchResult.Type.NOTE))) {
+                found.put(SearchIndex.key(SearchResult.Type.NOTE, note.getId()), result(SearchResult.Type.NOTE,
+                    note.getId(), note.getTitle(), note.getContent(), note.getCreatedAt(), terms));
+            }
+        }
+        if (idsByType.containsKey(SearchResult.Type.TASK)) {
+            for (Task task : taskRepository.findByUserAndIdIn(user, idsByType.get(SearchResult.Type.TASK))) {
+                found.put(SearchIndex.key(SearchResult.Type.TASK, task.getId()), result(SearchResult.Type.TASK,
+                    task.getId(), task.getTitle(), task.getDescription(), task.getCreatedAt(), terms));
+            }
+        }
+        if (idsByType.containsKey(SearchResult.Type.CONVERSATION)) {
+            List<Long> ids = idsByType.get(SearchResult.Type.CONVERSATION);
+            for (Conversation conversation : conversationRepository.findByUserAndIdIn(user, ids)) {
+                found.put(SearchIndex.key(SearchResult.Type.CONVERSATION, conversation.getId()),
+                    result(SearchResult.Type.CONVERSATION, conversation.getId(), conversation.getSender(),
+                        conversation.getMessage(), conversation.getCreatedAt(), terms));
+            }
+        }
+        
+        List<SearchResult> results = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            SearchResult result = found.get(keys[i]);
+            if (result == null) {
+                // Fallback for a delete the index didn't hear about
+                searchIndex.remove(user.getId(), SearchIndex.typeOf(keys[i]), SearchIndex.idOf(keys[i]));
+                continue;
+            }
+            result.setScore(hits.getScores()[i]);
+            results.add(result);
+        }
+        
+        return new SearchResponse(query, pageNumber, pageSize, hits.getTotal(), results);
+    }
+    
+    private SearchResult result(SearchResult.Type type, Long id, String title, String text, LocalDateTime createdAt,
+                                List<String> terms) {
+        return new SearchResult(type, id, title, snippet(text, terms), 0f, createdAt);
+    }
+    
+    /**
+     * Part of the text around the first query word it contains, or its beginning
+     */
+    static String snippet(String text, List<String> terms) {
+        if (text == null) {
+            return null;
+        }
+        if (text.length() <= SNIPPET_LENGTH) {
+            return text;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int first = -1;
+        for (String term : terms) {
+            int position = lower.indexOf(term);
+            if (position >= 0 && (first < 0 || position < first)) {
+                first = position;
+            }
+        }
+        int start = Math.max(0, Math.min(first - SNIPPET_LEAD, text.length() - SNIPPET_LENGTH));
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        return (start > 0 ? "..." : "") + text.substring(start, end).trim() + (end < text.length() ? "..." : "");
+    }
+}
@@ -0,0 +1,149 @@
+package com.moodtracking.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.moodtracking.dto.DueTask;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Every open task with a due date, ordered by due date per user and in one queue of
+ * notifications still to send. Loaded once at startup and kept in step by TaskService,
+ * so due-soon lists and due notifications never touch the database.
+ *
+ * A task is notified notify-before-minutes ahead of its due date, once per due date.
+ * Notifications missed by more than notify-grace-minutes, such as while the application
+ * was down, are not sent late.
+ */
+@Component
+public class TaskDueSchedule {
+
+    // Earliest due first; the id keeps tasks due at the same time apart
+    private static final Comparator<DueTask> BY_DUE_DATE = Comparator.comparing(DueTask::getDueDate)
+            .thenComparing(DueTask::getTaskId);
+
+    @Value("${tasks.due.notify-before-minutes:60}")
+    private long notifyBeforeMinutes;
+
+    @Value("${tasks.due.notify-grace-minutes:60}")
+    private long notifyGraceMinutes;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    // Due dates are stored in server local time
+    private Clock clock = Clock.systemDefaultZone();
+
+    private final Map<Long, DueTask> tasks = new HashMap<>();
+    private final Map<Long, NavigableSet<DueTask>> byUser = new HashMap<>();
+    private final NavigableSet<DueTask> toNotify = new TreeSet<>(BY_DUE_DATE);
+
+    @PostConstruct
+    public void init() {
+        if (meterRegistry != null) {
+            Gauge.builder("tasks.due.scheduled", this, TaskDueSchedule::size)
+                    .description("Open tasks with a due date in the due schedule")
+                    .register(meterRegistry);
+        }
+    }
+
+    public synchronized void replaceAll(Collection<DueTask> dueTasks) {
+        tasks.clear();
+        byUser.clear();
+        toNotify.clear();
+        dueTasks.forEach(this::add);
+    }
+
+    /**
+     * Add the task or replace its previous snapshot
+     */
+    public synchronized void schedule(DueTask task) {
+        unlink(task.getTaskId());
+        add(task);
+    }
+
+    public synchronized void remove(Long taskId) {
+        unlink(taskId);
+    }
+
+    /**
+     * The user's open tasks due before now plus within, overdue ones included, earliest first
+     */
+    public synchronized List<DueTask> dueWithin(Long userId, Duration within) {
+        NavigableSet<DueTask> userTasks = byUser.get(userId);
+        if (userTasks == null) {
+            return List.of();
+        }
+        LocalDateTime until = LocalDateTime.now(clock).plus(within);
+        DueTask bound = new DueTask(Long.MAX_VALUE, userId, null, null, null, null, until, null);
+        return new ArrayList<>(userTasks.headSet(bound, true));
+    }
+
+    /**
+     * Tasks whose notification time has come. Each should be handed back through
+     * markNotified once sent; one that fails to send is not tried again.
+     */
+    public synchronized List<DueTask> pollDue() {
+        if (toNotify.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime dueBy = LocalDateTime.now(clock).plusMinutes(notifyBeforeMinutes);
+        List<DueTask> due = new ArrayList<>();
+        while (!toNotify.isEmpty() && !toNotify.first().getDueDate().isAfter(dueBy)) {
+            due.add(toNotify.pollFirst());
+        }
+        return due;
+    }
+
+    public synchronized void markNotified(DueTask task, LocalDateTime notifiedAt) {
+        DueTask current = tasks.get(task.getTaskId());
+        // A task changed since it was polled keeps its new snapshot
+        if (current != null && current.getDueDate().equals(task.getDueDate())) {
+            unlink(task.getTaskId());
+            add(current.withNotifiedAt(notifiedAt));
+        }
+    }
+
+    public synchronized int size() {
+        return tasks.size();
+    }
+
+    private void add(DueTask task) {
+        tasks.put(task.getTaskId(), task);
+        byUser.computeIfAbsent(task.getUserId(), userId -> new TreeSet<>(BY_DUE_DATE)).add(task);
+        LocalDateTime notifyAt = task.getDueDate().minusMinutes(notifyBeforeMinutes);
+        LocalDateTime missedBefore = LocalDateTime.now(clock).minusMinutes(notifyGraceMinutes);
+        if (task.getNotifiedAt() == null && !notifyAt.isBefore(missedBefore)) {
+            toNotify.add(task);
+        }
+    }
+
+    private void unlink(Long taskId) {
+        DueTask previous = tasks.remove(taskId);
+        if (previous == null) {
+            return;
+        }
+        toNotify.remove(previous);
+        NavigableSet<DueTask> userTasks = byUser.get(previous.getUserId());
+        userTasks.remove(previous);
+        if (userTasks.isEmpty()) {
+            byUser.remove(previous.getUserId());
+        }
+    }
+}
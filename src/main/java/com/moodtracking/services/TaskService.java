@@ -1,25 +1,56 @@
 package com.moodtracking.services;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.moodtracking.dto.DueTask;
+import com.moodtracking.dto.DueTaskResponse;
+import com.moodtracking.dto.SearchResult;
+import com.moodtracking.dto.TaskBulkRequest;
+import com.moodtracking.dto.TaskBulkResponse;
+import com.moodtracking.dto.TaskPage;
 import com.moodtracking.dto.TaskRequest;
 import com.moodtracking.dto.TaskResponse;
+import com.moodtracking.events.SearchDocumentEvent;
 import com.moodtracking.models.Task;
 import com.moodtracking.models.User;
 import com.moodtracking.repositories.TaskRepository;
+import com.moodtracking.repositories.TaskSpecifications;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
 
 @Service
 public class TaskService {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private TaskRepository taskRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private TaskDueSchedule taskDueSchedule;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     @Transactional
     public TaskResponse createTask(TaskRequest request, User user) {
         Task task = new Task(
@@ -39,6 +70,8 @@ public class TaskService {
         }
         
         Task savedTask = taskRepository.save(task);
+        publishIndexed(savedTask);
+        syncDueSchedule(savedTask);
         return convertToResponse(savedTask);
     }
     
@@ -68,6 +101,42 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * One page of the user's tasks matching every filter given, null filters matching all.
+     * sort is a field of TaskSpecifications.SORT_FIELDS, optionally followed by ",asc" or
+     * ",desc"; filtering, ordering and paging all happen in the database.
+     */
+    public TaskPage findTasks(User user, Boolean completed, String category, String priority,
+                              LocalDateTime dueFrom, LocalDateTime dueTo, String sort, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        
+        String field = "createdAt";
+        boolean descending = true;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",", 2);
+            field = parts[0].trim();
+            String direction = parts.length > 1 ? parts[1].trim() : "asc";
+            if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+                throw new IllegalArgumentException("Sort direction must be asc or desc");
+            }
+            descending = direction.equalsIgnoreCase("desc");
+        }
+        
+        Specification<Task> specification = Specification.where(TaskSpecifications.ownedBy(user))
+                .and(TaskSpecifications.completed(completed))
+                .and(TaskSpecifications.inCategory(category))
+                .and(TaskSpecifications.withPriority(priority))
+                .and(TaskSpecifications.dueBetween(dueFrom, dueTo))
+                .and(TaskSpecifications.sortedBy(field, descending));
+        Page<Task> tasks = taskRepository.findAll(specification, PageRequest.of(pageNumber, pageSize));
+        
+        List<TaskResponse> responses = tasks.getContent().stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        return new TaskPage(responses, pageNumber, pageSize, tasks.getTotalElements(), tasks.getTotalPages());
+    }
+    
     @Transactional
     public Optional<TaskResponse> updateTask(Long id, TaskRequest request, User user) {
         Optional<Task> taskOptional = taskRepository.findByIdAndUser(id, user);
@@ -83,11 +152,14 @@ public class TaskService {
                 task.setCompleted(request.getCompleted());
             }
             
-            if (request.getDueDate() != null) {
+            if (request.getDueDate() != null && !request.getDueDate().equals(task.getDueDate())) {
                 task.setDueDate(request.getDueDate());
+                task.setDueNotifiedAt(null);
             }
             
             Task updatedTask = taskRepository.save(task);
+            publishIndexed(updatedTask);
+            syncDueSchedule(updatedTask);
             return Optional.of(convertToResponse(updatedTask));
         }
         
@@ -96,14 +168,44 @@ public class TaskService {
     
     @Transactional
     public boolean deleteTask(Long id, User user) {
-        Optional<Task> taskOptional = taskRepository.findByIdAndUser(id, user);
-        
-        if (taskOptional.isPresent()) {
-            taskRepository.delete(taskOptional.get());
-            return true;
+        if (taskRepository.deleteAllByUserAndIdIn(user, List.of(id)) == 0) {
+            return false;
         }
-        
-        return false;
+        eventPublisher.publishEvent(SearchDocumentEvent.removed(SearchResult.Type.TASK, user.getId(), id));
+        AfterCommit.run(() -> taskDueSchedule.remove(id));
+        return true;
+    }
+    
+    /**
+     * Apply the request to all its tasks the user owns in one UPDATE or DELETE statement,
+     * and return how many there were
+     */
+    @Transactional
+    public TaskBulkResponse bulkUpdate(TaskBulkRequest request, User user) {
+        List<Long> ids = request.getIds().stream().distinct().collect(Collectors.toList());
+        int affected;
+        if ("delete".equals(request.getAction())) {
+            affected = taskRepository.deleteAllByUserAndIdIn(user, ids);
+            // Ids the user doesn't own aren't in their search index, so removing them does nothing
+            for (Long id : ids) {
+                eventPublisher.publishEvent(SearchDocumentEvent.removed(SearchResult.Type.TASK, user.getId(), id));
+            }
+            AfterCommit.run(() -> ids.forEach(taskDueSchedule::remove));
+        } else if ("update".equals(request.getAction())) {
+            if (request.getCompleted() == null && request.getCategory() == null
+                    && request.getPriority() == null && request.getDueDate() == null) {
+                throw new IllegalArgumentException("Update needs at least one of completed, category, priority or dueDate");
+            }
+            // Titles and descriptions are unchanged, so the search index needs no events
+            affected = updateAll(user, ids, request);
+            if (request.getCompleted() != null || request.getDueDate() != null) {
+                // The update bypassed the persistence context, so this reads the new state
+                taskRepository.findByUserAndIdIn(user, ids).forEach(this::syncDueSchedule);
+            }
+        } else {
+            throw new IllegalArgumentException("Action must be update or delete");
+        }
+        return new TaskBulkResponse(request.getAction(), ids.size(), affected);
     }
     
     @Transactional
@@ -115,12 +217,83 @@ public class TaskService {
             task.setCompleted(!task.getCompleted());
             
             Task updatedTask = taskRepository.save(task);
+            syncDueSchedule(updatedTask);
             return Optional.of(convertToResponse(updatedTask));
         }
         
         return Optional.empty();
     }
     
+    /**
+     * One UPDATE setting only the fields the request gives. Bulk statements skip
+     * @UpdateTimestamp, hence updatedAt.
+     */
+    private int updateAll(User user, List<Long> ids, TaskBulkRequest request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+        if (request.getCompleted() != null) {
+            update.set(task.<Boolean>get("completed"), request.getCompleted());
+        }
+        if (request.getCategory() != null) {
+            update.set(task.<String>get("category"), request.getCategory());
+        }
+        if (request.getPriority() != null) {
+            update.set(task.<String>get("priority"), request.getPriority());
+        }
+        if (request.getDueDate() != null) {
+            update.set(task.<LocalDateTime>get("dueDate"), request.getDueDate());
+            update.set(task.<LocalDateTime>get("dueNotifiedAt"), (LocalDateTime) null);
+        }
+        update.set(task.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.where(cb.equal(task.get("user"), user), task.get("id").in(ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+    
+    /**
+     * The user's open tasks due within the given time from now, overdue ones included,
+     * earliest first. Served from the due schedule.
+     */
+    public List<DueTaskResponse> getDueTasks(User user, Duration within) {
+        if (within.isNegative()) {
+            throw new IllegalArgumentException("within must not be negative");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return taskDueSchedule.dueWithin(user.getId(), within).stream()
+                .map(task -> new DueTaskResponse(task, now))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Load every open task with a due date into the due schedule
+     * Called once at startup; afterwards the schedule is kept in step by the methods above
+     */
+    @Transactional(readOnly = true)
+    public int loadDueSchedule() {
+        List<DueTask> tasks = taskRepository.findAllDueScheduled();
+        taskDueSchedule.replaceAll(tasks);
+        return tasks.size();
+    }
+    
+    /**
+     * Put the task in the due schedule, or take it out if done or undated, once the
+     * change is committed
+     */
+    private void syncDueSchedule(Task task) {
+        Long taskId = task.getId();
+        if (!Boolean.TRUE.equals(task.getCompleted()) && task.getDueDate() != null) {
+            DueTask dueTask = new DueTask(task);
+            AfterCommit.run(() -> taskDueSchedule.schedule(dueTask));
+        } else {
+            AfterCommit.run(() -> taskDueSchedule.remove(taskId));
+        }
+    }
+    
+    private void publishIndexed(Task task) {
+        eventPublisher.publishEvent(SearchDocumentEvent.indexed(SearchResult.Type.TASK, task.getUser().getId(),
+            task.getId(), task.getTitle(), task.getDescription()));
+    }
+    
     private TaskResponse convertToResponse(Task task) {
         return new TaskResponse(
             task.getId(),
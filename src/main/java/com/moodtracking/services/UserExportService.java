@@ -0,0 +1,188 @@
+package com.moodtracking.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.moodtracking.dto.UserProfileResponse;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.ConversationRepository;
+import com.moodtracking.repositories.MoodEntryRepository;
+import com.moodtracking.repositories.MoodRepository;
+import com.moodtracking.repositories.NoteRepository;
+import com.moodtracking.repositories.NotificationReminderRepository;
+import com.moodtracking.repositories.TaskRepository;
+import com.moodtracking.repositories.UserRepository;
+
+/**
+ * Everything stored about a user, written as it is read. Each kind of record is read as
+ * DTOs in keyset pages, one short query each, so nothing accumulates in the persistence
+ * context, memory use doesn't grow with the size of the user's history, and no database
+ * connection is held while a page goes out to a slow client. There is no transaction
+ * around the export, so records written while it runs may or may not be in it.
+ */
+@Service
+public class UserExportService {
+    
+    public static final String PROFILE = "profile";
+    public static final String MOODS = "moods";
+    public static final String MOOD_ENTRIES = "mood_entries";
+    public static final String NOTES = "notes";
+    public static final String TASKS = "tasks";
+    public static final String CONVERSATIONS = "conversations";
+    public static final String NOTIFICATION_REMINDERS = "notification_reminders";
+    
+    @Value("${export.page-size:500}")
+    private int pageSize;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MoodRepository moodRepository;
+    
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private ConversationRepository conversationRepository;
+    
+    @Autowired
+    private NotificationReminderRepository notificationReminderRepository;
+    
+    @Autowired
+    private ConversationWriteBehind conversationWriteBehind;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Newline-delimited JSON, one {"type": ..., "data": ...} object per record, starting
+     * with the profile
+     */
+    public void writeNdjson(User user, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ExportRecord.class);
+        export(user, new Sink() {
+            @Override
+            public void section(String type) {
+            }
+            
+            @Override
+            public void record(String type, Object data) throws IOException {
+                out.write(writer.writeValueAsBytes(new ExportRecord(type, data)));
+                out.write('\n');
+            }
+        });
+        out.flush();
+    }
+    
+    /**
+     * A zip with profile.json and one newline-delimited JSON file per kind of record
+     */
+    public void writeZip(User user, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        export(user, new Sink() {
+            @Override
+            public void section(String type) throws IOException {
+                zip.putNextEntry(new ZipEntry(PROFILE.equals(type) ? type + ".json" : type + ".ndjson"));
+            }
+            
+            @Override
+            public void record(String type, Object data) throws IOException {
+                zip.write(objectMapper.writeValueAsBytes(data));
+                zip.write('\n');
+            }
+        });
+        // Writes the central directory without closing the response stream
+        zip.finish();
+        out.flush();
+    }
+    
+    private void export(User user, Sink sink) throws IOException {
+        // Messages still in the write-behind log belong in the export too; flush() commits
+        // in its own transaction, which is why the export must not run inside one
+        conversationWriteBehind.flush();
+        
+        User current = userRepository.findById(user.getId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        UserProfileResponse profile = userService.getUserProfile(current);
+        sink.section(PROFILE);
+        sink.record(PROFILE, profile);
+        
+        Pageable page = PageRequest.of(0, pageSize);
+        writeAll(sink, MOODS, () -> moodRepository.findResponsesPage(current, page),
+                last -> moodRepository.findResponsesPageAfter(current, last.getTimestamp(), last.getId(), page));
+        writeAll(sink, MOOD_ENTRIES, () -> moodEntryRepository.findResponsesPage(current, page),
+                last -> moodEntryRepository.findResponsesPageAfter(current, last.getCreatedAt(), last.getId(), page));
+        writeAll(sink, NOTES, () -> noteRepository.findResponsesPage(current, page),
+                last -> noteRepository.findResponsesPageAfter(current, last.getCreatedAt(), last.getId(), page));
+        writeAll(sink, TASKS, () -> taskRepository.findResponsesPage(current, page),
+                last -> taskRepository.findResponsesPageAfter(current, last.getCreatedAt(), last.getId(), page));
+        writeAll(sink, CONVERSATIONS, () -> conversationRepository.findDtosPage(current, page),
+                last -> conversationRepository.findDtosPageAfter(current, last.getCreatedAt(), last.getId(), page));
+        writeAll(sink, NOTIFICATION_REMINDERS,
+                () -> notificationReminderRepository.findResponsesPageAfter(current, 0L, page),
+                last -> notificationReminderRepository.findResponsesPageAfter(current, last.getId(), page));
+    }
+    
+    /**
+     * Write the first page, then each page after the last record written until a short one
+     */
+    private <T> void writeAll(Sink sink, String type, Supplier<List<T>> first, Function<T, List<T>> after)
+            throws IOException {
+        sink.section(type);
+        List<T> records = first.get();
+        while (!records.isEmpty()) {
+            for (T record : records) {
+                sink.record(type, record);
+            }
+            if (records.size() < pageSize) {
+                break;
+            }
+            records = after.apply(records.get(records.size() - 1));
+        }
+    }
+    
+    private interface Sink {
+        void section(String type) throws IOException;
+        
+        void record(String type, Object data) throws IOException;
+    }
+    
+    /**
+     * One line of the NDJSON export
+     */
+    public static final class ExportRecord {
+        private final String type;
+        private final Object data;
+        
+        ExportRecord(String type, Object data) {
+            this.type = type;
+            this.data = data;
+        }
+        
+        public String getType() { return type; }
+        public Object getData() { return data; }
+    }
+}
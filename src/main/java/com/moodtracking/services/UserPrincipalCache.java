@@ -0,0 +1,154 @@
+package com.moodtracking.services;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.moodtracking.models.User;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Short-lived cache of authenticated users by username, so a request carrying a valid
+ * JWT doesn't need a users table lookup. Entries expire after the TTL and are evicted
+ * explicitly whenever UserService changes or deletes the user. Looked up on every
+ * authenticated request, so reads take no lock; the size bound is kept on insert.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final Map<String, CachedUser> users = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        if (meterRegistry != null) {
+            FunctionCounter.builder("security.principal.cache.requests", hits, LongAdder::sum)
+                    .tag("result", "hit")
+                    .description("Principal lookups answered from the cache")
+                    .register(meterRegistry);
+            FunctionCounter.builder("security.principal.cache.requests", misses, LongAdder::sum)
+                    .tag("result", "miss")
+                    .description("Principal lookups that went to the database")
+                    .register(meterRegistry);
+            FunctionCounter.builder("security.principal.cache.evictions", evictions, LongAdder::sum)
+                    .description("Principals evicted after a profile, password or account change")
+                    .register(meterRegistry);
+            Gauge.builder("security.principal.cache.size", this, cache -> cache.users.size())
+                    .description("Principals currently cached")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Return the cached user, or load and cache it. Callers get their own copy,
+     * so changes made during one request never leak into another.
+     */
+    public Optional<User> get(String username, Function<String, Optional<User>> loader) {
+        CachedUser cached = users.get(username);
+        if (cached != null) {
+            if (clock.millis() < cached.expiresAtMs) {
+                hits.increment();
+                return Optional.of(copyOf(cached.user));
+            }
+            users.remove(username, cached);
+        }
+
+        misses.increment();
+        Optional<User> loaded = loader.apply(username);
+        loaded.ifPresent(user ->
+            users.put(username, new CachedUser(copyOf(user), clock.millis() + ttlSeconds * 1000L)));
+        if (users.size() > maxSize) {
+            trim();
+        }
+        return loaded;
+    }
+
+    public void evict(String username) {
+        if (users.remove(username) != null) {
+            evictions.increment();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Bring the cache back within max-size: expired users go first, then arbitrary ones
+     * down to nine tenths of it, so a full cache is swept once per tenth of its size in
+     * new users rather than on every one. One thread trims at a time.
+     */
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = clock.millis();
+            users.values().removeIf(cached -> now >= cached.expiresAtMs);
+            int target = maxSize - maxSize / 10;
+            Iterator<CachedUser> cached = users.values().iterator();
+            while (users.size() > target && cached.hasNext()) {
+                cached.next();
+                cached.remove();
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setName(user.getName());
+        copy.setEmail(user.getEmail());
+        copy.setPassword(user.getPassword());
+        copy.setAge(user.getAge());
+        copy.setPreferences(user.getPreferences());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        return copy;
+    }
+
+    private static final class CachedUser {
+        private final User user;
+        private final long expiresAtMs;
+
+        CachedUser(User user, long expiresAtMs) {
+            this.user = user;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
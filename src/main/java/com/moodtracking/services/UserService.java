@@ -24,6 +24,9 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+    
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
@@ -31,6 +34,15 @@ public class UserService implements UserDetailsService {
         return user;
     }
     
+    /**
+     * Principal for a request whose JWT has already been verified; served from the
+     * principal cache. Logins keep using loadUserByUsername so they always see the database.
+     */
+    public UserDetails loadAuthenticatedUser(String username) throws UsernameNotFoundException {
+        return userPrincipalCache.get(username, userRepository::findByUsername)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    }
+    
     public User createUser(String username, String email, String password) {
         if (userRepository.existsByUsername(username)) {
             throw new RuntimeException("Username is already taken!");
@@ -88,7 +100,9 @@ public class UserService implements UserDetailsService {
         user.setAge(request.getAge());
         user.setPreferences(request.getPreferences());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userPrincipalCache.evict(user.getUsername());
+        return saved;
     }
     
     public void changePassword(User user, String currentPassword, String newPassword) {
@@ -98,10 +112,12 @@ public class UserService implements UserDetailsService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userPrincipalCache.evict(user.getUsername());
     }
     
     public void deleteUser(User user) {
         userRepository.delete(user);
+        userPrincipalCache.evict(user.getUsername());
     }
     
     public Optional<User> findByUsername(String username) {
@@ -0,0 +1,168 @@
+package com.moodtracking.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Hierarchical timing wheel keyed by K. Scheduling and cancelling are O(1), and each
+ * tick only touches the timers in one slot. Level 0 has one slot per tick; every level
+ * above covers 64 slots of the one below, and its timers cascade down as time reaches
+ * them. With 4 levels the wheels span 64^4 ticks; anything further out waits in an
+ * overflow list that is re-examined once per full rotation.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class HierarchicalTimingWheel<K, T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMs;
+    private long currentTick;
+
+    private final ArrayDeque<Timer<K, T>>[][] wheels;
+    private final ArrayDeque<Timer<K, T>> overflow = new ArrayDeque<>();
+    private final ArrayDeque<Timer<K, T>> overdue = new ArrayDeque<>();
+    private final Map<K, Timer<K, T>> timers = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, long startMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMs = tickMs;
+        this.currentTick = startMs / tickMs;
+        this.wheels = new ArrayDeque[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    /**
+     * Schedule value under key at deadlineMs, replacing any timer already held for key.
+     * Deadlines in the past are returned by the next advance.
+     */
+    public void schedule(K key, T value, long deadlineMs) {
+        // Round up so a timer never fires before its deadline
+        Timer<K, T> timer = new Timer<>(key, value, deadlineMs, Math.floorDiv(deadlineMs + tickMs - 1, tickMs));
+        Timer<K, T> previous = timers.put(key, timer);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        place(timer);
+    }
+
+    public boolean cancel(K key) {
+        Timer<K, T> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        // Left in its slot and skipped when the slot is reached
+        timer.cancelled = true;
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+
+    public OptionalLong deadlineOf(K key) {
+        Timer<K, T> timer = timers.get(key);
+        return timer != null ? OptionalLong.of(timer.deadlineMs) : OptionalLong.empty();
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    /**
+     * Move the wheel forward to nowMs and return the values that fell due, in tick order
+     */
+    public List<T> advance(long nowMs) {
+        List<T> due = new ArrayList<>();
+        drain(overdue, due);
+
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            if ((currentTick & (spanOf(LEVELS) - 1)) == 0) {
+                cascade(overflow);
+            }
+            // Higher levels first, so their timers can land in a lower slot cascading this tick
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & (spanOf(level) - 1)) == 0) {
+                    cascade(wheels[level][slotOf(currentTick, level)]);
+                }
+            }
+            drain(wheels[0][slotOf(currentTick, 0)], due);
+            drain(overdue, due);
+        }
+        return due;
+    }
+
+    private void place(Timer<K, T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(timer);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < spanOf(level + 1)) {
+                wheels[level][slotOf(timer.deadlineTick, level)].add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private void cascade(ArrayDeque<Timer<K, T>> slot) {
+        int pending = slot.size();
+        for (int i = 0; i < pending; i++) {
+            Timer<K, T> timer = slot.poll();
+            if (!timer.cancelled) {
+                place(timer);
+            }
+        }
+    }
+
+    private void drain(ArrayDeque<Timer<K, T>> slot, List<T> due) {
+        Timer<K, T> timer;
+        while ((timer = slot.poll()) != null) {
+            if (!timer.cancelled) {
+                timers.remove(timer.key, timer);
+                due.add(timer.value);
+            }
+        }
+    }
+
+    private static long spanOf(int level) {
+        return 1L << (BITS * level);
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) ((tick >> (BITS * level)) & MASK);
+    }
+
+    private static final class Timer<K, T> {
+        private final K key;
+        private final T value;
+        private final long deadlineMs;
+        private final long deadlineTick;
+        private boolean cancelled;
+
+        Timer(K key, T value, long deadlineMs, long deadlineTick) {
+            this.key = key;
+            this.value = value;
+            this.deadlineMs = deadlineMs;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
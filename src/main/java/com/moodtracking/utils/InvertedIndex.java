@@ -0,0 +1,425 @@
+package com.moodtracking.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * An in-memory inverted index of text documents, keyed by non-negative longs and ranked
+ * with BM25. Documents are numbered in the order they are added, and each term's
+ * postings are one growing int array of (number, term frequency) pairs packed into an
+ * int, so postings cost four bytes each and a query only reads the lists of its terms.
+ *
+ * Replacing or removing a document leaves its old postings behind, skipped by queries,
+ * until they outnumber the live documents and the index compacts itself. Document
+ * frequencies count those leftovers too, which shifts scores slightly in between.
+ *
+ * Not thread-safe.
+ */
+public final class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Term frequency in the low byte, document number above it
+    private static final int FREQUENCY_BITS = 8;
+    private static final int MAX_FREQUENCY = (1 << FREQUENCY_BITS) - 1;
+    static final int MAX_DOCUMENTS = 1 << (Integer.SIZE - FREQUENCY_BITS);
+
+    // Title terms count this many times towards a document's score
+    private static final int TITLE_WEIGHT = 2;
+
+    private static final int MIN_COMPACTION = 1024;
+
+    static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these",
+            "they", "this", "to", "was", "will", "with");
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final LongIntMap numbers = new LongIntMap();
+
+    // By document number; a length of -1 marks a removed document
+    private long[] keys = new long[16];
+    private int[] lengths = new int[16];
+
+    private int size;
+    private int live;
+    private long totalLength;
+
+    /**
+     * Lowercased words and numbers in text, accents removed, without stop words or
+     * anything longer than a plausible word
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && token.length() > 0) {
+                if (token.length() <= MAX_TOKEN_LENGTH && !STOP_WORDS.contains(token.toString())) {
+                    tokens.add(token.toString());
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Add a document, replacing any with the same key
+     */
+    public void put(long key, String title, String body) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Document keys must not be negative: " + key);
+        }
+        remove(key);
+        if (size == MAX_DOCUMENTS) {
+            compact();
+            if (size == MAX_DOCUMENTS) {
+                throw new IllegalStateException("Index holds the maximum of " + MAX_DOCUMENTS + " documents");
+            }
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokenize(title)) {
+            frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(body)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        int length = 0;
+        int number = size;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            int frequency = Math.min(entry.getValue(), MAX_FREQUENCY);
+            terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(number, frequency);
+            length += frequency;
+        }
+
+        if (number == keys.length) {
+            keys = Arrays.copyOf(keys, number * 2);
+            lengths = Arrays.copyOf(lengths, number * 2);
+        }
+        keys[number] = key;
+        lengths[number] = length;
+        numbers.put(key, number);
+        size++;
+        live++;
+        totalLength += length;
+    }
+
+    /**
+     * Remove a document; false if there was none with the key
+     */
+    public boolean remove(long key) {
+        int number = numbers.remove(key);
+        if (number < 0) {
+            return false;
+        }
+        totalLength -= lengths[number];
+        lengths[number] = -1;
+        live--;
+        if (size - live > Math.max(MIN_COMPACTION, live)) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Remove every document whose key matches and return how many there were
+     */
+    public int removeIf(LongPredicate filter) {
+        int removed = 0;
+        for (int number = 0; number < size; number++) {
+            if (lengths[number] >= 0 && filter.test(keys[number])) {
+                numbers.remove(keys[number]);
+                totalLength -= lengths[number];
+                lengths[number] = -1;
+                live--;
+                removed++;
+            }
+        }
+        if (size - live > Math.max(MIN_COMPACTION, live)) {
+            compact();
+        }
+        return removed;
+    }
+
+    public boolean contains(long key) {
+        return numbers.get(key) >= 0;
+    }
+
+    /**
+     * Documents in the index
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * The best offset + limit documents for the query's terms, any of which may match,
+     * skipping the first offset. Only documents whose keys pass the filter (null for all)
+     * are considered. Equal scores rank the more recently added document first.
+     */
+    public Hits search(String query, LongPredicate filter, int offset, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        if (queryTerms.isEmpty() || live == 0 || limit <= 0) {
+            return Hits.none();
+        }
+
+        float averageLength = Math.max(1f, (float) totalLength / live);
+        float[] scores = new float[size];
+        int[] matched = new int[16];
+        int matches = 0;
+        for (String term : queryTerms) {
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                continue;
+            }
+            int frequency = Math.min(postings.count, live);
+            float idf = (float) Math.log(1 + (live - frequency + 0.5) / (frequency + 0.5));
+            for (int i = 0; i < postings.count; i++) {
+                int entry = postings.entries[i];
+                int number = entry >>> FREQUENCY_BITS;
+                int length = lengths[number];
+                if (length < 0 || (filter != null && !filter.test(keys[number]))) {
+                    continue;
+                }
+                int termFrequency = entry & MAX_FREQUENCY;
+                float norm = K1 * (1 - B + B * length / averageLength);
+                if (scores[number] == 0) {
+                    if (matches == matched.length) {
+                        matched = Arrays.copyOf(matched, matches * 2);
+                    }
+                    matched[matches++] = number;
+                }
+                scores[number] += idf * termFrequency * (K1 + 1) / (termFrequency + norm);
+            }
+        }
+
+        // Keep the best offset + limit in a heap whose head is the weakest of them
+        int wanted = (int) Math.min((long) offset + limit, matches);
+        float[] ranked = scores;
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.max(1, wanted), (a, b) -> {
+            int byScore = Float.compare(ranked[a], ranked[b]);
+            return byScore != 0 ? byScore : Integer.compare(a, b);
+        });
+        for (int i = 0; i < matches && wanted > 0; i++) {
+            int number = matched[i];
+            if (best.size() < wanted) {
+                best.add(number);
+            } else if (best.comparator().compare(number, best.peek()) > 0) {
+                best.poll();
+                best.add(number);
+            }
+        }
+
+        int count = Math.max(0, best.size() - offset);
+        long[] hitKeys = new long[count];
+        float[] hitScores = new float[count];
+        // The heap drains weakest first; the weakest beyond the page go first
+        for (int i = best.size() - 1; i >= 0; i--) {
+            int number = best.poll();
+            if (i < count + offset && i >= offset) {
+                hitKeys[i - offset] = keys[number];
+                hitScores[i - offset] = scores[number];
+            }
+        }
+        return new Hits(matches, hitKeys, hitScores);
+    }
+
+    /**
+     * Renumber the live documents and drop postings of removed ones
+     */
+    private void compact() {
+        int[] renumbered = new int[size];
+        int next = 0;
+        for (int number = 0; number < size; number++) {
+            if (lengths[number] >= 0) {
+                renumbered[number] = next;
+                keys[next] = keys[number];
+                lengths[next] = lengths[number];
+                numbers.put(keys[next], next);
+                next++;
+            } else {
+                renumbered[number] = -1;
+            }
+        }
+        size = next;
+
+        Iterator<Postings> iterator = terms.values().iterator();
+        while (iterator.hasNext()) {
+            Postings postings = iterator.next();
+            int kept = 0;
+            for (int i = 0; i < postings.count; i++) {
+                int entry = postings.entries[i];
+                int number = renumbered[entry >>> FREQUENCY_BITS];
+                if (number >= 0) {
+                    postings.entries[kept++] = (number << FREQUENCY_BITS) | (entry & MAX_FREQUENCY);
+                }
+            }
+            if (kept == 0) {
+                iterator.remove();
+            } else {
+                postings.count = kept;
+                if (kept < postings.entries.length / 4) {
+                    postings.entries = Arrays.copyOf(postings.entries, Math.max(4, kept * 2));
+                }
+            }
+        }
+
+        if (keys.length > 16 && size < keys.length / 4) {
+            keys = Arrays.copyOf(keys, Math.max(16, size * 2));
+            lengths = Arrays.copyOf(lengths, keys.length);
+        }
+    }
+
+    /**
+     * One page of ranked matches and the total number of documents matching
+     */
+    public static final class Hits {
+        private final int total;
+        private final long[] keys;
+        private final float[] scores;
+
+        Hits(int total, long[] keys, float[] scores) {
+            this.total = total;
+            this.keys = keys;
+            this.scores = scores;
+        }
+
+        public static Hits none() {
+            return new Hits(0, new long[0], new float[0]);
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public long[] getKeys() {
+            return keys;
+        }
+
+        public float[] getScores() {
+            return scores;
+        }
+    }
+
+    private static final class Postings {
+        private int[] entries = new int[4];
+        private int count;
+
+        void add(int number, int frequency) {
+            if (count == entries.length) {
+                entries = Arrays.copyOf(entries, count * 2);
+            }
+            entries[count++] = (number << FREQUENCY_BITS) | frequency;
+        }
+    }
+
+    /**
+     * Open-addressing map from non-negative long keys to int values, without boxing
+     */
+    private static final class LongIntMap {
+        private static final long EMPTY = -1;
+
+        private long[] keys = newKeys(16);
+        private int[] values = new int[16];
+        private int size;
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private int slot(long key) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32)) & (keys.length - 1);
+        }
+
+        int get(long key) {
+            for (int slot = slot(key); keys[slot] != EMPTY; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int slot = slot(key);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        /**
+         * Remove the key and return its value, or -1 if absent
+         */
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int slot = slot(key);
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int value = values[slot];
+            size--;
+
+            // Shift later entries of the probe run back so lookups still find them
+            int gap = slot;
+            for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                int home = slot(keys[next]);
+                boolean movable = gap <= next ? (home <= gap || home > next) : (home <= gap && home > next);
+                if (movable) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = EMPTY;
+            return value;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+}
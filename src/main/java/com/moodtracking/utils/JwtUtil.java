@@ -1,7 +1,17 @@
 package com.moodtracking.utils;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,13 +20,17 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtUtil {
@@ -29,32 +43,81 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
+    @Value("${jwt.cache.max-size:10000}")
+    private int verifiedTokenCacheSize;
+    
+    private Clock clock = Clock.systemUTC();
+    
+    // Decoded once; the parser is immutable and safe to share between request threads
+    private Key signingKey;
+    private JwtParser jwtParser;
+    
+    // Recently verified tokens, keyed by SHA-256 of the token so raw tokens are never retained.
+    // Looked up on every request, so reads take no lock; the size bound is kept on insert.
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setClock(() -> Date.from(clock.instant()))
+                .build();
+    }
+    
     public String generateJwtToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        Date now = Date.from(clock.instant());
         
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + jwtExpirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-    
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
     
     public boolean validateJwtToken(String authToken) {
+        return getValidatedClaims(authToken).isPresent();
+    }
+    
+    /**
+     * Verify the token once and return its claims, or empty if it is not valid.
+     * Tokens verified before are served from the cache until their expiry.
+     */
+    public Optional<Claims> getValidatedClaims(String authToken) {
+        if (authToken == null || authToken.isEmpty()) {
+            logger.error("JWT claims string is empty");
+            return Optional.empty();
+        }
+        
+        String tokenHash = hash(authToken);
+        VerifiedToken cached = verifiedTokens.get(tokenHash);
+        if (cached != null) {
+            if (clock.millis() < cached.expiresAtMs) {
+                return Optional.of(cached.claims);
+            }
+            verifiedTokens.remove(tokenHash, cached);
+        }
+        
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(tokenHash, new VerifiedToken(claims, claims.getExpiration().getTime()));
+                if (verifiedTokens.size() > verifiedTokenCacheSize) {
+                    trimVerifiedTokens();
+                }
+            }
+            return Optional.of(claims);
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
+        } catch (SecurityException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
@@ -63,6 +126,49 @@ public class JwtUtil {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
         
-        return false;
+        return Optional.empty();
+    }
+    
+    /**
+     * Bring the cache back within its bound: expired tokens go first, then arbitrary ones
+     * down to nine tenths of it, so a full cache is swept once per tenth of its size in
+     * new tokens rather than on every one. One thread trims at a time.
+     */
+    private void trimVerifiedTokens() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = clock.millis();
+            verifiedTokens.values().removeIf(token -> now >= token.expiresAtMs);
+            int target = verifiedTokenCacheSize - verifiedTokenCacheSize / 10;
+            Iterator<VerifiedToken> tokens = verifiedTokens.values().iterator();
+            while (verifiedTokens.size() > target && tokens.hasNext()) {
+                tokens.next();
+                tokens.remove();
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+    
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static final class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAtMs;
+        
+        VerifiedToken(Claims claims, long expiresAtMs) {
+            this.claims = claims;
+            this.expiresAtMs = expiresAtMs;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,221 @@
+package com.moodtracking.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of byte records in a fixed-size memory-mapped file. Records are
+ * numbered consecutively from the base sequence written in the file header, and each
+ * carries a CRC, so reading back stops at the first record that is torn or left over
+ * from before the last reset: a process that dies mid-append loses only that record.
+ *
+ * Appends land in the page cache, which outlives the process; force() also puts them
+ * on disk, which outlives the machine.
+ *
+ * Not thread-safe.
+ */
+public final class MappedAppendLog implements Closeable {
+
+    private static final int MAGIC = 0x4d544c47;
+    private static final int VERSION = 1;
+
+    // magic, version, base sequence
+    static final int HEADER_SIZE = 16;
+    private static final int BASE_SEQUENCE_OFFSET = 8;
+
+    // payload length, sequence, CRC of sequence and payload
+    static final int RECORD_HEADER_SIZE = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+
+    private long baseSequence;
+    private long nextSequence;
+    private int position;
+
+    private MappedAppendLog(FileChannel channel, MappedByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Open the log at path, creating it with the given capacity in bytes if it doesn't
+     * exist. An existing log keeps its own size and records, and appends continue after them.
+     */
+    public static MappedAppendLog open(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            if (created) {
+                if (capacity < HEADER_SIZE + RECORD_HEADER_SIZE + 1) {
+                    throw new IllegalArgumentException("Log capacity too small: " + capacity);
+                }
+            } else if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Log file too large: " + path);
+            }
+            int size = created ? capacity : (int) channel.size();
+            MappedAppendLog log = new MappedAppendLog(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+
+            if (created) {
+                log.buffer.putInt(0, MAGIC);
+                log.buffer.putInt(4, VERSION);
+                log.reset(1);
+            } else {
+                if (log.buffer.getInt(0) != MAGIC || log.buffer.getInt(4) != VERSION) {
+                    throw new IOException("Not a log file: " + path);
+                }
+                log.baseSequence = log.buffer.getLong(BASE_SEQUENCE_OFFSET);
+                log.nextSequence = log.baseSequence;
+                log.position = HEADER_SIZE;
+                while (log.recordLengthAt(log.position, log.nextSequence) >= 0) {
+                    log.position += RECORD_HEADER_SIZE + log.buffer.getInt(log.position);
+                    log.nextSequence++;
+                }
+            }
+            return log;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Append a record and return its sequence number, or -1 if the log hasn't room for it
+     */
+    public long append(byte[] payload) {
+        if (payload.length == 0 || payload.length > maxPayloadSize()) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes can't be logged");
+        }
+        if (position + RECORD_HEADER_SIZE + payload.length > buffer.capacity()) {
+            return -1;
+        }
+
+        long sequence = nextSequence;
+        buffer.put(position + RECORD_HEADER_SIZE, payload);
+        buffer.putLong(position + 4, sequence);
+        buffer.putInt(position + 12, checksum(position, payload.length));
+        // The length goes last; until it is written the record reads as the end of the log
+        buffer.putInt(position, payload.length);
+
+        position += RECORD_HEADER_SIZE + payload.length;
+        nextSequence++;
+        return sequence;
+    }
+
+    /**
+     * Every record in the log, oldest first
+     */
+    public List<Record> records() {
+        List<Record> records = new ArrayList<>();
+        int offset = HEADER_SIZE;
+        for (long sequence = baseSequence; sequence < nextSequence; sequence++) {
+            byte[] payload = new byte[buffer.getInt(offset)];
+            buffer.get(offset + RECORD_HEADER_SIZE, payload);
+            records.add(new Record(sequence, payload));
+            offset += RECORD_HEADER_SIZE + payload.length;
+        }
+        return records;
+    }
+
+    /**
+     * Discard every record; the next one appended is numbered baseSequence, which must be
+     * above any sequence the log has held so leftover records can't be mistaken for new ones
+     */
+    public void reset(long baseSequence) {
+        buffer.putInt(HEADER_SIZE, 0);
+        buffer.putLong(BASE_SEQUENCE_OFFSET, baseSequence);
+        this.baseSequence = baseSequence;
+        this.nextSequence = baseSequence;
+        this.position = HEADER_SIZE;
+    }
+
+    /**
+     * Write appended records through to the disk
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    public long getBaseSequence() {
+        return baseSequence;
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    public boolean isEmpty() {
+        return nextSequence == baseSequence;
+    }
+
+    /**
+     * Bytes used, header included
+     */
+    public int size() {
+        return position;
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    public int maxPayloadSize() {
+        return buffer.capacity() - HEADER_SIZE - RECORD_HEADER_SIZE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Length of the record at offset if it is complete and numbered sequence, otherwise -1
+     */
+    private int recordLengthAt(int offset, long sequence) {
+        if (offset + RECORD_HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > buffer.capacity() - offset - RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        if (buffer.getLong(offset + 4) != sequence || buffer.getInt(offset + 12) != checksum(offset, length)) {
+            return -1;
+        }
+        return length;
+    }
+
+    private int checksum(int offset, int payloadLength) {
+        crc.reset();
+        crc.update(buffer.slice(offset + 4, 8));
+        crc.update(buffer.slice(offset + RECORD_HEADER_SIZE, payloadLength));
+        return (int) crc.getValue();
+    }
+
+    public static final class Record {
+        private final long sequence;
+        private final byte[] payload;
+
+        Record(long sequence, byte[] payload) {
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+}
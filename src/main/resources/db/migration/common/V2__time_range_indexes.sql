@@ -0,0 +1,23 @@
+-- Composite indexes for the per-user time-range and most-recent-first queries.
+-- Each leads with the equality column so range scans and ORDER BY ... DESC are
+-- answered from the index instead of sorting every row the user owns. The moods and
+-- conversations keys are stored newest first, matching their most-recent-first reads.
+
+-- MoodRepository: history, date ranges, top 10, keyset pages (timestamp, id)
+create index idx_moods_user_timestamp on moods (user_id, timestamp desc, id desc);
+
+-- MoodEntryRepository: findByUserAndCreatedAtBetween..., recent entries, averages
+create index idx_mood_entries_user_created on mood_entries (user_id, created_at);
+
+-- ConversationRepository: findRecentByUser, user history and time ranges
+create index idx_conversations_user_created on conversations (user_id, created_at desc);
+
+-- ConversationRepository: findBySessionIdOrderByCreatedAtAsc
+create index idx_conversations_session_created on conversations (session_id, created_at);
+
+-- TaskRepository and NoteRepository: per-user lists ordered by creation time
+create index idx_tasks_user_created on tasks (user_id, created_at);
+create index idx_notes_user_created on notes (user_id, created_at);
+
+-- NotificationReminderRepository: active reminders due in a time window
+create index idx_notification_reminders_active_time on notification_reminders (is_active, reminder_time);
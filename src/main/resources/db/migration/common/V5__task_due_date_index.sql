@@ -0,0 +1,3 @@
+-- TaskRepository: filtered task queries and due-date windows. Completion is the most
+-- common filter, so it comes before the due date range.
+create index idx_tasks_user_completed_due on tasks (user_id, completed, due_date);
@@ -0,0 +1,112 @@
+-- Baseline: the schema Hibernate generated for the entity model before migrations were
+-- introduced. Databases created by ddl-auto are baselined at this version and skip it.
+
+create table conversations (
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    message varchar(4000) not null,
+    sender varchar(255) not null,
+    session_id varchar(255),
+    primary key (id)
+);
+
+create table mood_entries (
+    mood_rating integer not null check ((mood_rating>=1) and (mood_rating<=10)),
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    notes varchar(1000),
+    primary key (id)
+);
+
+create table moods (
+    id bigint generated by default as identity,
+    timestamp timestamp(6),
+    user_id bigint not null,
+    notes varchar(500),
+    mood_type varchar(255) not null check (mood_type in ('HAPPY','SAD','STRESSED','RELAXED','ANXIOUS','EXCITED','ANGRY','CONTENT','TIRED','ENERGETIC')),
+    primary key (id)
+);
+
+create table notes (
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    category varchar(255) not null,
+    content TEXT,
+    title varchar(255) not null,
+    primary key (id)
+);
+
+create table notification_reminders (
+    is_active boolean not null,
+    reminder_time time(6) not null,
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    last_sent_at timestamp(6),
+    updated_at timestamp(6),
+    user_id bigint not null,
+    frequency varchar(255) not null check (frequency in ('DAILY','WEEKLY','WEEKDAYS','WEEKENDS','CUSTOM')),
+    message varchar(255),
+    timezone varchar(255),
+    primary key (id)
+);
+
+create table tasks (
+    completed boolean not null,
+    created_at timestamp(6) not null,
+    due_date timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    category varchar(255) not null,
+    description TEXT,
+    priority varchar(255) not null,
+    title varchar(255) not null,
+    primary key (id)
+);
+
+create table users (
+    age integer,
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    username varchar(50) unique,
+    email varchar(100) unique,
+    name varchar(100),
+    password varchar(120),
+    preferences varchar(1000),
+    primary key (id)
+);
+
+alter table conversations
+   add constraint fk_conversations_user
+   foreign key (user_id)
+   references users (id);
+
+alter table mood_entries
+   add constraint fk_mood_entries_user
+   foreign key (user_id)
+   references users (id);
+
+alter table moods
+   add constraint fk_moods_user
+   foreign key (user_id)
+   references users (id);
+
+alter table notes
+   add constraint fk_notes_user
+   foreign key (user_id)
+   references users (id);
+
+alter table notification_reminders
+   add constraint fk_notification_reminders_user
+   foreign key (user_id)
+   references users (id);
+
+alter table tasks
+   add constraint fk_tasks_user
+   foreign key (user_id)
+   references users (id);
@@ -0,0 +1,4 @@
+-- Mood ids come from a pooled sequence so Hibernate can batch inserts; each value is
+-- the top of a block of 50 ids, starting above the existing rows.
+
+create sequence moods_seq start with (select coalesce(max(id), 0) + 50 from moods) increment by 50;
@@ -0,0 +1,11 @@
+-- Conversation ids come from a pooled sequence so the write-behind log's inserts can batch
+
+create sequence conversations_seq start with (select coalesce(max(id), 0) + 50 from conversations) increment by 50;
+
+-- The last log sequence inserted from each instance's write-behind log
+
+create table conversation_log_checkpoints (
+    log_id varchar(36) not null,
+    last_sequence bigint not null,
+    primary key (log_id)
+);
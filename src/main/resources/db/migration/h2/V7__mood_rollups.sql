@@ -0,0 +1,52 @@
+-- Per-user mood rollups (all-time totals, per-type counts, per-day sums and streaks).
+-- These tables came with the entity model after the baseline, so databases baselined at
+-- V1 from ddl-auto never had them; they are created here for fresh and upgraded schemas.
+
+create table mood_rollups (
+    current_negative_streak integer not null,
+    current_positive_streak integer not null,
+    days_tracked integer not null,
+    longest_positive_streak integer not null,
+    sequence_stale boolean not null,
+    first_mood_at timestamp(6),
+    id bigint generated by default as identity,
+    last_mood_at timestamp(6),
+    total_moods bigint not null,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    last_mood_type varchar(255) check (last_mood_type in ('HAPPY','SAD','STRESSED','RELAXED','ANXIOUS','EXCITED','ANGRY','CONTENT','TIRED','ENERGETIC')),
+    primary key (id),
+    constraint uk_mood_rollups_user unique (user_id)
+);
+
+create table mood_rollup_counts (
+    mood_count bigint,
+    rollup_id bigint not null,
+    mood_type varchar(255) not null check (mood_type in ('HAPPY','SAD','STRESSED','RELAXED','ANXIOUS','EXCITED','ANGRY','CONTENT','TIRED','ENERGETIC')),
+    primary key (rollup_id, mood_type)
+);
+
+create table mood_daily_rollups (
+    mood_count integer not null,
+    rollup_date date not null,
+    id bigint generated by default as identity,
+    score_sum bigint not null,
+    user_id bigint not null,
+    primary key (id),
+    constraint uk_mood_daily_rollups_user_date unique (user_id, rollup_date)
+);
+
+alter table mood_daily_rollups
+   add constraint fk_mood_daily_rollups_user
+   foreign key (user_id)
+   references users (id);
+
+alter table mood_rollup_counts
+   add constraint fk_mood_rollup_counts_rollup
+   foreign key (rollup_id)
+   references mood_rollups (id);
+
+alter table mood_rollups
+   add constraint fk_mood_rollups_user
+   foreign key (user_id)
+   references users (id);
@@ -0,0 +1,118 @@
+-- Baseline: the schema Hibernate generated for the entity model before migrations were
+-- introduced. Databases created by ddl-auto are baselined at this version and skip it.
+
+create table conversations (
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    message varchar(4000) not null,
+    sender varchar(255) not null,
+    session_id varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table mood_entries (
+    mood_rating integer not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    notes varchar(1000),
+    primary key (id)
+) engine=InnoDB;
+
+create table moods (
+    id bigint not null auto_increment,
+    timestamp datetime(6),
+    user_id bigint not null,
+    notes varchar(500),
+    mood_type enum ('ANGRY','ANXIOUS','CONTENT','ENERGETIC','EXCITED','HAPPY','RELAXED','SAD','STRESSED','TIRED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table notes (
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    user_id bigint not null,
+    category varchar(255) not null,
+    content TEXT,
+    title varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table notification_reminders (
+    is_active bit not null,
+    reminder_time time(6) not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    last_sent_at datetime(6),
+    updated_at datetime(6),
+    user_id bigint not null,
+    frequency enum ('CUSTOM','DAILY','WEEKDAYS','WEEKENDS','WEEKLY') not null,
+    message varchar(255),
+    timezone varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table tasks (
+    completed bit not null,
+    created_at datetime(6) not null,
+    due_date datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    user_id bigint not null,
+    category varchar(255) not null,
+    description TEXT,
+    priority varchar(255) not null,
+    title varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    age integer,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    username varchar(50),
+    email varchar(100),
+    name varchar(100),
+    password varchar(120),
+    preferences varchar(1000),
+    primary key (id)
+) engine=InnoDB;
+
+alter table users
+   add constraint uk_users_username unique (username);
+
+alter table users
+   add constraint uk_users_email unique (email);
+
+alter table conversations
+   add constraint fk_conversations_user
+   foreign key (user_id)
+   references users (id);
+
+alter table mood_entries
+   add constraint fk_mood_entries_user
+   foreign key (user_id)
+   references users (id);
+
+alter table moods
+   add constraint fk_moods_user
+   foreign key (user_id)
+   references users (id);
+
+alter table notes
+   add constraint fk_notes_user
+   foreign key (user_id)
+   references users (id);
+
+alter table notification_reminders
+   add constraint fk_notification_reminders_user
+   foreign key (user_id)
+   references users (id);
+
+alter table tasks
+   add constraint fk_tasks_user
+   foreign key (user_id)
+   references users (id);
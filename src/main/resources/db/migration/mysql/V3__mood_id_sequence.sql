@@ -0,0 +1,10 @@
+-- Mood ids come from a pooled sequence so Hibernate can batch inserts. MySQL has no
+-- sequences, so Hibernate keeps the next value in a one-row table and reserves 50 ids
+-- per read. The value is the top of the first block: ids max + 1 .. max + 50.
+-- Rows must take their ids from it; the column's AUTO_INCREMENT no longer tracks them.
+
+create table moods_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into moods_seq (next_val) select coalesce(max(id), 0) + 50 from moods;
@@ -0,0 +1,18 @@
+-- Conversation messages are inserted in batches by the write-behind log, so like moods
+-- their ids come from a pooled sequence, kept in a one-row table on MySQL. The value is
+-- the top of the first block: ids max + 1 .. max + 50.
+
+create table conversations_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into conversations_seq (next_val) select coalesce(max(id), 0) + 50 from conversations;
+
+-- The last log sequence inserted from each instance's write-behind log, updated in the
+-- same transaction as the messages so a replay after a crash skips what already landed.
+
+create table conversation_log_checkpoints (
+    log_id varchar(36) not null,
+    last_sequence bigint not null,
+    primary key (log_id)
+) engine=InnoDB;
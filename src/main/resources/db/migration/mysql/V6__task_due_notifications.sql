@@ -0,0 +1,4 @@
+-- When the task's due notification went out; cleared when its due date changes, so a
+-- restart doesn't notify again
+
+alter table tasks add column due_notified_at datetime(6);
@@ -0,0 +1,83 @@
+package com.moodtracking.config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.MoodRollup;
+import com.moodtracking.models.User;
+
+/**
+ * Upgrades a database in the state ddl-auto left it before Flyway was introduced:
+ * baselined at V1, it must receive every later migration and then pass Hibernate's
+ * schema validation (the context fails to start otherwise).
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=" + MigrationUpgradeTest.URL,
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MigrationUpgradeTest {
+
+    static final String URL = "jdbc:h2:mem:pre-flyway;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeAll
+    static void createPreFlywayDatabase() throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/pre-flyway-schema-h2.sql'");
+            statement.execute("INSERT INTO users (id, username, email, name, password) "
+                + "VALUES (1, 'legacy', 'legacy@example.com', 'Legacy User', 'encodedPassword')");
+            statement.execute("INSERT INTO moods (id, mood_type, user_id, timestamp) "
+                + "VALUES (1, 'HAPPY', 1, TIMESTAMP '2024-03-14 10:00:00'), (2, 'SAD', 1, TIMESTAMP '2024-03-15 10:00:00')");
+        }
+    }
+
+    @Test
+    void testMigrate_BaselinesAtV1AndAppliesEveryLaterMigration() {
+        List<MigrationInfo> applied = Arrays.asList(flyway.info().applied());
+
+        assertEquals("1", applied.get(0).getVersion().getVersion());
+        assertEquals("BASELINE", applied.get(0).getType().name());
+        assertTrue(applied.stream().skip(1).allMatch(info -> info.getState().isApplied()));
+        assertEquals(0, flyway.info().pending().length);
+        assertTrue(applied.stream().anyMatch(info -> info.getScript() != null
+            && info.getScript().endsWith("__mood_rollups.sql")));
+    }
+
+    @Test
+    void testMigrate_KeepsExistingRowsUsableWithTheNewTables() {
+        User legacy = entityManager.find(User.class, 1L);
+
+        MoodRollup rollup = new MoodRollup(legacy);
+        entityManager.persistAndFlush(rollup);
+        Mood mood = new Mood(Mood.MoodType.CONTENT, "After upgrade", legacy);
+        entityManager.persistAndFlush(mood);
+
+        assertTrue(rollup.getId() != null);
+        assertTrue(mood.getId() > 2);
+    }
+}
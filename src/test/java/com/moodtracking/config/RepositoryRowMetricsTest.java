@@ -0,0 +1,43 @@
+package com.moodtracking.config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import com.moodtracking.models.Mood;
+
+class RepositoryRowMetricsTest {
+
+    @Test
+    void testRowCount_CountsCollectionsAndPages() {
+        assertEquals(3, RepositoryRowMetrics.rowCount(Arrays.asList(1, 2, 3), List.class));
+        assertEquals(0, RepositoryRowMetrics.rowCount(Collections.emptyList(), List.class));
+        assertEquals(2, RepositoryRowMetrics.rowCount(
+            new PageImpl<>(Arrays.asList(1, 2), PageRequest.of(0, 10), 50), Slice.class));
+    }
+
+    @Test
+    void testRowCount_CountsSingleResultsAsZeroOrOne() {
+        assertEquals(1, RepositoryRowMetrics.rowCount(new Mood(), Mood.class));
+        assertEquals(0, RepositoryRowMetrics.rowCount(null, Mood.class));
+        assertEquals(1, RepositoryRowMetrics.rowCount(Optional.of(new Mood()), Optional.class));
+        assertEquals(0, RepositoryRowMetrics.rowCount(Optional.empty(), Optional.class));
+    }
+
+    @Test
+    void testRowCount_SkipsScalarsAndLazyResults() {
+        assertEquals(-1, RepositoryRowMetrics.rowCount(5L, long.class));
+        assertEquals(-1, RepositoryRowMetrics.rowCount(5L, Long.class));
+        assertEquals(-1, RepositoryRowMetrics.rowCount(Boolean.TRUE, Boolean.class));
+        assertEquals(-1, RepositoryRowMetrics.rowCount(null, void.class));
+        assertEquals(-1, RepositoryRowMetrics.rowCount(Stream.of(1, 2), Stream.class));
+    }
+}
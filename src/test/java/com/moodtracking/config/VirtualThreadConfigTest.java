@@ -0,0 +1,42 @@
+package com.moodtracking.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadConfigTest {
+    
+    private static final boolean VIRTUAL_THREADS = Runtime.version().feature() >= 21;
+    
+    @Test
+    void testVirtualThreadFactory_FailsFastBeforeJava21() {
+        assumeFalse(VIRTUAL_THREADS);
+        
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> VirtualThreadConfig.virtualThreadFactory("test-"));
+        assertTrue(e.getMessage().contains("Java 21"));
+    }
+    
+    @Test
+    void testThreadPerTaskExecutor_RunsOnNamedVirtualThreads() throws Exception {
+        assumeTrue(VIRTUAL_THREADS);
+        
+        // Act
+        CompletableFuture<Thread> ran = new CompletableFuture<>();
+        VirtualThreadConfig.threadPerTaskExecutor("test-").execute(() -> ran.complete(Thread.currentThread()));
+        Thread thread = ran.get(5, TimeUnit.SECONDS);
+        ThreadFactory factory = VirtualThreadConfig.virtualThreadFactory("other-");
+        
+        // Assert
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+        assertTrue(thread.getName().startsWith("test-"));
+        assertEquals("other-0", factory.newThread(() -> { }).getName());
+    }
+}
@@ -0,0 +1,184 @@
+package com.moodtracking.services;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.dto.MoodAnalyticsResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AnalyticsResponseCacheTest {
+    
+    private AnalyticsResponseCache analyticsResponseCache;
+    private MeterRegistry meterRegistry;
+    private Instant start;
+    private AtomicInteger loads;
+    private Supplier<MoodAnalyticsResponse> loader;
+    
+    @BeforeEach
+    void setUp() {
+        start = Instant.parse("2024-03-15T10:00:00Z");
+        meterRegistry = new SimpleMeterRegistry();
+        
+        analyticsResponseCache = new AnalyticsResponseCache();
+        ReflectionTestUtils.setField(analyticsResponseCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(analyticsResponseCache, "maxSize", 2);
+        ReflectionTestUtils.setField(analyticsResponseCache, "meterRegistry", meterRegistry);
+        setTime(start);
+        analyticsResponseCache.init();
+        
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return new MoodAnalyticsResponse();
+        };
+    }
+    
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(analyticsResponseCache, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+    
+    private double requests(String result) {
+        return meterRegistry.get("analytics.cache.requests").tag("result", result).functionCounter().count();
+    }
+    
+    @Test
+    void testGet_ComputesEachWindowOnce() {
+        // Act
+        MoodAnalyticsResponse first = analyticsResponseCache.get(1L, 30, loader);
+        MoodAnalyticsResponse second = analyticsResponseCache.get(1L, 30, loader);
+        MoodAnalyticsResponse allTime = analyticsResponseCache.get(1L, 0, loader);
+        
+        // Assert
+        assertSame(first, second);
+        assertNotSame(first, allTime);
+        assertEquals(2, loads.get());
+        assertEquals(1.0, requests("hit"));
+        assertEquals(2.0, requests("miss"));
+    }
+    
+    @Test
+    void testEvict_DropsEveryWindowOfThatUserOnly() {
+        // Arrange
+        analyticsResponseCache.get(1L, 30, loader);
+        analyticsResponseCache.get(1L, 7, loader);
+        analyticsResponseCache.get(2L, 30, loader);
+        
+        // Act
+        analyticsResponseCache.evict(1L);
+        analyticsResponseCache.get(1L, 30, loader);
+        analyticsResponseCache.get(1L, 7, loader);
+        analyticsResponseCache.get(2L, 30, loader);
+        
+        // Assert
+        assertEquals(5, loads.get());
+        assertEquals(1.0, meterRegistry.get("analytics.cache.evictions").functionCounter().count());
+    }
+    
+    @Test
+    void testGet_ExpiresAfterTtl() {
+        // Arrange
+        analyticsResponseCache.get(1L, 30, loader);
+        
+        // Act
+        setTime(start.plusSeconds(61));
+        analyticsResponseCache.get(1L, 30, loader);
+        
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0L, analyticsResponseCache.getHitCount());
+    }
+    
+    @Test
+    void testMaxSize_DropsLeastRecentlyUsedUser() {
+        // Act
+        analyticsResponseCache.get(1L, 30, loader);
+        analyticsResponseCache.get(2L, 30, loader);
+        analyticsResponseCache.get(1L, 30, loader);
+        analyticsResponseCache.get(3L, 30, loader);
+        analyticsResponseCache.get(1L, 30, loader);
+        analyticsResponseCache.get(2L, 30, loader);
+        
+        // Assert - user 1 stayed cached, user 2 was dropped and recomputed
+        assertEquals(4, loads.get());
+        assertEquals(2, analyticsResponseCache.size());
+        assertEquals(2.0, meterRegistry.get("analytics.cache.size").gauge().value());
+    }
+    
+    @Test
+    void testGet_DoesNotCacheFailures() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> analyticsResponseCache.get(1L, 30, () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+        analyticsResponseCache.get(1L, 30, loader);
+        
+        // Assert
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    void testGet_ConcurrentRequestsShareOneComputation() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<MoodAnalyticsResponse> slowLoader = () -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.get();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        
+        try {
+            // Act
+            Future<MoodAnalyticsResponse> summary = executor.submit(() -> analyticsResponseCache.get(1L, 30, slowLoader));
+            loading.await(5, TimeUnit.SECONDS);
+            Future<MoodAnalyticsResponse> trends = executor.submit(() -> analyticsResponseCache.get(1L, 30, slowLoader));
+            while (analyticsResponseCache.getHitCount() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            
+            // Assert
+            assertSame(summary.get(5, TimeUnit.SECONDS), trends.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testEvict_DuringComputationKeepsResultOutOfCache() {
+        // Act
+        MoodAnalyticsResponse stale = analyticsResponseCache.get(1L, 30, () -> {
+            analyticsResponseCache.evict(1L);
+            return loader.get();
+        });
+        MoodAnalyticsResponse fresh = analyticsResponseCache.get(1L, 30, loader);
+        
+        // Assert
+        assertNotSame(stale, fresh);
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,157 @@
+package com.moodtracking.services;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.moodtracking.dto.ConversationDTO;
+import com.moodtracking.events.SearchDocumentEvent;
+import com.moodtracking.models.Conversation;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.ConversationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationServiceTest {
+    
+    @Mock
+    private ConversationRepository conversationRepository;
+    
+    @Mock
+    private ConversationWriteBehind conversationWriteBehind;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @InjectMocks
+    private ConversationService conversationService;
+    
+    private User testUser;
+    private LocalDateTime testTime;
+    
+    @BeforeEach
+    void setUp() {
+        testTime = LocalDateTime.now();
+        
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+    }
+    
+    private Conversation conversation(long id, String sender, String message, int minutesAgo) {
+        Conversation conversation = new Conversation(testUser, message, sender, "session-1");
+        conversation.setId(id);
+        conversation.setCreatedAt(testTime.minusMinutes(minutesAgo));
+        return conversation;
+    }
+    
+    @Test
+    void getConversationContext_ShouldAskForLastNAndReturnThemOldestFirst() {
+        // Arrange - the repository returns the newest page first
+        List<Conversation> newestFirst = Arrays.asList(
+            conversation(3L, "bot", "Glad to hear it", 1),
+            conversation(2L, "user", "Pretty good", 2));
+        when(conversationRepository.findRecentByUser(testUser, PageRequest.of(0, 2))).thenReturn(newestFirst);
+        
+        // Act
+        String context = conversationService.getConversationContext(testUser, 2);
+        
+        // Assert
+        assertEquals("user: Pretty good\nbot: Glad to hear it\n", context);
+    }
+    
+    @Test
+    void getConversationContext_ShouldNotQueryForNonPositiveCount() {
+        // Act
+        String context = conversationService.getConversationContext(testUser, 0);
+        
+        // Assert
+        assertEquals("", context);
+        verify(conversationRepository, never()).findRecentByUser(any(User.class), any(Pageable.class));
+    }
+    
+    @Test
+    void getRecentConversations_ShouldPushLimitIntoQuery() {
+        // Arrange
+        when(conversationRepository.findRecentByUser(eq(testUser), eq(PageRequest.of(0, 1))))
+            .thenReturn(Arrays.asList(conversation(3L, "bot", "Glad to hear it", 1)));
+        
+        // Act
+        List<ConversationDTO> recent = conversationService.getRecentConversations(testUser, 1);
+        
+        // Assert
+        assertEquals(1, recent.size());
+        assertEquals("Glad to hear it", recent.get(0).getMessage());
+        assertTrue(conversationService.getRecentConversations(testUser, -1).isEmpty());
+    }
+    
+    @Test
+    void saveConversation_ShouldAcknowledgeOnceLogged() {
+        // Arrange
+        when(conversationWriteBehind.append(1L, "Hello", "user", "session-1")).thenReturn(testTime);
+        
+        // Act
+        ConversationDTO saved = conversationService.saveConversation(testUser, "Hello", "user", "session-1");
+        
+        // Assert - inserted later, so no id yet
+        assertNull(saved.getId());
+        assertEquals("Hello", saved.getMessage());
+        assertEquals(testTime, saved.getCreatedAt());
+        verify(conversationRepository, never()).save(any(Conversation.class));
+    }
+    
+    @Test
+    void saveConversation_ShouldRejectWhatTheInsertWouldFail() {
+        // Act & Assert - checked before logging, since nobody is waiting when the insert runs
+        assertThrows(IllegalArgumentException.class,
+            () -> conversationService.saveConversation(testUser, "x".repeat(4001), "user", "session-1"));
+        assertThrows(IllegalArgumentException.class,
+            () -> conversationService.saveConversation(testUser, "Hello", "moderator", "session-1"));
+        verify(conversationWriteBehind, never()).append(any(), any(), any(), any());
+    }
+    
+    @Test
+    void getConversationContext_ShouldFlushLoggedMessagesFirst() {
+        // Arrange
+        when(conversationRepository.findRecentByUser(testUser, PageRequest.of(0, 2))).thenReturn(Arrays.asList());
+        
+        // Act
+        conversationService.getConversationContext(testUser, 2);
+        
+        // Assert
+        InOrder inOrder = inOrder(conversationWriteBehind, conversationRepository);
+        inOrder.verify(conversationWriteBehind).flush();
+        inOrder.verify(conversationRepository).findRecentByUser(testUser, PageRequest.of(0, 2));
+    }
+    
+    @Test
+    void deleteUserConversations_ShouldDeleteWithoutLoadingThem() {
+        // Act
+        conversationService.deleteUserConversations(testUser);
+        
+        // Assert
+        verify(conversationRepository).deleteAllByUser(testUser);
+        verify(conversationRepository, never()).findByUserOrderByCreatedAtAsc(any(User.class));
+        verify(eventPublisher).publishEvent(any(SearchDocumentEvent.class));
+    }
+}
@@ -0,0 +1,208 @@
+package com.moodtracking.services;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.moodtracking.events.SearchDocumentEvent;
+import com.moodtracking.models.Conversation;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.ConversationRepository;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationWriteBehindTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    // What each saveAll call inserted
+    private final List<List<Conversation>> inserted = Collections.synchronizedList(new ArrayList<>());
+
+    // Runs before each saveAll call, so a test can make the database fail it
+    private Consumer<List<Conversation>> beforeInsert = conversations -> {};
+
+    @BeforeEach
+    void setUp() {
+        when(conversationRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Conversation> conversations = new ArrayList<>();
+            invocation.<Iterable<Conversation>>getArgument(0).forEach(conversations::add);
+            beforeInsert.accept(conversations);
+            if (!conversations.isEmpty()) {
+                inserted.add(conversations);
+            }
+            return conversations;
+        });
+        when(entityManager.getReference(eq(User.class), any())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(1));
+            return user;
+        });
+    }
+
+    @Test
+    void flush_ShouldInsertLoggedMessagesInOneBatchWithTheirCheckpoint() throws Exception {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyString())).thenReturn(List.of());
+        ConversationWriteBehind writeBehind = writeBehind();
+        writeBehind.init();
+
+        // Act
+        writeBehind.append(1L, "Hello", "user", "session-1");
+        writeBehind.append(1L, "Hi there", "bot", "session-1");
+        writeBehind.flush();
+
+        // Assert
+        assertEquals(1, inserted.size());
+        assertEquals(2, inserted.get(0).size());
+        assertEquals("Hi there", inserted.get(0).get(1).getMessage());
+        assertEquals(1L, inserted.get(0).get(1).getUser().getId());
+        assertEquals(0, writeBehind.getPendingCount());
+        verify(jdbcTemplate).update(anyString(), eq(2L), anyString());
+        verify(eventPublisher, times(2)).publishEvent(any(SearchDocumentEvent.class));
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void init_ShouldReplayMessagesLoggedAfterTheCheckpoint() throws Exception {
+        // Arrange - an instance logs three messages and stops before inserting them
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyString()))
+            .thenReturn(List.of())
+            .thenReturn(List.of(1L));
+        ConversationWriteBehind crashed = writeBehind();
+        crashed.init();
+        crashed.append(1L, "First", "user", "session-1");
+        crashed.append(2L, "Second", "user", null);
+        crashed.append(1L, "Third", "bot", "session-1");
+        ((Thread) ReflectionTestUtils.getField(crashed, "flusher")).interrupt();
+
+        // Act - the next start finds the first already inserted
+        ConversationWriteBehind restarted = writeBehind();
+        restarted.init();
+
+        // Assert
+        assertEquals(1, inserted.size());
+        List<Conversation> replayed = inserted.get(0);
+        assertEquals(2, replayed.size());
+        assertEquals("Second", replayed.get(0).getMessage());
+        assertEquals(null, replayed.get(0).getSessionId());
+        assertEquals("Third", replayed.get(1).getMessage());
+        verify(jdbcTemplate).update(anyString(), eq(3L), anyString());
+
+        // New messages continue the sequence
+        restarted.append(1L, "Fourth", "user", "session-1");
+        restarted.flush();
+        verify(jdbcTemplate).update(anyString(), eq(4L), anyString());
+        restarted.shutdown();
+    }
+
+    @Test
+    void flush_ShouldNotInsertAgainWhatTheOneAtATimeRetryCommittedBeforeFailing() throws Exception {
+        // Arrange - the batch is rejected, then the database goes away partway through the retry
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyString())).thenReturn(List.of());
+        boolean[] databaseDown = {true};
+        beforeInsert = conversations -> {
+            if (conversations.size() > 1
+                    || (conversations.size() == 1 && conversations.get(0).getMessage().equals("Rejected"))) {
+                throw new DataIntegrityViolationException("fk_conversations_user");
+            }
+            if (conversations.size() == 1 && conversations.get(0).getMessage().equals("Third") && databaseDown[0]) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+        };
+        ConversationWriteBehind writeBehind = writeBehind();
+        writeBehind.init();
+        writeBehind.append(1L, "First", "user", "session-1");
+        writeBehind.append(2L, "Rejected", "user", null);
+        writeBehind.append(1L, "Third", "bot", "session-1");
+
+        // Act
+        assertThrows(DataAccessResourceFailureException.class, writeBehind::flush);
+        databaseDown[0] = false;
+        writeBehind.flush();
+
+        // Assert - each message that landed landed once
+        assertEquals(2, inserted.size());
+        assertEquals("First", inserted.get(0).get(0).getMessage());
+        assertEquals("Third", inserted.get(1).get(0).getMessage());
+        assertEquals(0, writeBehind.getPendingCount());
+        verify(jdbcTemplate).update(anyString(), eq(3L), anyString());
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void append_ShouldMoveToTheOtherSegmentOnceInserted() throws Exception {
+        // Arrange - 1 MB segments
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyString())).thenReturn(List.of());
+        ConversationWriteBehind writeBehind = writeBehind();
+        ReflectionTestUtils.setField(writeBehind, "segmentSizeMb", 1);
+        writeBehind.init();
+        String message = "x".repeat(4000);
+
+        // Act - several times what both segments hold
+        for (int i = 0; i < 1000; i++) {
+            writeBehind.append(1L, message, "user", "session-1");
+        }
+        writeBehind.flush();
+
+        // Assert
+        int count = inserted.stream().mapToInt(List::size).sum();
+        assertEquals(1000, count);
+        verify(jdbcTemplate).update(anyString(), eq(1000L), anyString());
+        writeBehind.shutdown();
+    }
+
+    private ConversationWriteBehind writeBehind() {
+        ConversationWriteBehind writeBehind = new ConversationWriteBehind();
+        ReflectionTestUtils.setField(writeBehind, "directory", directory.toString());
+        ReflectionTestUtils.setField(writeBehind, "segmentSizeMb", 4);
+        ReflectionTestUtils.setField(writeBehind, "batchSize", 100_000);
+        // Long enough that only explicit flushes insert during a test
+        ReflectionTestUtils.setField(writeBehind, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(writeBehind, "conversationRepository", conversationRepository);
+        ReflectionTestUtils.setField(writeBehind, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(writeBehind, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writeBehind, "entityManager", entityManager);
+        ReflectionTestUtils.setField(writeBehind, "eventPublisher", eventPublisher);
+        return writeBehind;
+    }
+}
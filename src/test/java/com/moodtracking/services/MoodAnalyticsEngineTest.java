@@ -0,0 +1,249 @@
+package com.moodtracking.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moodtracking.dto.MoodAnalyticsResponse;
+import com.moodtracking.dto.MoodResponse;
+import com.moodtracking.dto.MoodTrendPoint;
+import com.moodtracking.models.Mood.MoodType;
+
+/**
+ * Checks the single-pass engine against the list/stream implementation it replaced,
+ * comparing the serialized JSON of both responses.
+ */
+class MoodAnalyticsEngineTest {
+
+    private static final MoodType[] MOOD_TYPES = MoodType.values();
+
+    private ObjectMapper objectMapper;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        now = LocalDateTime.of(2024, 3, 15, 14, 30, 15, 123_456_789);
+    }
+
+    private MoodResponse mood(long id, MoodType moodType, LocalDateTime timestamp) {
+        return new MoodResponse(id, moodType, null, timestamp, "testuser");
+    }
+
+    private List<MoodResponse> randomHistory(long seed, int count, int spanDays) {
+        Random random = new Random(seed);
+        List<MoodResponse> moods = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime timestamp = now.minusSeconds((long) (random.nextDouble() * spanDays * 86400L));
+            moods.add(mood(i, MOOD_TYPES[random.nextInt(MOOD_TYPES.length)], timestamp));
+        }
+        moods.sort(Comparator.comparing(MoodResponse::getTimestamp).reversed());
+        return moods;
+    }
+
+    private void assertSameJson(List<MoodResponse> moods) throws Exception {
+        MoodAnalyticsResponse expected = LegacyAnalytics.analyze(moods, now);
+        MoodAnalyticsResponse actual = MoodAnalyticsEngine.analyze(MoodTimeline.fromResponses(moods), now);
+        actual.setAnalysisDate(expected.getAnalysisDate());
+
+        assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(actual));
+    }
+
+    @Test
+    void testAnalyze_SingleMood() throws Exception {
+        assertSameJson(List.of(mood(1L, MoodType.HAPPY, now.minusHours(1))));
+    }
+
+    @Test
+    void testAnalyze_RandomHistories() throws Exception {
+        for (long seed = 0; seed < 200; seed++) {
+            assertSameJson(randomHistory(seed, 1 + (int) (seed * 7 % 300), 5 + (int) (seed % 60)));
+        }
+    }
+
+    @Test
+    void testAnalyze_WindowBoundaries() throws Exception {
+        List<MoodResponse> moods = new ArrayList<>();
+        // Exactly on, and one nanosecond either side of, the weekly and monthly cutoffs
+        moods.add(mood(1L, MoodType.SAD, now.minusDays(7).plusNanos(1)));
+        moods.add(mood(2L, MoodType.HAPPY, now.minusDays(7)));
+        moods.add(mood(3L, MoodType.ANGRY, now.minusDays(7).minusNanos(1)));
+        moods.add(mood(4L, MoodType.CONTENT, now.minusDays(30).plusNanos(1)));
+        moods.add(mood(5L, MoodType.TIRED, now.minusDays(30)));
+        moods.add(mood(6L, MoodType.EXCITED, now.toLocalDate().minusYears(1).atStartOfDay()));
+        assertSameJson(moods);
+
+        // Only a mood inside the weekly cutoff but on the day the buckets exclude
+        assertSameJson(List.of(mood(7L, MoodType.RELAXED, now.minusDays(7).plusSeconds(30))));
+    }
+
+    @Test
+    void testAnalyze_StreaksAndTies() throws Exception {
+        List<MoodResponse> moods = new ArrayList<>();
+        MoodType[] sequence = {
+            MoodType.SAD, MoodType.ANGRY, MoodType.TIRED, MoodType.HAPPY, MoodType.HAPPY,
+            MoodType.CONTENT, MoodType.SAD, MoodType.EXCITED, MoodType.ENERGETIC
+        };
+        for (int i = 0; i < sequence.length; i++) {
+            moods.add(mood(i, sequence[i], now.minusHours(i * 5L)));
+        }
+        assertSameJson(moods);
+
+        // Even split between types exercises most-frequent tie breaking
+        List<MoodResponse> tied = new ArrayList<>();
+        for (int i = 0; i < MOOD_TYPES.length * 2; i++) {
+            tied.add(mood(i, MOOD_TYPES[i % MOOD_TYPES.length], now.minusMinutes(i)));
+        }
+        assertSameJson(tied);
+    }
+
+    @Test
+    void testAnalyze_CountsMatchTypeOrder() {
+        List<MoodResponse> moods = randomHistory(42L, 500, 90);
+        MoodAnalyticsResponse actual = MoodAnalyticsEngine.analyze(MoodTimeline.fromResponses(moods), now);
+
+        Map<MoodType, Long> expected = moods.stream()
+            .collect(Collectors.groupingBy(MoodResponse::getMoodType, Collectors.counting()));
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.getMoodCounts().keySet()));
+        assertEquals(500, actual.getTotalMoodsTracked());
+    }
+
+    /**
+     * The list-based MoodAnalyticsService implementation, kept verbatim apart from taking "now"
+     */
+    private static final class LegacyAnalytics {
+
+        static MoodAnalyticsResponse analyze(List<MoodResponse> moods, LocalDateTime now) {
+            MoodAnalyticsResponse analytics = new MoodAnalyticsResponse();
+
+            analytics.setTotalMoodsTracked(moods.size());
+            analytics.setDaysTracked((int) moods.stream()
+                .map(mood -> mood.getTimestamp().toLocalDate())
+                .distinct()
+                .count());
+
+            MoodResponse latestMood = moods.get(0);
+            analytics.setCurrentMood(latestMood.getMoodType());
+            analytics.setCurrentMoodTimestamp(latestMood.getTimestamp());
+
+            MoodAnalyticsEngine.setMoodDistribution(analytics, moods.stream()
+                .collect(Collectors.groupingBy(
+                    MoodResponse::getMoodType,
+                    Collectors.counting()
+                )), moods.size());
+
+            setTrendAnalysis(analytics, moods, now);
+            setStreakAnalysis(analytics, moods);
+            MoodAnalyticsEngine.generateInsights(analytics);
+            return analytics;
+        }
+
+        private static void setTrendAnalysis(MoodAnalyticsResponse analytics, List<MoodResponse> moods,
+                                             LocalDateTime now) {
+            LocalDateTime oneWeekAgo = now.minusDays(7);
+            List<MoodResponse> weeklyMoods = moods.stream()
+                .filter(mood -> mood.getTimestamp().isAfter(oneWeekAgo))
+                .collect(Collectors.toList());
+
+            if (!weeklyMoods.isEmpty()) {
+                List<MoodTrendPoint> weeklyTrend = calculateTrendPoints(weeklyMoods, "day", 7, now);
+                analytics.setWeeklyTrendData(weeklyTrend);
+                analytics.setWeeklyTrend(MoodAnalyticsEngine.calculateTrendDirection(weeklyTrend));
+            }
+
+            LocalDateTime oneMonthAgo = now.minusDays(30);
+            List<MoodResponse> monthlyMoods = moods.stream()
+                .filter(mood -> mood.getTimestamp().isAfter(oneMonthAgo))
+                .collect(Collectors.toList());
+
+            if (!monthlyMoods.isEmpty()) {
+                List<MoodTrendPoint> monthlyTrend = calculateTrendPoints(monthlyMoods, "week", 4, now);
+                analytics.setMonthlyTrendData(monthlyTrend);
+                analytics.setMonthlyTrend(MoodAnalyticsEngine.calculateTrendDirection(monthlyTrend));
+            }
+        }
+
+        private static List<MoodTrendPoint> calculateTrendPoints(List<MoodResponse> moods, String period,
+                                                                 int periods, LocalDateTime now) {
+            List<MoodTrendPoint> trendPoints = new ArrayList<>();
+            LocalDate endDate = now.toLocalDate();
+
+            for (int i = 0; i < periods; i++) {
+                LocalDate startDate;
+                LocalDate currentEndDate;
+
+                if ("day".equals(period)) {
+                    startDate = endDate.minusDays(i + 1);
+                    currentEndDate = endDate.minusDays(i);
+                } else {
+                    startDate = endDate.minusDays((i + 1) * 7);
+                    currentEndDate = endDate.minusDays(i * 7);
+                }
+
+                List<MoodResponse> periodMoods = moods.stream()
+                    .filter(mood -> {
+                        LocalDate moodDate = mood.getTimestamp().toLocalDate();
+                        return moodDate.isAfter(startDate) && moodDate.isBefore(currentEndDate.plusDays(1));
+                    })
+                    .collect(Collectors.toList());
+
+                if (!periodMoods.isEmpty()) {
+                    double averageScore = periodMoods.stream()
+                        .mapToInt(mood -> MoodAnalyticsService.moodScore(mood.getMoodType()))
+                        .average()
+                        .orElse(5.0);
+
+                    trendPoints.add(new MoodTrendPoint(currentEndDate, averageScore, period, periodMoods.size()));
+                }
+            }
+
+            Collections.reverse(trendPoints);
+            return trendPoints;
+        }
+
+        private static void setStreakAnalysis(MoodAnalyticsResponse analytics, List<MoodResponse> moods) {
+            int currentPositiveStreak = 0;
+            int currentNegativeStreak = 0;
+            int longestPositiveStreak = 0;
+            int tempPositiveStreak = 0;
+            boolean inCurrentRun = true;
+
+            for (MoodResponse mood : moods) {
+                boolean isPositive = MoodAnalyticsService.isPositiveMood(mood.getMoodType());
+
+                if (isPositive) {
+                    tempPositiveStreak++;
+                    longestPositiveStreak = Math.max(longestPositiveStreak, tempPositiveStreak);
+                } else {
+                    tempPositiveStreak = 0;
+                }
+
+                if (inCurrentRun) {
+                    if (isPositive && currentNegativeStreak == 0) {
+                        currentPositiveStreak++;
+                    } else if (!isPositive && currentPositiveStreak == 0) {
+                        currentNegativeStreak++;
+                    } else {
+                        inCurrentRun = false;
+                    }
+                }
+            }
+
+            analytics.setCurrentPositiveStreak(currentPositiveStreak);
+            analytics.setLongestPositiveStreak(longestPositiveStreak);
+            analytics.setCurrentNegativeStreak(currentNegativeStreak);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.moodtracking.services;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.moodtracking.dto.MoodTrendPoint;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.MoodRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MoodAnalyticsServiceTest {
+    
+    @Mock
+    private MoodRepository moodRepository;
+    
+    @InjectMocks
+    private MoodAnalyticsService moodAnalyticsService;
+    
+    private User testUser;
+    
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+    }
+    
+    @Test
+    void testGetMoodSeries_MapsDatabaseBucketsToTrendPoints() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        when(moodRepository.findScoreSeries(eq(testUser), eq(from.atStartOfDay()), eq(LocalDate.of(2024, 4, 1).atStartOfDay()),
+                eq("month"), anyMap(), eq(5)))
+            .thenReturn(Arrays.asList(
+                new Object[] {LocalDate.of(2024, 1, 1), 4L, 26L},
+                new Object[] {LocalDate.of(2024, 3, 1), 1L, 9L}));
+        
+        // Act
+        List<MoodTrendPoint> series = moodAnalyticsService.getMoodSeries(testUser, "month", from, to);
+        
+        // Assert - to is inclusive, empty months are left out
+        assertEquals(2, series.size());
+        assertEquals(LocalDate.of(2024, 1, 1), series.get(0).getDate());
+        assertEquals(6.5, series.get(0).getAverageMoodScore());
+        assertEquals(4, series.get(0).getMoodCount());
+        assertEquals("month", series.get(0).getPeriod());
+        assertEquals(9.0, series.get(1).getAverageMoodScore());
+    }
+    
+    @Test
+    void testGetMoodSeries_RejectsInvalidRequests() {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 3, 15);
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> moodAnalyticsService.getMoodSeries(testUser, "hour", today, today));
+        assertThrows(IllegalArgumentException.class,
+            () -> moodAnalyticsService.getMoodSeries(testUser, "day", today, today.minusDays(1)));
+        verify(moodRepository, never()).findScoreSeries(any(), any(), any(), anyString(), anyMap(), anyInt());
+    }
+}
@@ -0,0 +1,100 @@
+package com.moodtracking.services;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.events.MoodDeletedEvent;
+import com.moodtracking.events.MoodLoggedEvent;
+import com.moodtracking.events.MoodUpdatedEvent;
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MoodEventProcessorTest {
+    
+    @Mock
+    private AnalyticsResponseCache analyticsResponseCache;
+    
+    @Mock
+    private MoodVectorStore moodVectorStore;
+    
+    @InjectMocks
+    private MoodEventProcessor moodEventProcessor;
+    
+    private MeterRegistry meterRegistry;
+    private Mood testMood;
+    private LocalDateTime testTime;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(moodEventProcessor, "queueCapacity", 100);
+        ReflectionTestUtils.setField(moodEventProcessor, "batchSize", 10);
+        ReflectionTestUtils.setField(moodEventProcessor, "meterRegistry", meterRegistry);
+        
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        
+        testTime = LocalDateTime.of(2024, 3, 15, 10, 0);
+        testMood = new Mood(Mood.MoodType.HAPPY, "Feeling great", testUser);
+        testMood.setId(7L);
+        testMood.setTimestamp(testTime);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        moodEventProcessor.shutdown();
+    }
+    
+    @Test
+    void testOnMoodEvent_EvictsAnalyticsAndAppliesEventsInOrder() {
+        // Arrange
+        moodEventProcessor.init();
+        
+        // Act
+        moodEventProcessor.onMoodEvent(new MoodLoggedEvent(testMood));
+        moodEventProcessor.onMoodEvent(new MoodUpdatedEvent(testMood, Mood.MoodType.SAD));
+        moodEventProcessor.onMoodEvent(new MoodDeletedEvent(testMood));
+        
+        // Assert
+        verify(analyticsResponseCache, times(3)).evict(1L);
+        InOrder order = inOrder(moodVectorStore);
+        order.verify(moodVectorStore, timeout(5000)).record(1L, 7L, Mood.MoodType.HAPPY, testTime);
+        order.verify(moodVectorStore, timeout(5000).times(2)).evict(1L);
+    }
+    
+    @Test
+    void testOnMoodEvent_AppliesInlineWhenQueueIsFull() throws InterruptedException {
+        // Arrange - a one-slot queue with no worker draining it
+        ReflectionTestUtils.setField(moodEventProcessor, "queueCapacity", 1);
+        moodEventProcessor.init();
+        moodEventProcessor.shutdown();
+        
+        // Act
+        moodEventProcessor.onMoodEvent(new MoodDeletedEvent(testMood));
+        moodEventProcessor.onMoodEvent(new MoodLoggedEvent(testMood));
+        
+        // Assert
+        verify(moodVectorStore).record(1L, 7L, Mood.MoodType.HAPPY, testTime);
+        assertEquals(1.0, meterRegistry.get("moods.events.inline").counter().count());
+        assertEquals(1.0, meterRegistry.get("moods.events.queued").gauge().value());
+    }
+}
@@ -0,0 +1,138 @@
+package com.moodtracking.services;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.MoodRollup;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.MoodRepository;
+import com.moodtracking.repositories.MoodRollupRepository;
+import com.moodtracking.repositories.UserRepository;
+
+/**
+ * Two transactions log a user's first moods at the same time against the real schema
+ * (in-memory H2), so both find no rollup row and both try to create it.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@Import(MoodRollupService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MoodRollupFirstWriteTest {
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private MoodRepository moodRepository;
+
+    @Autowired
+    private MoodRollupRepository moodRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        User user = new User();
+        user.setUsername("firstwriter");
+        user.setName("First Writer");
+        user.setEmail("first@example.com");
+        user.setPassword("encodedPassword");
+        testUser = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM mood_daily_rollups");
+        jdbcTemplate.update("DELETE FROM mood_rollup_counts");
+        jdbcTemplate.update("DELETE FROM mood_rollups");
+        jdbcTemplate.update("DELETE FROM moods");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void testRecordMoodAdded_ConcurrentFirstWritesShareOneRollup() throws Exception {
+        CountDownLatch firstCreatedRollup = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                addMood(Mood.MoodType.HAPPY, LocalDateTime.of(2024, 3, 15, 9, 0));
+                firstCreatedRollup.countDown();
+                await(secondStarted);
+                // Let the second transaction reach the rollup insert before committing
+                sleep(200);
+            }));
+            await(firstCreatedRollup);
+            Future<?> second = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                secondStarted.countDown();
+                addMood(Mood.MoodType.CONTENT, LocalDateTime.of(2024, 3, 15, 10, 0));
+            }));
+
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        MoodRollup rollup = transactionTemplate.execute(status -> moodRollupService.getRollup(testUser));
+        assertEquals(1, moodRollupRepository.count());
+        assertEquals(2L, rollup.getTotalMoods());
+        assertEquals(2, rollup.getCurrentPositiveStreak());
+        assertTrue(rollup.getMoodCounts().containsKey(Mood.MoodType.CONTENT));
+    }
+
+    private void addMood(Mood.MoodType moodType, LocalDateTime timestamp) {
+        Mood mood = new Mood(moodType, null, testUser);
+        mood.setTimestamp(timestamp);
+        moodRollupService.recordMoodAdded(moodRepository.save(mood));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.moodtracking.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.Mood.MoodType;
+import com.moodtracking.models.MoodRollup;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.MoodRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Applies random in-order and backdated inserts, polarity flips and deletes through
+ * MoodRollupService against the real schema (in-memory H2), checking the incrementally
+ * maintained first/last and streak fields against the timeline after every change.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"
+})
+@Import(MoodRollupService.class)
+class MoodRollupSequenceTest {
+
+    private static final String FULL_TIMELINE_QUERY =
+        "SELECT m.moodType, m.timestamp FROM Mood m WHERE m.user = :user ORDER BY m.timestamp ASC, m.id ASC";
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private MoodRepository moodRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User testUser;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        start = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+        testUser = new User();
+        testUser.setUsername("testuser");
+        testUser.setName("Test User");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword");
+        entityManager.persist(testUser);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testSequenceChanges_MatchTheTimelineWithoutFullRescans() {
+        Random random = new Random(42);
+        List<Mood> moods = new ArrayList<>();
+        LocalDateTime newest = start;
+        int outOfOrderChanges = 0;
+
+        for (int step = 0; step < 400; step++) {
+            int operation = moods.size() < 5 ? 0 : random.nextInt(10);
+            if (operation < 4) {
+                // Logged now, at or after the newest mood (sometimes at the same instant)
+                newest = newest.plusMinutes(random.nextInt(3) * 30L);
+                moods.add(add(randomType(random), newest));
+            } else if (operation < 6) {
+                LocalDateTime first = moods.stream().map(Mood::getTimestamp).min(Comparator.naturalOrder()).get();
+                long span = Duration.between(first, newest).toMinutes();
+                moods.add(add(randomType(random), first.plusMinutes(random.nextInt((int) span + 1))));
+                outOfOrderChanges++;
+            } else if (operation < 8) {
+                Mood mood = moods.get(random.nextInt(moods.size()));
+                MoodType previousType = mood.getMoodType();
+                mood.setMoodType(randomType(random));
+                moodRollupService.recordMoodUpdated(moodRepository.save(mood), previousType);
+                outOfOrderChanges++;
+            } else {
+                Mood mood = moods.remove(random.nextInt(moods.size()));
+                moodRepository.delete(mood);
+                moodRollupService.recordMoodDeleted(mood);
+                outOfOrderChanges++;
+            }
+
+            assertMatchesTimeline(moodRollupService.getRollup(testUser), moods, step);
+        }
+
+        // The first build reads the whole timeline; after that only changes that may have
+        // shortened the longest positive run do
+        long fullRescans = statistics.getQueryStatistics(FULL_TIMELINE_QUERY).getExecutionCount();
+        assertTrue(fullRescans < outOfOrderChanges / 4,
+            fullRescans + " full rescans for " + outOfOrderChanges + " out-of-order changes");
+    }
+
+    private Mood add(MoodType moodType, LocalDateTime timestamp) {
+        Mood mood = new Mood(moodType, null, testUser);
+        mood.setTimestamp(timestamp);
+        Mood saved = moodRepository.save(mood);
+        moodRollupService.recordMoodAdded(saved);
+        return saved;
+    }
+
+    private static MoodType randomType(Random random) {
+        return MoodType.values()[random.nextInt(MoodType.values().length)];
+    }
+
+    private static void assertMatchesTimeline(MoodRollup rollup, List<Mood> moods, int step) {
+        List<Mood> timeline = new ArrayList<>(moods);
+        timeline.sort(Comparator.comparing(Mood::getTimestamp).thenComparing(Mood::getId));
+
+        int positiveStreak = 0;
+        int negativeStreak = 0;
+        int longestPositiveStreak = 0;
+        for (Mood mood : timeline) {
+            if (MoodAnalyticsService.isPositiveMood(mood.getMoodType())) {
+                positiveStreak++;
+                negativeStreak = 0;
+                longestPositiveStreak = Math.max(longestPositiveStreak, positiveStreak);
+            } else {
+                negativeStreak++;
+                positiveStreak = 0;
+            }
+        }
+        Mood first = timeline.get(0);
+        Mood last = timeline.get(timeline.size() - 1);
+
+        String at = "step " + step;
+        assertEquals(timeline.size(), rollup.getTotalMoods().intValue(), at);
+        assertEquals(first.getTimestamp(), rollup.getFirstMoodAt(), at);
+        assertEquals(last.getTimestamp(), rollup.getLastMoodAt(), at);
+        assertEquals(last.getMoodType(), rollup.getLastMoodType(), at);
+        assertEquals(positiveStreak, rollup.getCurrentPositiveStreak(), at);
+        assertEquals(negativeStreak, rollup.getCurrentNegativeStreak(), at);
+        assertEquals(longestPositiveStreak, rollup.getLongestPositiveStreak(), at);
+    }
+}
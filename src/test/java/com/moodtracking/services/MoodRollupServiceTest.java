@@ -0,0 +1,188 @@
+package com.moodtracking.services;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.MoodDailyRollup;
+import com.moodtracking.models.MoodRollup;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.MoodDailyRollupRepository;
+import com.moodtracking.repositories.MoodRepository;
+import com.moodtracking.repositories.MoodRollupRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MoodRollupServiceTest {
+
+    @Mock
+    private MoodRollupRepository moodRollupRepository;
+
+    @Mock
+    private MoodDailyRollupRepository moodDailyRollupRepository;
+
+    @Mock
+    private MoodRepository moodRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private MoodRollupService moodRollupService;
+
+    private User testUser;
+    private LocalDateTime testTime;
+
+    @BeforeEach
+    void setUp() {
+        testTime = LocalDateTime.now();
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+    }
+
+    private Mood mood(Mood.MoodType moodType, LocalDateTime timestamp) {
+        Mood mood = new Mood(moodType, null, testUser);
+        mood.setTimestamp(timestamp);
+        return mood;
+    }
+
+    @Test
+    void testRebuildRollup_FromTimeline() {
+        // Arrange
+        List<Object[]> timeline = Arrays.asList(
+            new Object[]{Mood.MoodType.SAD, testTime.minusDays(2)},
+            new Object[]{Mood.MoodType.HAPPY, testTime.minusDays(1)},
+            new Object[]{Mood.MoodType.CONTENT, testTime.minusDays(1).plusMinutes(5)},
+            new Object[]{Mood.MoodType.HAPPY, testTime}
+        );
+        when(moodRollupRepository.findByUserForUpdate(testUser))
+                .thenReturn(Optional.empty(), Optional.of(new MoodRollup(testUser)));
+        when(moodRepository.findMoodTimelineByUser(testUser)).thenReturn(timeline);
+        when(moodRollupRepository.save(any(MoodRollup.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        MoodRollup rollup = moodRollupService.rebuildRollup(testUser);
+
+        // Assert
+        assertEquals(4L, rollup.getTotalMoods());
+        assertEquals(3, rollup.getDaysTracked());
+        assertEquals(2L, rollup.getMoodCounts().get(Mood.MoodType.HAPPY));
+        assertEquals(1L, rollup.getMoodCounts().get(Mood.MoodType.SAD));
+        assertEquals(testTime.minusDays(2), rollup.getFirstMoodAt());
+        assertEquals(testTime, rollup.getLastMoodAt());
+        assertEquals(Mood.MoodType.HAPPY, rollup.getLastMoodType());
+        assertEquals(3, rollup.getCurrentPositiveStreak());
+        assertEquals(3, rollup.getLongestPositiveStreak());
+        assertEquals(0, rollup.getCurrentNegativeStreak());
+
+        verify(moodDailyRollupRepository).deleteAllByUser(testUser);
+        verify(jdbcTemplate).update(anyString(), eq(1L), eq(false), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testRebuildRollup_LocksRowCreatedByConcurrentFirstWrite() {
+        // Arrange
+        MoodRollup created = new MoodRollup(testUser);
+        created.setId(7L);
+        when(moodRollupRepository.findByUserForUpdate(testUser))
+                .thenReturn(Optional.empty(), Optional.of(created));
+        doThrow(new DuplicateKeyException("uk_mood_rollups_user"))
+                .when(jdbcTemplate).update(anyString(), eq(1L), eq(false), any(LocalDateTime.class));
+        when(moodRepository.findMoodTimelineByUser(testUser)).thenReturn(Arrays.<Object[]>asList(
+            new Object[]{Mood.MoodType.HAPPY, testTime}));
+        when(moodRollupRepository.save(any(MoodRollup.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        MoodRollup rollup = moodRollupService.rebuildRollup(testUser);
+
+        // Assert
+        assertEquals(7L, rollup.getId());
+        assertEquals(1L, rollup.getTotalMoods());
+        assertEquals(1, rollup.getCurrentPositiveStreak());
+    }
+
+    @Test
+    void testRecordMoodAdded_IncrementsRollup() {
+        // Arrange
+        MoodRollup rollup = new MoodRollup(testUser);
+        rollup.getMoodCounts().put(Mood.MoodType.HAPPY, 1L);
+        rollup.setTotalMoods(1L);
+        rollup.setDaysTracked(1);
+        rollup.setFirstMoodAt(testTime.minusDays(1));
+        rollup.setLastMoodAt(testTime.minusDays(1));
+        rollup.setLastMoodType(Mood.MoodType.HAPPY);
+        rollup.setCurrentPositiveStreak(1);
+        rollup.setLongestPositiveStreak(1);
+
+        when(moodRollupRepository.findByUserForUpdate(testUser)).thenReturn(Optional.of(rollup));
+        when(moodDailyRollupRepository.findByUserAndRollupDate(testUser, testTime.toLocalDate()))
+                .thenReturn(Optional.empty());
+
+        // Act
+        moodRollupService.recordMoodAdded(mood(Mood.MoodType.SAD, testTime));
+
+        // Assert
+        assertEquals(2L, rollup.getTotalMoods());
+        assertEquals(2, rollup.getDaysTracked());
+        assertEquals(1L, rollup.getMoodCounts().get(Mood.MoodType.SAD));
+        assertEquals(Mood.MoodType.SAD, rollup.getLastMoodType());
+        assertEquals(0, rollup.getCurrentPositiveStreak());
+        assertEquals(1, rollup.getCurrentNegativeStreak());
+        assertEquals(1, rollup.getLongestPositiveStreak());
+        assertFalse(rollup.getSequenceStale());
+
+        verify(moodDailyRollupRepository).save(any(MoodDailyRollup.class));
+        verify(moodRollupRepository).save(rollup);
+    }
+
+    @Test
+    void testRecordMoodDeleted_RemovesEmptyDayAndMarksStale() {
+        // Arrange
+        MoodRollup rollup = new MoodRollup(testUser);
+        rollup.getMoodCounts().put(Mood.MoodType.HAPPY, 2L);
+        rollup.setTotalMoods(2L);
+        rollup.setDaysTracked(2);
+        rollup.setLastMoodAt(testTime);
+
+        MoodDailyRollup day = new MoodDailyRollup(testUser, testTime.toLocalDate());
+        day.setId(5L);
+        day.setMoodCount(1);
+        day.setScoreSum(9L);
+
+        when(moodRollupRepository.findByUserForUpdate(testUser)).thenReturn(Optional.of(rollup));
+        when(moodDailyRollupRepository.findByUserAndRollupDate(testUser, testTime.toLocalDate()))
+                .thenReturn(Optional.of(day));
+
+        // Act
+        moodRollupService.recordMoodDeleted(mood(Mood.MoodType.HAPPY, testTime));
+
+        // Assert
+        assertEquals(1L, rollup.getTotalMoods());
+        assertEquals(1, rollup.getDaysTracked());
+        assertEquals(1L, rollup.getMoodCounts().get(Mood.MoodType.HAPPY));
+        assertTrue(rollup.getSequenceStale());
+
+        verify(moodDailyRollupRepository).delete(day);
+    }
+}
@@ -0,0 +1,134 @@
+package com.moodtracking.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import com.moodtracking.dto.MoodTrendPoint;
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.User;
+
+/**
+ * Runs MoodAnalyticsService's series against the real schema (in-memory H2, migrated by
+ * Flyway), so the HQL date functions, week floor and score CASE behind the buckets are
+ * executed by the database rather than stubbed.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@Import(MoodAnalyticsService.class)
+class MoodSeriesQueryTest {
+
+    @Autowired
+    private MoodAnalyticsService moodAnalyticsService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private MoodService moodService;
+
+    @MockBean
+    private MoodRollupService moodRollupService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = persistUser("testuser");
+        User otherUser = persistUser("otheruser");
+
+        // 2024-03-04 and 2024-02-26 are Mondays
+        persistMood(testUser, Mood.MoodType.SAD, LocalDateTime.of(2024, 2, 29, 23, 30));
+        persistMood(testUser, Mood.MoodType.HAPPY, LocalDateTime.of(2024, 3, 1, 8, 0));
+        persistMood(testUser, Mood.MoodType.SAD, LocalDateTime.of(2024, 3, 1, 20, 0));
+        persistMood(testUser, Mood.MoodType.ANGRY, LocalDateTime.of(2024, 3, 3, 12, 0));
+        persistMood(testUser, Mood.MoodType.EXCITED, LocalDateTime.of(2024, 3, 4, 0, 0));
+        persistMood(testUser, Mood.MoodType.TIRED, LocalDateTime.of(2024, 3, 10, 23, 59, 59));
+        persistMood(testUser, Mood.MoodType.HAPPY, LocalDateTime.of(2024, 3, 11, 0, 0));
+        persistMood(otherUser, Mood.MoodType.ANGRY, LocalDateTime.of(2024, 3, 1, 12, 0));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testGetMoodSeries_ByDay() {
+        // Act
+        List<MoodTrendPoint> series = moodAnalyticsService.getMoodSeries(testUser, "day",
+            LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10));
+
+        // Assert - the last second of the to date is in, the day before from and after to are not
+        assertEquals(4, series.size());
+        assertPoint(series.get(0), LocalDate.of(2024, 3, 1), 2, 5.5);
+        assertPoint(series.get(1), LocalDate.of(2024, 3, 3), 1, 1.0);
+        assertPoint(series.get(2), LocalDate.of(2024, 3, 4), 1, 8.0);
+        assertPoint(series.get(3), LocalDate.of(2024, 3, 10), 1, 4.0);
+        assertEquals("day", series.get(0).getPeriod());
+    }
+
+    @Test
+    void testGetMoodSeries_ByWeekStartingMonday() {
+        // Act
+        List<MoodTrendPoint> series = moodAnalyticsService.getMoodSeries(testUser, "week",
+            LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10));
+
+        // Assert - Sunday 3 March closes the first week, Monday 4 March opens the second
+        assertEquals(2, series.size());
+        assertPoint(series.get(0), LocalDate.of(2024, 2, 26), 3, 4.0);
+        assertPoint(series.get(1), LocalDate.of(2024, 3, 4), 2, 6.0);
+    }
+
+    @Test
+    void testGetMoodSeries_ByMonth() {
+        // Act
+        List<MoodTrendPoint> series = moodAnalyticsService.getMoodSeries(testUser, "month",
+            LocalDate.of(2024, 2, 15), LocalDate.of(2024, 3, 10));
+
+        // Assert
+        assertEquals(2, series.size());
+        assertPoint(series.get(0), LocalDate.of(2024, 2, 1), 1, 2.0);
+        assertPoint(series.get(1), LocalDate.of(2024, 3, 1), 5, 4.8);
+    }
+
+    @Test
+    void testGetMoodSeries_SingleDayRange() {
+        // Act
+        List<MoodTrendPoint> series = moodAnalyticsService.getMoodSeries(testUser, "week",
+            LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 10));
+
+        // Assert - the bucket is still dated by its Monday
+        assertEquals(1, series.size());
+        assertPoint(series.get(0), LocalDate.of(2024, 3, 4), 1, 4.0);
+    }
+
+    private void assertPoint(MoodTrendPoint point, LocalDate date, int moodCount, double averageMoodScore) {
+        assertEquals(date, point.getDate());
+        assertEquals(moodCount, point.getMoodCount());
+        assertEquals(averageMoodScore, point.getAverageMoodScore(), 1e-9);
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("encodedPassword");
+        return entityManager.persist(user);
+    }
+
+    private void persistMood(User user, Mood.MoodType moodType, LocalDateTime timestamp) {
+        Mood mood = new Mood(moodType, user);
+        mood.setTimestamp(timestamp);
+        entityManager.persist(mood);
+    }
+}
@@ -0,0 +1,132 @@
+package com.moodtracking.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moodtracking.dto.MoodResponse;
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.User;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+
+/**
+ * Counts the SQL statements behind MoodService's read paths against the real schema
+ * (in-memory H2, migrated by Flyway), with the session cleared first so nothing is
+ * answered from the persistence context.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"
+})
+@Import(MoodService.class)
+class MoodServiceQueryCountTest {
+    
+    @Autowired
+    private MoodService moodService;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @MockBean
+    private MoodRollupService moodRollupService;
+    
+    @MockBean
+    private ObjectMapper objectMapper;
+    
+    @MockBean
+    private Validator validator;
+    
+    private Statistics statistics;
+    private User testUser;
+    private Long firstMoodId;
+    private LocalDateTime testTime;
+    
+    @BeforeEach
+    void setUp() {
+        testTime = LocalDateTime.of(2024, 3, 15, 10, 0);
+        
+        testUser = new User();
+        testUser.setUsername("testuser");
+        testUser.setName("Test User");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword");
+        entityManager.persist(testUser);
+        
+        for (int i = 0; i < 20; i++) {
+            Mood mood = new Mood(Mood.MoodType.values()[i % Mood.MoodType.values().length], "Mood " + i, testUser);
+            mood.setTimestamp(testTime.minusHours(i));
+            entityManager.persist(mood);
+            if (i == 0) {
+                firstMoodId = mood.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @Test
+    void testGetMoodHistory_OneStatement() {
+        // Act
+        List<MoodResponse> result = moodService.getMoodHistory(testUser);
+        
+        // Assert
+        assertEquals(20, result.size());
+        assertEquals("testuser", result.get(0).getUsername());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void testGetMoodHistoryInDateRange_OneStatement() {
+        // Act
+        List<MoodResponse> result = moodService.getMoodHistoryInDateRange(testUser, testTime.minusHours(9), testTime);
+        
+        // Assert
+        assertEquals(10, result.size());
+        assertEquals("testuser", result.get(9).getUsername());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void testGetRecentMoods_OneStatement() {
+        // Act
+        List<MoodResponse> result = moodService.getRecentMoods(testUser);
+        
+        // Assert
+        assertEquals(10, result.size());
+        assertEquals(testTime, result.get(0).getTimestamp());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void testGetMoodById_OneStatement() {
+        // Act
+        Optional<MoodResponse> result = moodService.getMoodById(firstMoodId, testUser);
+        
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("testuser", result.get().getUsername());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -1,6 +1,9 @@
 package com.moodtracking.services;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -9,33 +12,59 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moodtracking.dto.MoodBatchResponse;
+import com.moodtracking.dto.MoodHistoryPage;
 import com.moodtracking.dto.MoodRequest;
 import com.moodtracking.dto.MoodResponse;
 import com.moodtracking.dto.MoodStatsResponse;
+import com.moodtracking.events.MoodDeletedEvent;
+import com.moodtracking.events.MoodLoggedEvent;
+import com.moodtracking.events.MoodUpdatedEvent;
 import com.moodtracking.models.Mood;
 import com.moodtracking.models.User;
 import com.moodtracking.repositories.MoodRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
 @ExtendWith(MockitoExtension.class)
 class MoodServiceTest {
     
     @Mock
     private MoodRepository moodRepository;
     
+    @Mock
+    private MoodRollupService moodRollupService;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private EntityManager entityManager;
+    
     @InjectMocks
     private MoodService moodService;
     
@@ -90,21 +119,80 @@ class MoodServiceTest {
         assertEquals(testMood.getUser().getUsername(), result.getUsername());
         
         verify(moodRepository).save(any(Mood.class));
+        verify(moodRollupService).recordMoodAdded(testMood);
+        verify(eventPublisher).publishEvent(any(MoodLoggedEvent.class));
     }
     
     @Test
-    void testGetMoodHistory_Success() {
+    void testAddMoods_SavesValidItemsAndReportsInvalidOnes() {
         // Arrange
-        Mood mood1 = new Mood(Mood.MoodType.HAPPY, "Happy mood", testUser);
-        mood1.setId(1L);
-        mood1.setTimestamp(testTime);
+        ReflectionTestUtils.setField(moodService, "validator",
+            Validation.buildDefaultValidatorFactory().getValidator());
+        MoodRequest offline = new MoodRequest(Mood.MoodType.SAD, "On the train");
+        offline.setTimestamp(testTime.minusDays(3));
+        MoodRequest missingType = new MoodRequest(null, "No mood");
+        MoodRequest future = new MoodRequest(Mood.MoodType.HAPPY, null);
+        future.setTimestamp(testTime.plusDays(1));
+        
+        when(moodRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Mood> moods = invocation.getArgument(0);
+            long id = 10L;
+            for (Mood mood : moods) {
+                mood.setId(id++);
+            }
+            return moods;
+        });
         
-        Mood mood2 = new Mood(Mood.MoodType.SAD, "Sad mood", testUser);
-        mood2.setId(2L);
-        mood2.setTimestamp(testTime.minusHours(1));
+        // Act
+        MoodBatchResponse result = moodService.addMoods(
+            Arrays.asList(offline, missingType, moodRequest, future), testUser);
+        
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertEquals(4, result.getResults().size());
+        
+        MoodBatchResponse.ItemResult first = result.getResults().get(0);
+        assertEquals(MoodBatchResponse.ItemResult.Status.CREATED, first.getStatus());
+        assertEquals(10L, first.getMood().getId());
+        assertEquals(testTime.minusDays(3), first.getMood().getTimestamp());
+        
+        assertEquals(1, result.getResults().get(1).getIndex());
+        assertEquals("moodType must not be null", result.getResults().get(1).getError());
+        assertEquals(11L, result.getResults().get(2).getMood().getId());
+        assertEquals(MoodBatchResponse.ItemResult.Status.REJECTED, result.getResults().get(3).getStatus());
+        
+        verify(entityManager).flush();
+        verify(moodRollupService).rebuildRollup(testUser);
+        verify(eventPublisher, times(2)).publishEvent(any(MoodLoggedEvent.class));
+        verify(moodRollupService, never()).recordMoodAdded(any(Mood.class));
+    }
+    
+    @Test
+    void testAddMoods_NothingValid() {
+        // Arrange
+        ReflectionTestUtils.setField(moodService, "validator",
+            Validation.buildDefaultValidatorFactory().getValidator());
+        
+        // Act
+        MoodBatchResponse result = moodService.addMoods(Arrays.asList(new MoodRequest(), null), testUser);
+        
+        // Assert
+        assertEquals(0, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertEquals("Mood entry is required", result.getResults().get(1).getError());
+        verify(moodRepository, never()).saveAll(anyList());
+        verify(moodRollupService, never()).rebuildRollup(any(User.class));
+    }
+    
+    @Test
+    void testGetMoodHistory_Success() {
+        // Arrange
+        MoodResponse mood1 = new MoodResponse(1L, Mood.MoodType.HAPPY, "Happy mood", testTime, "testuser");
+        MoodResponse mood2 = new MoodResponse(2L, Mood.MoodType.SAD, "Sad mood", testTime.minusHours(1), "testuser");
         
-        List<Mood> moods = Arrays.asList(mood1, mood2);
-        when(moodRepository.findByUserOrderByTimestampDesc(testUser)).thenReturn(moods);
+        List<MoodResponse> moods = Arrays.asList(mood1, mood2);
+        when(moodRepository.findResponsesByUser(testUser)).thenReturn(moods);
         
         // Act
         List<MoodResponse> result = moodService.getMoodHistory(testUser);
@@ -115,13 +203,13 @@ class MoodServiceTest {
         assertEquals(mood1.getMoodType(), result.get(0).getMoodType());
         assertEquals(mood2.getMoodType(), result.get(1).getMoodType());
         
-        verify(moodRepository).findByUserOrderByTimestampDesc(testUser);
+        verify(moodRepository).findResponsesByUser(testUser);
     }
     
     @Test
     void testGetMoodHistory_EmptyList() {
         // Arrange
-        when(moodRepository.findByUserOrderByTimestampDesc(testUser)).thenReturn(Arrays.asList());
+        when(moodRepository.findResponsesByUser(testUser)).thenReturn(Arrays.asList());
         
         // Act
         List<MoodResponse> result = moodService.getMoodHistory(testUser);
@@ -130,7 +218,76 @@ class MoodServiceTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
         
-        verify(moodRepository).findByUserOrderByTimestampDesc(testUser);
+        verify(moodRepository).findResponsesByUser(testUser);
+    }
+    
+    @Test
+    void testGetMoodHistoryPage_FollowsCursor() {
+        // Arrange
+        Mood mood1 = new Mood(Mood.MoodType.HAPPY, "Newest", testUser);
+        mood1.setId(3L);
+        mood1.setTimestamp(testTime);
+        
+        Mood mood2 = new Mood(Mood.MoodType.SAD, "Same instant, lower id", testUser);
+        mood2.setId(2L);
+        mood2.setTimestamp(testTime);
+        
+        Mood mood3 = new Mood(Mood.MoodType.CONTENT, "Oldest", testUser);
+        mood3.setId(1L);
+        mood3.setTimestamp(testTime.minusHours(1));
+        
+        when(moodRepository.findHistoryPage(eq(testUser), any(Pageable.class)))
+                .thenReturn(Arrays.asList(mood1, mood2, mood3));
+        when(moodRepository.findHistoryPageAfter(eq(testUser), eq(testTime), eq(2L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(mood3));
+        
+        // Act
+        MoodHistoryPage first = moodService.getMoodHistoryPage(testUser, null, 2);
+        MoodHistoryPage second = moodService.getMoodHistoryPage(testUser, first.getNextCursor(), 2);
+        
+        // Assert
+        assertEquals(2, first.getMoods().size());
+        assertTrue(first.isHasMore());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, second.getMoods().size());
+        assertEquals(1L, second.getMoods().get(0).getId());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        
+        verify(moodRepository).findHistoryPage(testUser, PageRequest.of(0, 3));
+    }
+    
+    @Test
+    void testGetMoodHistoryPage_InvalidCursor() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> moodService.getMoodHistoryPage(testUser, "not-a-cursor", 10));
+        verify(moodRepository, never()).findHistoryPageAfter(any(), any(), any(), any());
+    }
+    
+    @Test
+    void testWriteMoodHistoryNdjson_ReadsInKeysetPages() throws Exception {
+        // Arrange - a full first page, so a second one is read after its last mood
+        ReflectionTestUtils.setField(moodService, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        List<MoodResponse> firstPage = new ArrayList<>();
+        for (long id = 501; id > 1; id--) {
+            firstPage.add(new MoodResponse(id, Mood.MoodType.HAPPY, null, testTime.minusMinutes(501 - id), "testuser"));
+        }
+        LocalDateTime lastTimestamp = firstPage.get(499).getTimestamp();
+        when(moodRepository.findResponsesPage(testUser, PageRequest.of(0, 500))).thenReturn(firstPage);
+        when(moodRepository.findResponsesPageAfter(testUser, lastTimestamp, 2L, PageRequest.of(0, 500)))
+                .thenReturn(List.of(new MoodResponse(1L, Mood.MoodType.SAD, "Oldest", lastTimestamp, "testuser")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // Act
+        moodService.writeMoodHistoryNdjson(testUser, out);
+        
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(501, lines.length);
+        assertTrue(lines[0].contains("\"id\":501"));
+        assertTrue(lines[500].contains("\"notes\":\"Oldest\""));
+        verify(moodRepository, times(1)).findResponsesPageAfter(any(), any(), any(), any());
     }
     
     @Test
@@ -139,12 +296,10 @@ class MoodServiceTest {
         LocalDateTime startDate = testTime.minusDays(7);
         LocalDateTime endDate = testTime;
         
-        Mood mood1 = new Mood(Mood.MoodType.HAPPY, "Happy mood", testUser);
-        mood1.setId(1L);
-        mood1.setTimestamp(testTime.minusDays(1));
+        MoodResponse mood1 = new MoodResponse(1L, Mood.MoodType.HAPPY, "Happy mood", testTime.minusDays(1), "testuser");
         
-        List<Mood> moods = Arrays.asList(mood1);
-        when(moodRepository.findByUserAndTimestampBetweenOrderByTimestampDesc(testUser, startDate, endDate))
+        List<MoodResponse> moods = Arrays.asList(mood1);
+        when(moodRepository.findResponsesByUserBetween(testUser, startDate, endDate))
                 .thenReturn(moods);
         
         // Act
@@ -155,18 +310,16 @@ class MoodServiceTest {
         assertEquals(1, result.size());
         assertEquals(mood1.getMoodType(), result.get(0).getMoodType());
         
-        verify(moodRepository).findByUserAndTimestampBetweenOrderByTimestampDesc(testUser, startDate, endDate);
+        verify(moodRepository).findResponsesByUserBetween(testUser, startDate, endDate);
     }
     
     @Test
     void testGetRecentMoods_Success() {
         // Arrange
-        Mood mood1 = new Mood(Mood.MoodType.EXCITED, "Recent mood", testUser);
-        mood1.setId(1L);
-        mood1.setTimestamp(testTime);
+        MoodResponse mood1 = new MoodResponse(1L, Mood.MoodType.EXCITED, "Recent mood", testTime, "testuser");
         
-        List<Mood> moods = Arrays.asList(mood1);
-        when(moodRepository.findTop10ByUserOrderByTimestampDesc(testUser)).thenReturn(moods);
+        List<MoodResponse> moods = Arrays.asList(mood1);
+        when(moodRepository.findRecentResponsesByUser(testUser, PageRequest.of(0, 10))).thenReturn(moods);
         
         // Act
         List<MoodResponse> result = moodService.getRecentMoods(testUser);
@@ -176,7 +329,7 @@ class MoodServiceTest {
         assertEquals(1, result.size());
         assertEquals(mood1.getMoodType(), result.get(0).getMoodType());
         
-        verify(moodRepository).findTop10ByUserOrderByTimestampDesc(testUser);
+        verify(moodRepository).findRecentResponsesByUser(testUser, PageRequest.of(0, 10));
     }
     
     @Test
@@ -291,6 +444,8 @@ class MoodServiceTest {
         
         verify(moodRepository).findById(1L);
         verify(moodRepository).delete(testMood);
+        verify(moodRollupService).recordMoodDeleted(testMood);
+        verify(eventPublisher).publishEvent(any(MoodDeletedEvent.class));
     }
     
     @Test
@@ -321,6 +476,7 @@ class MoodServiceTest {
         
         verify(moodRepository).findById(1L);
         verify(moodRepository, never()).delete(any(Mood.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
     
     @Test
@@ -347,6 +503,8 @@ class MoodServiceTest {
         
         verify(moodRepository).findById(1L);
         verify(moodRepository).save(any(Mood.class));
+        verify(moodRollupService).recordMoodUpdated(updatedMood, Mood.MoodType.HAPPY);
+        verify(eventPublisher).publishEvent(any(MoodUpdatedEvent.class));
     }
     
     @Test
@@ -0,0 +1,163 @@
+package com.moodtracking.services;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.dto.MoodResponse;
+import com.moodtracking.models.Mood.MoodType;
+
+class MoodVectorStoreTest {
+
+    private static final double DELTA = 1e-9;
+
+    private MoodVectorStore moodVectorStore;
+    private LocalDateTime start;
+    private AtomicInteger loads;
+    private AtomicLong ids;
+
+    @BeforeEach
+    void setUp() {
+        moodVectorStore = new MoodVectorStore();
+        ReflectionTestUtils.setField(moodVectorStore, "halfLifeHours", 24.0);
+        ReflectionTestUtils.setField(moodVectorStore, "maxSize", 2);
+        moodVectorStore.init();
+
+        start = LocalDateTime.of(2024, 3, 15, 10, 0);
+        loads = new AtomicInteger();
+        ids = new AtomicLong();
+    }
+
+    private Supplier<List<MoodResponse>> loader(MoodResponse... newestFirst) {
+        return () -> {
+            loads.incrementAndGet();
+            return Arrays.asList(newestFirst);
+        };
+    }
+
+    private MoodResponse mood(MoodType moodType, LocalDateTime timestamp) {
+        return new MoodResponse(ids.incrementAndGet(), moodType, null, timestamp, "testuser");
+    }
+
+    @Test
+    void testLoad_DecaysOlderMoodsByHalfLife() {
+        // Act
+        double[] weights = moodVectorStore.getWeights(1L, loader(
+            mood(MoodType.HAPPY, start.plusHours(48)),
+            mood(MoodType.SAD, start.plusHours(24)),
+            mood(MoodType.SAD, start)));
+
+        // Assert - one day old counts half, two days old a quarter
+        assertEquals(1.0, weights[MoodType.HAPPY.ordinal()], DELTA);
+        assertEquals(0.75, weights[MoodType.SAD.ordinal()], DELTA);
+        assertEquals(0.0, weights[MoodType.ANGRY.ordinal()], DELTA);
+    }
+
+    @Test
+    void testRecord_UpdatesLoadedVectorWithoutReloading() {
+        // Arrange
+        moodVectorStore.getWeights(1L, loader(mood(MoodType.SAD, start)));
+
+        // Act
+        moodVectorStore.record(1L, 100L, MoodType.HAPPY, start.plusHours(24));
+        moodVectorStore.record(1L, 101L, MoodType.ANGRY, start.minusHours(24));
+        double[] weights = moodVectorStore.getWeights(1L, loader());
+
+        // Assert - a backdated mood counts for what it has decayed to
+        assertEquals(1, loads.get());
+        assertEquals(0.5, weights[MoodType.SAD.ordinal()], DELTA);
+        assertEquals(1.0, weights[MoodType.HAPPY.ordinal()], DELTA);
+        assertEquals(0.25, weights[MoodType.ANGRY.ordinal()], DELTA);
+    }
+
+    @Test
+    void testRecord_SkipsUsersNotLoaded() {
+        // Act
+        moodVectorStore.record(1L, 100L, MoodType.HAPPY, start);
+        double[] weights = moodVectorStore.getWeights(1L, loader());
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(0.0, weights[MoodType.HAPPY.ordinal()], DELTA);
+    }
+
+    @Test
+    void testRecord_SkipsMoodsTheVectorWasLoadedWith() {
+        // Arrange - the load already read the mood whose event arrives afterwards
+        MoodResponse logged = mood(MoodType.HAPPY, start);
+        moodVectorStore.getWeights(1L, loader(logged));
+        
+        // Act
+        moodVectorStore.record(1L, logged.getId(), MoodType.HAPPY, start);
+        double[] weights = moodVectorStore.getWeights(1L, loader());
+        
+        // Assert
+        assertEquals(1.0, weights[MoodType.HAPPY.ordinal()], DELTA);
+    }
+    
+    @Test
+    void testRecord_DuringLoadDiscardsTheLoadedVector() {
+        // Act - the load read the history before the new mood committed
+        double[] stale = moodVectorStore.getWeights(1L, () -> {
+            loads.incrementAndGet();
+            moodVectorStore.record(1L, 100L, MoodType.HAPPY, start);
+            return Collections.singletonList(mood(MoodType.SAD, start));
+        });
+        moodVectorStore.getWeights(1L, loader(mood(MoodType.SAD, start), mood(MoodType.HAPPY, start)));
+        
+        // Assert - answered once, then reloaded rather than cached without the mood
+        assertEquals(1.0, stale[MoodType.SAD.ordinal()], DELTA);
+        assertEquals(2, loads.get());
+    }
+    
+    @Test
+    void testGetWeights_ReturnsCopies() {
+        // Arrange
+        moodVectorStore.getWeights(1L, loader(mood(MoodType.HAPPY, start)));
+
+        // Act
+        moodVectorStore.getWeights(1L, loader())[MoodType.HAPPY.ordinal()] = 99;
+
+        // Assert
+        assertEquals(1.0, moodVectorStore.getWeights(1L, loader())[MoodType.HAPPY.ordinal()], DELTA);
+    }
+
+    @Test
+    void testEvict_ReloadsOnNextRequest() {
+        // Arrange
+        moodVectorStore.getWeights(1L, loader(mood(MoodType.HAPPY, start)));
+
+        // Act
+        moodVectorStore.evict(1L);
+        double[] weights = moodVectorStore.getWeights(1L, loader(mood(MoodType.TIRED, start)));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0.0, weights[MoodType.HAPPY.ordinal()], DELTA);
+        assertEquals(1.0, weights[MoodType.TIRED.ordinal()], DELTA);
+    }
+
+    @Test
+    void testMaxSize_DropsLeastRecentlyUsedUser() {
+        // Act
+        moodVectorStore.getWeights(1L, () -> Collections.emptyList());
+        moodVectorStore.getWeights(2L, () -> Collections.emptyList());
+        moodVectorStore.getWeights(1L, loader());
+        moodVectorStore.getWeights(3L, () -> Collections.emptyList());
+        moodVectorStore.getWeights(1L, loader());
+        moodVectorStore.getWeights(2L, loader());
+
+        // Assert - user 1 stayed cached, user 2 was dropped and reloaded
+        assertEquals(2, moodVectorStore.size());
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,147 @@
+package com.moodtracking.services;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moodtracking.dto.MoodRequest;
+import com.moodtracking.dto.MoodResponse;
+import com.moodtracking.models.Mood;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.UserRepository;
+
+import jakarta.validation.Validator;
+
+/**
+ * Drives MoodService's writes through real transactions (in-memory H2) and checks that
+ * the state derived from moods only changes once a write commits, never for one that
+ * rolls back.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@Import({MoodService.class, MoodEventProcessor.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MoodWriteAfterCommitTest {
+
+    @Autowired
+    private MoodService moodService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private AnalyticsResponseCache analyticsResponseCache;
+
+    @MockBean
+    private MoodVectorStore moodVectorStore;
+
+    @MockBean
+    private MoodRollupService moodRollupService;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private Validator validator;
+
+    private TransactionTemplate transactionTemplate;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        User user = new User();
+        user.setUsername("committer");
+        user.setName("Committer");
+        user.setEmail("committer@example.com");
+        user.setPassword("encodedPassword");
+        testUser = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM moods");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void testMoodWrites_EvictAnalyticsOnlyOnceCommitted() {
+        // Act - add, then update, import and delete in one transaction
+        MoodResponse added = transactionTemplate.execute(status -> {
+            MoodResponse response = moodService.addMood(new MoodRequest(Mood.MoodType.HAPPY, null), testUser);
+            verifyNoInteractions(analyticsResponseCache);
+            return response;
+        });
+        verify(analyticsResponseCache).evict(testUser.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(moodService.updateMood(added.getId(), new MoodRequest(Mood.MoodType.SAD, null), testUser)
+                .isPresent());
+            moodService.addMoods(List.of(new MoodRequest(Mood.MoodType.CONTENT, null)), testUser);
+            assertTrue(moodService.deleteMood(added.getId(), testUser));
+            verify(analyticsResponseCache, times(1)).evict(testUser.getId());
+        });
+
+        // Assert
+        verify(analyticsResponseCache, times(4)).evict(testUser.getId());
+    }
+
+    @Test
+    void testMoodWrites_LeaveAnalyticsCachedWhenRolledBack() {
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            moodService.addMood(new MoodRequest(Mood.MoodType.HAPPY, null), testUser);
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        verifyNoInteractions(analyticsResponseCache);
+    }
+
+    @Test
+    void testAddMood_RecordsTheMoodVectorOnlyOnceCommitted() {
+        // Act - one add rolled back, then one committed
+        transactionTemplate.executeWithoutResult(status -> {
+            moodService.addMood(new MoodRequest(Mood.MoodType.SAD, null), testUser);
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            moodService.addMood(new MoodRequest(Mood.MoodType.HAPPY, null), testUser);
+            verifyNoInteractions(moodVectorStore);
+        });
+
+        // Assert - the worker applies events in commit order, so the rolled-back one is never coming
+        verify(moodVectorStore, timeout(5000)).record(eq(testUser.getId()), any(Long.class), eq(Mood.MoodType.HAPPY),
+            any());
+        verify(moodVectorStore, never()).record(any(), any(), eq(Mood.MoodType.SAD), any());
+    }
+}
@@ -2,22 +2,29 @@ package com.moodtracking.services;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.moodtracking.dto.MoodResponse;
 import com.moodtracking.dto.MovieRecommendation;
 import com.moodtracking.dto.SongRecommendation;
@@ -39,6 +46,12 @@ class RecommendationServiceTest {
     
     @BeforeEach
     void setUp() {
+        MoodVectorStore moodVectorStore = new MoodVectorStore();
+        ReflectionTestUtils.setField(moodVectorStore, "halfLifeHours", 24.0);
+        ReflectionTestUtils.setField(moodVectorStore, "maxSize", 100);
+        moodVectorStore.init();
+        ReflectionTestUtils.setField(recommendationService, "moodVectorStore", moodVectorStore);
+        
         testUser = new User();
         testUser.setId(1L);
         testUser.setUsername("testuser");
@@ -251,10 +264,10 @@ class RecommendationServiceTest {
         when(moodService.getRecentMoods(testUser)).thenReturn(recentMoods);
         
         // Act
-        Mood.MoodType result = recommendationService.getMostRecentMoodType(testUser);
+        Mood.MoodType result = recommendationService.getDominantMoodType(testUser);
         
         // Assert
-        assertEquals(Mood.MoodType.HAPPY, result, "Should return the most recent mood type");
+        assertEquals(Mood.MoodType.HAPPY, result, "Should return the mood weighing most, recent moods counting for more");
         verify(moodService).getRecentMoods(testUser);
     }
     
@@ -264,7 +277,7 @@ class RecommendationServiceTest {
         when(moodService.getRecentMoods(testUser)).thenReturn(Arrays.asList());
         
         // Act
-        Mood.MoodType result = recommendationService.getMostRecentMoodType(testUser);
+        Mood.MoodType result = recommendationService.getDominantMoodType(testUser);
         
         // Assert
         assertNull(result, "Should return null when no recent moods");
@@ -277,7 +290,7 @@ class RecommendationServiceTest {
         when(moodService.getRecentMoods(testUser)).thenThrow(new RuntimeException("Database error"));
         
         // Act
-        Mood.MoodType result = recommendationService.getMostRecentMoodType(testUser);
+        Mood.MoodType result = recommendationService.getDominantMoodType(testUser);
         
         // Assert
         assertNull(result, "Should return null when service throws exception");
@@ -319,4 +332,80 @@ class RecommendationServiceTest {
             assertNotNull(movies, "Movie recommendations should not be null for " + moodType);
         }
     }
+    
+    @Test
+    void testGetRecommendationResponse_RequestedMoodIsPreSerialized() throws Exception {
+        // Act
+        RecommendationCatalog.CachedResponse first = recommendationService.getRecommendationResponse(
+            RecommendationCatalog.Kind.SONGS, Mood.MoodType.HAPPY, testUser);
+        RecommendationCatalog.CachedResponse second = recommendationService.getRecommendationResponse(
+            RecommendationCatalog.Kind.SONGS, Mood.MoodType.HAPPY, testUser);
+        JsonNode json = new ObjectMapper().readTree(first.getBody());
+        
+        // Assert - the same bytes every time, and no mood lookup when the mood is given
+        assertSame(first, second);
+        assertEquals("HAPPY", json.get("basedOnMood").asText());
+        assertEquals("Song recommendations based on happy mood", json.get("message").asText());
+        assertEquals(recommendationService.getSongRecommendations(Mood.MoodType.HAPPY).size(), json.get("songs").size());
+        assertTrue(json.get("movies").isNull());
+        verify(moodService, never()).getRecentMoods(testUser);
+    }
+    
+    @Test
+    void testGetRecommendationResponse_RanksByRecentMoodOrFallsBackToGeneral() throws Exception {
+        // Arrange
+        User newUser = new User();
+        newUser.setId(2L);
+        newUser.setUsername("newuser");
+        when(moodService.getRecentMoods(testUser)).thenReturn(Arrays.asList(sadMoodResponse));
+        when(moodService.getRecentMoods(newUser)).thenReturn(Collections.emptyList());
+        
+        // Act
+        RecommendationCatalog.CachedResponse recent = recommendationService.getRecommendationResponse(
+            RecommendationCatalog.Kind.ALL, null, testUser);
+        RecommendationCatalog.CachedResponse general = recommendationService.getRecommendationResponse(
+            RecommendationCatalog.Kind.ALL, null, newUser);
+        JsonNode recentJson = new ObjectMapper().readTree(recent.getBody());
+        JsonNode generalJson = new ObjectMapper().readTree(general.getBody());
+        
+        // Assert
+        assertEquals("Recommendations based on your recent sad mood", recentJson.get("message").asText());
+        assertEquals("SAD", recentJson.get("basedOnMood").asText());
+        assertEquals("Someone Like You", recentJson.get("songs").get(0).get("title").asText());
+        assertEquals(5, recentJson.get("songs").size());
+        assertEquals(5, recentJson.get("movies").size());
+        assertTrue(generalJson.get("basedOnMood").isNull());
+        assertEquals(3, generalJson.get("songs").size());
+        assertEquals(3, generalJson.get("movies").size());
+        assertNotEquals(recent.getETag(), general.getETag());
+    }
+    
+    @Test
+    void testGetRecommendationResponse_BlendsMoodsAndFollowsNewMoods() throws Exception {
+        // Arrange - mostly sad lately, with one happy mood a day ago
+        MoodResponse olderHappy = new MoodResponse(3L, Mood.MoodType.HAPPY, null,
+            LocalDateTime.now().minusDays(1), "testuser");
+        when(moodService.getRecentMoods(testUser)).thenReturn(Arrays.asList(sadMoodResponse, olderHappy));
+        
+        // Act
+        List<SongRecommendation> blended = recommendationService.getSongRecommendationsForUser(testUser);
+        RecommendationCatalog.CachedResponse before = recommendationService.getRecommendationResponse(
+            RecommendationCatalog.Kind.SONGS, null, testUser);
+        MoodVectorStore moodVectorStore =
+            (MoodVectorStore) ReflectionTestUtils.getField(recommendationService, "moodVectorStore");
+        moodVectorStore.record(testUser.getId(), 10L, Mood.MoodType.HAPPY, LocalDateTime.now());
+        moodVectorStore.record(testUser.getId(), 11L, Mood.MoodType.HAPPY, LocalDateTime.now());
+        RecommendationCatalog.CachedResponse after = recommendationService.getRecommendationResponse(
+            RecommendationCatalog.Kind.SONGS, null, testUser);
+        JsonNode afterJson = new ObjectMapper().readTree(after.getBody());
+        
+        // Assert - ranked from both moods, and new moods count without reloading history
+        assertEquals("Someone Like You", blended.get(0).getTitle());
+        assertTrue(blended.stream().anyMatch(song -> song.getTitle().equals("Happy")));
+        assertEquals("HAPPY", afterJson.get("basedOnMood").asText());
+        assertEquals("Happy", afterJson.get("songs").get(0).get("title").asText());
+        assertTrue(afterJson.get("movies").isNull());
+        assertNotEquals(before.getETag(), after.getETag());
+        verify(moodService).getRecentMoods(testUser);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,255 @@
+package com.moodtracking.services;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.dto.DueTask;
+import com.moodtracking.dto.ScheduledReminder;
+import com.moodtracking.models.NotificationReminder.ReminderFrequency;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderDispatcherTest {
+    
+    @Mock
+    private ReminderSchedule reminderSchedule;
+    
+    @Mock
+    private TaskDueSchedule taskDueSchedule;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @InjectMocks
+    private ReminderDispatcher reminderDispatcher;
+    
+    private InMemoryReminderSender reminderSender;
+    private Instant fireAt;
+    
+    @BeforeEach
+    void setUp() {
+        fireAt = Instant.parse("2024-03-15T13:00:00Z");
+        reminderSender = new InMemoryReminderSender();
+        ReflectionTestUtils.setField(reminderDispatcher, "reminderSender", reminderSender);
+        ReflectionTestUtils.setField(reminderDispatcher, "threads", 2);
+        ReflectionTestUtils.setField(reminderDispatcher, "queueCapacity", 10);
+        ReflectionTestUtils.setField(reminderDispatcher, "batchSize", 2);
+        ReflectionTestUtils.setField(reminderDispatcher, "sendTimeoutMs", 5000L);
+        reminderDispatcher.init();
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        reminderDispatcher.shutdown();
+    }
+    
+    private ScheduledReminder reminder(long id, String timezone, Instant at) {
+        return new ScheduledReminder(id, "user" + id, "Check in", ReminderFrequency.DAILY, LocalTime.of(9, 0), timezone, null)
+            .withFireAt(at);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatch_ShouldSendBucketsByInstantAndZoneAndRecordInOneBatch() {
+        // Arrange - 09:00 in New York and 13:00 in London are the same instant
+        List<ScheduledReminder> due = List.of(
+            reminder(1L, "America/New_York", fireAt),
+            reminder(2L, "Europe/London", fireAt),
+            reminder(3L, "America/New_York", fireAt),
+            reminder(4L, "America/New_York", fireAt),
+            reminder(5L, "America/New_York", fireAt.minusSeconds(30)));
+        
+        // Act
+        int sent = reminderDispatcher.dispatch(due);
+        
+        // Assert - New York at fireAt is split into batches of two; the late reminder goes first
+        assertEquals(5, sent);
+        List<List<Long>> batches = new ArrayList<>();
+        for (List<ScheduledReminder> batch : reminderSender.getBatches()) {
+            batches.add(batch.stream().map(ScheduledReminder::getReminderId).collect(Collectors.toList()));
+        }
+        assertEquals(4, batches.size());
+        assertTrue(batches.contains(List.of(5L)));
+        assertTrue(batches.contains(List.of(1L, 3L)));
+        assertTrue(batches.contains(List.of(4L)));
+        assertTrue(batches.contains(List.of(2L)));
+        
+        ArgumentCaptor<Collection<ScheduledReminder>> recorded = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), recorded.capture(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(5, recorded.getValue().size());
+        verify(reminderSchedule, times(5)).markSent(any(ScheduledReminder.class), any(LocalDateTime.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatch_ShouldNotRecordFailedBucketsButStillReschedule() {
+        // Arrange
+        ReflectionTestUtils.setField(reminderDispatcher, "reminderSender", failingSender());
+        List<ScheduledReminder> due = List.of(reminder(1L, "UTC", fireAt), reminder(2L, "UTC", fireAt));
+        
+        // Act
+        int sent = reminderDispatcher.dispatch(due);
+        
+        // Assert
+        assertEquals(0, sent);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        verify(reminderSchedule, times(2)).markSent(any(ScheduledReminder.class), any(LocalDateTime.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatch_ShouldGiveUpOnHungSendsAfterTheTimeout() {
+        // Arrange - the sender never returns
+        ReflectionTestUtils.setField(reminderDispatcher, "sendTimeoutMs", 200L);
+        CountDownLatch released = new CountDownLatch(1);
+        ReflectionTestUtils.setField(reminderDispatcher, "reminderSender", hungSender(released));
+        List<ScheduledReminder> due = List.of(reminder(1L, "UTC", fireAt), reminder(2L, "Europe/London", fireAt),
+            reminder(3L, "Asia/Tokyo", fireAt));
+        
+        // Act
+        long started = System.nanoTime();
+        int sent = reminderDispatcher.dispatch(due);
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        released.countDown();
+        
+        // Assert - one deadline for the tick, not one per batch
+        assertEquals(0, sent);
+        assertTrue(waitedMs < 2000, "waited " + waitedMs + " ms");
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        verify(reminderSchedule, times(3)).markSent(any(ScheduledReminder.class), any(LocalDateTime.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatchDueTasks_ShouldSendInBatchesAndRecordTheSentTasks() {
+        // Arrange
+        LocalDateTime dueDate = LocalDateTime.of(2024, 3, 15, 14, 0);
+        List<DueTask> due = List.of(dueTask(1L, dueDate), dueTask(2L, dueDate), dueTask(3L, dueDate.plusMinutes(5)));
+        
+        // Act
+        int sent = reminderDispatcher.dispatchDueTasks(due);
+        
+        // Assert
+        assertEquals(3, sent);
+        assertEquals(3, reminderSender.getSentDueTasks().size());
+        ArgumentCaptor<Collection<DueTask>> recorded = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(contains("UPDATE tasks"), recorded.capture(), eq(2),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(3, recorded.getValue().size());
+        verify(taskDueSchedule, times(3)).markNotified(any(DueTask.class), any(LocalDateTime.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatchDueTasks_ShouldNotRecordFailedBatches() {
+        // Arrange
+        ReflectionTestUtils.setField(reminderDispatcher, "reminderSender", failingSender());
+        
+        // Act
+        int sent = reminderDispatcher.dispatchDueTasks(List.of(dueTask(1L, LocalDateTime.of(2024, 3, 15, 14, 0))));
+        
+        // Assert
+        assertEquals(0, sent);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        verify(taskDueSchedule, never()).markNotified(any(DueTask.class), any(LocalDateTime.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatchDueTasks_ShouldGiveUpOnHungSendsAfterTheTimeout() {
+        // Arrange - the sender never returns
+        ReflectionTestUtils.setField(reminderDispatcher, "sendTimeoutMs", 200L);
+        CountDownLatch released = new CountDownLatch(1);
+        ReflectionTestUtils.setField(reminderDispatcher, "reminderSender", hungSender(released));
+        LocalDateTime dueDate = LocalDateTime.of(2024, 3, 15, 14, 0);
+        List<DueTask> due = List.of(dueTask(1L, dueDate), dueTask(2L, dueDate), dueTask(3L, dueDate));
+        
+        // Act
+        long started = System.nanoTime();
+        int sent = reminderDispatcher.dispatchDueTasks(due);
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        released.countDown();
+        
+        // Assert
+        assertEquals(0, sent);
+        assertTrue(waitedMs < 2000, "waited " + waitedMs + " ms");
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        verify(taskDueSchedule, never()).markNotified(any(DueTask.class), any(LocalDateTime.class));
+    }
+    
+    private DueTask dueTask(long id, LocalDateTime dueDate) {
+        return new DueTask(id, 1L, "testuser", "Task " + id, "work", "high", dueDate, null);
+    }
+    
+    private ReminderSender hungSender(CountDownLatch released) {
+        return new ReminderSender() {
+            @Override
+            public void send(List<ScheduledReminder> reminders) {
+                awaitUninterruptibly(released);
+            }
+            
+            @Override
+            public void sendDueTasks(List<DueTask> tasks) {
+                awaitUninterruptibly(released);
+            }
+        };
+    }
+    
+    // Ignores the cancellation, like a sender stuck in a blocking call
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                // keep waiting
+            }
+        }
+    }
+    
+    private ReminderSender failingSender() {
+        return new ReminderSender() {
+            @Override
+            public void send(List<ScheduledReminder> reminders) {
+                throw new IllegalStateException("provider unavailable");
+            }
+            
+            @Override
+            public void sendDueTasks(List<DueTask> tasks) {
+                throw new IllegalStateException("provider unavailable");
+            }
+        };
+    }
+}
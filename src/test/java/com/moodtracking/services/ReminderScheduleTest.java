@@ -0,0 +1,127 @@
+package com.moodtracking.services;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.dto.ScheduledReminder;
+import com.moodtracking.models.NotificationReminder.ReminderFrequency;
+
+class ReminderScheduleTest {
+    
+    private ReminderSchedule reminderSchedule;
+    private Instant start;
+    
+    @BeforeEach
+    void setUp() {
+        // Friday 2024-03-15 10:00 UTC
+        start = Instant.parse("2024-03-15T10:00:00Z");
+        reminderSchedule = new ReminderSchedule();
+        ReflectionTestUtils.setField(reminderSchedule, "tickMs", 100L);
+        setTime(start);
+        reminderSchedule.init();
+    }
+    
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(reminderSchedule, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+    
+    private ScheduledReminder reminder(long id, ReminderFrequency frequency, String time, String timezone,
+                                       LocalDateTime lastSentAt) {
+        return new ScheduledReminder(id, "testuser", "Check in", frequency, LocalTime.parse(time), timezone, lastSentAt);
+    }
+    
+    @Test
+    void nextFireAt_ShouldUseTheRemindersTimezone() {
+        // 09:00 in New York is 13:00 UTC during daylight time
+        ScheduledReminder reminder = reminder(1L, ReminderFrequency.DAILY, "09:00", "America/New_York", null);
+        
+        Instant fireAt = ReminderSchedule.nextFireAt(reminder, start, ZoneOffset.UTC);
+        
+        assertEquals(Instant.parse("2024-03-15T13:00:00Z"), fireAt);
+    }
+    
+    @Test
+    void nextFireAt_ShouldSkipDaysTheFrequencyExcludes() {
+        // Friday 11:00 UTC has passed in Tokyo (20:00 local), so the next weekday is Monday
+        ScheduledReminder weekdays = reminder(1L, ReminderFrequency.WEEKDAYS, "11:00", "Asia/Tokyo", null);
+        ScheduledReminder weekends = reminder(2L, ReminderFrequency.WEEKENDS, "08:00", "UTC", null);
+        
+        assertEquals(Instant.parse("2024-03-18T02:00:00Z"), ReminderSchedule.nextFireAt(weekdays, start, ZoneOffset.UTC));
+        assertEquals(Instant.parse("2024-03-16T08:00:00Z"), ReminderSchedule.nextFireAt(weekends, start, ZoneOffset.UTC));
+    }
+    
+    @Test
+    void nextFireAt_ShouldWaitADayOrAWeekAfterTheLastSend() {
+        LocalDateTime sentToday = LocalDateTime.parse("2024-03-15T09:59:00");
+        ScheduledReminder daily = reminder(1L, ReminderFrequency.DAILY, "10:30", "UTC", sentToday);
+        ScheduledReminder weekly = reminder(2L, ReminderFrequency.WEEKLY, "10:30", "UTC", sentToday);
+        
+        assertEquals(Instant.parse("2024-03-16T10:30:00Z"), ReminderSchedule.nextFireAt(daily, start, ZoneOffset.UTC));
+        assertEquals(Instant.parse("2024-03-22T10:30:00Z"), ReminderSchedule.nextFireAt(weekly, start, ZoneOffset.UTC));
+    }
+    
+    @Test
+    void nextFireAt_ShouldFireReminderMissedWithinGracePeriod() {
+        ScheduledReminder justMissed = reminder(1L, ReminderFrequency.DAILY, "09:59:30", "UTC", null);
+        ScheduledReminder unknownZone = reminder(2L, ReminderFrequency.DAILY, "09:00", "Not/AZone", null);
+        
+        assertEquals(Instant.parse("2024-03-15T09:59:30Z"), ReminderSchedule.nextFireAt(justMissed, start, ZoneOffset.UTC));
+        assertEquals(Instant.parse("2024-03-16T09:00:00Z"), ReminderSchedule.nextFireAt(unknownZone, start, ZoneOffset.UTC));
+    }
+    
+    @Test
+    void nextFireAt_ShouldMoveForwardOverDaylightSavingGap() {
+        // 02:30 doesn't exist in New York on 2024-03-10
+        ScheduledReminder reminder = reminder(1L, ReminderFrequency.DAILY, "02:30", "America/New_York", null);
+        
+        Instant fireAt = ReminderSchedule.nextFireAt(reminder, Instant.parse("2024-03-10T06:00:00Z"), ZoneId.of("UTC"));
+        
+        assertEquals(Instant.parse("2024-03-10T07:30:00Z"), fireAt);
+    }
+    
+    @Test
+    void pollDueAndMarkSent_ShouldFireOnceAndRescheduleForTomorrow() {
+        // Arrange
+        reminderSchedule.replaceAll(List.of(reminder(1L, ReminderFrequency.DAILY, "10:00:05", "UTC", null)));
+        
+        // Act
+        setTime(start.plusSeconds(4));
+        List<ScheduledReminder> early = reminderSchedule.pollDue();
+        setTime(start.plusSeconds(5));
+        List<ScheduledReminder> due = reminderSchedule.pollDue();
+        reminderSchedule.markSent(due.get(0), LocalDateTime.parse("2024-03-15T10:00:05"));
+        
+        // Assert
+        assertTrue(early.isEmpty());
+        assertEquals(1, due.size());
+        assertEquals(Instant.parse("2024-03-16T10:00:05Z"), reminderSchedule.getNextFireAt(1L).get());
+    }
+    
+    @Test
+    void markSent_ShouldNotRestoreReminderRemovedWhileSending() {
+        // Arrange
+        reminderSchedule.replaceAll(List.of(reminder(1L, ReminderFrequency.DAILY, "10:00", "UTC", null)));
+        List<ScheduledReminder> due = reminderSchedule.pollDue();
+        
+        // Act
+        reminderSchedule.remove(1L);
+        reminderSchedule.markSent(due.get(0), LocalDateTime.parse("2024-03-15T10:00:00"));
+        
+        // Assert
+        assertEquals(1, due.size());
+        assertFalse(reminderSchedule.getNextFireAt(1L).isPresent());
+        assertEquals(0, reminderSchedule.size());
+    }
+}
@@ -0,0 +1,120 @@
+package com.moodtracking.services;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.dto.SearchResult;
+import com.moodtracking.events.SearchDocumentEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RetentionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private RetentionService retentionService;
+
+    private MeterRegistry meterRegistry;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = LocalDateTime.of(2024, 3, 15, 2, 0);
+        ReflectionTestUtils.setField(retentionService, "conversationDays", 365);
+        ReflectionTestUtils.setField(retentionService, "notificationReminderDays", 0);
+        ReflectionTestUtils.setField(retentionService, "chunkSize", 3);
+        ReflectionTestUtils.setField(retentionService, "chunkPauseMs", 0L);
+        ReflectionTestUtils.setField(retentionService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(retentionService, "clock", Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        retentionService.init();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void purgeExpired_ShouldDeleteInIdRangeChunksUntilAShortOne() {
+        // Arrange - expired ids come back three at a time, with gaps, and their owners
+        LocalDateTime cutoff = now.minusDays(365);
+        when(jdbcTemplate.query(contains("SELECT id, user_id FROM conversations"), any(RowMapper.class), eq(0L),
+            eq(cutoff), eq(3)))
+            .thenReturn(List.of(new long[] { 1L, 7L }, new long[] { 2L, 7L }, new long[] { 5L, 8L }));
+        when(jdbcTemplate.query(contains("SELECT id, user_id FROM conversations"), any(RowMapper.class), eq(5L),
+            eq(cutoff), eq(3)))
+            .thenReturn(List.of(new long[] { 9L, 7L }));
+        when(jdbcTemplate.update(anyString(), eq(1L), eq(5L), eq(cutoff))).thenReturn(3);
+        when(jdbcTemplate.update(anyString(), eq(9L), eq(9L), eq(cutoff))).thenReturn(1);
+
+        // Act
+        long deleted = retentionService.purgeExpired();
+
+        // Assert - the disabled reminder policy never runs
+        assertEquals(4, deleted);
+        assertEquals(4.0, meterRegistry.get("retention.rows.deleted").tag("table", "conversations").counter().count());
+        assertEquals(2.0, meterRegistry.get("retention.chunks").tag("table", "conversations").counter().count());
+        verify(jdbcTemplate, never()).query(contains("notification_reminders"), any(RowMapper.class),
+            eq(0L), eq(cutoff), eq(3));
+        
+        // and each purged conversation leaves the search index
+        ArgumentCaptor<SearchDocumentEvent> events = ArgumentCaptor.forClass(SearchDocumentEvent.class);
+        verify(eventPublisher, times(4)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(event -> event.isRemoved()
+            && event.getType() == SearchResult.Type.CONVERSATION));
+        assertEquals(List.of(1L, 2L, 5L, 9L),
+            events.getAllValues().stream().map(SearchDocumentEvent::getDocumentId).toList());
+        assertEquals(List.of(7L, 7L, 8L, 7L),
+            events.getAllValues().stream().map(SearchDocumentEvent::getUserId).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void purge_ShouldStopWhenNothingHasExpired() {
+        // Arrange
+        LocalDateTime cutoff = now.minusDays(30);
+        when(jdbcTemplate.query(contains("SELECT id FROM notification_reminders"), any(RowMapper.class), eq(0L),
+            eq(cutoff), eq(3)))
+            .thenReturn(List.of());
+
+        // Act
+        long deleted = retentionService.purge(RetentionService.NOTIFICATION_REMINDERS, cutoff);
+
+        // Assert
+        assertEquals(0, deleted);
+        verify(jdbcTemplate).query(contains("is_active = false"), any(RowMapper.class), eq(0L), eq(cutoff), eq(3));
+        verifyNoMoreInteractions(jdbcTemplate);
+        verifyNoMoreInteractions(eventPublisher);
+        assertThrows(IllegalArgumentException.class, () -> retentionService.purge("users", cutoff));
+    }
+}
@@ -0,0 +1,100 @@
+package com.moodtracking.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.dto.DueTask;
+
+class TaskDueScheduleTest {
+    
+    private TaskDueSchedule taskDueSchedule;
+    private LocalDateTime now;
+    
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.of(2024, 3, 15, 10, 0);
+        taskDueSchedule = new TaskDueSchedule();
+        ReflectionTestUtils.setField(taskDueSchedule, "notifyBeforeMinutes", 60L);
+        ReflectionTestUtils.setField(taskDueSchedule, "notifyGraceMinutes", 30L);
+        setTime(now);
+        taskDueSchedule.init();
+    }
+    
+    private void setTime(LocalDateTime time) {
+        ReflectionTestUtils.setField(taskDueSchedule, "clock", Clock.fixed(time.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+    
+    private DueTask task(long id, long userId, LocalDateTime dueDate) {
+        return new DueTask(id, userId, "user" + userId, "Task " + id, "work", "medium", dueDate, null);
+    }
+    
+    private List<Long> ids(List<DueTask> tasks) {
+        return tasks.stream().map(DueTask::getTaskId).collect(Collectors.toList());
+    }
+    
+    @Test
+    void dueWithin_ShouldListTheUsersOverdueAndDueSoonTasksEarliestFirst() {
+        // Arrange
+        taskDueSchedule.replaceAll(List.of(
+            task(1L, 1L, now.plusHours(5)),
+            task(2L, 1L, now.minusDays(2)),
+            task(3L, 2L, now.plusHours(1)),
+            task(4L, 1L, now.plusDays(3)),
+            task(5L, 1L, now.plusHours(5))));
+        
+        // Act & Assert
+        assertEquals(List.of(2L, 1L, 5L), ids(taskDueSchedule.dueWithin(1L, Duration.ofHours(24))));
+        assertEquals(List.of(2L, 1L, 5L, 4L), ids(taskDueSchedule.dueWithin(1L, Duration.ofDays(3))));
+        assertEquals(List.of(3L), ids(taskDueSchedule.dueWithin(2L, Duration.ofHours(24))));
+        assertTrue(taskDueSchedule.dueWithin(3L, Duration.ofHours(24)).isEmpty());
+    }
+    
+    @Test
+    void pollDue_ShouldNotifyAheadOfTheDueDateOnceAndSkipLongMissedOnes() {
+        // Arrange - one notification missed within the grace, one long before it
+        taskDueSchedule.replaceAll(List.of(
+            task(1L, 1L, now.plusMinutes(45)),
+            task(2L, 1L, now.plusMinutes(90)),
+            task(3L, 1L, now.plusMinutes(40)),
+            task(4L, 1L, now.minusHours(3))));
+        
+        // Act & Assert
+        List<DueTask> due = taskDueSchedule.pollDue();
+        assertEquals(List.of(3L, 1L), ids(due));
+        due.forEach(task -> taskDueSchedule.markNotified(task, now));
+        assertTrue(taskDueSchedule.pollDue().isEmpty());
+        
+        setTime(now.plusMinutes(30));
+        assertEquals(List.of(2L), ids(taskDueSchedule.pollDue()));
+        assertEquals(4, taskDueSchedule.size());
+    }
+    
+    @Test
+    void schedule_ShouldReplaceTheTasksDueDateAndNotifyForTheNewOne() {
+        // Arrange
+        taskDueSchedule.replaceAll(List.of(task(1L, 1L, now.plusMinutes(30))));
+        DueTask notified = taskDueSchedule.pollDue().get(0);
+        taskDueSchedule.markNotified(notified, now);
+        
+        // Act - postponed to tomorrow, then completed
+        taskDueSchedule.schedule(task(1L, 1L, now.plusDays(1)));
+        
+        // Assert
+        assertTrue(taskDueSchedule.pollDue().isEmpty());
+        setTime(now.plusDays(1).minusMinutes(30));
+        assertEquals(List.of(1L), ids(taskDueSchedule.pollDue()));
+        taskDueSchedule.remove(1L);
+        assertEquals(0, taskDueSchedule.size());
+        assertTrue(taskDueSchedule.dueWithin(1L, Duration.ofDays(7)).isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package com.moodtracking.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.moodtracking.dto.DueTask;
+import com.moodtracking.dto.DueTaskResponse;
+import com.moodtracking.dto.TaskBulkRequest;
+import com.moodtracking.dto.TaskBulkResponse;
+import com.moodtracking.events.SearchDocumentEvent;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.TaskRepository;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class TaskServiceTest {
+    
+    @Mock
+    private TaskRepository taskRepository;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private EntityManager entityManager;
+    
+    @Mock
+    private TaskDueSchedule taskDueSchedule;
+    
+    @InjectMocks
+    private TaskService taskService;
+    
+    private User testUser;
+    
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+    }
+    
+    @Test
+    void deleteTask_ShouldDeleteWithOneStatementWithoutLoadingTheTask() {
+        // Arrange
+        when(taskRepository.deleteAllByUserAndIdIn(testUser, List.of(5L))).thenReturn(1);
+        when(taskRepository.deleteAllByUserAndIdIn(testUser, List.of(6L))).thenReturn(0);
+        
+        // Act & Assert
+        assertTrue(taskService.deleteTask(5L, testUser));
+        assertFalse(taskService.deleteTask(6L, testUser));
+        verify(taskRepository, never()).findByIdAndUser(any(), any());
+        verify(eventPublisher, times(1)).publishEvent(any(SearchDocumentEvent.class));
+        verify(taskDueSchedule).remove(5L);
+    }
+    
+    @Test
+    void bulkUpdate_ShouldDeleteDistinctIdsInOneStatement() {
+        // Arrange - one id repeated, one the user doesn't own
+        when(taskRepository.deleteAllByUserAndIdIn(testUser, List.of(1L, 2L, 3L))).thenReturn(2);
+        
+        // Act
+        TaskBulkResponse response = taskService.bulkUpdate(new TaskBulkRequest(List.of(1L, 2L, 2L, 3L), "delete"), testUser);
+        
+        // Assert
+        assertEquals(3, response.getRequested());
+        assertEquals(2, response.getAffected());
+        verify(eventPublisher, times(3)).publishEvent(any(SearchDocumentEvent.class));
+    }
+    
+    @Test
+    void bulkUpdate_ShouldRejectAnUpdateThatSetsNothing() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> taskService.bulkUpdate(new TaskBulkRequest(List.of(1L), "update"), testUser));
+        verifyNoInteractions(entityManager, taskRepository);
+    }
+    
+    @Test
+    void getDueTasks_ShouldServeTheScheduleAndFlagOverdueTasks() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(taskDueSchedule.dueWithin(1L, Duration.ofHours(24))).thenReturn(List.of(
+            new DueTask(7L, 1L, "testuser", "Pay rent", "home", "high", now.minusHours(2), null),
+            new DueTask(8L, 1L, "testuser", "Call mom", "family", "low", now.plusHours(3), null)));
+        
+        // Act
+        List<DueTaskResponse> due = taskService.getDueTasks(testUser, Duration.ofHours(24));
+        
+        // Assert
+        assertEquals(2, due.size());
+        assertTrue(due.get(0).isOverdue());
+        assertFalse(due.get(1).isOverdue());
+        verifyNoInteractions(taskRepository);
+        assertThrows(IllegalArgumentException.class, () -> taskService.getDueTasks(testUser, Duration.ofHours(-1)));
+    }
+    
+    @Test
+    void findTasks_ShouldRejectUnknownSortFieldsAndDirections() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> taskService.findTasks(testUser, null, null, null, null, null, "user", 0, 20));
+        assertThrows(IllegalArgumentException.class,
+            () -> taskService.findTasks(testUser, null, null, null, null, null, "dueDate,up", 0, 20));
+        verifyNoInteractions(taskRepository);
+    }
+}
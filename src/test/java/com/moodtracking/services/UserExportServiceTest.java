@@ -0,0 +1,168 @@
+package com.moodtracking.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moodtracking.dto.ConversationDTO;
+import com.moodtracking.dto.MoodEntryResponse;
+import com.moodtracking.dto.NoteResponse;
+import com.moodtracking.dto.TaskResponse;
+import com.moodtracking.dto.UserProfileResponse;
+import com.moodtracking.models.User;
+import com.moodtracking.repositories.ConversationRepository;
+import com.moodtracking.repositories.MoodEntryRepository;
+import com.moodtracking.repositories.MoodRepository;
+import com.moodtracking.repositories.NoteRepository;
+import com.moodtracking.repositories.NotificationReminderRepository;
+import com.moodtracking.repositories.TaskRepository;
+import com.moodtracking.repositories.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private MoodRepository moodRepository;
+    
+    @Mock
+    private MoodEntryRepository moodEntryRepository;
+    
+    @Mock
+    private NoteRepository noteRepository;
+    
+    @Mock
+    private TaskRepository taskRepository;
+    
+    @Mock
+    private ConversationRepository conversationRepository;
+    
+    @Mock
+    private NotificationReminderRepository notificationReminderRepository;
+    
+    @Mock
+    private ConversationWriteBehind conversationWriteBehind;
+    
+    @Mock
+    private UserService userService;
+    
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    
+    @InjectMocks
+    private UserExportService userExportService;
+    
+    private User testUser;
+    private LocalDateTime created;
+    private Pageable page;
+    
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        created = LocalDateTime.of(2024, 3, 15, 10, 0);
+        ReflectionTestUtils.setField(userExportService, "pageSize", 2);
+        page = PageRequest.of(0, 2);
+        
+        // Notes take two pages, the second one short
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userService.getUserProfile(testUser)).thenReturn(
+            new UserProfileResponse(1L, "testuser", "Test User", "test@example.com", 25, null, created, created));
+        when(moodRepository.findResponsesPage(testUser, page)).thenReturn(List.of());
+        when(moodEntryRepository.findResponsesPage(testUser, page)).thenReturn(List.of(
+            new MoodEntryResponse(4L, 7, "Fine", created)));
+        when(noteRepository.findResponsesPage(testUser, page)).thenReturn(List.of(
+            new NoteResponse(5L, "Journal", "Slept well", "health", created, created),
+            new NoteResponse(6L, "Ideas", "Walk more", "health", created, created)));
+        when(noteRepository.findResponsesPageAfter(testUser, created, 6L, page)).thenReturn(List.of(
+            new NoteResponse(9L, "Plans", "Visit family", "family", created, created)));
+        when(taskRepository.findResponsesPage(testUser, page)).thenReturn(List.of(
+            new TaskResponse(7L, "Call", null, "family", "low", false, null, created, created)));
+        when(conversationRepository.findDtosPage(testUser, page)).thenReturn(List.of(
+            new ConversationDTO(8L, "Hello", "user", created, "session-1")));
+        when(notificationReminderRepository.findResponsesPageAfter(testUser, 0L, page)).thenReturn(List.of());
+    }
+    
+    @Test
+    void writeNdjson_ShouldWriteOneTypedLinePerRecordPageByPage() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // Act
+        userExportService.writeNdjson(testUser, out);
+        
+        // Assert - pending conversation messages are inserted before reading
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(7, lines.length);
+        JsonNode profile = objectMapper.readTree(lines[0]);
+        assertEquals("profile", profile.get("type").asText());
+        assertEquals("test@example.com", profile.get("data").get("email").asText());
+        JsonNode note = objectMapper.readTree(lines[3]);
+        assertEquals("notes", note.get("type").asText());
+        assertEquals("Ideas", note.get("data").get("title").asText());
+        assertEquals("2024-03-15T10:00:00", note.get("data").get("createdAt").asText());
+        assertEquals("Plans", objectMapper.readTree(lines[4]).get("data").get("title").asText());
+        InOrder order = inOrder(conversationWriteBehind, userRepository);
+        order.verify(conversationWriteBehind).flush();
+        order.verify(userRepository).findById(1L);
+    }
+    
+    @Test
+    void writeZip_ShouldWriteOneFilePerKindOfRecord() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // Act
+        userExportService.writeZip(testUser, out);
+        
+        // Assert
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+                String content = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                if (entry.getName().equals("notes.ndjson")) {
+                    assertEquals(3, content.split("\n").length);
+                }
+                if (entry.getName().equals("moods.ndjson")) {
+                    assertTrue(content.isEmpty());
+                }
+            }
+        }
+        assertEquals(List.of("profile.json", "moods.ndjson", "mood_entries.ndjson", "notes.ndjson", "tasks.ndjson",
+            "conversations.ndjson", "notification_reminders.ndjson"), names);
+    }
+}
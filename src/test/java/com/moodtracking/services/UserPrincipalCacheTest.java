@@ -0,0 +1,158 @@
+package com.moodtracking.services;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moodtracking.models.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserPrincipalCacheTest {
+    
+    private UserPrincipalCache userPrincipalCache;
+    private MeterRegistry meterRegistry;
+    private Instant start;
+    private User testUser;
+    private AtomicInteger loads;
+    private Function<String, Optional<User>> loader;
+    
+    @BeforeEach
+    void setUp() {
+        start = Instant.parse("2024-03-15T10:00:00Z");
+        meterRegistry = new SimpleMeterRegistry();
+        
+        userPrincipalCache = new UserPrincipalCache();
+        ReflectionTestUtils.setField(userPrincipalCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(userPrincipalCache, "maxSize", 100);
+        ReflectionTestUtils.setField(userPrincipalCache, "meterRegistry", meterRegistry);
+        setTime(start);
+        userPrincipalCache.init();
+        
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword");
+        
+        loads = new AtomicInteger();
+        loader = username -> {
+            loads.incrementAndGet();
+            return "testuser".equals(username) ? Optional.of(testUser) : Optional.empty();
+        };
+    }
+    
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(userPrincipalCache, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+    
+    private double requests(String result) {
+        return meterRegistry.get("security.principal.cache.requests").tag("result", result).functionCounter().count();
+    }
+    
+    @Test
+    void testGet_LoadsOnceThenHits() {
+        // Act
+        User first = userPrincipalCache.get("testuser", loader).orElseThrow();
+        User second = userPrincipalCache.get("testuser", loader).orElseThrow();
+        
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals("test@example.com", second.getEmail());
+        assertNotSame(first, second);
+        assertEquals(1.0, requests("hit"));
+        assertEquals(1.0, requests("miss"));
+    }
+    
+    @Test
+    void testGet_ExpiresAfterTtl() {
+        // Arrange
+        userPrincipalCache.get("testuser", loader);
+        
+        // Act
+        setTime(start.plusSeconds(61));
+        userPrincipalCache.get("testuser", loader);
+        
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0L, userPrincipalCache.getHitCount());
+        assertEquals(2L, userPrincipalCache.getMissCount());
+    }
+    
+    @Test
+    void testEvict_ReloadsChangedUser() {
+        // Arrange
+        userPrincipalCache.get("testuser", loader);
+        testUser.setEmail("updated@example.com");
+        
+        // Act
+        userPrincipalCache.evict("testuser");
+        User reloaded = userPrincipalCache.get("testuser", loader).orElseThrow();
+        
+        // Assert
+        assertEquals("updated@example.com", reloaded.getEmail());
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("security.principal.cache.evictions").functionCounter().count());
+    }
+    
+    @Test
+    void testGet_UnknownUserIsNotCached() {
+        // Act & Assert
+        assertTrue(userPrincipalCache.get("nobody", loader).isEmpty());
+        assertTrue(userPrincipalCache.get("nobody", loader).isEmpty());
+        assertEquals(2, loads.get());
+    }
+    
+    @Test
+    void testGet_ConcurrentRequestsStayWithinMaxSize() throws Exception {
+        // Arrange - three times as many users as the cache holds
+        Function<String, Optional<User>> anyUser = username -> {
+            User user = new User();
+            user.setUsername(username);
+            return Optional.of(user);
+        };
+        
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread;
+                results.add(executor.submit(() -> {
+                    boolean allFound = true;
+                    for (int i = 0; i < 3000; i++) {
+                        String username = "user" + (i * 7 + offset) % 300;
+                        allFound &= username.equals(userPrincipalCache.get(username, anyUser).orElseThrow().getUsername());
+                    }
+                    return allFound;
+                }));
+            }
+            
+            // Assert
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double size = meterRegistry.get("security.principal.cache.size").gauge().value();
+        assertTrue(size <= 100, size + " cached principals");
+    }
+}
@@ -38,6 +38,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+    
     @InjectMocks
     private UserService userService;
     
@@ -203,6 +206,7 @@ class UserServiceTest {
         assertEquals("Updated preferences", testUser.getPreferences());
         verify(userRepository).existsByEmail("updated@example.com");
         verify(userRepository).save(testUser);
+        verify(userPrincipalCache).evict("testuser");
     }
     
     @Test
@@ -250,6 +254,7 @@ class UserServiceTest {
         verify(passwordEncoder).matches("currentPassword", "encodedPassword");
         verify(passwordEncoder).encode("newPassword");
         verify(userRepository).save(testUser);
+        verify(userPrincipalCache).evict("testuser");
         assertEquals("newEncodedPassword", testUser.getPassword());
     }
     
@@ -276,6 +281,7 @@ class UserServiceTest {
         
         // Assert
         verify(userRepository).delete(testUser);
+        verify(userPrincipalCache).evict("testuser");
     }
     
     @Test
@@ -0,0 +1,91 @@
+package com.moodtracking.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+    
+    private static final long START = 1_700_000_000_000L;
+    
+    private HierarchicalTimingWheel<Integer, Integer> wheel;
+    
+    @BeforeEach
+    void setUp() {
+        wheel = new HierarchicalTimingWheel<>(100, START);
+    }
+    
+    @Test
+    void advance_ShouldFireEachTimerOnceNotBeforeItsDeadline() {
+        // Arrange - one-second ticks, deadlines spread across every level and past the wheel's span
+        wheel = new HierarchicalTimingWheel<>(1_000, START);
+        Random random = new Random(7L);
+        long[] deadlines = new long[500];
+        for (int i = 0; i < deadlines.length; i++) {
+            long horizon = i < 450 ? 8L * 24 * 3600 * 1000 : 40L * 24 * 3600 * 1000;
+            deadlines[i] = START + (long) (random.nextDouble() * horizon);
+            wheel.schedule(i, i, deadlines[i]);
+        }
+        
+        // Act - step in uneven increments, as a scheduler thread would
+        List<Integer> fired = new ArrayList<>();
+        long now = START;
+        while (now < START + 41L * 24 * 3600 * 1000) {
+            now += 1 + random.nextInt(3_600_000);
+            for (Integer id : wheel.advance(now)) {
+                // Assert
+                assertTrue(deadlines[id] <= now, "timer " + id + " fired early");
+                assertTrue(now - deadlines[id] <= 3_600_000 + 1_000, "timer " + id + " fired late");
+                fired.add(id);
+            }
+        }
+        
+        assertEquals(deadlines.length, fired.size());
+        assertEquals(deadlines.length, fired.stream().distinct().count());
+        assertEquals(0, wheel.size());
+    }
+    
+    @Test
+    void advance_ShouldFireWithinOneTickWhenStepping() {
+        // Arrange
+        wheel.schedule(1, 1, START + 65_432);
+        
+        // Act & Assert
+        assertTrue(wheel.advance(START + 65_399).isEmpty());
+        assertEquals(List.of(1), wheel.advance(START + 65_500));
+    }
+    
+    @Test
+    void scheduleAndCancel_ShouldReplaceAndDropTimers() {
+        // Arrange
+        wheel.schedule(1, 10, START + 1_000);
+        wheel.schedule(1, 11, START + 5_000);
+        wheel.schedule(2, 20, START + 2_000);
+        
+        // Act
+        boolean cancelled = wheel.cancel(2);
+        
+        // Assert
+        assertTrue(cancelled);
+        assertFalse(wheel.contains(2));
+        assertEquals(START + 5_000, wheel.deadlineOf(1).getAsLong());
+        assertTrue(wheel.advance(START + 4_900).isEmpty());
+        assertEquals(List.of(11), wheel.advance(START + 5_000));
+        assertFalse(wheel.cancel(1));
+    }
+    
+    @Test
+    void schedule_ShouldFirePastDeadlinesOnNextAdvance() {
+        // Arrange
+        wheel.schedule(1, 1, START - 30_000);
+        
+        // Act & Assert
+        assertEquals(List.of(1), wheel.advance(START));
+    }
+}
@@ -0,0 +1,117 @@
+package com.moodtracking.utils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class InvertedIndexTest {
+
+    @Test
+    void search_ShouldRankDocumentsMatchingMoreOfTheQueryFirst() {
+        // Arrange
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, null, "Went for a long walk in the park");
+        index.put(2, null, "Slept badly, anxious about work");
+        index.put(3, null, "Anxious before the walk, calmer after the park");
+        index.put(4, null, "Nothing to report");
+
+        // Act
+        InvertedIndex.Hits hits = index.search("anxious walk park", null, 0, 10);
+
+        // Assert
+        assertEquals(3, hits.getTotal());
+        assertArrayEquals(new long[] {3, 1, 2}, hits.getKeys());
+        assertTrue(hits.getScores()[0] > hits.getScores()[1]);
+    }
+
+    @Test
+    void search_ShouldWeighTitleTermsAboveBodyTerms() {
+        // Arrange - same words, once in the title and once in the body
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Groceries", "Therapy appointment on Friday");
+        index.put(2, "Therapy", "Groceries appointment on Friday");
+
+        // Act
+        InvertedIndex.Hits hits = index.search("therapy", null, 0, 10);
+
+        // Assert
+        assertArrayEquals(new long[] {2, 1}, hits.getKeys());
+    }
+
+    @Test
+    void put_ShouldReplaceAndRemoveShouldForgetDocuments() {
+        // Arrange
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Journal", "Feeling grateful today");
+        index.put(2, "Journal", "Feeling tired");
+
+        // Act
+        index.put(1, "Journal", "Feeling restless");
+        boolean removed = index.remove(2);
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(index.remove(2));
+        assertEquals(1, index.size());
+        assertEquals(0, index.search("grateful", null, 0, 10).getTotal());
+        assertEquals(0, index.search("tired", null, 0, 10).getTotal());
+        assertArrayEquals(new long[] {1}, index.search("restless journal", null, 0, 10).getKeys());
+    }
+
+    @Test
+    void search_ShouldPageThroughFilteredMatchesNewestFirstOnEqualScores() {
+        // Arrange - even keys only; every document scores the same
+        InvertedIndex index = new InvertedIndex();
+        for (long key = 1; key <= 10; key++) {
+            index.put(key, null, "daily check-in");
+        }
+
+        // Act
+        InvertedIndex.Hits first = index.search("check", key -> key % 2 == 0, 0, 2);
+        InvertedIndex.Hits second = index.search("check", key -> key % 2 == 0, 2, 2);
+        InvertedIndex.Hits beyond = index.search("check", key -> key % 2 == 0, 6, 2);
+
+        // Assert
+        assertEquals(5, first.getTotal());
+        assertArrayEquals(new long[] {10, 8}, first.getKeys());
+        assertArrayEquals(new long[] {6, 4}, second.getKeys());
+        assertEquals(0, beyond.getKeys().length);
+        assertEquals(5, beyond.getTotal());
+    }
+
+    @Test
+    void removeIf_ShouldCompactOnceMostDocumentsAreGone() {
+        // Arrange
+        InvertedIndex index = new InvertedIndex();
+        for (long key = 0; key < 5000; key++) {
+            index.put(key, null, key % 2 == 0 ? "even entry " + key : "odd entry " + key);
+        }
+
+        // Act - well past the compaction threshold
+        int removed = index.removeIf(key -> key < 4000);
+
+        // Assert - survivors keep their keys and postings after renumbering
+        assertEquals(4000, removed);
+        assertEquals(1000, index.size());
+        assertFalse(index.contains(10));
+        assertTrue(index.contains(4010));
+        assertEquals(500, index.search("even", null, 0, 10).getTotal());
+        assertArrayEquals(new long[] {4321}, index.search("4321", null, 0, 10).getKeys());
+        index.put(42, null, "even entry again");
+        assertEquals(501, index.search("even", null, 0, 10).getTotal());
+    }
+
+    @Test
+    void tokenize_ShouldFoldCaseAndAccentsAndDropStopWords() {
+        // Act
+        List<String> tokens = InvertedIndex.tokenize("The CAFÉ was crowded, naïve me; 2 coffees!");
+
+        // Assert
+        assertEquals(List.of("cafe", "crowded", "naive", "me", "2", "coffees"), tokens);
+        assertTrue(InvertedIndex.tokenize("x".repeat(InvertedIndex.MAX_TOKEN_LENGTH + 1)).isEmpty());
+    }
+}
@@ -0,0 +1,156 @@
+package com.moodtracking.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+
+class JwtUtilTest {
+    
+    private static final String JWT_SECRET = "mySecretKey12345678901234567890123456789012345678901234567890";
+    private static final int JWT_EXPIRATION_MS = 60_000;
+    
+    private JwtUtil jwtUtil;
+    private Instant start;
+    
+    @BeforeEach
+    void setUp() {
+        start = Instant.parse("2024-03-15T10:00:00Z");
+        
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", JWT_EXPIRATION_MS);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCacheSize", 2);
+        setTime(start);
+        jwtUtil.init();
+    }
+    
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(jwtUtil, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+    
+    private String token(String username) {
+        User principal = new User(username, "password", Collections.emptyList());
+        return jwtUtil.generateJwtToken(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> cache() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(jwtUtil, "verifiedTokens");
+    }
+    
+    @Test
+    void testGetValidatedClaims_ParsesOnceThenServesFromCache() {
+        // Arrange
+        String token = token("testuser");
+        
+        // Act
+        Optional<Claims> first = jwtUtil.getValidatedClaims(token);
+        Optional<Claims> second = jwtUtil.getValidatedClaims(token);
+        
+        // Assert
+        assertTrue(first.isPresent());
+        assertEquals("testuser", first.get().getSubject());
+        assertSame(first.get(), second.get());
+        assertEquals("testuser", jwtUtil.getUserNameFromJwtToken(token));
+        assertEquals(1, cache().size());
+    }
+    
+    @Test
+    void testGetValidatedClaims_CachedTokenExpires() {
+        // Arrange
+        String token = token("testuser");
+        assertTrue(jwtUtil.validateJwtToken(token));
+        
+        // Act
+        setTime(start.plus(Duration.ofMillis(JWT_EXPIRATION_MS + 1000L)));
+        
+        // Assert
+        assertFalse(jwtUtil.validateJwtToken(token));
+        assertTrue(cache().isEmpty());
+    }
+    
+    @Test
+    void testGetValidatedClaims_RejectsTamperedToken() {
+        // Arrange
+        String token = token("testuser");
+        assertTrue(jwtUtil.validateJwtToken(token));
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + token("admin").split("\\.")[1] + "." + parts[2];
+        
+        // Act & Assert
+        assertFalse(jwtUtil.getValidatedClaims(forged).isPresent());
+        assertFalse(jwtUtil.validateJwtToken("not-a-jwt"));
+        assertFalse(jwtUtil.validateJwtToken(""));
+    }
+    
+    @Test
+    void testGetValidatedClaims_CacheIsBounded() {
+        // Act
+        jwtUtil.validateJwtToken(token("first"));
+        jwtUtil.validateJwtToken(token("second"));
+        jwtUtil.validateJwtToken(token("third"));
+        
+        // Assert
+        assertEquals(2, cache().size());
+    }
+    
+    @Test
+    void testGetValidatedClaims_ConcurrentRequestsStayWithinTheBound() throws Exception {
+        // Arrange - more distinct tokens than the cache holds, each presented repeatedly
+        ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCacheSize", 20);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tokens.add(token("user" + i));
+        }
+        
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread;
+                results.add(executor.submit(() -> {
+                    boolean allValid = true;
+                    for (int i = 0; i < 2000; i++) {
+                        String token = tokens.get((i * 7 + offset) % tokens.size());
+                        Optional<Claims> claims = jwtUtil.getValidatedClaims(token);
+                        allValid &= claims.isPresent()
+                            && claims.get().getSubject().equals("user" + tokens.indexOf(token));
+                    }
+                    return allValid;
+                }));
+            }
+            
+            // Assert
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(cache().size() <= 20, cache().size() + " cached tokens");
+    }
+}
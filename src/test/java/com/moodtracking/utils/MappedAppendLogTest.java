@@ -0,0 +1,102 @@
+package com.moodtracking.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedAppendLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void open_ShouldRecoverRecordsAppendedBeforeClose() throws IOException {
+        // Arrange
+        Path path = directory.resolve("test.log");
+        try (MappedAppendLog log = MappedAppendLog.open(path, 4096)) {
+            assertEquals(1, log.append(bytes("first")));
+            assertEquals(2, log.append(bytes("second")));
+        }
+
+        // Act
+        try (MappedAppendLog log = MappedAppendLog.open(path, 4096)) {
+            // Assert - appends continue after the recovered records
+            List<MappedAppendLog.Record> records = log.records();
+            assertEquals(2, records.size());
+            assertEquals("second", text(records.get(1)));
+            assertEquals(3, log.append(bytes("third")));
+        }
+    }
+
+    @Test
+    void open_ShouldStopAtATornRecord() throws IOException {
+        // Arrange - the second record's payload is damaged, as if the process died writing it
+        Path path = directory.resolve("test.log");
+        int secondPayload;
+        try (MappedAppendLog log = MappedAppendLog.open(path, 4096)) {
+            log.append(bytes("first"));
+            secondPayload = log.size() + MappedAppendLog.RECORD_HEADER_SIZE;
+            log.append(bytes("second"));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("X")), secondPayload);
+        }
+
+        // Act
+        try (MappedAppendLog log = MappedAppendLog.open(path, 4096)) {
+            // Assert - the torn record is overwritten by the next append
+            assertEquals(1, log.records().size());
+            assertEquals(2, log.append(bytes("again")));
+            assertEquals("again", text(log.records().get(1)));
+        }
+    }
+
+    @Test
+    void reset_ShouldNotResurrectRecordsFromBeforeIt() throws IOException {
+        // Arrange - a record of the same size as the old first one lines up with the old second
+        Path path = directory.resolve("test.log");
+        try (MappedAppendLog log = MappedAppendLog.open(path, 4096)) {
+            log.append(bytes("one"));
+            log.append(bytes("two"));
+            log.reset(3);
+            log.append(bytes("new"));
+        }
+
+        // Act
+        try (MappedAppendLog log = MappedAppendLog.open(path, 4096)) {
+            // Assert
+            List<MappedAppendLog.Record> records = log.records();
+            assertEquals(1, records.size());
+            assertEquals(3, records.get(0).getSequence());
+            assertEquals("new", text(records.get(0)));
+        }
+    }
+
+    @Test
+    void append_ShouldRefuseRecordsPastCapacity() throws IOException {
+        try (MappedAppendLog log = MappedAppendLog.open(directory.resolve("test.log"), 64)) {
+            assertEquals(1, log.append(new byte[20]));
+            assertEquals(-1, log.append(new byte[20]));
+            log.reset(2);
+            assertTrue(log.isEmpty());
+            assertEquals(2, log.append(new byte[20]));
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(MappedAppendLog.Record record) {
+        return new String(record.getPayload(), StandardCharsets.UTF_8);
+    }
+}
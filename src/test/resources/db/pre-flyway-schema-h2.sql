@@ -0,0 +1,113 @@
+-- The schema ddl-auto=update generated for the entity model before Flyway was introduced
+-- (dumped from H2 with SCRIPT NODATA). MigrationUpgradeTest baselines a database in this
+-- state, the way existing installs are upgraded.
+
+CREATE TABLE "CONVERSATIONS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) DEFAULT ON NULL NOT NULL,
+    "CREATED_AT" TIMESTAMP(6) NOT NULL,
+    "MESSAGE" CHARACTER VARYING(4000) NOT NULL,
+    "SENDER" CHARACTER VARYING(255) NOT NULL,
+    "SESSION_ID" CHARACTER VARYING(255),
+    "USER_ID" BIGINT NOT NULL
+);
+
+ALTER TABLE "CONVERSATIONS" ADD CONSTRAINT "CONSTRAINT_1" PRIMARY KEY("ID");
+
+CREATE TABLE "MOOD_ENTRIES"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) DEFAULT ON NULL NOT NULL,
+    "CREATED_AT" TIMESTAMP(6),
+    "MOOD_RATING" INTEGER NOT NULL,
+    "NOTES" CHARACTER VARYING(1000),
+    "USER_ID" BIGINT NOT NULL
+);
+
+ALTER TABLE "MOOD_ENTRIES" ADD CONSTRAINT "CONSTRAINT_60" PRIMARY KEY("ID");
+
+CREATE TABLE "MOODS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) DEFAULT ON NULL NOT NULL,
+    "MOOD_TYPE" CHARACTER VARYING(255) NOT NULL,
+    "NOTES" CHARACTER VARYING(500),
+    "TIMESTAMP" TIMESTAMP(6),
+    "USER_ID" BIGINT NOT NULL
+);
+
+ALTER TABLE "MOODS" ADD CONSTRAINT "CONSTRAINT_46" PRIMARY KEY("ID");
+
+CREATE TABLE "NOTES"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) DEFAULT ON NULL NOT NULL,
+    "CATEGORY" CHARACTER VARYING(255) NOT NULL,
+    "CONTENT" CHARACTER VARYING,
+    "CREATED_AT" TIMESTAMP(6) NOT NULL,
+    "TITLE" CHARACTER VARYING(255) NOT NULL,
+    "UPDATED_AT" TIMESTAMP(6),
+    "USER_ID" BIGINT NOT NULL
+);
+
+ALTER TABLE "NOTES" ADD CONSTRAINT "CONSTRAINT_47" PRIMARY KEY("ID");
+
+CREATE TABLE "NOTIFICATION_REMINDERS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) DEFAULT ON NULL NOT NULL,
+    "CREATED_AT" TIMESTAMP(6) NOT NULL,
+    "FREQUENCY" CHARACTER VARYING(255) NOT NULL,
+    "IS_ACTIVE" BOOLEAN NOT NULL,
+    "LAST_SENT_AT" TIMESTAMP(6),
+    "MESSAGE" CHARACTER VARYING(255),
+    "REMINDER_TIME" TIME(6) NOT NULL,
+    "TIMEZONE" CHARACTER VARYING(255),
+    "UPDATED_AT" TIMESTAMP(6),
+    "USER_ID" BIGINT NOT NULL
+);
+
+ALTER TABLE "NOTIFICATION_REMINDERS" ADD CONSTRAINT "CONSTRAINT_8D" PRIMARY KEY("ID");
+
+CREATE TABLE "TASKS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) DEFAULT ON NULL NOT NULL,
+    "CATEGORY" CHARACTER VARYING(255) NOT NULL,
+    "COMPLETED" BOOLEAN NOT NULL,
+    "CREATED_AT" TIMESTAMP(6) NOT NULL,
+    "DESCRIPTION" CHARACTER VARYING,
+    "DUE_DATE" TIMESTAMP(6),
+    "PRIORITY" CHARACTER VARYING(255) NOT NULL,
+    "TITLE" CHARACTER VARYING(255) NOT NULL,
+    "UPDATED_AT" TIMESTAMP(6),
+    "USER_ID" BIGINT NOT NULL
+);
+
+ALTER TABLE "TASKS" ADD CONSTRAINT "CONSTRAINT_4B" PRIMARY KEY("ID");
+
+CREATE TABLE "USERS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) DEFAULT ON NULL NOT NULL,
+    "AGE" INTEGER,
+    "CREATED_AT" TIMESTAMP(6),
+    "EMAIL" CHARACTER VARYING(100),
+    "NAME" CHARACTER VARYING(100),
+    "PASSWORD" CHARACTER VARYING(120),
+    "PREFERENCES" CHARACTER VARYING(1000),
+    "UPDATED_AT" TIMESTAMP(6),
+    "USERNAME" CHARACTER VARYING(50)
+);
+
+ALTER TABLE "USERS" ADD CONSTRAINT "CONSTRAINT_4D" PRIMARY KEY("ID");
+
+ALTER TABLE "MOODS" ADD CONSTRAINT "CONSTRAINT_4" CHECK("MOOD_TYPE" IN('HAPPY', 'SAD', 'STRESSED', 'RELAXED', 'ANXIOUS', 'EXCITED', 'ANGRY', 'CONTENT', 'TIRED', 'ENERGETIC')) NOCHECK;
+
+ALTER TABLE "MOOD_ENTRIES" ADD CONSTRAINT "CONSTRAINT_6" CHECK(("MOOD_RATING" >= 1)
+    AND ("MOOD_RATING" <= 10)) NOCHECK;
+
+ALTER TABLE "NOTIFICATION_REMINDERS" ADD CONSTRAINT "CONSTRAINT_8" CHECK("FREQUENCY" IN('DAILY', 'WEEKLY', 'WEEKDAYS', 'WEEKENDS', 'CUSTOM')) NOCHECK;
+
+ALTER TABLE "USERS" ADD CONSTRAINT "UK_R43AF9AP4EDM43MMTQ01ODDJ6" UNIQUE("USERNAME");
+
+ALTER TABLE "USERS" ADD CONSTRAINT "UK_6DOTKOTT2KJSP8VW4D0M25FB7" UNIQUE("EMAIL");
+
+ALTER TABLE "NOTIFICATION_REMINDERS" ADD CONSTRAINT "FKEUDL75P8TTEX85FFA9RS7BOAF" FOREIGN KEY("USER_ID") REFERENCES "USERS"("ID") NOCHECK;
+
+ALTER TABLE "CONVERSATIONS" ADD CONSTRAINT "FKPLTQVFCBKQL9SVDQWH0HW4G1D" FOREIGN KEY("USER_ID") REFERENCES "USERS"("ID") NOCHECK;
+
+ALTER TABLE "NOTES" ADD CONSTRAINT "FKECHAOUOA6KUS6K1DPIX1U91C" FOREIGN KEY("USER_ID") REFERENCES "USERS"("ID") NOCHECK;
+
+ALTER TABLE "TASKS" ADD CONSTRAINT "FK6S1OB9K4IHI75XBXE2W0YLSDH" FOREIGN KEY("USER_ID") REFERENCES "USERS"("ID") NOCHECK;
+
+ALTER TABLE "MOOD_ENTRIES" ADD CONSTRAINT "FKII6JNH5QN4PG5I9OSKQTKUFN8" FOREIGN KEY("USER_ID") REFERENCES "USERS"("ID") NOCHECK;
+
+ALTER TABLE "MOODS" ADD CONSTRAINT "FK5EP80WQSX06CVYUMHS8FOPMS0" FOREIGN KEY("USER_ID") REFERENCES "USERS"("ID") NOCHECK;